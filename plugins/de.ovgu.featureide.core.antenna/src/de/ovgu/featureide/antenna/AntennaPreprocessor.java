@@ -36,8 +36,10 @@ import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Stack;
 import java.util.Vector;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.eclipse.core.resources.IContainer;
@@ -63,6 +65,8 @@ import de.ovgu.featureide.core.CorePlugin;
 import de.ovgu.featureide.core.IFeatureProject;
 import de.ovgu.featureide.core.builder.IComposerExtensionClass;
 import de.ovgu.featureide.core.builder.IComposerObject;
+import de.ovgu.featureide.core.builder.preprocessor.AnnotationChecker;
+import de.ovgu.featureide.core.builder.preprocessor.AnnotationContext;
 import de.ovgu.featureide.core.builder.preprocessor.PPComposerExtensionClass;
 import de.ovgu.featureide.core.fstmodel.preprocessor.FSTDirective;
 import de.ovgu.featureide.core.signature.documentation.base.ADocumentationCommentParser;
@@ -89,6 +93,16 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 	/** pattern for replacing preprocessor commands like "//#if" */
 	static final Pattern replaceCommandPattern = Pattern.compile("//\\s*\\#(.+?)\\s");
 
+	/** pattern for finding the directive of a line, like "if" in "//#if" */
+	private static final Pattern directivePattern = Pattern.compile("//\\s*\\#(ifdef|ifndef|condition|elifdef|elifndef|if|else|elif|endif)");
+
+	/** pattern for finding any preprocessor command */
+	private static final Pattern commandPattern = Pattern.compile("//\\s*\\#");
+
+	private static final Pattern whitespaceCommandPattern = Pattern.compile("\\s+#");
+
+	private static final Pattern operatorPattern = Pattern.compile(AntennaModelBuilder.OPERATORS);
+
 	public AntennaPreprocessor() {
 		super(ANTENNA);
 		nodereader.setIgnoreMissingFeatures(true);
@@ -251,116 +265,130 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 	}
 
 	private void startPreprocessingSourceFiles(IFolder sourceFolder, boolean performFullBuild) {
-		try {
-			preprocessSourceFiles(sourceFolder, performFullBuild);
-			setModelMarkers();
-		} catch (final FileNotFoundException e) {
-			AntennaCorePlugin.getDefault().logError(e);
-		} catch (final CoreException e) {
-			AntennaCorePlugin.getDefault().logError(e);
-		} catch (final IOException e) {
-			AntennaCorePlugin.getDefault().logError(e);
+		final List<IFile> files = getFiles(sourceFolder);
+		if (performFullBuild) {
+			// delete all existing builder markers
+			for (final IFile file : files) {
+				featureProject.deleteBuilderMarkers(file, 0);
+			}
 		}
+
+		// do checking and some stuff
+		checkAnnotations(files);
+
+		if (performFullBuild) {
+			try {
+				preprocessSourceFiles(files);
+			} catch (final FileNotFoundException e) {
+				AntennaCorePlugin.getDefault().logError(e);
+			} catch (final CoreException e) {
+				AntennaCorePlugin.getDefault().logError(e);
+			} catch (final IOException e) {
+				AntennaCorePlugin.getDefault().logError(e);
+			}
+		}
+		setModelMarkers();
 	}
 
 	/**
-	 * preprocess all files in folder
+	 * preprocess all given files
 	 *
-	 * @param sourceFolder folder with files to preprocess
+	 * @param files files to preprocess
 	 * @throws CoreException
 	 * @throws FileNotFoundException
 	 * @throws IOException
 	 */
-	private void preprocessSourceFiles(IFolder sourceFolder, boolean performFullBuild) throws CoreException, FileNotFoundException, IOException {
-		for (final IResource res : sourceFolder.members()) {
-			if (res instanceof IFolder) {
-				// for folders do recursively
-				preprocessSourceFiles((IFolder) res, performFullBuild);
-			} else if (res instanceof IFile) {
-				// delete all existing builder markers
-				if (performFullBuild) {
-					featureProject.deleteBuilderMarkers(res, 0);
-				}
-
-				// get all lines from file
-				final Vector<String> lines = loadStringsFromFile((IFile) res);
-
-				// do checking and some stuff
-				processLinesOfFile(lines, (IFile) res);
-
-				if (!performFullBuild) {
-					continue;
-				}
-
-				boolean changed = false;
+	private void preprocessSourceFiles(List<IFile> files) throws CoreException, FileNotFoundException, IOException {
+		for (final IFile res : files) {
+			// get all lines from file
+			final Vector<String> lines = loadStringsFromFile(res);
+
+			boolean changed = false;
+
+			try {
+				// run antenna preprocessor
+				changed = preprocessor.preprocess(lines, res.getCharset());
+			} catch (final PPException e) {
+				final int lineNumber = e.getLineNumber();
+				featureProject.createBuilderMarker(res, e.getMessage().replace("Line #" + lineNumber + " :", "Antenna:"), Math.max(lineNumber, 0) + 1,
+						IMarker.SEVERITY_ERROR);
+				AntennaCorePlugin.getDefault().logError(e);
+			}
 
+			// if preprocessor changed file: save & refresh
+			if (changed) {
+				FileOutputStream ostr = null;
 				try {
-					// run antenna preprocessor
-					changed = preprocessor.preprocess(lines, ((IFile) res).getCharset());
-				} catch (final PPException e) {
-					final int lineNumber = e.getLineNumber();
-					featureProject.createBuilderMarker(res, e.getMessage().replace("Line #" + lineNumber + " :", "Antenna:"), Math.max(lineNumber, 0) + 1,
-							IMarker.SEVERITY_ERROR);
-					AntennaCorePlugin.getDefault().logError(e);
-				}
-
-				// if preprocessor changed file: save & refresh
-				if (changed) {
-					FileOutputStream ostr = null;
-					try {
-						ostr = new FileOutputStream(res.getRawLocation().toOSString());
-						Preprocessor.saveStrings(lines, ostr, ((IFile) res).getCharset());
-					} finally {
-						if (ostr != null) {
-							ostr.close();
-						}
+					ostr = new FileOutputStream(res.getRawLocation().toOSString());
+					Preprocessor.saveStrings(lines, ostr, res.getCharset());
+				} finally {
+					if (ostr != null) {
+						ostr.close();
 					}
-					// use touch to support e.g. linux
-					res.touch(null);
-					res.refreshLocal(IResource.DEPTH_ZERO, null);
 				}
+				// use touch to support e.g. linux
+				res.touch(null);
+				res.refreshLocal(IResource.DEPTH_ZERO, null);
 			}
 		}
 	}
 
+	/**
+	 * Returns the preprocessor directive of the given line.
+	 *
+	 * @param line content of line
+	 * @return the name of the directive or {@code null} if the line does not contain a directive
+	 */
+	private static String getDirective(String line) {
+		if (line.indexOf('#') < 0) {
+			return null;
+		}
+		final Matcher matcher = directivePattern.matcher(line);
+		return matcher.find() ? matcher.group(1) : null;
+	}
+
 	/**
 	 * Do checking for all lines of file.
 	 *
+	 * @param context context of the file
 	 * @param lines all lines of file
-	 * @param res file
 	 */
-	synchronized private void processLinesOfFile(Vector<String> lines, IFile res) {
-		expressionStack = new Stack<Node>();
+	@Override
+	protected void processLinesOfFile(AnnotationContext context, List<String> lines) {
+		final Stack<Node> expressionStack = context.getExpressionStack();
 
 		// count of if, ifelse and else to remove after processing of else from stack
-		ifelseCountStack = new Stack<Integer>();
+		final Stack<Integer> ifelseCountStack = context.getIfelseCountStack();
 
 		// go line for line
 		for (int j = 0; j < lines.size(); ++j) {
 			final String line = lines.get(j);
+			final String directive = getDirective(line);
+			if (directive == null) {
+				continue;
+			}
 
-			// if line is preprocessor directive
-			if (containsPreprocessorDirective(line, "ifdef|ifndef|condition|elifdef|elifndef|if|else|elif")) {
-
+			switch (directive) {
+			case "elifdef":
+			case "elifndef":
+			case "else":
+			case "elif":
 				// if e1, elseif e2, ..., elseif en == if -e1 && -e2 && ... && en
 				// if e1, elseif e2, ..., else == if -e1 && -e2 && ...
-				if (containsPreprocessorDirective(line, "elifdef|elifndef|else|elif")) {
-					if (!expressionStack.isEmpty()) {
-						final Node lastElement = new Not(expressionStack.pop().clone());
-						expressionStack.push(lastElement);
-					}
-				} else if (containsPreprocessorDirective(line, "ifdef|ifndef|condition|if")) {
-					ifelseCountStack.push(0);
+				if (!expressionStack.isEmpty()) {
+					final Node lastElement = new Not(expressionStack.pop().clone());
+					expressionStack.push(lastElement);
 				}
-
-				if (!ifelseCountStack.empty() && !containsPreprocessorDirective(line, "else")) {
-					ifelseCountStack.push(ifelseCountStack.pop() + 1);
-				}
-
-				setMarkersContradictionalFeatures(line, res, j + 1);
-
-				setMarkersNotConcreteFeatures(line, res, j + 1);
-			} else if (containsPreprocessorDirective(line, "endif")) {
+				processDirective(context, line, directive, j + 1);
+				break;
+			case "ifdef":
+			case "ifndef":
+			case "condition":
+			case "if":
+				ifelseCountStack.push(0);
+				processDirective(context, line, directive, j + 1);
+				break;
+			case "endif":
 				while (!ifelseCountStack.empty()) {
 					if (ifelseCountStack.peek() == 0) {
 						break;
@@ -376,31 +404,47 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 				if (!ifelseCountStack.empty()) {
 					ifelseCountStack.pop();
 				}
+				break;
+			default:
+				break;
 			}
 		}
 	}
 
+	private void processDirective(AnnotationContext context, String line, String directive, int lineNumber) {
+		final Stack<Integer> ifelseCountStack = context.getIfelseCountStack();
+		if (!ifelseCountStack.empty() && !"else".equals(directive)) {
+			ifelseCountStack.push(ifelseCountStack.pop() + 1);
+		}
+
+		setMarkersContradictionalFeatures(context, line, directive, lineNumber);
+
+		setMarkersNotConcreteFeatures(context, line, lineNumber);
+	}
+
 	/**
 	 * Checks given line if it contains expressions which are always <code>true</code> or <code>false</code>.<br /> <br />
 	 *
 	 * Check in three steps: <ol> <li>just the given line</li> <li>the given line and the feature model</li> <li>the given line, the surrounding lines and the
 	 * feature model</li> </ol>
 	 *
+	 * @param context context of the file containing given line
 	 * @param line content of line
-	 * @param res file containing given line
+	 * @param directive the directive of the line
 	 * @param lineNumber line number of given line
 	 */
-	private void setMarkersContradictionalFeatures(String line, IFile res, int lineNumber) {
-		if (containsPreprocessorDirective(line, "else")) {
+	private void setMarkersContradictionalFeatures(AnnotationContext context, String line, String directive, int lineNumber) {
+		final Stack<Node> expressionStack = context.getExpressionStack();
+		if ("else".equals(directive)) {
 			if (!expressionStack.isEmpty()) {
-				checkContradictionOrTautology(lineNumber, res);
+				checkContradictionOrTautology(context, lineNumber);
 			}
 
 			return;
 		}
 
-		final boolean conditionIsSet = containsPreprocessorDirective(line, "condition");
-		final boolean negative = containsPreprocessorDirective(line, "ifndef|elifndef");
+		final boolean conditionIsSet = "condition".equals(directive);
+		final boolean negative = "ifndef".equals(directive) || "elifndef".equals(directive);
 
 		// remove "//#if ", "//ifdef", ...
 		line = replaceCommandPattern.matcher(line).replaceAll("");
@@ -415,7 +459,7 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 		line = line.replace("-", " not ");
 
 		// get all features and generate Node expression for given line
-		Node ppExpression = nodereader.stringToNode(line, featureList);
+		Node ppExpression = context.getNodeReader().stringToNode(line, featureList);
 
 		if (ppExpression != null) {
 			if (negative) {
@@ -423,7 +467,7 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 			}
 			expressionStack.push(ppExpression);
 
-			checkContradictionOrTautology(lineNumber, res);
+			checkContradictionOrTautology(context, lineNumber);
 		} else {
 			// if generating of expression failed, generate expression "true"
 			if (!conditionIsSet) {
@@ -436,32 +480,21 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 	/**
 	 * Checks given line if it contains not existing or abstract features.
 	 *
+	 * @param context context of the file containing given line
 	 * @param line content of line
-	 * @param res file containing given line
 	 * @param lineNumber line number of given line
 	 */
-	private void setMarkersNotConcreteFeatures(String line, IFile res, int lineNumber) {
-		final String[] splitted = line.replaceAll("\\s+#", "#").split(AntennaModelBuilder.OPERATORS, 0);
+	private void setMarkersNotConcreteFeatures(AnnotationContext context, String line, int lineNumber) {
+		final String[] splitted = operatorPattern.split(whitespaceCommandPattern.matcher(line).replaceAll("#"), 0);
 
 		for (int i = 0; i < splitted.length; ++i) {
 			final String linePart = splitted[i];
-			if (!linePart.isEmpty() && !containsPreprocessorDirective(linePart, ".*")) {
-				setMarkersOnNotExistingOrAbstractFeature(linePart, lineNumber, res);
+			if (!linePart.isEmpty() && !commandPattern.matcher(linePart).find()) {
+				setMarkersOnNotExistingOrAbstractFeature(context, linePart, lineNumber);
 			}
 		}
 	}
 
-	/**
-	 * Checks whether the text contains the specified directive or not
-	 *
-	 * @param text text to check
-	 * @param directives directives splitted by |
-	 * @return true - if the specified directive is contained
-	 */
-	protected static boolean containsPreprocessorDirective(String text, String directives) {
-		return Pattern.compile("//\\s*\\#(" + directives + ")").matcher(text).find();
-	}
-
 	@Override
 	public ArrayList<String[]> getTemplates() {
 		return TEMPLATES;
@@ -556,6 +589,7 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 		}
 
 		featureModel = AdvancedNodeCreator.createNodes(configuration.getFeatureModel());
+		annotationChecker = new AnnotationChecker(featureModel);
 
 		// add source files
 		try {
@@ -587,7 +621,7 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 
 				// do checking and some stuff
 				if (featureModel != null) {// TODO check why the FM is null when generating products
-					processLinesOfFile(lines, (IFile) res);
+					checkAnnotations((IFile) res, lines);
 				}
 				boolean changed = false;
 				try {
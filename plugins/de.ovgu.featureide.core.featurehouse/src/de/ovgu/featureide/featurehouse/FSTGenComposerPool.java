@@ -0,0 +1,365 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.featurehouse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import javax.annotation.CheckForNull;
+
+import org.eclipse.core.runtime.FileLocator;
+
+import composer.FSTGenComposer;
+
+/**
+ * Composes products with FeatureHouse in isolated class loaders.<br/> FeatureHouse keeps its state in static fields (e.g., in its parsers), thus, two
+ * instances of {@link FSTGenComposer} cannot run in parallel within the same class loader. Each class loader of this pool loads its own copy of FeatureHouse,
+ * such that parallel compositions do not share any state. A class loader is used by one composition at a time and is reused for the following compositions,
+ * such that the classes of FeatureHouse are only loaded once per thread and the parsed feature structure trees can be reused (see
+ * {@link FSTParseCache}). At most one idle class loader per processor is kept, all other class loaders are closed after their composition.
+ */
+public class FSTGenComposerPool {
+
+	private static final String FEATURE_HOUSE_JAR = "lib/FeatureHouse.jar";
+	private static final String FUJI_JAR = "lib/fuji.jar";
+	private static final String COMPOSER_CLASS = "composer.FSTGenComposer";
+	private static final String PROCESSOR_CLASS = "composer.FSTGenProcessor";
+	private static final String PARSE_CACHE_CLASS = FSTParseCache.class.getName();
+	private static final String PARSE_ERROR_LISTENER_CLASS = "composer.IParseErrorListener";
+	private static final String COMPOSITION_ERROR_LISTENER_CLASS = "composer.ICompositionErrorListener";
+	private static final String ORIGINAL = "original";
+
+	/**
+	 * Receives the errors of a composition. The errors are reported by the thread that calls {@link FSTGenComposerPool#compose(String[], IErrorListener)}.
+	 */
+	public static interface IErrorListener {
+
+		/**
+		 * Called if a file cannot be parsed.
+		 *
+		 * @param file the file that cannot be parsed or {@code null} if it is unknown
+		 * @param line the line of the error or {@code -1} if it is unknown
+		 * @param message the message of the error
+		 */
+		void parseErrorOccured(@CheckForNull File file, int line, String message);
+
+		/**
+		 * Called if two elements cannot be composed.
+		 *
+		 * @param featureName the name of the feature folder of the affected file or {@code null} if it is unknown
+		 * @param fileName the name of the affected file or {@code null} if it is unknown
+		 * @param line the line of the error or {@code -1} if it is unknown
+		 * @param message the message of the error
+		 */
+		void compositionErrorOccured(@CheckForNull String featureName, @CheckForNull String fileName, int line, String message);
+	}
+
+	/**
+	 * Creates a pool for the FeatureHouse library of this plug-in.
+	 *
+	 * @return the pool or {@code null} if the library cannot be located
+	 */
+	@CheckForNull
+	public static FSTGenComposerPool create() {
+		final FeatureHouseCorePlugin plugin = FeatureHouseCorePlugin.getDefault();
+		if (plugin == null) {
+			return null;
+		}
+		final URL entry = plugin.getBundle().getEntry(FEATURE_HOUSE_JAR);
+		if (entry == null) {
+			return null;
+		}
+		try {
+			final List<URL> classPath = new ArrayList<>(2);
+			classPath.add(FileLocator.toFileURL(entry));
+			final URL fujiEntry = plugin.getBundle().getEntry(FUJI_JAR);
+			if (fujiEntry != null) {
+				classPath.add(FileLocator.toFileURL(fujiEntry));
+			}
+			return new FSTGenComposerPool(classPath.toArray(new URL[classPath.size()]), Runtime.getRuntime().availableProcessors());
+		} catch (final IOException e) {
+			plugin.logError(e);
+			return null;
+		}
+	}
+
+	private final URL[] classPath;
+
+	private final BlockingQueue<ComposerLoader> idleLoaders;
+
+	/**
+	 * Defines the classes of {@link FSTParseCache} on top of a FeatureHouse class loader, such that the cache works on the classes of this class loader.
+	 */
+	private static class ParseCacheLoader extends ClassLoader {
+
+		ParseCacheLoader(ClassLoader featureHouseLoader) {
+			super(featureHouseLoader);
+		}
+
+		@Override
+		protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+			if (!name.startsWith(PARSE_CACHE_CLASS)) {
+				return super.loadClass(name, resolve);
+			}
+			synchronized (getClassLoadingLock(name)) {
+				Class<?> loadedClass = findLoadedClass(name);
+				if (loadedClass == null) {
+					final byte[] bytes;
+					try (InputStream in = FSTGenComposerPool.class.getClassLoader().getResourceAsStream(name.replace('.', '/') + ".class")) {
+						if (in == null) {
+							throw new ClassNotFoundException(name);
+						}
+						final ByteArrayOutputStream out = new ByteArrayOutputStream();
+						final byte[] buffer = new byte[4096];
+						for (int length = in.read(buffer); length >= 0; length = in.read(buffer)) {
+							out.write(buffer, 0, length);
+						}
+						bytes = out.toByteArray();
+					} catch (final IOException e) {
+						throw new ClassNotFoundException(name, e);
+					}
+					loadedClass = defineClass(name, bytes, 0, bytes.length);
+				}
+				if (resolve) {
+					resolveClass(loadedClass);
+				}
+				return loadedClass;
+			}
+		}
+	}
+
+	/**
+	 * A class loader for FeatureHouse with the reflective handles to run a composition.<br/> Each class loader keeps its own {@link FSTParseCache}, such
+	 * that the files of the feature folders are only parsed once per class loader.
+	 */
+	private static class ComposerLoader {
+
+		private final URLClassLoader featureHouseLoader;
+		private final Constructor<?> constructor;
+		private final Method run;
+		private final Method getErrorFiles;
+		private final Method addParseErrorListener;
+		private final Method addCompositionErrorListener;
+		private final Class<?> parseErrorListenerClass;
+		private final Class<?> compositionErrorListenerClass;
+		private final Object parseCache;
+		private final Method installParseCache;
+
+		ComposerLoader(URL[] classPath) throws ReflectiveOperationException {
+			// no parent class loader, FeatureHouse only depends on the JRE
+			featureHouseLoader = new URLClassLoader(classPath, null);
+			try {
+				final Class<?> composerClass = featureHouseLoader.loadClass(COMPOSER_CLASS);
+				constructor = composerClass.getConstructor(boolean.class);
+				run = composerClass.getMethod("run", String[].class);
+				getErrorFiles = composerClass.getMethod("getErrorFiles");
+				parseErrorListenerClass = featureHouseLoader.loadClass(PARSE_ERROR_LISTENER_CLASS);
+				compositionErrorListenerClass = featureHouseLoader.loadClass(COMPOSITION_ERROR_LISTENER_CLASS);
+				addParseErrorListener = composerClass.getMethod("addParseErrorListener", parseErrorListenerClass);
+				addCompositionErrorListener = composerClass.getMethod("addCompositionErrorListener", compositionErrorListenerClass);
+
+				final Class<?> parseCacheClass = new ParseCacheLoader(featureHouseLoader).loadClass(PARSE_CACHE_CLASS);
+				parseCache = parseCacheClass.getConstructor().newInstance();
+				installParseCache = parseCacheClass.getMethod("install", featureHouseLoader.loadClass(PROCESSOR_CLASS));
+			} catch (ReflectiveOperationException | RuntimeException e) {
+				close();
+				throw e;
+			}
+		}
+
+		void compose(String[] args, IErrorListener errorListener) throws ReflectiveOperationException {
+			final Object composer = constructor.newInstance(false);
+			installParseCache.invoke(parseCache, composer);
+			if (errorListener != null) {
+				final ErrorForwarder forwarder = new ErrorForwarder(composer, errorListener);
+				addParseErrorListener.invoke(composer, createListener(parseErrorListenerClass, forwarder));
+				addCompositionErrorListener.invoke(composer, createListener(compositionErrorListenerClass, forwarder));
+			}
+			run.invoke(composer, (Object) args);
+		}
+
+		private Object createListener(Class<?> listenerClass, InvocationHandler handler) {
+			return Proxy.newProxyInstance(featureHouseLoader, new Class<?>[] { listenerClass }, handler);
+		}
+
+		/**
+		 * Closes the class loader, such that the library files are released. The loader must not be used afterwards.
+		 */
+		void close() {
+			try {
+				featureHouseLoader.close();
+			} catch (final IOException e) {
+				FeatureHouseCorePlugin.getDefault().logError(e);
+			}
+		}
+
+		/**
+		 * Translates the error callbacks of FeatureHouse, whose types are only known to the isolated class loader, into calls of an
+		 * {@link IErrorListener}.
+		 */
+		private class ErrorForwarder implements InvocationHandler {
+
+			private final Object composer;
+			private final IErrorListener errorListener;
+
+			ErrorForwarder(Object composer, IErrorListener errorListener) {
+				this.composer = composer;
+				this.errorListener = errorListener;
+			}
+
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+				if (method.getDeclaringClass() == Object.class) {
+					switch (method.getName()) {
+					case "equals":
+						return proxy == args[0];
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					default:
+						return "ErrorForwarder";
+					}
+				}
+				final Object exception = args[0];
+				if (method.getDeclaringClass() == parseErrorListenerClass) {
+					forwardParseError((Exception) exception);
+				} else {
+					forwardCompositionError((Exception) exception);
+				}
+				return null;
+			}
+
+			private void forwardParseError(Exception exception) throws ReflectiveOperationException {
+				final List<?> errorFiles = (List<?>) getErrorFiles.invoke(composer);
+				final File file = ((errorFiles == null) || errorFiles.isEmpty()) ? null : (File) errorFiles.get(errorFiles.size() - 1);
+				int line = -1;
+				final Object currentToken = exception.getClass().getField("currentToken").get(exception);
+				if (currentToken != null) {
+					final Object nextToken = currentToken.getClass().getField("next").get(currentToken);
+					if (nextToken != null) {
+						line = nextToken.getClass().getField("endLine").getInt(nextToken);
+					}
+				}
+				errorListener.parseErrorOccured(file, line, exception.getMessage());
+			}
+
+			private void forwardCompositionError(Exception exception) throws ReflectiveOperationException {
+				final String message = exception.getMessage();
+				final Object terminalA = exception.getClass().getMethod("getTerminalA").invoke(exception);
+				final Object terminalB = exception.getClass().getMethod("getTerminalB").invoke(exception);
+				Object terminal = terminalB;
+				if ((message != null) && message.contains(ORIGINAL) && (terminalB != null)) {
+					final Object body = terminalB.getClass().getMethod("getBody").invoke(terminalB);
+					if ((body == null) || !body.toString().contains(ORIGINAL)) {
+						terminal = terminalA;
+					}
+				}
+				if (terminal == null) {
+					errorListener.compositionErrorOccured(null, null, -1, message);
+					return;
+				}
+				final int line = terminal.getClass().getField("beginLine").getInt(terminal);
+				Object fileNode = getParent(terminal);
+				while ((fileNode != null) && !getName(fileNode).endsWith(".java")) {
+					fileNode = getParent(fileNode);
+				}
+				if (fileNode == null) {
+					errorListener.compositionErrorOccured(null, null, line, message);
+				} else {
+					final Object featureNode = getParent(fileNode);
+					errorListener.compositionErrorOccured(featureNode == null ? null : getName(featureNode), getName(fileNode), line, message);
+				}
+			}
+
+			private Object getParent(Object node) throws ReflectiveOperationException {
+				return node.getClass().getMethod("getParent").invoke(node);
+			}
+
+			private String getName(Object node) throws ReflectiveOperationException {
+				return String.valueOf(node.getClass().getMethod("getName").invoke(node));
+			}
+		}
+	}
+
+	/**
+	 * @param classPath the locations of the FeatureHouse library and its dependencies
+	 * @param maxIdleLoaders the maximal number of class loaders that are kept for following compositions
+	 */
+	public FSTGenComposerPool(URL[] classPath, int maxIdleLoaders) {
+		this.classPath = classPath.clone();
+		idleLoaders = new ArrayBlockingQueue<>(Math.max(1, maxIdleLoaders));
+	}
+
+	/**
+	 * Composes a product like {@link FSTGenComposer#run(String[])}. Can be called by multiple threads at the same time. The class loader of a composition
+	 * that does not end normally is closed, also if the composition throws an unchecked exception or error, which is passed on.
+	 *
+	 * @param args the command line arguments of FeatureHouse
+	 * @param errorListener receives the parse and composition errors of FeatureHouse, may be {@code null}
+	 * @return {@code true} if the composition was successful, {@code false} if FeatureHouse threw an exception, which is logged
+	 */
+	public boolean compose(String[] args, @CheckForNull IErrorListener errorListener) {
+		ComposerLoader loader = idleLoaders.poll();
+		boolean reusable = false;
+		try {
+			if (loader == null) {
+				loader = new ComposerLoader(classPath);
+			}
+			loader.compose(args, errorListener);
+			reusable = true;
+		} catch (final InvocationTargetException e) {
+			FeatureHouseCorePlugin.getDefault().logError(e.getCause());
+		} catch (final ReflectiveOperationException e) {
+			FeatureHouseCorePlugin.getDefault().logError(e);
+		} finally {
+			// a failed composition may leave inconsistent static state behind, thus, its class loader is not reused
+			if ((loader != null) && !(reusable && idleLoaders.offer(loader))) {
+				loader.close();
+			}
+		}
+		return reusable;
+	}
+
+	/**
+	 * Closes all idle class loaders. Class loaders that are in use are closed after their composition, if the pool is full.
+	 */
+	public void dispose() {
+		final List<ComposerLoader> loaders = new LinkedList<>();
+		idleLoaders.drainTo(loaders);
+		for (final ComposerLoader loader : loaders) {
+			loader.close();
+		}
+	}
+
+}
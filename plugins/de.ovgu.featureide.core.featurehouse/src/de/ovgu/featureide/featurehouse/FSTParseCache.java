@@ -0,0 +1,347 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.featurehouse;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.StringTokenizer;
+
+import builder.ArtifactBuilder;
+import builder.ArtifactBuilderInterface;
+import cide.gparser.ParseException;
+import composer.FSTGenProcessor;
+import de.ovgu.cide.fstgen.ast.AbstractFSTParser;
+import de.ovgu.cide.fstgen.ast.CommandLineParameterHelper;
+import de.ovgu.cide.fstgen.ast.FSTNode;
+import de.ovgu.cide.fstgen.ast.FSTNonTerminal;
+import de.ovgu.cide.fstgen.ast.FSTTerminal;
+
+/**
+ * Caches the feature structure trees that FeatureHouse parses from the files of the feature folders.<br/> Each file is parsed only once as long as its
+ * content does not change. Subsequent compositions get a copy of the cached tree instead, which can be superimposed without affecting the cache. The entries
+ * are keyed by the path and the content digest of a file, thus, modified files are parsed again and entries of deleted files are dropped with the next
+ * composition.<br/> The trees belong to the class loader of FeatureHouse, thus, this class must only depend on FeatureHouse and the JRE (see
+ * {@link FSTGenComposerPool}).
+ */
+public class FSTParseCache {
+
+	/**
+	 * The parse result of one file.
+	 */
+	private static class Entry {
+
+		private final byte[] digest;
+		private final boolean jml;
+		/**
+		 * The nodes that were added to the parent folder of the file.
+		 */
+		private final List<FSTNode> nodes;
+		/**
+		 * The nodes that were added to {@link AbstractFSTParser#fstnodes}, either contained in {@link #nodes} or markers without children.
+		 */
+		private final List<FSTNode> fstnodes;
+
+		Entry(byte[] digest, boolean jml, List<FSTNode> nodes, List<FSTNode> fstnodes) {
+			this.digest = digest;
+			this.jml = jml;
+			this.nodes = nodes;
+			this.fstnodes = fstnodes;
+		}
+
+		/**
+		 * Creates an entry from the nodes of a parsed file.
+		 *
+		 * @return the entry or {@code null} if the nodes cannot be copied
+		 */
+		static Entry create(byte[] digest, boolean jml, List<FSTNode> parsedNodes, List<FSTNode> parsedFstnodes) {
+			final Map<FSTNode, FSTNode> copies = new IdentityHashMap<>();
+			final List<FSTNode> nodes = copy(parsedNodes, copies);
+			if (nodes == null) {
+				return null;
+			}
+			final List<FSTNode> fstnodes = copyReferences(parsedFstnodes, copies);
+			if (fstnodes == null) {
+				return null;
+			}
+			return new Entry(digest, jml, nodes, fstnodes);
+		}
+
+		boolean matches(byte[] digest, boolean jml) {
+			return (this.jml == jml) && Arrays.equals(this.digest, digest);
+		}
+
+		/**
+		 * Adds a copy of the cached nodes to the given parent and to {@link AbstractFSTParser#fstnodes}, as if the file was parsed.
+		 */
+		void restore(FSTNonTerminal parent) {
+			final Map<FSTNode, FSTNode> copies = new IdentityHashMap<>();
+			for (final FSTNode node : copy(nodes, copies)) {
+				parent.addChild(node);
+			}
+			AbstractFSTParser.fstnodes.addAll(copyReferences(fstnodes, copies));
+		}
+
+		private static List<FSTNode> copy(List<FSTNode> nodes, Map<FSTNode, FSTNode> copies) {
+			final List<FSTNode> result = new ArrayList<>(nodes.size());
+			for (final FSTNode node : nodes) {
+				final FSTNode copy = copy(node, copies);
+				if (copy == null) {
+					return null;
+				}
+				result.add(copy);
+			}
+			return result;
+		}
+
+		private static List<FSTNode> copyReferences(List<FSTNode> nodes, Map<FSTNode, FSTNode> copies) {
+			final List<FSTNode> result = new ArrayList<>(nodes.size());
+			for (final FSTNode node : nodes) {
+				FSTNode copy = copies.get(node);
+				if (copy == null) {
+					if (!(node instanceof FSTNonTerminal) || !((FSTNonTerminal) node).getChildren().isEmpty()) {
+						return null;
+					}
+					copy = copy(node, copies);
+					if (copy == null) {
+						return null;
+					}
+				}
+				result.add(copy);
+			}
+			return result;
+		}
+
+		/**
+		 * Copies the given tree. In contrast to {@link FSTNode#getDeepClone()}, the line numbers and contract keys of terminals are kept.
+		 *
+		 * @return the copy or {@code null} if the tree contains language specific nodes
+		 */
+		private static FSTNode copy(FSTNode node, Map<FSTNode, FSTNode> copies) {
+			final FSTNode copy;
+			if (node.getClass() == FSTNonTerminal.class) {
+				final FSTNonTerminal nonTerminal = new FSTNonTerminal(node.getType(), node.getName());
+				for (final FSTNode child : ((FSTNonTerminal) node).getChildren()) {
+					final FSTNode childCopy = copy(child, copies);
+					if (childCopy == null) {
+						return null;
+					}
+					nonTerminal.addChild(childCopy);
+				}
+				copy = nonTerminal;
+			} else if (node.getClass() == FSTTerminal.class) {
+				final FSTTerminal terminal = (FSTTerminal) node;
+				final FSTTerminal terminalCopy = (FSTTerminal) terminal.getDeepClone();
+				terminalCopy.beginLine = terminal.beginLine;
+				terminalCopy.endLine = terminal.endLine;
+				terminalCopy.setContractCompKey(terminal.getContractCompKey());
+				copy = terminalCopy;
+			} else {
+				return null;
+			}
+			copy.index = node.index;
+			copies.put(node, copy);
+			return copy;
+		}
+	}
+
+	/**
+	 * Wraps an artifact builder of FeatureHouse to answer parse requests from the cache. The feature and folder nodes of a file are created by
+	 * {@link ArtifactBuilder#processFile(File)}, only the parsing of the file in {@link #processNode(FSTNonTerminal, StringTokenizer, File)} is replaced by the
+	 * cache.
+	 */
+	private class CachingArtifactBuilder extends ArtifactBuilder {
+
+		private final ArtifactBuilder builder;
+
+		CachingArtifactBuilder(ArtifactBuilder builder) {
+			super(new String[0]);
+			this.builder = builder;
+			super.setPreprocessNode(builder.isPreprocessNode());
+		}
+
+		@Override
+		public void processNode(FSTNonTerminal parent, StringTokenizer tokenizer, File file) throws FileNotFoundException, ParseException {
+			final byte[] digest = isPreprocessNode() ? null : getDigest(file);
+			if (digest == null) {
+				builder.processNode(parent, tokenizer, file);
+				return;
+			}
+			final String path = file.getPath();
+			final boolean jml = CommandLineParameterHelper.isJML();
+			final Entry entry = get(path);
+			if ((entry != null) && entry.matches(digest, jml)) {
+				// consume the file name like the parser of the wrapped builder
+				while (tokenizer.hasMoreTokens()) {
+					tokenizer.nextToken();
+				}
+				entry.restore(parent);
+				hit();
+				return;
+			}
+
+			final int childCount = parent.getChildren().size();
+			final int fstnodeCount = AbstractFSTParser.fstnodes.size();
+			builder.processNode(parent, tokenizer, file);
+			final List<FSTNode> children = parent.getChildren();
+			final List<FSTNode> fstnodes = AbstractFSTParser.fstnodes;
+			put(path, Entry.create(digest, jml, new ArrayList<>(children.subList(childCount, children.size())),
+					new ArrayList<>(fstnodes.subList(fstnodeCount, fstnodes.size()))));
+		}
+
+		@Override
+		public boolean acceptFile(File file) {
+			return builder.acceptFile(file);
+		}
+
+		@Override
+		public void setBaseDirectoryName(String baseDirectoryName) {
+			super.setBaseDirectoryName(baseDirectoryName);
+			builder.setBaseDirectoryName(baseDirectoryName);
+		}
+
+		@Override
+		public void preprocessFile(File file) throws FileNotFoundException {
+			builder.preprocessFile(file);
+		}
+
+		@Override
+		public void setPreprocessNode(boolean preprocessNode) {
+			super.setPreprocessNode(preprocessNode);
+			builder.setPreprocessNode(preprocessNode);
+		}
+	}
+
+	/**
+	 * The default value for the maximal number of cached files.
+	 */
+	public static final int DEFAULT_MAX_ENTRIES = 1024;
+
+	/**
+	 * The cached files in the order of their last use, such that the least recently used file is removed first if the cache is full.
+	 */
+	private final Map<String, Entry> entries;
+
+	private int hits = 0;
+
+	/**
+	 * Creates a cache for at most {@link #DEFAULT_MAX_ENTRIES} files.
+	 */
+	public FSTParseCache() {
+		this(DEFAULT_MAX_ENTRIES);
+	}
+
+	/**
+	 * @param maxEntries the maximal number of cached files
+	 */
+	public FSTParseCache(final int maxEntries) {
+		entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, FSTParseCache.Entry> eldest) {
+				return size() > maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * Lets the given composer use this cache. Must be called before the composer loads any file.
+	 *
+	 * @param composer the composer
+	 */
+	public void install(FSTGenProcessor composer) {
+		removeDeletedFiles();
+		for (final ListIterator<ArtifactBuilderInterface> it = composer.getArtifactBuilders().listIterator(); it.hasNext();) {
+			final ArtifactBuilderInterface builder = it.next();
+			// other builders are not wrapped, thus, their files are always parsed
+			if ((builder instanceof ArtifactBuilder) && !(builder instanceof CachingArtifactBuilder)) {
+				it.set(new CachingArtifactBuilder((ArtifactBuilder) builder));
+			}
+		}
+	}
+
+	/**
+	 * @return the number of cached files
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * @return the number of files that were restored from this cache instead of being parsed
+	 */
+	public synchronized int getHits() {
+		return hits;
+	}
+
+	/**
+	 * Removes all entries.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+	}
+
+	private synchronized void removeDeletedFiles() {
+		for (final Iterator<String> it = entries.keySet().iterator(); it.hasNext();) {
+			if (!new File(it.next()).isFile()) {
+				it.remove();
+			}
+		}
+	}
+
+	private synchronized void hit() {
+		hits++;
+	}
+
+	private synchronized Entry get(String path) {
+		return entries.get(path);
+	}
+
+	private synchronized void put(String path, Entry entry) {
+		if (entry == null) {
+			entries.remove(path);
+		} else {
+			entries.put(path, entry);
+		}
+	}
+
+	private static byte[] getDigest(File file) {
+		try {
+			return MessageDigest.getInstance("MD5").digest(Files.readAllBytes(file.toPath()));
+		} catch (NoSuchAlgorithmException | IOException e) {
+			return null;
+		}
+	}
+
+}
@@ -145,6 +145,16 @@ public class FeatureHouseComposer extends ComposerExtensionClass {
 
 	private FSTGenComposer composer;
 
+	/**
+	 * Composes products for {@link #buildConfiguration(IFolder, Configuration, String)} in isolated class loaders. Shared by all projects.
+	 */
+	private static FSTGenComposerPool composerPool;
+
+	/**
+	 * Caches the parsed files of this project for the compositions in the class loader of this plug-in. Cleared if the project is cleaned.
+	 */
+	private final FSTParseCache parseCache = new FSTParseCache();
+
 	public FeatureHouseModelBuilder fhModelBuilder;
 
 	private ErrorPropagation errorPropagation = null;
@@ -233,9 +243,20 @@ public class FeatureHouseComposer extends ComposerExtensionClass {
 	 * @param message The message.
 	 */
 	protected void createBuilderProblemMarker(int line, String message) {
+		createBuilderProblemMarker(getErrorFile(), line, message);
+	}
+
+	/**
+	 * Creates an error marker to the given file.
+	 *
+	 * @param file The file of the marker.
+	 * @param line The line of the marker.
+	 * @param message The message.
+	 */
+	private void createBuilderProblemMarker(IFile file, int line, String message) {
 		message = detruncateString(message);
 		try {
-			final IMarker marker = getErrorFile().createMarker(FeatureHouseCorePlugin.BUILDER_PROBLEM_MARKER);
+			final IMarker marker = file.createMarker(FeatureHouseCorePlugin.BUILDER_PROBLEM_MARKER);
 			marker.setAttribute(IMarker.LINE_NUMBER, line);
 			marker.setAttribute(IMarker.MESSAGE, message);
 			marker.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_ERROR);
@@ -404,6 +425,7 @@ public class FeatureHouseComposer extends ComposerExtensionClass {
 		} else {
 			composer = new FSTGenComposer(false);
 			composer.addCompositionErrorListener(compositionErrorListener);
+			parseCache.install(composer);
 			try {
 				composer.run(getArguments(configPath, basePath, outputPath, getContractParameter()));
 			} catch (final TokenMgrError e) {
@@ -865,6 +887,7 @@ public class FeatureHouseComposer extends ComposerExtensionClass {
 		final FSTGenComposerExtension composerExtension = new FSTGenComposerExtension();
 		composer = composerExtension;
 		composerExtension.addParseErrorListener(listener);
+		parseCache.install(composerExtension);
 		final List<String> featureOrder = featureProject.getFeatureModel().getFeatureOrderList();
 		final String[] features = new String[featureOrder.size()];
 		int i = 0;
@@ -1019,6 +1042,7 @@ public class FeatureHouseComposer extends ComposerExtensionClass {
 		final FSTGenComposerExtension composerExtension = new FSTGenComposerExtension();
 		composer = composerExtension;
 		composerExtension.addParseErrorListener(listener);
+		parseCache.install(composerExtension);
 
 		final List<String> featureOrderList = featureProject.getFeatureModel().getFeatureOrderList();
 		final String[] features = new String[featureOrderList.size()];
@@ -1046,15 +1070,33 @@ public class FeatureHouseComposer extends ComposerExtensionClass {
 	public void buildConfiguration(IFolder folder, Configuration configuration, String congurationName) {
 		super.buildConfiguration(folder, configuration, congurationName);
 		final IFile configurationFile = folder.getFile(congurationName + '.' + getConfigurationExtension());
-		final FSTGenComposer composer = new FSTGenComposer(false);
-		composer.addParseErrorListener(createParseErrorListener());
-		composer.addCompositionErrorListener(createCompositionErrorListener());
 		final Path temporaryConfigrationFile = createTemporaryConfigrationFile(configurationFile);
 		if (temporaryConfigrationFile == null) {
 			return;
 		}
-		composer.run(
-				getArguments(temporaryConfigrationFile.toString(), featureProject.getSourcePath(), folder.getLocation().toOSString(), getContractParameter()));
+		final String[] arguments =
+			getArguments(temporaryConfigrationFile.toString(), featureProject.getSourcePath(), folder.getLocation().toOSString(), getContractParameter());
+
+		final FSTGenComposerPool pool = getComposerPool();
+		if (pool != null) {
+			if (!pool.compose(arguments, createPoolErrorListener())) {
+				LOGGER.logWarning("Configuration " + congurationName + " could not be composed.");
+			}
+			waitForErrorPropagation();
+			// the composed FST belongs to another class loader, thus, the FST model of the project is not replaced by the product
+			return;
+		}
+
+		final FSTGenComposer composer = new FSTGenComposer(false);
+		composer.addParseErrorListener(createParseErrorListener());
+		composer.addCompositionErrorListener(createCompositionErrorListener());
+		parseCache.install(composer);
+		composer.run(arguments);
+		waitForErrorPropagation();
+		fhModelBuilder.buildModel(composer.getFstnodes(), false);
+	}
+
+	private void waitForErrorPropagation() {
 		if ((errorPropagation != null) && (errorPropagation.job != null)) {
 			/*
 			 * Waiting for the propagation job to finish, because the corresponding FSTModel is necessary for propagation at FH This is in general no problem
@@ -1066,15 +1108,75 @@ public class FeatureHouseComposer extends ComposerExtensionClass {
 				LOGGER.logError(e);
 			}
 		}
-		fhModelBuilder.buildModel(composer.getFstnodes(), false);
 	}
 
 	/**
-	 * FeatureHouse causes access violation errors if it is executed parallel.
+	 * Creates markers for the errors of compositions in the {@link FSTGenComposerPool}, like {@link #createParseErrorListener()} and
+	 * {@link #createCompositionErrorListener()} do for compositions in the class loader of this plug-in.
+	 */
+	private FSTGenComposerPool.IErrorListener createPoolErrorListener() {
+		return new FSTGenComposerPool.IErrorListener() {
+
+			@Override
+			public void parseErrorOccured(File file, int line, String message) {
+				final IFile[] files =
+					(file == null) ? new IFile[0] : featureProject.getProject().getWorkspace().getRoot().findFilesForLocationURI(file.toURI());
+				if (files.length == 0) {
+					LOGGER.logError(new Exception("No file provided for: " + message));
+				} else {
+					createBuilderProblemMarker(files[0], line, message);
+				}
+			}
+
+			@Override
+			public void compositionErrorOccured(String featureName, String fileName, int line, String message) {
+				if ((featureName == null) || (fileName == null)) {
+					LOGGER.logError(new Exception("No file provided for: " + message));
+					return;
+				}
+				final IFile file = featureProject.getSourceFolder().getFolder(featureName).getFile(fileName);
+				try {
+					final IMarker marker = file.createMarker(FeatureHouseCorePlugin.BUILDER_PROBLEM_MARKER);
+					marker.setAttribute(IMarker.LINE_NUMBER, line);
+					marker.setAttribute(IMarker.MESSAGE, message);
+					marker.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_WARNING);
+				} catch (final CoreException e) {
+					LOGGER.logError(e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * FeatureHouse causes access violation errors if it is executed parallel. Thus, products can only be generated in parallel if each composition runs in
+	 * its own class loader (see {@link FSTGenComposerPool}).
 	 */
 	@Override
 	public boolean canGeneratInParallelJobs() {
-		return false;
+		return getComposerPool() != null;
+	}
+
+	private static synchronized FSTGenComposerPool getComposerPool() {
+		if (composerPool == null) {
+			composerPool = FSTGenComposerPool.create();
+		}
+		return composerPool;
+	}
+
+	/**
+	 * Releases the class loaders of the {@link FSTGenComposerPool}. Called when this plug-in is stopped.
+	 */
+	static synchronized void disposeComposerPool() {
+		if (composerPool != null) {
+			composerPool.dispose();
+			composerPool = null;
+		}
+	}
+
+	@Override
+	public boolean clean() {
+		parseCache.clear();
+		return super.clean();
 	}
 
 	@Override
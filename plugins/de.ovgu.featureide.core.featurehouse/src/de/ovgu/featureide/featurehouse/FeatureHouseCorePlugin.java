@@ -62,6 +62,7 @@ public class FeatureHouseCorePlugin extends AbstractCorePlugin {
 	 */
 	@Override
 	public void stop(BundleContext context) throws Exception {
+		FeatureHouseComposer.disposeComposerPool();
 		plugin = null;
 		super.stop(context);
 	}
@@ -34,6 +34,7 @@ import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Stack;
 import java.util.Vector;
 import java.util.regex.Matcher;
@@ -58,6 +59,7 @@ import de.ovgu.featureide.core.CorePlugin;
 import de.ovgu.featureide.core.IFeatureProject;
 import de.ovgu.featureide.core.builder.IComposerExtensionClass;
 import de.ovgu.featureide.core.builder.IComposerObject;
+import de.ovgu.featureide.core.builder.preprocessor.AnnotationContext;
 import de.ovgu.featureide.core.builder.preprocessor.PPComposerExtensionClass;
 import de.ovgu.featureide.core.fstmodel.preprocessor.FSTDirective;
 import de.ovgu.featureide.core.signature.documentation.base.ADocumentationCommentParser;
@@ -95,11 +97,6 @@ public class MungePreprocessor extends PPComposerExtensionClass {
 	/** compiled regular expression for instructions and comment symbols */
 	public static final Pattern OP_COM_PATTERN = Pattern.compile("(" + OPERATORS + ")|/\\*|\\*/");
 
-	/**
-	 * is true if actual line is in comment section (between <code>&#47;*</code> and <code>*&#47;</code>)
-	 */
-	private boolean commentSection;
-
 	public MungePreprocessor() {
 		super("Munge");
 	}
@@ -157,7 +154,7 @@ public class MungePreprocessor extends PPComposerExtensionClass {
 
 			@Override
 			protected IStatus run(IProgressMonitor monitor) {
-				annotationChecking(featureProject.getSourceFolder());
+				checkAnnotations(getFiles(featureProject.getSourceFolder()));
 				setModelMarkers();
 				return Status.OK_STATUS;
 			}
@@ -166,22 +163,6 @@ public class MungePreprocessor extends PPComposerExtensionClass {
 		job.schedule();
 	}
 
-	private void annotationChecking(IFolder folder) {
-		try {
-			for (final IResource res : folder.members()) {
-				if (res instanceof IFolder) {
-					annotationChecking((IFolder) res);
-				} else if (res instanceof IFile) {
-					final Vector<String> lines = loadStringsFromFile((IFile) res);
-					// do checking and some stuff
-					processLinesOfFile(lines, (IFile) res);
-				}
-			}
-		} catch (final CoreException e) {
-			MungeCorePlugin.getDefault().logError(e);
-		}
-	}
-
 	/**
 	 * preprocess all files in folder
 	 *
@@ -237,18 +218,17 @@ public class MungePreprocessor extends PPComposerExtensionClass {
 	/**
 	 * Do checking for all lines of file.
 	 *
+	 * @param context context of the file
 	 * @param lines all lines of file
-	 * @param res file
 	 */
-	synchronized private void processLinesOfFile(Vector<String> lines, IFile res) {
-		expressionStack = new Stack<Node>();
-
+	@Override
+	protected void processLinesOfFile(AnnotationContext context, List<String> lines) {
 		// count of if, ifelse and else to remove after processing of else from
 		// stack
-		ifelseCountStack = new Stack<Integer>();
-		ifelseCountStack.push(0);
+		context.getIfelseCountStack().push(0);
 
-		commentSection = false;
+		// is true if actual line is in comment section (between /* and */)
+		boolean commentSection = false;
 
 		// go line for line
 		for (int j = 0; j < lines.size(); ++j) {
@@ -256,9 +236,9 @@ public class MungePreprocessor extends PPComposerExtensionClass {
 
 			if (line.contains("/*") || line.contains("*/") || commentSection) {
 
-				setMarkersContradictionalFeatures(line, res, j + 1);
+				commentSection = setMarkersContradictionalFeatures(context, line, j + 1, commentSection);
 
-				setMarkersNotConcreteFeatures(line, res, j + 1);
+				setMarkersNotConcreteFeatures(context, line, j + 1);
 			}
 		}
 	}
@@ -269,11 +249,15 @@ public class MungePreprocessor extends PPComposerExtensionClass {
 	 * Check in three steps: <ol> <li>just the given line</li> <li>the given line and the feature model</li> <li>the given line, the surrounding lines and the
 	 * feature model</li> </ol>
 	 *
+	 * @param context context of the file containing given line
 	 * @param line content of line
-	 * @param res file containing given line
 	 * @param lineNumber line number of given line
+	 * @param commentSection <code>true</code> if the line starts in a comment section
+	 * @return <code>true</code> if the line ends in a comment section
 	 */
-	private void setMarkersContradictionalFeatures(String line, IFile res, int lineNumber) {
+	private boolean setMarkersContradictionalFeatures(AnnotationContext context, String line, int lineNumber, boolean commentSection) {
+		final Stack<Node> expressionStack = context.getExpressionStack();
+		final Stack<Integer> ifelseCountStack = context.getIfelseCountStack();
 
 		final Matcher m = OP_COM_PATTERN.matcher(line);
 
@@ -296,7 +280,7 @@ public class MungePreprocessor extends PPComposerExtensionClass {
 						}
 
 					} else {
-						Node ppExpression = nodereader.stringToNode(m.group(4), featureList);
+						Node ppExpression = context.getNodeReader().stringToNode(m.group(4), featureList);
 
 						if (singleElement.equals("if_not")) {
 							ppExpression = new Not(ppExpression.clone());
@@ -309,7 +293,7 @@ public class MungePreprocessor extends PPComposerExtensionClass {
 						ifelseCountStack.push(ifelseCountStack.pop() + 1);
 						expressionStack.push(ppExpression);
 					}
-					checkContradictionOrTautology(lineNumber, res);
+					checkContradictionOrTautology(context, lineNumber);
 
 				} else if (singleElement.equals("end")) {
 					for (; ifelseCountStack.peek() > 0; ifelseCountStack.push(ifelseCountStack.pop() - 1)) {
@@ -322,13 +306,14 @@ public class MungePreprocessor extends PPComposerExtensionClass {
 				}
 			}
 		}
+		return commentSection;
 	}
 
-	private void setMarkersNotConcreteFeatures(String line, IFile res, int lineNumber) {
+	private void setMarkersNotConcreteFeatures(AnnotationContext context, String line, int lineNumber) {
 		final Matcher matcherIf = OP_PATTERN.matcher(line);
 
 		if (matcherIf.find()) {
-			setMarkersOnNotExistingOrAbstractFeature(matcherIf.group(3), lineNumber, res);
+			setMarkersOnNotExistingOrAbstractFeature(context, matcherIf.group(3), lineNumber);
 		}
 	}
 
@@ -720,7 +720,9 @@ public class CorePlugin extends AbstractCorePlugin {
 			if (featureID == -1) {
 				return Collections.emptyList();
 			}
-			it.addFilter(new ContextFilter(featureName, signatures));
+			final ContextFilter contextFilter = new ContextFilter(featureName, signatures);
+			contextFilter.evaluate(signatures);
+			it.addFilter(contextFilter);
 
 			while (it.hasNext()) {
 				final AbstractSignature curMember = it.next();
@@ -799,7 +801,9 @@ public class CorePlugin extends AbstractCorePlugin {
 			final SignatureIterator it = signatures.iterator();
 			// TODO check
 			if (featureName != null) {
-				it.addFilter(new ContextFilter(featureName, signatures));
+				final ContextFilter contextFilter = new ContextFilter(featureName, signatures);
+				contextFilter.evaluate(signatures);
+				it.addFilter(contextFilter);
 			}
 			return new ProjectStructure(it);
 		}
@@ -0,0 +1,312 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.core.builder.preprocessor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.prop4j.And;
+import org.prop4j.Equals;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Not;
+import org.prop4j.Or;
+import org.sat4j.core.VecInt;
+import org.sat4j.minisat.SolverFactory;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.ISolver;
+import org.sat4j.specs.TimeoutException;
+
+import de.ovgu.featureide.core.builder.preprocessor.PPComposerExtensionClass.AnnotationStatus;
+
+/**
+ * Checks preprocessor annotations for contradictions and tautologies using a single incremental solver.<br/> The feature model is translated only once. Its
+ * clauses are guarded by a selector literal, such that they can be switched on and off using assumptions. Each annotation expression is encoded once by a
+ * fresh variable that is equivalent to the expression (Tseitin transformation), such that nested contexts and negated expressions are just assumptions, too.
+ * The status of an expression and of each stack of nested expressions is cached.<br/> As the solver has to assign every variable in each call, it is
+ * recreated from the stored feature model clauses whenever the encoded expressions outnumber the variables of the feature model.<br/> A checker must not be
+ * used by multiple threads at the same time. Instead, each thread can use its own copy (see {@link #AnnotationChecker(AnnotationChecker)}).
+ */
+public class AnnotationChecker {
+
+	/** The maximum number of conflicts for a single satisfiability check. */
+	private static final int TIMEOUT = 100000;
+
+	/** The guarded clauses of the feature model. */
+	private final List<int[]> featureModelClauses;
+
+	private ISolver solver = createSolver();
+
+	/** Maps feature names to solver variables. */
+	private final Map<Object, Integer> variables = new HashMap<>();
+	/** Maps encoded expressions to their equivalent solver literal. */
+	private final Map<Node, Integer> expressionLiterals = new HashMap<>();
+	/** Caches the status of single expressions, independent of feature model and context. Shared by all copies of this checker. */
+	private final Map<Node, AnnotationStatus> expressionStatus;
+	/** Caches the status of expression stacks. Shared by all copies of this checker. */
+	private final Map<List<Node>, AnnotationStatus> stackStatus;
+
+	/** Activates the clauses of the feature model, if assumed to be true. */
+	private final int featureModelSelector;
+
+	private final int featureModelVariableCount;
+	private int variableCount = 0;
+	private boolean contradiction = false;
+
+	/**
+	 * Creates a new checker for the given feature model.
+	 *
+	 * @param featureModel the feature model formula
+	 */
+	public AnnotationChecker(Node featureModel) {
+		featureModelClauses = new ArrayList<>();
+		expressionStatus = new ConcurrentHashMap<>();
+		stackStatus = new ConcurrentHashMap<>();
+		featureModelSelector = newVariable();
+
+		final Node cnf = featureModel.toCNF();
+		if (cnf instanceof And) {
+			for (final Node clause : cnf.getChildren()) {
+				addFeatureModelClause(clause);
+			}
+		} else {
+			addFeatureModelClause(cnf);
+		}
+		featureModelVariableCount = variableCount;
+	}
+
+	/**
+	 * Creates a copy of the given checker with its own solver, which can be used in another thread. The status caches are shared with the given checker.
+	 *
+	 * @param checker the checker to copy
+	 */
+	public AnnotationChecker(AnnotationChecker checker) {
+		featureModelClauses = checker.featureModelClauses;
+		expressionStatus = checker.expressionStatus;
+		stackStatus = checker.stackStatus;
+		featureModelSelector = checker.featureModelSelector;
+		featureModelVariableCount = checker.featureModelVariableCount;
+		variables.putAll(checker.variables);
+		reset();
+	}
+
+	private static ISolver createSolver() {
+		final ISolver solver = SolverFactory.newDefault();
+		// A time based timeout starts a new timer thread for every call
+		solver.setTimeoutOnConflicts(TIMEOUT);
+		return solver;
+	}
+
+	/**
+	 * Discards all encoded expressions and restores the solver to the state after the construction.
+	 */
+	private void reset() {
+		solver = createSolver();
+		solver.newVar(featureModelVariableCount);
+		variableCount = featureModelVariableCount;
+		contradiction = false;
+		for (final Iterator<Integer> iterator = variables.values().iterator(); iterator.hasNext();) {
+			if (iterator.next() > featureModelVariableCount) {
+				iterator.remove();
+			}
+		}
+		expressionLiterals.clear();
+		for (final int[] clause : featureModelClauses) {
+			addClause(clause);
+		}
+	}
+
+	private void addFeatureModelClause(Node clause) {
+		final Node[] literals = (clause instanceof Or) ? clause.getChildren() : new Node[] { clause };
+		final int[] guardedClause = new int[literals.length + 1];
+		guardedClause[0] = -featureModelSelector;
+		for (int i = 0; i < literals.length; i++) {
+			guardedClause[i + 1] = getLiteral(literals[i]);
+		}
+		featureModelClauses.add(guardedClause);
+		addClause(guardedClause);
+	}
+
+	/**
+	 * Returns whether the feature model has no valid configuration.
+	 *
+	 * @return {@code true} if the feature model is void, {@code false} otherwise
+	 * @throws TimeoutException if the solver exceeds the timeout
+	 */
+	public boolean isFeatureModelVoid() throws TimeoutException {
+		return !isSatisfiable(featureModelSelector);
+	}
+
+	/**
+	 * Determines the status of the topmost expression within the given stack of nested expressions.<br/> Does not check whether the feature model is void.
+	 *
+	 * @param expressionStack the nested expressions, from outermost to innermost
+	 * @return the status of the innermost expression
+	 * @throws TimeoutException if the solver exceeds the timeout
+	 */
+	public AnnotationStatus getStatus(List<Node> expressionStack) throws TimeoutException {
+		AnnotationStatus status = stackStatus.get(expressionStack);
+		if (status == null) {
+			if (variableCount > (2 * featureModelVariableCount)) {
+				reset();
+			}
+			final List<Node> key = new ArrayList<>(expressionStack);
+			status = getStatus(key.get(key.size() - 1));
+			if (status == AnnotationStatus.NORMAL) {
+				final int[] assumptions = new int[key.size() + 1];
+				assumptions[0] = featureModelSelector;
+				for (int i = 0; i < key.size(); i++) {
+					assumptions[i + 1] = getLiteral(key.get(i));
+				}
+				final int expressionLiteral = assumptions[assumptions.length - 1];
+
+				// -SAT(FM & nestedExpressions & expression)
+				if (!isSatisfiable(assumptions)) {
+					status = AnnotationStatus.DEAD;
+				} else {
+					// -SAT(FM & nestedExpressions & -expression)
+					assumptions[assumptions.length - 1] = -expressionLiteral;
+					if (!isSatisfiable(assumptions)) {
+						status = AnnotationStatus.SUPERFLUOUS;
+					}
+				}
+			}
+			stackStatus.put(key, status);
+		}
+		return status;
+	}
+
+	private AnnotationStatus getStatus(Node expression) throws TimeoutException {
+		AnnotationStatus status = expressionStatus.get(expression);
+		if (status == null) {
+			final int expressionLiteral = getLiteral(expression);
+			if (!isSatisfiable(expressionLiteral)) {
+				status = AnnotationStatus.CONTRADICTION;
+			} else if (!isSatisfiable(-expressionLiteral)) {
+				status = AnnotationStatus.TAUTOLOGY;
+			} else {
+				status = AnnotationStatus.NORMAL;
+			}
+			expressionStatus.put(expression, status);
+		}
+		return status;
+	}
+
+	private boolean isSatisfiable(int... assumptions) throws TimeoutException {
+		return !contradiction && solver.isSatisfiable(new VecInt(assumptions));
+	}
+
+	/**
+	 * Returns a solver literal that is equivalent to the given expression. Adds the necessary defining clauses, if the expression was not encoded before.
+	 *
+	 * @param node the expression
+	 * @return the literal for the expression
+	 */
+	private int getLiteral(Node node) {
+		if (node instanceof Literal) {
+			final Literal literal = (Literal) node;
+			Integer variable = variables.get(literal.var);
+			if (variable == null) {
+				variable = newVariable();
+				variables.put(literal.var, variable);
+			}
+			return literal.positive ? variable : -variable;
+		} else if (node instanceof Not) {
+			return -getLiteral(node.getChildren()[0]);
+		} else if ((node instanceof And) || (node instanceof Or) || (node instanceof Implies) || (node instanceof Equals)) {
+			Integer literal = expressionLiterals.get(node);
+			if (literal == null) {
+				final Node[] children = node.getChildren();
+				final int[] childLiterals = new int[children.length];
+				for (int i = 0; i < children.length; i++) {
+					childLiterals[i] = getLiteral(children[i]);
+				}
+				if (node instanceof And) {
+					literal = defineAnd(childLiterals);
+				} else if (node instanceof Or) {
+					literal = -defineAnd(negate(childLiterals));
+				} else if (node instanceof Implies) {
+					literal = -defineAnd(new int[] { childLiterals[0], -childLiterals[1] });
+				} else {
+					literal = defineEquals(childLiterals[0], childLiterals[1]);
+				}
+				expressionLiterals.put(node, literal);
+			}
+			return literal;
+		} else {
+			return getLiteral(node.toCNF());
+		}
+	}
+
+	private static int[] negate(int[] literals) {
+		final int[] negatedLiterals = new int[literals.length];
+		for (int i = 0; i < literals.length; i++) {
+			negatedLiterals[i] = -literals[i];
+		}
+		return negatedLiterals;
+	}
+
+	/**
+	 * Introduces a new variable x with x <=> (l1 & ... & ln).
+	 */
+	private int defineAnd(int[] literals) {
+		final int x = newVariable();
+		final int[] clause = new int[literals.length + 1];
+		clause[0] = x;
+		for (int i = 0; i < literals.length; i++) {
+			addClause(-x, literals[i]);
+			clause[i + 1] = -literals[i];
+		}
+		addClause(clause);
+		return x;
+	}
+
+	/**
+	 * Introduces a new variable x with x <=> (a <=> b).
+	 */
+	private int defineEquals(int a, int b) {
+		final int x = newVariable();
+		addClause(-x, -a, b);
+		addClause(-x, a, -b);
+		addClause(x, a, b);
+		addClause(x, -a, -b);
+		return x;
+	}
+
+	private int newVariable() {
+		solver.newVar(++variableCount);
+		return variableCount;
+	}
+
+	private void addClause(int... clause) {
+		try {
+			solver.addClause(new VecInt(clause));
+		} catch (final ContradictionException e) {
+			contradiction = true;
+		}
+	}
+
+}
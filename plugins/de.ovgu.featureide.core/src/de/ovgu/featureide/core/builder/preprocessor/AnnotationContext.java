@@ -0,0 +1,157 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.core.builder.preprocessor;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Stack;
+
+import org.eclipse.core.resources.IFile;
+import org.prop4j.Node;
+import org.prop4j.NodeReader;
+
+import de.ovgu.featureide.core.builder.preprocessor.PPComposerExtensionClass.AnnotationStatus;
+
+/**
+ * The parser state for checking the preprocessor annotations of a single file.<br/> Each file gets its own context, such that multiple files can be checked
+ * in parallel (see {@link PPComposerExtensionClass#checkAnnotations(java.util.Collection)}). Markers are collected and created after all files are checked.
+ */
+public class AnnotationContext {
+
+	/**
+	 * A builder marker that has not been created yet.
+	 */
+	static class Marker {
+
+		final String message;
+		final int lineNumber;
+		final int severity;
+
+		Marker(String message, int lineNumber, int severity) {
+			this.message = message;
+			this.lineNumber = lineNumber;
+			this.severity = severity;
+		}
+	}
+
+	/**
+	 * A checked preprocessor annotation together with its status. Kept in the {@link AnnotationIndex}, such that the annotation can be checked again without
+	 * parsing its file.
+	 */
+	static class Directive {
+
+		final int lineNumber;
+		/** The nested expressions, the annotation is on top. */
+		final List<Node> expressionStack;
+		/** All features referenced by the nested expressions. */
+		final Set<String> features;
+		final AnnotationStatus status;
+		/** The marker message or {@code null} if no marker is set. */
+		final String message;
+
+		Directive(int lineNumber, List<Node> expressionStack, Set<String> features, AnnotationStatus status, String message) {
+			this.lineNumber = lineNumber;
+			this.expressionStack = expressionStack;
+			this.features = features;
+			this.status = status;
+			this.message = message;
+		}
+	}
+
+	/**
+	 * A feature name referenced in a preprocessor annotation. Whether it gets a marker depends on the current feature model.
+	 */
+	static class FeatureReference {
+
+		final String name;
+		final int lineNumber;
+
+		FeatureReference(String name, int lineNumber) {
+			this.name = name;
+			this.lineNumber = lineNumber;
+		}
+	}
+
+	private final IFile file;
+	private final NodeReader nodeReader;
+	private final AnnotationChecker annotationChecker;
+
+	private final Stack<Node> expressionStack = new Stack<>();
+	private final Stack<Integer> ifelseCountStack = new Stack<>();
+
+	/** Markers that only depend on the content of the file. */
+	final List<Marker> markers = new ArrayList<>();
+	final List<Directive> directives = new ArrayList<>();
+	final List<FeatureReference> featureReferences = new ArrayList<>();
+	final Set<String> usedFeatures = new HashSet<>();
+
+	AnnotationContext(IFile file, NodeReader nodeReader, AnnotationChecker annotationChecker) {
+		this.file = file;
+		this.nodeReader = nodeReader;
+		this.annotationChecker = annotationChecker;
+	}
+
+	/**
+	 * @return the file that is checked
+	 */
+	public IFile getFile() {
+		return file;
+	}
+
+	/**
+	 * @return a node reader for parsing expressions, which is not shared with other contexts
+	 */
+	public NodeReader getNodeReader() {
+		return nodeReader;
+	}
+
+	AnnotationChecker getAnnotationChecker() {
+		return annotationChecker;
+	}
+
+	/**
+	 * @return the stack of nested preprocessor expressions
+	 */
+	public Stack<Node> getExpressionStack() {
+		return expressionStack;
+	}
+
+	/**
+	 * @return the stack for the count of "if" and "else" instructions for each level
+	 */
+	public Stack<Integer> getIfelseCountStack() {
+		return ifelseCountStack;
+	}
+
+	/**
+	 * Adds a marker that is created after all files are checked.
+	 *
+	 * @param message the message
+	 * @param lineNumber the line number
+	 * @param severity the severity
+	 */
+	public void addMarker(String message, int lineNumber, int severity) {
+		markers.add(new Marker(message, lineNumber, severity));
+	}
+
+}
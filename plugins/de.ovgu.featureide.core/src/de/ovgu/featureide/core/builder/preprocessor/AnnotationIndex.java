@@ -0,0 +1,255 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.core.builder.preprocessor;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.eclipse.core.resources.IFile;
+import org.prop4j.Node;
+
+import de.ovgu.featureide.core.builder.preprocessor.AnnotationContext.Directive;
+import de.ovgu.featureide.core.builder.preprocessor.AnnotationContext.FeatureReference;
+import de.ovgu.featureide.core.builder.preprocessor.AnnotationContext.Marker;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.editing.Comparison;
+import de.ovgu.featureide.fm.core.editing.ModelComparator;
+
+/**
+ * Remembers the checked preprocessor annotations of all files together with their last status, such that a check only has to consider what changed since the
+ * last check.<br/> A file is parsed again if its modification stamp changed or if it may reference a feature that was added to or removed from the feature
+ * model. For all other files, only the annotations whose status may be affected by the edit of the feature model are checked again. Which annotations are
+ * affected is derived from the classification of the edit (see {@link ModelComparator}): A generalization cannot turn a satisfiable annotation into a dead or
+ * superfluous one, a specialization cannot revive a dead one, and a refactoring changes nothing for concrete features.
+ */
+class AnnotationIndex {
+
+	/** Timeout in milliseconds for classifying an edit of the feature model. */
+	private static final long COMPARISON_TIMEOUT = 5000;
+
+	/**
+	 * The checked annotations of a single file.
+	 */
+	static class FileEntry {
+
+		final IFile file;
+		final long modificationStamp;
+		final List<Marker> markers;
+		final List<Directive> directives;
+		final List<FeatureReference> featureReferences;
+		final Set<String> usedFeatures;
+
+		FileEntry(AnnotationContext context, long modificationStamp) {
+			this(context.getFile(), modificationStamp, context.markers, context.directives, context.featureReferences, context.usedFeatures);
+		}
+
+		FileEntry(IFile file, long modificationStamp, List<Marker> markers, List<Directive> directives, List<FeatureReference> featureReferences,
+				Set<String> usedFeatures) {
+			this.file = file;
+			this.modificationStamp = modificationStamp;
+			this.markers = markers;
+			this.directives = directives;
+			this.featureReferences = featureReferences;
+			this.usedFeatures = usedFeatures;
+		}
+	}
+
+	/**
+	 * The difference between the feature model of the last check and the current feature model.
+	 */
+	static class ModelChange {
+
+		/** The classification of the edit or {@code null} if the feature model did not change. */
+		private final Comparison comparison;
+		/** Features that were added, removed, or are abstract in one of both feature models. */
+		private final Set<String> changedFeatures;
+		private final Set<String> removedFeatures;
+		/** Matches the names of added features or {@code null} if there are none. */
+		private final Pattern addedFeatures;
+
+		private ModelChange(Comparison comparison, Set<String> changedFeatures, Set<String> removedFeatures, Set<String> addedFeatures) {
+			this.comparison = comparison;
+			this.changedFeatures = changedFeatures;
+			this.removedFeatures = removedFeatures;
+			if (addedFeatures.isEmpty()) {
+				this.addedFeatures = null;
+			} else {
+				final StringBuilder sb = new StringBuilder();
+				for (final String feature : addedFeatures) {
+					sb.append(Pattern.quote(feature));
+					sb.append('|');
+				}
+				this.addedFeatures = Pattern.compile(sb.substring(0, sb.length() - 1));
+			}
+		}
+
+		/**
+		 * @return {@code true} if the feature model changed since the last check
+		 */
+		boolean isChanged() {
+			return comparison != null;
+		}
+
+		/**
+		 * Checks whether an unchanged file has to be parsed again, because it references a removed feature.
+		 *
+		 * @param entry the entry of the file
+		 * @return {@code true} if the file has to be parsed again
+		 */
+		boolean requiresParsing(FileEntry entry) {
+			return !Collections.disjoint(entry.usedFeatures, removedFeatures);
+		}
+
+		/**
+		 * Checks whether an unchanged file has to be parsed again, because it may reference an added feature.
+		 *
+		 * @param lines all lines of the file
+		 * @return {@code true} if the file has to be parsed again
+		 */
+		boolean requiresParsing(List<String> lines) {
+			if (addedFeatures != null) {
+				for (final String line : lines) {
+					if (addedFeatures.matcher(line).find()) {
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * @return {@code true} if features were added, such that {@link #requiresParsing(List)} has to be called for every file
+		 */
+		boolean hasAddedFeatures() {
+			return addedFeatures != null;
+		}
+
+		/**
+		 * Checks whether the status of an annotation may have changed.
+		 *
+		 * @param directive the annotation with its last status
+		 * @return {@code true} if the annotation has to be checked again
+		 */
+		boolean requiresCheck(Directive directive) {
+			return (comparison != null) && (!Collections.disjoint(directive.features, changedFeatures) || directive.status.mayChange(comparison));
+		}
+	}
+
+	private Map<IFile, FileEntry> entries = Collections.emptyMap();
+
+	private IFeatureModel featureModel;
+	private Set<Node> featureModelClauses;
+	private boolean voidFeatureModel;
+
+	/**
+	 * @param file a file
+	 * @return the entry of the last check or {@code null} if the file was not checked
+	 */
+	synchronized FileEntry get(IFile file) {
+		return entries.get(file);
+	}
+
+	/**
+	 * Compares the given feature model with the feature model of the last check.
+	 *
+	 * @param newFeatureModel a copy of the current feature model
+	 * @param newFeatureModelNode the propositional formula of the current feature model
+	 * @param newVoidFeatureModel whether the current feature model is void
+	 * @return the change
+	 */
+	synchronized ModelChange compare(IFeatureModel newFeatureModel, Node newFeatureModelNode, boolean newVoidFeatureModel) {
+		final Set<String> oldConcreteFeatures = new HashSet<>();
+		final Set<String> oldAbstractFeatures = new HashSet<>();
+		final Set<String> newConcreteFeatures = new HashSet<>();
+		final Set<String> newAbstractFeatures = new HashSet<>();
+		if (featureModel != null) {
+			addFeatures(featureModel, oldConcreteFeatures, oldAbstractFeatures);
+		}
+		addFeatures(newFeatureModel, newConcreteFeatures, newAbstractFeatures);
+
+		final Set<String> removedFeatures = new HashSet<>(oldConcreteFeatures);
+		removedFeatures.addAll(oldAbstractFeatures);
+		removedFeatures.removeAll(newConcreteFeatures);
+		removedFeatures.removeAll(newAbstractFeatures);
+		final Set<String> addedFeatures = new HashSet<>(newConcreteFeatures);
+		addedFeatures.addAll(newAbstractFeatures);
+		addedFeatures.removeAll(oldConcreteFeatures);
+		addedFeatures.removeAll(oldAbstractFeatures);
+
+		final Comparison comparison;
+		if (featureModel == null) {
+			comparison = Comparison.ARBITRARY;
+		} else if ((voidFeatureModel != newVoidFeatureModel) || newFeatureModel.getRenamingsManager().isRenamed()) {
+			comparison = Comparison.ARBITRARY;
+		} else if (oldConcreteFeatures.equals(newConcreteFeatures) && oldAbstractFeatures.equals(newAbstractFeatures)
+			&& featureModelClauses.equals(getClauses(newFeatureModelNode))) {
+			comparison = null;
+		} else {
+			comparison = new ModelComparator(COMPARISON_TIMEOUT).compare(featureModel, newFeatureModel);
+		}
+
+		final Set<String> changedFeatures = new HashSet<>(removedFeatures);
+		changedFeatures.addAll(addedFeatures);
+		changedFeatures.addAll(oldAbstractFeatures);
+		changedFeatures.addAll(newAbstractFeatures);
+		return new ModelChange(comparison, changedFeatures, removedFeatures, addedFeatures);
+	}
+
+	/**
+	 * Replaces the index by the result of a check.
+	 *
+	 * @param newEntries the entries of all checked files
+	 * @param newFeatureModel a copy of the feature model used for the check
+	 * @param newFeatureModelNode the propositional formula of the feature model
+	 * @param newVoidFeatureModel whether the feature model is void
+	 */
+	synchronized void update(List<FileEntry> newEntries, IFeatureModel newFeatureModel, Node newFeatureModelNode, boolean newVoidFeatureModel) {
+		entries = new HashMap<>();
+		for (final FileEntry entry : newEntries) {
+			entries.put(entry.file, entry);
+		}
+		featureModel = newFeatureModel;
+		featureModelClauses = getClauses(newFeatureModelNode);
+		voidFeatureModel = newVoidFeatureModel;
+	}
+
+	private static void addFeatures(IFeatureModel featureModel, Set<String> concreteFeatures, Set<String> abstractFeatures) {
+		for (final IFeature feature : featureModel.getFeatures()) {
+			if (feature.getStructure().isConcrete()) {
+				concreteFeatures.add(feature.getName());
+			} else {
+				abstractFeatures.add(feature.getName());
+			}
+		}
+	}
+
+	private static Set<Node> getClauses(Node featureModelNode) {
+		return new HashSet<>(Arrays.asList(featureModelNode.getChildren()));
+	}
+
+}
@@ -24,39 +24,55 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.IS_DEFINED_AS_
 import static de.ovgu.featureide.fm.core.localization.StringTable.IS_NOT_DEFINED_IN_THE_FEATURE_MODEL_AND_COMMA__THUS_COMMA__ALWAYS_ASSUMED_TO_BE_FALSE;
 import static de.ovgu.featureide.fm.core.localization.StringTable.PREPROCESSOR;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Scanner;
+import java.util.Set;
 import java.util.Stack;
 import java.util.Vector;
-import java.util.regex.Matcher;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Pattern;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceVisitor;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
-import org.prop4j.And;
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.prop4j.Literal;
 import org.prop4j.Node;
 import org.prop4j.NodeReader;
-import org.prop4j.Not;
-import org.prop4j.SatSolver;
 import org.sat4j.specs.TimeoutException;
 
 import de.ovgu.featureide.core.CorePlugin;
 import de.ovgu.featureide.core.builder.ComposerExtensionClass;
+import de.ovgu.featureide.core.builder.preprocessor.AnnotationContext.Directive;
+import de.ovgu.featureide.core.builder.preprocessor.AnnotationContext.FeatureReference;
+import de.ovgu.featureide.core.builder.preprocessor.AnnotationContext.Marker;
+import de.ovgu.featureide.core.builder.preprocessor.AnnotationIndex.FileEntry;
+import de.ovgu.featureide.core.builder.preprocessor.AnnotationIndex.ModelChange;
 import de.ovgu.featureide.fm.core.base.FeatureUtils;
 import de.ovgu.featureide.fm.core.base.IFeature;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.configuration.Configuration;
 import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.editing.Comparison;
 import de.ovgu.featureide.fm.core.explanations.preprocessors.InvariantPresenceConditionExplanation;
 import de.ovgu.featureide.fm.core.explanations.preprocessors.InvariantPresenceConditionExplanationCreator;
 import de.ovgu.featureide.fm.core.explanations.preprocessors.PreprocessorExplanationCreatorFactory;
@@ -90,7 +106,37 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 		/** The expression in and of itself is a contradiction, causing a dead code block. */
 		CONTRADICTION,
 		/** The expression in and of itself is a tautology, making the annotation superfluous. */
-		TAUTOLOGY,
+		TAUTOLOGY;
+
+		/**
+		 * Returns whether an annotation with this status may get another status by an edit of the feature model that neither adds nor removes any feature of
+		 * the annotation nor changes whether it is abstract. A generalization cannot turn a satisfiable annotation into a dead or superfluous one, a
+		 * specialization cannot revive a dead one, and a refactoring changes nothing.
+		 *
+		 * @param comparison the classification of the edit
+		 * @return {@code true} if the annotation has to be checked again
+		 */
+		public boolean mayChange(Comparison comparison) {
+			switch (comparison) {
+			case REFACTORING:
+			case GENERALIZATION:
+			case SPECIALIZATION:
+				break;
+			default:
+				return true;
+			}
+			switch (this) {
+			case NORMAL:
+				return comparison == Comparison.SPECIALIZATION;
+			case DEAD:
+				return comparison == Comparison.GENERALIZATION;
+			case SUPERFLUOUS:
+				// becomes dead if its context becomes dead
+				return comparison != Comparison.REFACTORING;
+			default:
+				return false;
+			}
+		}
 	}
 
 	protected static final String MESSAGE_DEAD = "This annotation causes a dead code block.";
@@ -110,11 +156,27 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 	 */
 	protected Node featureModel;
 
+	/**
+	 * Checks the annotations against {@link #featureModel}. Created in {@link #prepareFullBuild(IFile)} and shared by all annotations of a build.
+	 */
+	protected AnnotationChecker annotationChecker;
+
 	/**
 	 * {@code true}, if the feature model is void, {@code false} otherwise
 	 */
 	protected boolean voidFeatureModel;
 
+	/**
+	 * A copy of the feature model from {@link #prepareFullBuild(IFile)}, which is compared with the next feature model to find the annotations that have to be
+	 * checked again.
+	 */
+	private IFeatureModel checkedFeatureModel;
+
+	/**
+	 * The annotations found by the last call of {@link #checkAnnotations(Collection)}.
+	 */
+	private final AnnotationIndex annotationIndex = new AnnotationIndex();
+
 	/**
 	 * Preprocessor name used for messages in build markers (must set in subclass).
 	 */
@@ -214,8 +276,10 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 
 		// create expression of feature model
 		featureModel = AdvancedNodeCreator.createNodes(fm);
+		checkedFeatureModel = fm.clone();
+		annotationChecker = new AnnotationChecker(featureModel);
 		try {
-			voidFeatureModel = !new SatSolver(featureModel, 1000).isSatisfiable();
+			voidFeatureModel = annotationChecker.isFeatureModelVoid();
 		} catch (final TimeoutException e) {
 			voidFeatureModel = false;
 		}
@@ -231,65 +295,21 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 	 * @return the status of the annotation
 	 */
 	protected AnnotationStatus isContradictionOrTautology() {
-		final Node expression = expressionStack.peek();
+		return getStatus(annotationChecker, expressionStack);
+	}
 
-		Node nestedExpressions = null;
-		if (expressionStack.size() > 1) {
-			Node[] children = expressionStack.toArray(new Node[expressionStack.size()]);
-			children = Arrays.copyOfRange(children, 0, children.length - 1); // Exclude the topmost expression because it is examined separately.
-			nestedExpressions = new And(children);
+	private AnnotationStatus getStatus(AnnotationChecker checker, List<Node> expressionStack) {
+		if (voidFeatureModel) {
+			return AnnotationStatus.VOID;
 		}
-
 		try {
-			return isContradictionOrTautology(expression, featureModel, nestedExpressions);
+			return checker.getStatus(expressionStack);
 		} catch (final TimeoutException e) {
 			CorePlugin.getDefault().logError(e);
 			return AnnotationStatus.NORMAL;
 		}
 	}
 
-	private AnnotationStatus isContradictionOrTautology(Node expression, Node featureModel, Node nestedExpressions) throws TimeoutException {
-		if (voidFeatureModel) {
-			return AnnotationStatus.VOID;
-		}
-
-		/*
-		 * -SAT(expression)
-		 */
-		if (!new SatSolver(expression, 1000).isSatisfiable()) {
-			return AnnotationStatus.CONTRADICTION;
-		}
-
-		/*
-		 * -SAT(-expression)
-		 */
-		if (!new SatSolver(new Not(expression), 1000).isSatisfiable()) {
-			return AnnotationStatus.TAUTOLOGY;
-		}
-
-		Node context = featureModel;
-		if (nestedExpressions != null) {
-			context = new And(context, nestedExpressions);
-		}
-
-		/*
-		 * -SAT(FM & nestedExpressions & expression)
-		 */
-		if (!new SatSolver(new And(context, expression), 1000).isSatisfiable()) {
-			return AnnotationStatus.DEAD;
-		}
-
-		/*
-		 * TAUT(FM & nestedExpressions => expression) = -SAT(-(FM & nestedExpressions => expression)) = -SAT(-(-(FM & nestedExpressions) | expression)) =
-		 * -SAT(-(-FM | -nestedExpressions | expression)) = -SAT(FM & nestedExpressions & -expression)
-		 */
-		if (!new SatSolver(new And(context, new Not(expression)), 1000).isSatisfiable()) {
-			return AnnotationStatus.SUPERFLUOUS;
-		}
-
-		return AnnotationStatus.NORMAL;
-	}
-
 	/**
 	 * Set marker for tautology or contradiction on given line in given file.
 	 *
@@ -298,11 +318,25 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 	 * @param res file path
 	 */
 	protected void setMarkersOnContradictionOrTautology(AnnotationStatus status, int lineNumber, IFile res) {
+		final String message = getMessage(status, expressionStack);
+		if (message != null) {
+			featureProject.createBuilderMarker(res, message, lineNumber, IMarker.SEVERITY_WARNING);
+		}
+	}
+
+	/**
+	 * Returns the marker message for the given annotation status.
+	 *
+	 * @param status the status of the annotation
+	 * @param expressionStack the nested expressions, the annotation is on top
+	 * @return the message or {@code null} if no marker should be set
+	 */
+	private String getMessage(AnnotationStatus status, List<Node> expressionStack) {
 		String message;
 		switch (status) {
 		case NORMAL:
 		case VOID:
-			return;
+			return null;
 		case CONTRADICTION:
 			message = MESSAGE_CONTRADICTION;
 			break;
@@ -324,7 +358,7 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 		case SUPERFLUOUS:
 			positive = true;
 		case DEAD:
-			final InvariantPresenceConditionExplanation explanation = getInvariantExpressionExplanation(positive);
+			final InvariantPresenceConditionExplanation explanation = getInvariantExpressionExplanation(positive, expressionStack);
 			if ((explanation != null) && (explanation.getReasons() != null) && !explanation.getReasons().isEmpty()) {
 				message += System.lineSeparator();
 				message += explanation.getWriter().getString();
@@ -333,23 +367,25 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 		default:
 			break;
 		}
-
-		featureProject.createBuilderMarker(res, message, lineNumber, IMarker.SEVERITY_WARNING);
+		return message;
 	}
 
 	/**
 	 * Returns an explanation for why the expression currently on top of the expression stack is a contradiction or a tautology.
 	 *
 	 * @param tautology true if the expression to explain is a tautology; false if it is a contradiction
+	 * @param expressionStack the nested expressions
 	 * @return an explanation
 	 */
-	private InvariantPresenceConditionExplanation getInvariantExpressionExplanation(boolean tautology) {
-		invariantExpressionExplanationCreator.setFeatureModel(featureProject.getFeatureModel());
+	private InvariantPresenceConditionExplanation getInvariantExpressionExplanation(boolean tautology, List<Node> expressionStack) {
 		final List<Node> reverseExpressionStack = new ArrayList<>(expressionStack);
 		Collections.reverse(reverseExpressionStack); // Iteration order of Stack is from bottom to top instead of top to bottom.
-		invariantExpressionExplanationCreator.setExpressionStack(reverseExpressionStack);
-		invariantExpressionExplanationCreator.setTautology(tautology);
-		return invariantExpressionExplanationCreator.getExplanation();
+		synchronized (invariantExpressionExplanationCreator) {
+			invariantExpressionExplanationCreator.setFeatureModel(featureProject.getFeatureModel());
+			invariantExpressionExplanationCreator.setExpressionStack(reverseExpressionStack);
+			invariantExpressionExplanationCreator.setTautology(tautology);
+			return invariantExpressionExplanationCreator.getExplanation();
+		}
 	}
 
 	/**
@@ -361,17 +397,37 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 	 * @param res file containing the expression
 	 */
 	protected void checkContradictionOrTautology(int lineNumber, IFile res) {
-		findLiterals(expressionStack.peek());
+		findLiterals(expressionStack.peek(), usedFeatures);
 		final AnnotationStatus status = isContradictionOrTautology();
 		setMarkersOnContradictionOrTautology(status, lineNumber, res);
 	}
 
-	private void findLiterals(Node ppExpression) {
+	/**
+	 * <p> Checks whether the expression in the given line is a tautology or a contradiction. If so, a marker is added to the given context. </p>
+	 *
+	 * <p> It is assumed that the expression to check is on top of the expression stack of the context. </p>
+	 *
+	 * @param context the context of the file containing the expression
+	 * @param lineNumber line number of the expression
+	 */
+	protected void checkContradictionOrTautology(AnnotationContext context, int lineNumber) {
+		final Stack<Node> contextExpressionStack = context.getExpressionStack();
+		findLiterals(contextExpressionStack.peek(), context.usedFeatures);
+		final Set<String> features = new HashSet<>();
+		for (final Node expression : contextExpressionStack) {
+			findLiterals(expression, features);
+		}
+		final List<Node> expressionStack = new ArrayList<>(contextExpressionStack);
+		final AnnotationStatus status = getStatus(context.getAnnotationChecker(), expressionStack);
+		context.directives.add(new Directive(lineNumber, expressionStack, features, status, getMessage(status, expressionStack)));
+	}
+
+	private static void findLiterals(Node ppExpression, Set<String> usedFeatures) {
 		if (ppExpression instanceof Literal) {
 			usedFeatures.add(((Literal) ppExpression).var.toString());
 		} else {
 			for (final Node child : ppExpression.getChildren()) {
-				findLiterals(child);
+				findLiterals(child, usedFeatures);
 			}
 		}
 	}
@@ -388,25 +444,278 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 			return false;
 		}
 
-		Matcher matcherFeature = null;
-		if (patternIsAbstractFeature != null) {
-			matcherFeature = patternIsAbstractFeature.matcher(name);
+		if (isAbstractFeature(name)) {
+			featureProject.createBuilderMarker(res, name + MESSAGE_ABSTRACT, lineNumber, IMarker.SEVERITY_WARNING);
+		} else if (isNotDefinedFeature(name)) {
+			featureProject.createBuilderMarker(res, name + MESSAGE_NOT_DEFINED, lineNumber, IMarker.SEVERITY_WARNING);
+			return false;
 		}
+		return true;
+	}
 
-		if ((matcherFeature != null) && matcherFeature.matches()) {
-			featureProject.createBuilderMarker(res, name + MESSAGE_ABSTRACT, lineNumber, IMarker.SEVERITY_WARNING);
+	/**
+	 * Set marker if given feature does not exists or is abstract.
+	 *
+	 * @param context the context of the file containing the feature name
+	 * @param name feature name
+	 * @param lineNumber current line number
+	 */
+	protected boolean setMarkersOnNotExistingOrAbstractFeature(AnnotationContext context, String name, int lineNumber) {
+		if (name == null) {
+			return false;
+		}
+
+		context.featureReferences.add(new FeatureReference(name, lineNumber));
+		return isAbstractFeature(name) || !isNotDefinedFeature(name);
+	}
+
+	private boolean isAbstractFeature(String name) {
+		return (patternIsAbstractFeature != null) && patternIsAbstractFeature.matcher(name).matches();
+	}
+
+	private boolean isNotDefinedFeature(String name) {
+		return (patternIsConcreteFeature != null) && !patternIsConcreteFeature.matcher(name).matches();
+	}
+
+	/**
+	 * Checks the preprocessor annotations in the given lines of a file. Called by {@link #checkAnnotations(Collection)}, possibly in parallel for different
+	 * files. Hence, implementations must keep their parser state in the given context and add markers only to the context.
+	 *
+	 * @param context the context of the file
+	 * @param lines all lines of the file
+	 */
+	protected void processLinesOfFile(AnnotationContext context, List<String> lines) {}
+
+	/**
+	 * Checks the preprocessor annotations of the given files using {@link #processLinesOfFile(AnnotationContext, List)} and creates the found markers.<br/>
+	 * Only files that changed since the last check are parsed again. For the other files, only the annotations whose status may be affected by a change of the
+	 * feature model are checked again (see {@link AnnotationIndex}). The files are checked in parallel, each with its own {@link AnnotationContext} and each
+	 * thread with its own {@link AnnotationChecker}. Afterwards, all markers are created in a single workspace operation. {@link #prepareFullBuild(IFile)}
+	 * must be called before.
+	 *
+	 * @param files the files to check
+	 */
+	protected void checkAnnotations(Collection<IFile> files) {
+		final IFeatureModel featureModelCopy = checkedFeatureModel;
+		final Node featureModelNode = featureModel;
+		final boolean voidModel = voidFeatureModel;
+		final AnnotationChecker checker = annotationChecker;
+		final ModelChange change = annotationIndex.compare(featureModelCopy, featureModelNode, voidModel);
+
+		final int numberOfThreads = Math.min(files.size(), Runtime.getRuntime().availableProcessors());
+		final List<FileEntry> entries = new ArrayList<>(files.size());
+		if (numberOfThreads > 1) {
+			final ThreadLocal<AnnotationChecker> checkers = new ThreadLocal<AnnotationChecker>() {
+
+				@Override
+				protected AnnotationChecker initialValue() {
+					return new AnnotationChecker(checker);
+				}
+			};
+			final ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+			boolean interrupted = false;
+			try {
+				final List<Future<FileEntry>> futures = new ArrayList<>(files.size());
+				for (final IFile file : files) {
+					final FileEntry entry = annotationIndex.get(file);
+					futures.add(executor.submit(new Callable<FileEntry>() {
+
+						@Override
+						public FileEntry call() {
+							return checkFile(file, entry, change, checkers.get());
+						}
+					}));
+				}
+				final Iterator<IFile> fileIterator = files.iterator();
+				for (final Future<FileEntry> future : futures) {
+					final IFile file = fileIterator.next();
+					if (!interrupted) {
+						try {
+							entries.add(future.get());
+							continue;
+						} catch (final ExecutionException e) {
+							// the file is parsed again by the next check, as it has no entry
+							CorePlugin.getDefault().logError(e.getCause());
+							continue;
+						} catch (final InterruptedException e) {
+							interrupted = true;
+							executor.shutdownNow();
+						}
+					}
+					// the markers were already deleted, so the remaining files are checked by the current thread
+					entries.add(checkFile(file, annotationIndex.get(file), change, checker));
+				}
+			} finally {
+				executor.shutdownNow();
+			}
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
 		} else {
-			Matcher matcherConreteFeature = null;
-			if (patternIsConcreteFeature != null) {
-				matcherConreteFeature = patternIsConcreteFeature.matcher(name);
+			for (final IFile file : files) {
+				entries.add(checkFile(file, annotationIndex.get(file), change, checker));
 			}
+		}
+		annotationIndex.update(entries, featureModelCopy, featureModelNode, voidModel);
+		createMarkers(entries);
+	}
 
-			if ((matcherConreteFeature != null) && !matcherConreteFeature.matches()) {
-				featureProject.createBuilderMarker(res, name + MESSAGE_NOT_DEFINED, lineNumber, IMarker.SEVERITY_WARNING);
-				return false;
+	/**
+	 * Checks the preprocessor annotations of the given file, which has already been read, and creates the found markers.
+	 *
+	 * @param file the file to check
+	 * @param lines all lines of the file
+	 */
+	protected void checkAnnotations(IFile file, List<String> lines) {
+		createMarkers(Collections.singletonList(new FileEntry(processFile(file, lines, annotationChecker), file.getModificationStamp())));
+	}
+
+	/**
+	 * Checks a single file. The file is parsed if it was not checked before or may have changed. Otherwise, only the annotations affected by the change of the
+	 * feature model are checked again.
+	 *
+	 * @param file the file to check
+	 * @param entry the entry of the last check or {@code null}
+	 * @param change the change of the feature model since the last check
+	 * @param checker the checker of the current thread
+	 * @return the new entry of the file
+	 */
+	private FileEntry checkFile(IFile file, FileEntry entry, ModelChange change, AnnotationChecker checker) {
+		final long modificationStamp = file.getModificationStamp();
+		if ((entry != null) && (entry.modificationStamp == modificationStamp) && !change.requiresParsing(entry)) {
+			if (!change.hasAddedFeatures()) {
+				return recheckFile(entry, change, checker);
 			}
+			final List<String> lines = readLines(file);
+			if (!change.requiresParsing(lines)) {
+				return recheckFile(entry, change, checker);
+			}
+			return new FileEntry(processFile(file, lines, checker), modificationStamp);
 		}
-		return true;
+		return new FileEntry(processFile(file, readLines(file), checker), modificationStamp);
+	}
+
+	private FileEntry recheckFile(FileEntry entry, ModelChange change, AnnotationChecker checker) {
+		if (!change.isChanged()) {
+			return entry;
+		}
+		final List<Directive> directives = new ArrayList<>(entry.directives.size());
+		for (final Directive directive : entry.directives) {
+			if (change.requiresCheck(directive)) {
+				final AnnotationStatus status = getStatus(checker, directive.expressionStack);
+				if (status != directive.status) {
+					directives.add(new Directive(directive.lineNumber, directive.expressionStack, directive.features, status,
+							getMessage(status, directive.expressionStack)));
+					continue;
+				}
+			}
+			// the explanation is only created again if the status changed
+			directives.add(directive);
+		}
+		return new FileEntry(entry.file, entry.modificationStamp, entry.markers, directives, entry.featureReferences, entry.usedFeatures);
+	}
+
+	private AnnotationContext processFile(IFile file, List<String> lines, AnnotationChecker checker) {
+		final NodeReader nodeReader = new NodeReader();
+		nodeReader.setIgnoreMissingFeatures(nodereader.ignoresMissingFeatures());
+		nodeReader.setIgnoreUnparsableSubExpressions(nodereader.isIgnoreUnparsableSubExpressions());
+		final AnnotationContext context = new AnnotationContext(file, nodeReader, checker);
+		processLinesOfFile(context, lines);
+		return context;
+	}
+
+	private void createMarkers(final List<FileEntry> entries) {
+		final List<List<Marker>> markers = new ArrayList<>(entries.size());
+		boolean hasMarkers = false;
+		for (final FileEntry entry : entries) {
+			usedFeatures.addAll(entry.usedFeatures);
+			final List<Marker> fileMarkers = getMarkers(entry);
+			markers.add(fileMarkers);
+			hasMarkers |= !fileMarkers.isEmpty();
+		}
+		if (hasMarkers) {
+			try {
+				ResourcesPlugin.getWorkspace().run(new IWorkspaceRunnable() {
+
+					@Override
+					public void run(IProgressMonitor monitor) throws CoreException {
+						for (int i = 0; i < entries.size(); i++) {
+							for (final Marker marker : markers.get(i)) {
+								featureProject.createBuilderMarker(entries.get(i).file, marker.message, marker.lineNumber, marker.severity);
+							}
+						}
+					}
+				}, null);
+			} catch (final CoreException e) {
+				CorePlugin.getDefault().logError(e);
+			}
+		}
+	}
+
+	/**
+	 * Returns the markers of a checked file. Markers for referenced features are computed from the current feature model.
+	 *
+	 * @param entry the checked file
+	 * @return the markers
+	 */
+	private List<Marker> getMarkers(FileEntry entry) {
+		final List<Marker> markers = new ArrayList<>(entry.markers);
+		for (final Directive directive : entry.directives) {
+			if (directive.message != null) {
+				markers.add(new Marker(directive.message, directive.lineNumber, IMarker.SEVERITY_WARNING));
+			}
+		}
+		for (final FeatureReference reference : entry.featureReferences) {
+			if (isAbstractFeature(reference.name)) {
+				markers.add(new Marker(reference.name + MESSAGE_ABSTRACT, reference.lineNumber, IMarker.SEVERITY_WARNING));
+			} else if (isNotDefinedFeature(reference.name)) {
+				markers.add(new Marker(reference.name + MESSAGE_NOT_DEFINED, reference.lineNumber, IMarker.SEVERITY_WARNING));
+			}
+		}
+		return markers;
+	}
+
+	/**
+	 * Returns all files within the given folder and its sub folders.
+	 *
+	 * @param folder the folder
+	 * @return a list of files
+	 */
+	protected static List<IFile> getFiles(IFolder folder) {
+		final List<IFile> files = new ArrayList<>();
+		try {
+			folder.accept(new IResourceVisitor() {
+
+				@Override
+				public boolean visit(IResource resource) {
+					if (resource instanceof IFile) {
+						files.add((IFile) resource);
+					}
+					return true;
+				}
+			});
+		} catch (final CoreException e) {
+			CorePlugin.getDefault().logError(e);
+		}
+		return files;
+	}
+
+	/**
+	 * Reads all lines of a file.
+	 *
+	 * @param res file path
+	 * @return lines of the given file
+	 */
+	public static List<String> readLines(IFile res) {
+		final List<String> lines = new ArrayList<>();
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(res.getContents(), StandardCharsets.UTF_8))) {
+			for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+				lines.add(line);
+			}
+		} catch (CoreException | IOException e) {
+			CorePlugin.getDefault().logError(e);
+		}
+		return lines;
 	}
 
 	/**
@@ -0,0 +1,202 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.core.internal;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.annotation.CheckForNull;
+
+import org.eclipse.core.resources.IFile;
+
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.impl.ConfigFormatManager;
+import de.ovgu.featureide.fm.core.configuration.Configuration;
+import de.ovgu.featureide.fm.core.configuration.ConfigurationValidator;
+import de.ovgu.featureide.fm.core.configuration.SelectableFeature;
+import de.ovgu.featureide.fm.core.configuration.Selection;
+import de.ovgu.featureide.fm.core.io.Problem;
+import de.ovgu.featureide.fm.core.io.ProblemList;
+import de.ovgu.featureide.fm.core.io.manager.SimpleFileHandler;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Loads the configurations of a feature project on multiple threads. In the same pass, the configurations are checked for validity and the selection of
+ * the given features is recorded for the feature coverage. All configurations are clones of one template, such that the feature model is translated
+ * only once, see {@link ConfigurationValidator}.
+ */
+class ConfigurationFolderChecker {
+
+	/**
+	 * The result for one configuration file.
+	 */
+	static class Result {
+
+		final IFile file;
+		final ProblemList problems;
+		/**
+		 * {@code true} if the configuration was checked and is invalid.
+		 */
+		final boolean invalid;
+		/**
+		 * The selection of the given features, in the same order, or {@code null} if the configuration could not be checked.
+		 */
+		@CheckForNull
+		final boolean[] selection;
+
+		Result(IFile file, ProblemList problems, boolean invalid, @CheckForNull boolean[] selection) {
+			this.file = file;
+			this.problems = problems;
+			this.invalid = invalid;
+			this.selection = selection;
+		}
+
+		/**
+		 * @return {@code true} if the configuration could not be checked, the cause is contained in {@link #problems}
+		 */
+		boolean isFailed() {
+			return selection == null;
+		}
+	}
+
+	private final Configuration template;
+	private final List<String> features;
+	@CheckForNull
+	private final ConfigurationValidator validator;
+
+	/**
+	 * @param featureModel the feature model of the configurations
+	 * @param features the features whose selections should be recorded
+	 * @param validate {@code false} if no configuration is checked for validity
+	 */
+	ConfigurationFolderChecker(IFeatureModel featureModel, List<String> features, boolean validate) {
+		template = new Configuration(featureModel, false, false);
+		this.features = features;
+		validator = validate ? new ConfigurationValidator(template) : null;
+	}
+
+	/**
+	 * Loads the given configuration files.
+	 *
+	 * @param files the configuration files
+	 * @param filesToValidate the files that are checked for validity
+	 * @param monitor the monitor, one step per file
+	 * @return the results in the order of the given files, including a failed result for each file that could not be checked (see {@link Result#isFailed()})
+	 */
+	List<Result> check(List<IFile> files, final Set<IFile> filesToValidate, IMonitor monitor) throws InterruptedException {
+		monitor.setRemainingWork(files.size());
+		final int numberOfThreads = Math.min(Runtime.getRuntime().availableProcessors(), files.size());
+		if (numberOfThreads <= 1) {
+			final List<Result> results = new ArrayList<>(files.size());
+			for (final IFile file : files) {
+				Result result;
+				try {
+					result = check(file, filesToValidate.contains(file));
+				} catch (final RuntimeException e) {
+					result = createFailedResult(file, e);
+				}
+				results.add(result);
+				monitor.step();
+			}
+			return results;
+		}
+
+		final ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+		try {
+			final List<Future<Result>> futures = new ArrayList<>(files.size());
+			for (final IFile file : files) {
+				futures.add(executor.submit(new Callable<Result>() {
+
+					@Override
+					public Result call() throws Exception {
+						return check(file, filesToValidate.contains(file));
+					}
+				}));
+			}
+			final List<Result> results = new ArrayList<>(files.size());
+			final Iterator<IFile> fileIterator = files.iterator();
+			for (final Future<Result> future : futures) {
+				final IFile file = fileIterator.next();
+				try {
+					results.add(future.get());
+				} catch (final ExecutionException e) {
+					final Throwable cause = e.getCause();
+					if (cause instanceof Error) {
+						throw (Error) cause;
+					}
+					// the other files are checked anyway
+					results.add(createFailedResult(file, cause));
+				}
+				monitor.step();
+			}
+			return results;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private Result check(IFile file, boolean validate) {
+		final Configuration configuration = template.clone();
+		final ProblemList problems = SimpleFileHandler.load(Paths.get(file.getLocationURI()), configuration, ConfigFormatManager.getInstance());
+		final boolean invalid = validate && (validator != null) && !validator.isValid(configuration);
+
+		final boolean[] selection = new boolean[features.size()];
+		int column = 0;
+		for (final String feature : features) {
+			final SelectableFeature selectableFeature = configuration.getSelectablefeature(feature);
+			if (selectableFeature != null) {
+				selection[column] = selectableFeature.getSelection() == Selection.SELECTED;
+			}
+			column++;
+		}
+		return new Result(file, problems, invalid, selection);
+	}
+
+	private static Result createFailedResult(IFile file, Throwable cause) {
+		final ProblemList problems = new ProblemList();
+		problems.add(new Problem(String.valueOf(cause.getMessage()), 0, cause));
+		return new Result(file, problems, false, null);
+	}
+
+	/**
+	 * @param results the loaded configurations
+	 * @return the selection matrix of the given results, one row per configuration that could be checked
+	 */
+	static boolean[][] getSelectionMatrix(Collection<Result> results) {
+		final List<boolean[]> selections = new ArrayList<>(results.size());
+		for (final Result result : results) {
+			if (!result.isFailed()) {
+				selections.add(result.selection);
+			}
+		}
+		return selections.toArray(new boolean[selections.size()][]);
+	}
+
+}
@@ -22,13 +22,8 @@ package de.ovgu.featureide.core.internal;
 
 import static de.ovgu.featureide.fm.core.localization.StringTable.CALCULATE_CORE_AND_DEAD_FEATURES;
 import static de.ovgu.featureide.fm.core.localization.StringTable.CHECKING_CONFIGURATIONS;
-import static de.ovgu.featureide.fm.core.localization.StringTable.CHECKING_CONFIGURATIONS_FOR_UNUSED_FEATURES;
-import static de.ovgu.featureide.fm.core.localization.StringTable.CHECK_VALIDITY_OF;
 import static de.ovgu.featureide.fm.core.localization.StringTable.CONFIGURATION_;
-import static de.ovgu.featureide.fm.core.localization.StringTable.DELETE_CONFIGURATION_MARKERS;
 import static de.ovgu.featureide.fm.core.localization.StringTable.ERROR_WHILE_LOADING_FEATURE_MODEL_FROM;
-import static de.ovgu.featureide.fm.core.localization.StringTable.GET_FALSE_OPTIONAL_FEATURES;
-import static de.ovgu.featureide.fm.core.localization.StringTable.GET_SELECTION_MATRIX;
 import static de.ovgu.featureide.fm.core.localization.StringTable.GET_UNUSED_FEATURES;
 import static de.ovgu.featureide.fm.core.localization.StringTable.IS_INVALID;
 import static de.ovgu.featureide.fm.core.localization.StringTable.LOAD_MODEL;
@@ -47,9 +42,11 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Scanner;
 
 import javax.annotation.CheckForNull;
@@ -65,6 +62,7 @@ import org.eclipse.core.resources.IResourceChangeEvent;
 import org.eclipse.core.resources.IResourceChangeListener;
 import org.eclipse.core.resources.IResourceDelta;
 import org.eclipse.core.resources.IResourceVisitor;
+import org.eclipse.core.resources.IWorkspaceRunnable;
 import org.eclipse.core.resources.IncrementalProjectBuilder;
 import org.eclipse.core.resources.ProjectScope;
 import org.eclipse.core.resources.ResourcesPlugin;
@@ -105,14 +103,11 @@ import de.ovgu.featureide.fm.core.base.impl.ExtendedFeatureModel;
 import de.ovgu.featureide.fm.core.base.impl.FMFormatManager;
 import de.ovgu.featureide.fm.core.configuration.Configuration;
 import de.ovgu.featureide.fm.core.configuration.FeatureIDEFormat;
-import de.ovgu.featureide.fm.core.configuration.SelectableFeature;
-import de.ovgu.featureide.fm.core.configuration.Selection;
 import de.ovgu.featureide.fm.core.filter.HashSetFilter;
 import de.ovgu.featureide.fm.core.filter.base.InverseFilter;
 import de.ovgu.featureide.fm.core.functional.Functional;
 import de.ovgu.featureide.fm.core.io.FeatureOrderFormat;
 import de.ovgu.featureide.fm.core.io.Problem;
-import de.ovgu.featureide.fm.core.io.ProblemList;
 import de.ovgu.featureide.fm.core.io.manager.ConfigurationManager;
 import de.ovgu.featureide.fm.core.io.manager.FeatureModelManager;
 import de.ovgu.featureide.fm.core.io.manager.FileHandler;
@@ -125,6 +120,7 @@ import de.ovgu.featureide.fm.core.job.JobToken;
 import de.ovgu.featureide.fm.core.job.LongRunningMethod;
 import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
 
 /**
  * Class that encapsulates any data and method related to FeatureIDE projects.
@@ -155,8 +151,7 @@ public class FeatureProject extends BuilderMarkerHandler implements IFeatureProj
 				break;
 			case MODEL_DATA_SAVED:
 				try {
-					checkFeatureCoverage();
-					checkConfigurations(getAllConfigurations());
+					checkConfigurations(getAllConfigurations(), true);
 					createAndDeleteFeatureFolders();
 					composerExtension.postModelChanged();
 				} catch (final CoreException e) {
@@ -261,36 +256,99 @@ public class FeatureProject extends BuilderMarkerHandler implements IFeatureProj
 		}
 	};
 
+	/**
+	 * The configurations that should be checked for validity by the next run of the {@link #configurationChecker}, each with the number of the last request
+	 * for it.
+	 */
+	private final Map<IFile, Long> pendingConfigurations = new HashMap<>();
+	private long configurationRequests = 0;
+	/**
+	 * The number of the last request for a feature coverage check, or {@code -1} if there is none pending.
+	 */
+	private long coverageRequest = -1;
+
+	/**
+	 * Checks all pending configurations for validity and, if requested, all configurations for features that are never or always selected. The
+	 * configurations are loaded only once and in parallel, and all markers are updated in a single workspace operation.
+	 */
 	private final LongRunningMethod<Boolean> configurationChecker = new LongRunningMethod<Boolean>() {
 
 		@Override
 		public Boolean execute(IMonitor workMonitor) throws Exception {
-			final IFolder folder = configFolder;
-			deleteConfigurationMarkers(folder, IResource.DEPTH_ZERO);
-			workMonitor.setRemainingWork(7);
-			next(CALCULATE_CORE_AND_DEAD_FEATURES, workMonitor);
-			final List<String> concreteFeatures = getOptionalConcreteFeatures();
-			next(GET_SELECTION_MATRIX, workMonitor);
-			final boolean[][] selectionMatrix = getSelectionMatrix(concreteFeatures);
-			next(GET_FALSE_OPTIONAL_FEATURES, workMonitor);
-			final Collection<String> falseOptionalFeatures = getFalseOptionalConfigurationFeatures(selectionMatrix, concreteFeatures);
-			next(GET_UNUSED_FEATURES, workMonitor);
-			workMonitor.checkCancel();
-			final Collection<String> deadFeatures = getUnusedConfigurationFeatures(selectionMatrix, concreteFeatures);
-			next("create marker: dead features", workMonitor);
-			if (!deadFeatures.isEmpty()) {
-				createConfigurationMarker(folder, MARKER_NEVER_SELECTED + deadFeatures.size() + (deadFeatures.size() > 1 ? " features are " : " feature is ")
-					+ "not used: " + createShortMessage(deadFeatures), -1, IMarker.SEVERITY_INFO);
-				next("create marker: false optional features", workMonitor);
+			final Map<IFile, Long> requestedFiles;
+			final long requestedCoverage;
+			synchronized (pendingConfigurations) {
+				requestedFiles = new HashMap<>(pendingConfigurations);
+				requestedCoverage = coverageRequest;
 			}
-			if (!falseOptionalFeatures.isEmpty()) {
-				createConfigurationMarker(folder,
-						MARKER_ALWAYS_SELECTED + falseOptionalFeatures.size() + (falseOptionalFeatures.size() > 1 ? " features are " : " feature is ")
-							+ "optional but used in all configurations: " + createShortMessage(falseOptionalFeatures),
-						-1, IMarker.SEVERITY_INFO);
+			final boolean checkCoverage = requestedCoverage >= 0;
+			if (requestedFiles.isEmpty() && !checkCoverage) {
+				return true;
+			}
+
+			workMonitor.setRemainingWork(4);
+			try {
+				next(CALCULATE_CORE_AND_DEAD_FEATURES, workMonitor);
+				final List<String> concreteFeatures = checkCoverage ? getOptionalConcreteFeatures() : Collections.<String> emptyList();
+				final List<IFile> files = new ArrayList<>();
+				for (final IFile file : checkCoverage ? getAllConfigurations() : requestedFiles.keySet()) {
+					if (file.exists()) {
+						files.add(file);
+					}
+				}
+
+				final IMonitor checkMonitor = workMonitor.subTask(1);
+				checkMonitor.setTaskName(CHECKING_CONFIGURATIONS);
+				final List<ConfigurationFolderChecker.Result> results =
+					new ConfigurationFolderChecker(featureModelManager.getObject(), concreteFeatures, !requestedFiles.isEmpty()).check(files,
+							requestedFiles.keySet(), checkMonitor);
+				checkMonitor.done();
+
+				next(GET_UNUSED_FEATURES, workMonitor);
+				final Collection<String> deadFeatures;
+				final Collection<String> falseOptionalFeatures;
+				if (checkCoverage) {
+					final boolean[][] selectionMatrix = ConfigurationFolderChecker.getSelectionMatrix(results);
+					falseOptionalFeatures = getFalseOptionalConfigurationFeatures(selectionMatrix, concreteFeatures);
+					deadFeatures = getUnusedConfigurationFeatures(selectionMatrix, concreteFeatures);
+				} else {
+					falseOptionalFeatures = Collections.emptyList();
+					deadFeatures = Collections.emptyList();
+				}
+
+				next(REFESH_CONFIGURATION_FOLER, workMonitor);
+				workMonitor.checkCancel();
+				ResourcesPlugin.getWorkspace().run(new IWorkspaceRunnable() {
+
+					@Override
+					public void run(IProgressMonitor monitor) throws CoreException {
+						for (final ConfigurationFolderChecker.Result result : results) {
+							if (requestedFiles.containsKey(result.file)) {
+								createConfigurationMarkers(result);
+							}
+						}
+						if (checkCoverage) {
+							createCoverageMarkers(deadFeatures, falseOptionalFeatures);
+						}
+					}
+				}, null);
+			} catch (final OutOfMemoryError e) {
+				LOGGER.logError(e);
+				return false;
+			} finally {
+				workMonitor.done();
+			}
+
+			synchronized (pendingConfigurations) {
+				for (final Entry<IFile, Long> entry : requestedFiles.entrySet()) {
+					if (entry.getValue().equals(pendingConfigurations.get(entry.getKey()))) {
+						pendingConfigurations.remove(entry.getKey());
+					}
+				}
+				if (coverageRequest == requestedCoverage) {
+					coverageRequest = -1;
+				}
 			}
-			next(REFESH_CONFIGURATION_FOLER, workMonitor);
-			workMonitor.done();
 			return true;
 		}
 
@@ -298,25 +356,57 @@ public class FeatureProject extends BuilderMarkerHandler implements IFeatureProj
 			workMonitor.step();
 			workMonitor.setTaskName(subTaskName);
 		}
+	};
 
-		private String createShortMessage(Collection<String> features) {
-			final StringBuilder message = new StringBuilder();
-			int addedFeatures = 0;
-			for (final String feature : features) {
-				message.append(feature);
-				message.append(", ");
-				if (addedFeatures++ >= 10) {
-					message.append("...");
-					break;
-				}
-			}
-			if ((addedFeatures < 10) && (addedFeatures > 0)) {
-				message.delete(message.lastIndexOf(", "), message.lastIndexOf(", ") + 2);
+	private void createConfigurationMarkers(ConfigurationFolderChecker.Result result) {
+		final IFile file = result.file;
+		deleteConfigurationMarkers(file, IResource.DEPTH_ZERO);
+		if (result.invalid) {
+			String name = file.getName();
+			final int extIndex = name.lastIndexOf('.');
+			if (extIndex > 0) {
+				name = name.substring(0, extIndex);
 			}
+			createConfigurationMarker(file, CONFIGURATION_ + name + IS_INVALID, 0, IMarker.SEVERITY_ERROR);
+		}
+		// create warnings (e.g., for features that are not available anymore)
+		for (final Problem warning : result.problems) {
+			createConfigurationMarker(file, warning.getMessage(), warning.getLine(), IMarker.SEVERITY_WARNING);
+		}
+	}
 
-			return message.toString();
+	private void createCoverageMarkers(Collection<String> deadFeatures, Collection<String> falseOptionalFeatures) {
+		final IFolder folder = configFolder;
+		deleteConfigurationMarkers(folder, IResource.DEPTH_ZERO);
+		if (!deadFeatures.isEmpty()) {
+			createConfigurationMarker(folder, MARKER_NEVER_SELECTED + deadFeatures.size() + (deadFeatures.size() > 1 ? " features are " : " feature is ")
+				+ "not used: " + createShortMessage(deadFeatures), -1, IMarker.SEVERITY_INFO);
 		}
-	};
+		if (!falseOptionalFeatures.isEmpty()) {
+			createConfigurationMarker(folder,
+					MARKER_ALWAYS_SELECTED + falseOptionalFeatures.size() + (falseOptionalFeatures.size() > 1 ? " features are " : " feature is ")
+						+ "optional but used in all configurations: " + createShortMessage(falseOptionalFeatures),
+					-1, IMarker.SEVERITY_INFO);
+		}
+	}
+
+	private static String createShortMessage(Collection<String> features) {
+		final StringBuilder message = new StringBuilder();
+		int addedFeatures = 0;
+		for (final String feature : features) {
+			message.append(feature);
+			message.append(", ");
+			if (addedFeatures++ >= 10) {
+				message.append("...");
+				break;
+			}
+		}
+		if ((addedFeatures < 10) && (addedFeatures > 0)) {
+			message.delete(message.lastIndexOf(", "), message.lastIndexOf(", ") + 2);
+		}
+
+		return message.toString();
+	}
 
 	/**
 	 * Creating a new ProjectData includes creating folders if they don't exist, registering workspace listeners and initialization of the wrapper object.
@@ -923,20 +1013,22 @@ public class FeatureProject extends BuilderMarkerHandler implements IFeatureProj
 
 		try {
 			final List<IFile> configs = getAllConfigurations();
+			boolean checkCoverage = false;
 			final IResourceDelta configurationDelta = event.getDelta().findMember(configFolder.getFullPath());
 			if (configurationDelta != null) {
 				for (final IResourceDelta delta : configurationDelta.getAffectedChildren(IResourceDelta.REMOVED)) {
 					CorePlugin.getDefault().logInfo(delta.toString() + " was removed.");
 					// if configuration was removed update warnings
-					checkFeatureCoverage();
+					checkCoverage = true;
 				}
 			}
 			final List<IFile> changedConfigs = new ArrayList<IFile>();
 			final IFile currentConfig = getCurrentConfiguration();
 			for (final IFile config : configs) {
 				final IResourceDelta delta = event.getDelta().findMember(config.getFullPath());
-				if (delta != null) {
-					checkFeatureCoverage();
+				// ignore the markers created by the configuration check
+				if ((delta != null) && ((delta.getKind() != IResourceDelta.CHANGED) || ((delta.getFlags() & ~IResourceDelta.MARKERS) != 0))) {
+					checkCoverage = true;
 					break;
 				}
 			}
@@ -952,7 +1044,9 @@ public class FeatureProject extends BuilderMarkerHandler implements IFeatureProj
 			}
 			if (!configurationUpdate && !changedConfigs.isEmpty()) {
 				LOGGER.fireConfigurationChanged(this);
-				checkConfigurations(changedConfigs);
+				checkConfigurations(changedConfigs, checkCoverage);
+			} else if (checkCoverage) {
+				checkFeatureCoverage();
 			}
 
 			if (!buildRelevantChanges && (sourceFolder != null) && sourceFolder.isAccessible()) {
@@ -1073,67 +1167,34 @@ public class FeatureProject extends BuilderMarkerHandler implements IFeatureProj
 		return (delta != null) && ((delta.getFlags() & IResourceDelta.CONTENT) != 0);
 	}
 
-	private void checkConfigurations(final List<IFile> files) {
-		if ((files == null) || files.isEmpty()) {
-			return;
-		}
-
-		final LongRunningMethod<Boolean> job = new LongRunningMethod<Boolean>() {
-
-			@Override
-			public Boolean execute(IMonitor workMonitor) throws Exception {
-				workMonitor.setRemainingWork(2);
-				final Configuration config = new Configuration(featureModelManager.getObject(), false, false);
-				try {
-					IMonitor subTask = workMonitor.subTask(1);
-					subTask.setTaskName(DELETE_CONFIGURATION_MARKERS);
-					subTask.setRemainingWork(files.size());
-					for (final IFile file : files) {
-						deleteConfigurationMarkers(file, IResource.DEPTH_ZERO);
-						subTask.step();
-					}
-					subTask.done();
-					subTask = workMonitor.subTask(1);
-					subTask.setRemainingWork(files.size());
-					// check validity
-					for (final IFile file : files) {
-						subTask.setTaskName(CHECK_VALIDITY_OF + " - " + file.getName());
-						final ProblemList lastProblems = SimpleFileHandler.load(Paths.get(file.getLocationURI()), config, ConfigFormatManager.getInstance());
-						if (!config.isValid()) {
-							String name = file.getName();
-							final int extIndex = name.lastIndexOf('.');
-							if (extIndex > 0) {
-								name = name.substring(0, extIndex);
-							}
-							final String message = CONFIGURATION_ + name + IS_INVALID;
-							createConfigurationMarker(file, message, 0, IMarker.SEVERITY_ERROR);
-
-						}
-						// create warnings (e.g., for features that are not available anymore)
-						for (final Problem warning : lastProblems) {
-							createConfigurationMarker(file, warning.getMessage(), warning.getLine(), IMarker.SEVERITY_WARNING);
-						}
-						subTask.step();
-					}
-					subTask.done();
-				} catch (final OutOfMemoryError e) {
-					LOGGER.logError(e);
-					return false;
-				} finally {
-					workMonitor.done();
-				}
-				return true;
-			}
-		};
-		LongRunningWrapper.getRunner(job, CHECKING_CONFIGURATIONS).schedule();
-	}
-
 	/**
 	 * Checks if any concrete feature is used in at least one configuration.
 	 */
 	// should also be called if a configuration file was removed
 	private void checkFeatureCoverage() {
-		LongRunningWrapper.startJob(checkConfigurationToken, LongRunningWrapper.getRunner(configurationChecker, CHECKING_CONFIGURATIONS_FOR_UNUSED_FEATURES));
+		checkConfigurations(Collections.<IFile> emptyList(), true);
+	}
+
+	/**
+	 * Checks the given configurations for validity and, if <code>checkCoverage</code> is set, the feature coverage of all configurations. Requests are
+	 * merged until the {@link #configurationChecker} starts, such that all configurations are loaded once per run.
+	 */
+	private void checkConfigurations(final List<IFile> files, boolean checkCoverage) {
+		if (((files == null) || files.isEmpty()) && !checkCoverage) {
+			return;
+		}
+		synchronized (pendingConfigurations) {
+			final long request = ++configurationRequests;
+			if (files != null) {
+				for (final IFile file : files) {
+					pendingConfigurations.put(file, request);
+				}
+			}
+			if (checkCoverage) {
+				coverageRequest = request;
+			}
+		}
+		LongRunningWrapper.startJob(checkConfigurationToken, LongRunningWrapper.getRunner(configurationChecker, CHECKING_CONFIGURATIONS));
 	}
 
 	@Override
@@ -1174,27 +1235,15 @@ public class FeatureProject extends BuilderMarkerHandler implements IFeatureProj
 		return getSelectionMatrix(getOptionalConcreteFeatures());
 	}
 
-	private boolean[][] getSelectionMatrix(final Collection<String> concreteFeatures) {
+	private boolean[][] getSelectionMatrix(final List<String> concreteFeatures) {
 		final List<IFile> configurations = getAllConfigurations();
-
-		final boolean[][] selections = new boolean[configurations.size()][concreteFeatures.size()];
-		final Configuration configuration = new Configuration(featureModelManager.getObject(), Configuration.PARAM_IGNOREABSTRACT | Configuration.PARAM_LAZY);
-
-		int row = 0;
-		for (final IFile file : configurations) {
-			final boolean[] currentRow = selections[row++];
-			ConfigurationManager.load(Paths.get(file.getLocationURI()), configuration);
-
-			int column = 0;
-			for (final String feature : concreteFeatures) {
-				final SelectableFeature selectablefeature = configuration.getSelectablefeature(feature);
-				if (selectablefeature != null) {
-					currentRow[column] = selectablefeature.getSelection() == Selection.SELECTED;
-				}
-				column++;
-			}
+		try {
+			final ConfigurationFolderChecker checker = new ConfigurationFolderChecker(featureModelManager.getObject(), concreteFeatures, false);
+			return ConfigurationFolderChecker.getSelectionMatrix(checker.check(configurations, Collections.<IFile> emptySet(), new NullMonitor()));
+		} catch (final Exception e) {
+			LOGGER.logError(e);
+			return new boolean[0][];
 		}
-		return selections;
 	}
 
 	private List<String> getOptionalConcreteFeatures() {
@@ -1532,8 +1581,7 @@ public class FeatureProject extends BuilderMarkerHandler implements IFeatureProj
 	 */
 	@Override
 	public void checkForProblems() {
-		checkFeatureCoverage();
-		checkConfigurations(getAllConfigurations());
+		checkConfigurations(getAllConfigurations(), true);
 		modelFile.deleteAllModelMarkers();
 		for (final Problem warning : featureModelManager.getLastProblems()) {
 			modelFile.createModelMarker(warning.message, warning.severity.getLevel(), warning.line);
@@ -28,6 +28,8 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Map.Entry;
 
+import org.prop4j.Node;
+
 import de.ovgu.featureide.core.signature.base.AFeatureData;
 import de.ovgu.featureide.core.signature.base.AbstractClassSignature;
 import de.ovgu.featureide.core.signature.base.AbstractFieldSignature;
@@ -35,6 +37,7 @@ import de.ovgu.featureide.core.signature.base.AbstractMethodSignature;
 import de.ovgu.featureide.core.signature.base.AbstractSignature;
 import de.ovgu.featureide.fm.core.base.IFeature;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
 import de.ovgu.featureide.fm.core.filter.base.IFilter;
 
 /**
@@ -123,6 +126,11 @@ public class ProjectSignatures implements Iterable<AbstractSignature> {
 
 	private final IFeatureModel featureModel;
 
+	/**
+	 * The feature model in conjunctive normal form. Created lazily.
+	 */
+	private Node featureModelCNF = null;
+
 	private int hashCode = 0;
 	private boolean hasHashCode = false;
 
@@ -204,6 +212,19 @@ public class ProjectSignatures implements Iterable<AbstractSignature> {
 		return featureModel;
 	}
 
+	/**
+	 * Returns the feature model in conjunctive normal form. The formula is created once and shared by all filters of this instance, so it must not be
+	 * modified.
+	 *
+	 * @return the feature model as formula
+	 */
+	public synchronized Node getFeatureModelCNF() {
+		if (featureModelCNF == null) {
+			featureModelCNF = AdvancedNodeCreator.createCNF(featureModel);
+		}
+		return featureModelCNF;
+	}
+
 	public void setSignatureArray(AbstractSignature[] signatureArray) {
 		this.signatureArray = signatureArray;
 	}
@@ -20,6 +20,9 @@
  */
 package de.ovgu.featureide.core.signature.filter;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.prop4j.And;
 import org.prop4j.Literal;
 import org.prop4j.Node;
@@ -38,6 +41,12 @@ public class ConstraintFilter implements IFilter<IConstrainedObject> {
 
 	private final boolean includeNullConstraint;
 
+	/**
+	 * The result for each constraint that was already checked. Many objects share the same constraint. The filter can be used by multiple threads, the
+	 * solver is used by one thread at a time.
+	 */
+	private final Map<Node, Boolean> results = new ConcurrentHashMap<>();
+
 	public ConstraintFilter(Node... constraints) {
 		this(true, constraints);
 	}
@@ -49,14 +58,21 @@ public class ConstraintFilter implements IFilter<IConstrainedObject> {
 
 	@Override
 	public boolean isValid(IConstrainedObject object) {
-		Node constraint = object.getConstraint();
+		final Node constraint = object.getConstraint();
 
 		if (constraint == null) {
 			return includeNullConstraint;
 		}
 
-		constraint = new Not(constraint).toCNF();
+		Boolean result = results.get(constraint);
+		if (result == null) {
+			result = isValid(new Not(constraint).toCNF());
+			results.put(constraint, result);
+		}
+		return result;
+	}
 
+	private synchronized boolean isValid(Node constraint) {
 		try {
 			if ((constraint instanceof Literal)) {
 				return !solver.isSatisfiable(new Node[] { constraint });
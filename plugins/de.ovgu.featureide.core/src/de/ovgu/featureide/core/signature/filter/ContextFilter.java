@@ -20,7 +20,19 @@
  */
 package de.ovgu.featureide.core.signature.filter;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.prop4j.And;
 import org.prop4j.Literal;
@@ -32,23 +44,36 @@ import de.ovgu.featureide.core.CorePlugin;
 import de.ovgu.featureide.core.signature.ProjectSignatures;
 import de.ovgu.featureide.core.signature.base.AFeatureData;
 import de.ovgu.featureide.core.signature.base.AbstractSignature;
-import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
 import de.ovgu.featureide.fm.core.filter.base.IFilter;
 
+/**
+ * Accepts all signatures that are present in every product of the given context.</br> Many signatures are defined in the same set of features, so the
+ * result is computed once for each set of feature IDs, when the first signature of this set is checked. Callers that check many signatures can compute the
+ * results for all of them in advance and in parallel (see {@link #evaluate(Iterable)}).
+ */
 public class ContextFilter implements IFilter<AbstractSignature> {
 
+	private static final int MIN_SETS_PER_THREAD = 64;
+
 	private final ProjectSignatures projectSignatures;
 	private final Node fmNode;
 	private final boolean[] selectedFeatures;
+	private Node contextNode;
 	private SatSolver solver;
 
+	/**
+	 * The result for each set of feature IDs that was already checked in the current context. The filter can be used by multiple threads, the solver is used
+	 * by one thread at a time.
+	 */
+	private final Map<BitSet, Boolean> results = new ConcurrentHashMap<>();
+
 	public ContextFilter(String featureName, ProjectSignatures projectSignatures) {
 		this(new Node[] { new Literal(featureName, true) }, projectSignatures);
 	}
 
 	public ContextFilter(Node[] constraints, ProjectSignatures projectSignatures) {
 		this.projectSignatures = projectSignatures;
-		fmNode = AdvancedNodeCreator.createNodes(projectSignatures.getFeatureModel());
+		fmNode = projectSignatures.getFeatureModelCNF();
 		selectedFeatures = new boolean[projectSignatures.getFeatureModel().getNumberOfFeatures()];
 
 		init(constraints);
@@ -58,13 +83,12 @@ public class ContextFilter implements IFilter<AbstractSignature> {
 		init(new Node[] { new Literal(featureName, true) });
 	}
 
-	public void init(Node[] constraints) {
-		final Node[] fixClauses = new Node[constraints.length + 1];
-		fixClauses[0] = fmNode;
-		System.arraycopy(constraints, 0, fixClauses, 1, constraints.length);
+	public synchronized void init(Node[] constraints) {
 		Arrays.fill(selectedFeatures, false);
+		contextNode = new And(constraints).toCNF();
+		results.clear();
 
-		solver = new SatSolver(new And(fixClauses), 2000);
+		solver = createSolver();
 
 		for (final Literal literal : solver.knownValues(SatSolver.ValueType.TRUE)) {
 			final int id = projectSignatures.getFeatureID(literal.var.toString());
@@ -74,16 +98,111 @@ public class ContextFilter implements IFilter<AbstractSignature> {
 		}
 	}
 
+	private SatSolver createSolver() {
+		final SatSolver solver = new SatSolver(fmNode, 2000, false);
+		solver.addClauses(contextNode);
+		return solver;
+	}
+
 	@Override
 	public boolean isValid(AbstractSignature signature) {
-		final AFeatureData[] ids = signature.getFeatureData();
-		final Node[] negativeLiterals = new Node[ids.length];
-		for (int i = 0; i < ids.length; ++i) {
-			final int id = ids[i].getID();
+		final BitSet ids = getFeatureIDs(signature);
+		if (ids == null) {
+			return true;
+		}
+		Boolean result = results.get(ids);
+		if (result == null) {
+			result = isValid(ids);
+			results.put(ids, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Computes the results for the distinct sets of feature IDs of the given signatures, which were not checked yet. With enough sets, they are split across
+	 * up to one thread per processor, each with its own solver. Sets that could not be checked, because the current thread was interrupted, are checked on
+	 * demand by {@link #isValid(AbstractSignature)}.
+	 *
+	 * @param signatures the signatures that will be checked
+	 */
+	public void evaluate(Iterable<? extends AbstractSignature> signatures) {
+		final Set<BitSet> distinctIDs = new LinkedHashSet<>();
+		for (final AbstractSignature signature : signatures) {
+			final BitSet ids = getFeatureIDs(signature);
+			if ((ids != null) && !results.containsKey(ids)) {
+				distinctIDs.add(ids);
+			}
+		}
+		final List<BitSet> idList = new ArrayList<>(distinctIDs);
+
+		final int numberOfThreads = Math.min(Runtime.getRuntime().availableProcessors(), idList.size() / MIN_SETS_PER_THREAD);
+		if (numberOfThreads <= 1) {
+			synchronized (this) {
+				evaluate(solver, idList);
+			}
+			return;
+		}
+
+		final ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+		try {
+			final List<Future<?>> futures = new ArrayList<>(numberOfThreads);
+			final int chunkSize = ((idList.size() - 1) / numberOfThreads) + 1;
+			for (int start = 0; start < idList.size(); start += chunkSize) {
+				final List<BitSet> chunk = idList.subList(start, Math.min(idList.size(), start + chunkSize));
+				futures.add(executor.submit(new Callable<Void>() {
+
+					@Override
+					public Void call() throws Exception {
+						evaluate(createSolver(), chunk);
+						return null;
+					}
+				}));
+			}
+			for (final Future<?> future : futures) {
+				future.get();
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (final ExecutionException e) {
+			CorePlugin.getDefault().logError(e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private void evaluate(SatSolver solver, List<BitSet> idList) {
+		for (final BitSet ids : idList) {
+			if (Thread.currentThread().isInterrupted()) {
+				return;
+			}
+			results.put(ids, isValid(solver, ids));
+		}
+	}
+
+	/**
+	 * @return the IDs of the features that define the signature or {@code null} if one of them is selected in every product of the context
+	 */
+	private BitSet getFeatureIDs(AbstractSignature signature) {
+		final BitSet ids = new BitSet();
+		for (final AFeatureData featureData : signature.getFeatureData()) {
+			final int id = featureData.getID();
 			if (selectedFeatures[id]) {
-				return true;
+				return null;
 			}
-			negativeLiterals[i] = new Literal(projectSignatures.getFeatureName(id), false);
+			ids.set(id);
+		}
+		return ids;
+	}
+
+	private synchronized boolean isValid(BitSet ids) {
+		return isValid(solver, ids);
+	}
+
+	private boolean isValid(SatSolver solver, BitSet ids) {
+		final Node[] negativeLiterals = new Node[ids.cardinality()];
+		int i = 0;
+		for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+			negativeLiterals[i++] = new Literal(projectSignatures.getFeatureName(id), false);
 		}
 		try {
 			return !solver.isSatisfiable(negativeLiterals);
@@ -45,6 +45,7 @@ import org.prop4j.Not;
 import org.prop4j.Or;
 import org.prop4j.SatSolver;
 import org.prop4j.analyses.FeatureModelAnalysis;
+import org.prop4j.solver.PortfolioSolver;
 import org.sat4j.specs.TimeoutException;
 
 import de.ovgu.featureide.fm.core.base.FeatureUtils;
@@ -127,6 +128,12 @@ public class FeatureModelAnalyzer implements IEventListener {
 
 	private Boolean cachedValidity = null;
 
+	/**
+	 * The last completed analysis of the features, whose results are reused by the next analysis (see
+	 * {@link FeatureModelAnalysis#setPreviousAnalysis(FeatureModelAnalysis)}).
+	 */
+	private FeatureModelAnalysis lastFeatureAnalysis = null;
+
 	private final IFeatureModel fm;
 	/**
 	 * The feature model as a formula in conjunctive normal form. Created lazily. Resets when the feature model changes.
@@ -158,6 +165,16 @@ public class FeatureModelAnalyzer implements IEventListener {
 	 */
 	public boolean runCalculationAutomatically = true;
 
+	/**
+	 * The number of threads that compute core and dead features.
+	 */
+	private int numberOfThreads = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * Defines whether the validity of the feature model is checked by a {@link PortfolioSolver}.
+	 */
+	private boolean usePortfolioSolver = false;
+
 	/**
 	 * A flag indicating that the calculation should be canceled.
 	 */
@@ -201,6 +218,29 @@ public class FeatureModelAnalyzer implements IEventListener {
 		calculateRedundantConstraints = oldAnalyzer.calculateRedundantConstraints;
 		calculateTautologyConstraints = oldAnalyzer.calculateTautologyConstraints;
 		runCalculationAutomatically = oldAnalyzer.runCalculationAutomatically;
+		numberOfThreads = oldAnalyzer.numberOfThreads;
+		usePortfolioSolver = oldAnalyzer.usePortfolioSolver;
+	}
+
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	/**
+	 * Sets the number of threads that compute core and dead features. The results do not depend on the number of threads.
+	 *
+	 * @param numberOfThreads the number of threads (default: number of available processors)
+	 */
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = Math.max(1, numberOfThreads);
+	}
+
+	public boolean isUsePortfolioSolver() {
+		return usePortfolioSolver;
+	}
+
+	public void setUsePortfolioSolver(boolean usePortfolioSolver) {
+		this.usePortfolioSolver = usePortfolioSolver;
 	}
 
 	/**
@@ -602,7 +642,13 @@ public class FeatureModelAnalyzer implements IEventListener {
 		analysis.setCalculateTautologyConstraints(calculateTautologyConstraints);
 		analysis.setCalculateDeadConstraints(calculateDeadConstraints);
 		analysis.setCalculateFOConstraints(calculateFOConstraints);
+		analysis.setNumberOfThreads(numberOfThreads);
+		analysis.setUsePortfolioSolver(usePortfolioSolver);
+		analysis.setPreviousAnalysis(lastFeatureAnalysis);
 		final HashMap<Object, Object> newAttributes = LongRunningWrapper.runMethod(analysis, this.monitor);
+		if (calculateFeatures && (newAttributes != null)) {
+			lastFeatureAnalysis = analysis;
+		}
 		cachedValidity = analysis.isValid();
 		cachedCoreFeatures = analysis.getCoreFeatures();
 		cachedDeadFeatures = analysis.getDeadFeatures();
@@ -624,6 +670,7 @@ public class FeatureModelAnalyzer implements IEventListener {
 		analysis.setCalculateTautologyConstraints(calculateTautologyConstraints);
 		analysis.setCalculateDeadConstraints(calculateDeadConstraints);
 		analysis.setCalculateFOConstraints(calculateFOConstraints);
+		analysis.setUsePortfolioSolver(usePortfolioSolver);
 		analysis.updateConstraints();
 		cachedValidity = analysis.isValid();
 	}
@@ -641,7 +688,11 @@ public class FeatureModelAnalyzer implements IEventListener {
 		final FeatureModelAnalysis analysis = new FeatureModelAnalysis(fm);
 		analysis.setCalculateFeatures(true);
 		analysis.setCalculateConstraints(false);
+		analysis.setNumberOfThreads(numberOfThreads);
+		analysis.setUsePortfolioSolver(usePortfolioSolver);
+		analysis.setPreviousAnalysis(lastFeatureAnalysis);
 		analysis.updateFeatures();
+		lastFeatureAnalysis = analysis;
 		cachedValidity = analysis.isValid();
 		cachedCoreFeatures = analysis.getCoreFeatures();
 		cachedDeadFeatures = analysis.getDeadFeatures();
@@ -28,6 +28,7 @@ import java.util.Map;
 
 import de.ovgu.featureide.fm.core.FeatureModelAnalyzer;
 import de.ovgu.featureide.fm.core.RenamingsManager;
+import de.ovgu.featureide.fm.core.base.event.DefaultEventManager;
 import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent;
 import de.ovgu.featureide.fm.core.base.event.IEventManager;
 import de.ovgu.featureide.fm.core.base.impl.Constraint;
@@ -753,6 +754,47 @@ public interface IFeatureModel extends Cloneable, IEventManager {
 	 */
 	long getNextElementId();
 
+	/**
+	 * Returns the modification counter of this feature model. The counter is increased by every modification of the model and its elements and by every
+	 * {@link #fireEvent(FeatureIDEEvent) event} fired by the model. Thus, if the counter has the same value at two points
+	 * in time, the model was not modified in between. A different value does not imply a different content (e.g., after an operation was undone).
+	 *
+	 * @see #modified()
+	 *
+	 * @since 3.5
+	 *
+	 * @return the current value of the modification counter
+	 */
+	long getModificationCount();
+
+	/**
+	 * Increases the {@link #getModificationCount() modification counter} of this feature model. Elements of the model call this method whenever they are
+	 * modified. Clients that modify the model without its methods or the methods of its elements must call this method as well.
+	 *
+	 * @since 3.5
+	 */
+	void modified();
+
+	/**
+	 * Starts a batch of modifications. Until the batch is {@link #endBatch() ended}, events fired by this model are collected and delivered afterwards, where
+	 * redundant events are only delivered once. Thus, listeners are notified once about a large modification instead of once for every single step.<br/>
+	 * Batches can be nested. Every call of this method must be followed by a call of {@link #endBatch()}, preferably in a {@code finally} block.
+	 *
+	 * @see DefaultEventManager#beginBatch()
+	 *
+	 * @since 3.5
+	 */
+	void beginBatch();
+
+	/**
+	 * Ends a batch of modifications that was started with {@link #beginBatch()}.
+	 *
+	 * @see DefaultEventManager#endBatch()
+	 *
+	 * @since 3.5
+	 */
+	void endBatch();
+
 	/**
 	 * Overwrites the constraint stored in this feature model at position <code>index</code> with the constraint provided by the parameter
 	 * <code>constraint</code>.
@@ -20,29 +20,141 @@
  */
 package de.ovgu.featureide.fm.core.base.event;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import de.ovgu.featureide.fm.core.Logger;
 
 /**
- * Default implementation of {@link IEventManager}.
+ * Default implementation of {@link IEventManager}.<br/> Events are delivered to a snapshot of the listeners, so listeners can be added and removed while an
+ * event is fired. Listeners can either be called directly by the firing thread or by an {@link Executor} (see {@link #addListener(IEventListener, Executor)}).
+ * Between {@link #beginBatch()} and {@link #endBatch()} events are collected and delivered at the end of the batch, where equal events are only delivered once.
  *
  * @author Sebastian Krieter
  */
 public class DefaultEventManager implements IEventManager, IEventListener {
 
-	protected final List<IEventListener> listenerList = new LinkedList<>();
+	/**
+	 * Passes events to a listener using an executor. The events are delivered one after another in the order they were fired.
+	 */
+	private static final class AsyncListener implements IEventListener, Runnable {
+
+		private final IEventListener listener;
+		private final Executor executor;
+
+		private final Queue<FeatureIDEEvent> events = new ConcurrentLinkedQueue<>();
+		private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+		private AsyncListener(IEventListener listener, Executor executor) {
+			this.listener = listener;
+			this.executor = executor;
+		}
+
+		@Override
+		public void propertyChange(FeatureIDEEvent event) {
+			events.add(event);
+			if (scheduled.compareAndSet(false, true)) {
+				executor.execute(this);
+			}
+		}
+
+		@Override
+		public void run() {
+			do {
+				for (FeatureIDEEvent event = events.poll(); event != null; event = events.poll()) {
+					try {
+						listener.propertyChange(event);
+					} catch (final Throwable e) {
+						Logger.logError(e);
+					}
+				}
+				scheduled.set(false);
+			} while (!events.isEmpty() && scheduled.compareAndSet(false, true));
+		}
+
+	}
+
+	/**
+	 * Wraps an event to determine whether two events are redundant, i.e., have the same type, source, and values.
+	 */
+	private static final class PendingEvent {
+
+		private final FeatureIDEEvent event;
+
+		private PendingEvent(FeatureIDEEvent event) {
+			this.event = event;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(event.getEventType(), event.getSource(), event.getOldValue(), event.getNewValue());
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if ((obj == null) || (getClass() != obj.getClass())) {
+				return false;
+			}
+			final FeatureIDEEvent other = ((PendingEvent) obj).event;
+			return (event.getEventType() == other.getEventType()) && Objects.equals(event.getSource(), other.getSource())
+				&& Objects.equals(event.getOldValue(), other.getOldValue()) && Objects.equals(event.getNewValue(), other.getNewValue());
+		}
+
+	}
+
+	protected final List<IEventListener> listenerList = new CopyOnWriteArrayList<>();
+
+	private final Set<PendingEvent> pendingEvents = new LinkedHashSet<>();
+	private int batchDepth = 0;
 
 	@Override
 	public synchronized void addListener(IEventListener listener) {
-		if (!listenerList.contains(listener)) {
+		if (indexOf(listener) < 0) {
 			listenerList.add(listener);
 		}
 	}
 
+	/**
+	 * Adds a listener that is notified by the given executor instead of the firing thread. The listener receives the events in the order they were fired.
+	 *
+	 * @param listener the listener
+	 * @param executor the executor that delivers the events, e.g., the user interface thread
+	 */
+	public synchronized void addListener(IEventListener listener, Executor executor) {
+		if (indexOf(listener) < 0) {
+			listenerList.add(new AsyncListener(listener, executor));
+		}
+	}
+
+	private int indexOf(IEventListener listener) {
+		for (int i = 0; i < listenerList.size(); i++) {
+			final IEventListener element = listenerList.get(i);
+			if ((element == listener) || ((element instanceof AsyncListener) && (((AsyncListener) element).listener == listener))) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
 	@Override
-	public synchronized void fireEvent(FeatureIDEEvent event) {
+	public void fireEvent(FeatureIDEEvent event) {
+		synchronized (pendingEvents) {
+			if (batchDepth > 0) {
+				pendingEvents.add(new PendingEvent(event));
+				return;
+			}
+		}
 		for (final IEventListener listener : listenerList) {
 			callListener(event, listener);
 		}
@@ -56,9 +168,43 @@ public class DefaultEventManager implements IEventManager, IEventListener {
 		}
 	}
 
+	/**
+	 * Starts a batch. Until the batch is {@link #endBatch() ended}, fired events are not delivered immediately but collected. Batches can be nested.
+	 */
+	public void beginBatch() {
+		synchronized (pendingEvents) {
+			batchDepth++;
+		}
+	}
+
+	/**
+	 * Ends a batch. If this is the outermost batch, the collected events are delivered in the order they were fired. Redundant events are only delivered once.
+	 *
+	 * @throws IllegalStateException if no batch was started
+	 */
+	public void endBatch() {
+		final List<PendingEvent> events;
+		synchronized (pendingEvents) {
+			if (batchDepth == 0) {
+				throw new IllegalStateException("No batch was started");
+			}
+			if (--batchDepth > 0) {
+				return;
+			}
+			events = new ArrayList<>(pendingEvents);
+			pendingEvents.clear();
+		}
+		for (final PendingEvent pendingEvent : events) {
+			fireEvent(pendingEvent.event);
+		}
+	}
+
 	@Override
 	public synchronized void removeListener(IEventListener listener) {
-		listenerList.remove(listener);
+		final int index = indexOf(listener);
+		if (index >= 0) {
+			listenerList.remove(index);
+		}
 	}
 
 	@Override
@@ -190,6 +190,7 @@ public abstract class AConstraint extends AFeatureModelElement implements IConst
 	@Override
 	public void setNode(Node node) {
 		propNode = node;
+		featureModel.modified();
 	}
 
 	@Override
@@ -199,6 +200,7 @@ public abstract class AConstraint extends AFeatureModelElement implements IConst
 
 	public void setDescription(@Nonnull final String description) {
 		this.description = description;
+		featureModel.modified();
 	}
 
 	/**
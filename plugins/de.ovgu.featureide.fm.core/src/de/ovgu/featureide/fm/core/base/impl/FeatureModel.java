@@ -45,7 +45,6 @@ import de.ovgu.featureide.fm.core.base.event.DefaultEventManager;
 import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent;
 import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent.EventType;
 import de.ovgu.featureide.fm.core.base.event.IEventListener;
-import de.ovgu.featureide.fm.core.base.event.IEventManager;
 import de.ovgu.featureide.fm.core.filter.ConcreteFeatureFilter;
 import de.ovgu.featureide.fm.core.functional.Functional;
 
@@ -70,11 +69,23 @@ public class FeatureModel implements IFeatureModel {
 
 	private long nextElementId = 0;
 
+	private volatile long modificationCount = 0;
+
 	@Override
 	public final synchronized long getNextElementId() {
 		return nextElementId++;
 	}
 
+	@Override
+	public long getModificationCount() {
+		return modificationCount;
+	}
+
+	@Override
+	public void modified() {
+		modificationCount++;
+	}
+
 	protected final String factoryID;
 
 	protected final FeatureModelAnalyzer analyser;
@@ -90,7 +101,7 @@ public class FeatureModel implements IFeatureModel {
 	 */
 	protected final Map<String, IFeature> featureTable = new ConcurrentHashMap<>();
 
-	protected final IEventManager eventManager = new DefaultEventManager();
+	protected final DefaultEventManager eventManager = new DefaultEventManager();
 
 	protected final IFeatureModelProperty property;
 
@@ -154,11 +165,13 @@ public class FeatureModel implements IFeatureModel {
 
 	@Override
 	public void addConstraint(IConstraint constraint) {
+		modified();
 		constraints.add(constraint);
 	}
 
 	@Override
 	public void addConstraint(IConstraint constraint, int index) {
+		modified();
 		constraints.add(index, constraint);
 	}
 
@@ -169,6 +182,7 @@ public class FeatureModel implements IFeatureModel {
 			return false;
 		}
 		featureTable.put(name.toString(), feature);
+		modified();
 		return true;
 	}
 
@@ -212,6 +226,8 @@ public class FeatureModel implements IFeatureModel {
 			return false;
 		}
 
+		modified();
+
 		// use the group type of the feature to delete
 		final IFeatureStructure parent = feature.getStructure().getParent();
 
@@ -240,6 +256,7 @@ public class FeatureModel implements IFeatureModel {
 
 	@Override
 	public void deleteFeatureFromTable(IFeature feature) {
+		modified();
 		featureTable.remove(feature.getName());
 	}
 
@@ -255,9 +272,20 @@ public class FeatureModel implements IFeatureModel {
 
 	@Override
 	public final void fireEvent(FeatureIDEEvent event) {
+		modified();
 		eventManager.fireEvent(event);
 	}
 
+	@Override
+	public void beginBatch() {
+		eventManager.beginBatch();
+	}
+
+	@Override
+	public void endBatch() {
+		eventManager.endBatch();
+	}
+
 	protected void fireEvent(final EventType action) {
 		fireEvent(new FeatureIDEEvent(this, action, Boolean.FALSE, Boolean.TRUE));
 	}
@@ -382,11 +410,13 @@ public class FeatureModel implements IFeatureModel {
 
 	@Override
 	public void removeConstraint(IConstraint constraint) {
+		modified();
 		constraints.remove(constraint);
 	}
 
 	@Override
 	public void removeConstraint(int index) {
+		modified();
 		constraints.remove(index);
 
 	}
@@ -396,11 +426,13 @@ public class FeatureModel implements IFeatureModel {
 		if (constraint == null) {
 			throw new NullPointerException();
 		}
+		modified();
 		constraints.set(index, constraint);
 	}
 
 	@Override
 	public void reset() {
+		modified();
 		structure.setRoot(null);
 
 		featureTable.clear();
@@ -414,12 +446,14 @@ public class FeatureModel implements IFeatureModel {
 
 	@Override
 	public void setConstraints(Iterable<IConstraint> constraints) {
+		modified();
 		this.constraints.clear();
 		this.constraints.addAll(Functional.toList(constraints));
 	}
 
 	@Override
 	public void setFeatureOrderList(List<String> featureOrderList) {
+		modified();
 		final List<String> basicSet = Functional.mapToList(new FeaturePreOrder(this), new ConcreteFeatureFilter(), FeatureUtils.GET_FEATURE_NAME);
 		// TODO optimize performance
 		basicSet.removeAll(featureOrderList);
@@ -430,11 +464,13 @@ public class FeatureModel implements IFeatureModel {
 
 	@Override
 	public void setFeatureOrderUserDefined(boolean featureOrderUserDefined) {
+		modified();
 		this.featureOrderUserDefined = featureOrderUserDefined;
 	}
 
 	@Override
 	public void setFeatureTable(Hashtable<String, IFeature> featureTable) {
+		modified();
 		this.featureTable.clear();
 		this.featureTable.putAll(featureTable);
 	}
@@ -451,6 +487,7 @@ public class FeatureModel implements IFeatureModel {
 
 	@Override
 	public void setFeatureOrderListItem(int i, String newName) {
+		modified();
 		if (!featureOrderList.isEmpty()) {
 			featureOrderList.set(i, newName);
 		}
@@ -529,6 +566,7 @@ public class FeatureModel implements IFeatureModel {
 
 	@Override
 	public void setConstraint(int index, IConstraint constraint) {
+		modified();
 		constraints.set(index, constraint);
 	}
 
@@ -127,12 +127,13 @@ public class FeatureModelProperty implements IFeatureModelProperty {
 	@Override
 	public void addAnnotation(CharSequence annotation) {
 		annotations.add(annotation.toString());
-
+		correspondingFeatureModel.modified();
 	}
 
 	@Override
 	public void addComment(CharSequence comment) {
 		comments.add(comment.toString());
+		correspondingFeatureModel.modified();
 	}
 
 	@Override
@@ -165,11 +166,13 @@ public class FeatureModelProperty implements IFeatureModelProperty {
 		featureOrderInXML = false;
 		comments.clear();
 		annotations.clear();
+		correspondingFeatureModel.modified();
 	}
 
 	@Override
 	public void setFeatureOrderInXML(boolean featureOrderInXML) {
 		this.featureOrderInXML = featureOrderInXML;
+		correspondingFeatureModel.modified();
 	}
 
 }
@@ -251,11 +251,13 @@ public class FeatureModelStructure implements IFeatureModelStructure {
 
 		feature.setParent(null);
 		rootFeature = feature;
+		correspondingFeatureModel.modified();
 	}
 
 	@Override
 	public void setRoot(IFeatureStructure root) {
 		rootFeature = root;
+		correspondingFeatureModel.modified();
 	}
 
 	private boolean existsFeatureWithStatus(FeatureStatus status) {
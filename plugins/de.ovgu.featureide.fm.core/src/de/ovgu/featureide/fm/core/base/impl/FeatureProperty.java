@@ -86,6 +86,7 @@ public class FeatureProperty implements IFeatureProperty {
 	@Override
 	public void setDescription(@Nonnull final CharSequence description) {
 		this.description = description.toString();
+		correspondingFeature.getFeatureModel().modified();
 	}
 
 	@Override
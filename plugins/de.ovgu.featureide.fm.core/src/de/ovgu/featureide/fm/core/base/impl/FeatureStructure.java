@@ -98,6 +98,7 @@ public class FeatureStructure implements IFeatureStructure {
 			children.add(index, newChild);
 		}
 		newChild.setParent(this);
+		modified();
 	}
 
 	protected void addNewChild(IFeatureStructure newChild) {
@@ -137,22 +138,30 @@ public class FeatureStructure implements IFeatureStructure {
 		return new FeatureStructure(this, newFeatureModel);
 	}
 
+	private void modified() {
+		correspondingFeature.getFeatureModel().modified();
+	}
+
 	protected void fireAttributeChanged() {
+		modified();
 		final FeatureIDEEvent event = new FeatureIDEEvent(this, EventType.ATTRIBUTE_CHANGED);
 		correspondingFeature.fireEvent(event);
 	}
 
 	protected void fireChildrenChanged() {
+		modified();
 		final FeatureIDEEvent event = new FeatureIDEEvent(this, EventType.GROUP_TYPE_CHANGED, Boolean.FALSE, Boolean.TRUE);
 		correspondingFeature.fireEvent(event);
 	}
 
 	protected void fireHiddenChanged() {
+		modified();
 		final FeatureIDEEvent event = new FeatureIDEEvent(this, EventType.HIDDEN_CHANGED, Boolean.FALSE, Boolean.TRUE);
 		correspondingFeature.fireEvent(event);
 	}
 
 	protected void fireMandatoryChanged() {
+		modified();
 		final FeatureIDEEvent event = new FeatureIDEEvent(this, EventType.MANDATORY_CHANGED, Boolean.FALSE, Boolean.TRUE);
 		correspondingFeature.fireEvent(event);
 	}
@@ -366,11 +375,13 @@ public class FeatureStructure implements IFeatureStructure {
 	public void setAlternative() {
 		and = false;
 		multiple = false;
+		modified();
 	}
 
 	@Override
 	public void setAnd() {
 		and = true;
+		modified();
 	}
 
 	@Override
@@ -410,6 +421,7 @@ public class FeatureStructure implements IFeatureStructure {
 	public void setOr() {
 		and = false;
 		multiple = true;
+		modified();
 	}
 
 	@Override
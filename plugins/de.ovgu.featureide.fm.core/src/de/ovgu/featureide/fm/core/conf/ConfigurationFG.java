@@ -115,7 +115,7 @@ public class ConfigurationFG extends Configuration {
 			features.add(sFeature);
 			table.put(sFeature.getName(), sFeature);
 			for (final IFeature child : Functional.map(feature.getStructure().getChildren(), new ToIFeature())) {
-				final SelectableFeature sChild = new SelectableFeature(child);
+				final SelectableFeature sChild = new SelectableFeature(child, this);
 				sFeature.addChild(sChild);
 				initFeatures(sChild, child);
 			}
@@ -124,7 +124,7 @@ public class ConfigurationFG extends Configuration {
 
 	private SelectableFeature initRoot() {
 		final IFeature featureRoot = featureModel.getStructure().getRoot().getFeature();
-		final SelectableFeature root = new SelectableFeature(featureRoot);
+		final SelectableFeature root = new SelectableFeature(featureRoot, this);
 
 		if (featureRoot != null) {
 			initFeatures(root, featureRoot);
@@ -20,6 +20,7 @@
  */
 package de.ovgu.featureide.fm.core.configuration;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -59,6 +60,8 @@ public class Configuration implements Cloneable {
 	private final ConfigurationPropagator propagator;
 	private boolean propagate = true;
 
+	private volatile long modificationCount = 0;
+
 	/**
 	 * This method creates a clone of the given {@link Configuration}
 	 *
@@ -137,7 +140,7 @@ public class Configuration implements Cloneable {
 			table.put(sFeature.getName(), sFeature);
 
 			for (final IFeatureStructure child : feature.getStructure().getChildren()) {
-				final SelectableFeature sChild = new SelectableFeature(child.getFeature());
+				final SelectableFeature sChild = new SelectableFeature(child.getFeature(), this);
 				sFeature.addChild(sChild);
 				initFeatures(sChild, child.getFeature());
 			}
@@ -147,7 +150,7 @@ public class Configuration implements Cloneable {
 	private SelectableFeature initRoot() {
 
 		final IFeature featureRoot = FeatureUtils.getRoot(featureModel);
-		final SelectableFeature root = new SelectableFeature(featureRoot);
+		final SelectableFeature root = new SelectableFeature(featureRoot, this);
 
 		if (featureRoot != null) {
 			initFeatures(root, featureRoot);
@@ -346,6 +349,19 @@ public class Configuration implements Cloneable {
 		return LongRunningWrapper.runMethod(propagator.number(timeout, includeHiddenFeatures));
 	}
 
+	/**
+	 * Counts the number of possible solutions. In contrast to {@link #number(long, boolean)} the result is not limited to the range of {@code long}.
+	 *
+	 * @param timeout Timeout in milliseconds.
+	 * @param includeHiddenFeatures {@code true} if hidden feature should be considered, {@code false} otherwise
+	 *
+	 * @return a positive value equal to the number of solutions (if the method terminated in time)</br> or a negative value (if a timeout occured) that
+	 *         indicates that there are more solutions than the absolute value
+	 */
+	public BigInteger numberExact(long timeout, boolean includeHiddenFeatures) {
+		return LongRunningWrapper.runMethod(propagator.numberExact(timeout, includeHiddenFeatures));
+	}
+
 	public void resetValues() {
 		for (final SelectableFeature feature : features) {
 			feature.setManual(Selection.UNDEFINED);
@@ -417,4 +433,18 @@ public class Configuration implements Cloneable {
 		return ignoreAbstractFeatures;
 	}
 
+	/**
+	 * Returns the modification counter of this configuration. The counter is increased whenever the manual or automatic selection of a feature changes. Thus, if
+	 * the counter has the same value at two points in time, the selection was not modified in between.
+	 *
+	 * @return the current value of the modification counter
+	 */
+	public long getModificationCount() {
+		return modificationCount;
+	}
+
+	void modified() {
+		modificationCount++;
+	}
+
 }
@@ -24,9 +24,16 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import de.ovgu.featureide.fm.core.Logger;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.configuration.io.ConfigurationLoader;
 import de.ovgu.featureide.fm.core.configuration.io.IConfigurationLoaderCallback;
@@ -40,6 +47,29 @@ import de.ovgu.featureide.fm.core.configuration.io.IConfigurationLoaderCallback;
  */
 public class ConfigurationMatrix {
 
+	/** Maximum number of changed features for which the recommendation values are updated instead of recomputed. */
+	private static final int MAX_INCREMENTAL_CHANGES = 16;
+
+	/** Minimum size (configurations times features) of the matrix for computing the recommendation values in parallel. */
+	private static final long PARALLEL_THRESHOLD = 1 << 20;
+
+	/**
+	 * Lazily creates the executor that is shared by all matrices.
+	 */
+	private static final class ExecutorHolder {
+		private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+
+			private final AtomicInteger count = new AtomicInteger();
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				final Thread thread = new Thread(runnable, "ConfigurationMatrix-" + count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
 	private final List<Config> configurationMatrix;
 	private final ConfigurationLoader loader;
 	private final IFeatureModel featureModel;
@@ -47,6 +77,20 @@ public class ConfigurationMatrix {
 
 	private double[] rec = null;
 
+	private int numberOfThreads = 1;
+	private long parallelThreshold = PARALLEL_THRESHOLD;
+
+	/** The configurations stored column-wise, i.e., one bit set per feature. Created on demand. */
+	private long[][] columns = null;
+	/** The number of configurations that contain a feature. */
+	private int[] columnCounts = null;
+
+	/** The configuration used for the last computation of the recommendation values. */
+	private Config lastConfig = null;
+	/** For each feature, the weighted number of configurations that contain it. */
+	private long[] fSums = null;
+	private long wSum = 0;
+
 	public ConfigurationMatrix(IFeatureModel featureModel, String path) {
 		this(featureModel, Paths.get(path));
 	}
@@ -60,6 +104,7 @@ public class ConfigurationMatrix {
 			@Override
 			public void onLoadingStarted() {
 				configurationMatrix.clear();
+				reset();
 			}
 
 			@Override
@@ -86,77 +131,231 @@ public class ConfigurationMatrix {
 		loader.loadConfigurations(featureModel, path, excludeFile);
 	}
 
+	private void reset() {
+		columns = null;
+		columnCounts = null;
+		lastConfig = null;
+		fSums = null;
+		wSum = 0;
+	}
+
 	private Config createConfig(Configuration configuration) {
 		final List<SelectableFeature> features = configuration.getFeatures();
-		final byte[] configArray = new byte[features.size()];
+		final Config config = new Config(features.size());
 		int i = 0;
 		for (final SelectableFeature feature : features) {
-			switch (feature.getSelection()) {
-			case SELECTED:
-				configArray[i++] = 1;
-				break;
-			case UNDEFINED:
-			case UNSELECTED:
-			default:
-				configArray[i++] = 0;
-				break;
+			if (feature.getSelection() == Selection.SELECTED) {
+				config.set(i);
 			}
+			i++;
 		}
-		return new Config(configArray);
+		return config;
 	}
 
 	public double[] getRec() {
 		return rec;
 	}
 
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	/**
+	 * Sets the number of threads used to compute the recommendation values for large matrices. The tasks run on an executor that is shared by all matrices
+	 * and has one thread per available processor. The default value is 1.
+	 *
+	 * @param numberOfThreads the number of threads
+	 */
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = Math.max(1, numberOfThreads);
+	}
+
+	/**
+	 * Sets the minimum size (configurations times features) of the matrix for computing the recommendation values in parallel. Used for testing.
+	 *
+	 * @param parallelThreshold the minimum size
+	 */
+	void setParallelThreshold(long parallelThreshold) {
+		this.parallelThreshold = parallelThreshold;
+	}
+
+	/**
+	 * Computes for each feature how likely it is to change its selection, based on the stored configurations weighted by their similarity to the given
+	 * configuration.</br> If only a few features changed since the last call, the previous values are updated, otherwise they are recomputed.
+	 *
+	 * @param configuration the current configuration
+	 */
 	public void calcRec(Configuration configuration) {
 		if (configurationMatrix.isEmpty()) {
 			return;
 		}
 
 		final Config curConfig = createConfig(configuration);
+		final int numberOfFeatures = configurationMatrix.get(0).size;
 
-		rec = new double[configurationMatrix.get(0).configArray.length];
-		Arrays.fill(rec, 0);
-
-		final int[] w = new int[configurationMatrix.size()];
-		int wSum = 0;
-		{
-			int j = 0;
-			for (final Config config : configurationMatrix) {
-				final int delta = curConfig.getDelta(config);
-				w[j++] = delta;
-				wSum += delta;
-			}
+		if ((lastConfig != null) && (lastConfig.size == curConfig.size) && (curConfig.getDistance(lastConfig) <= MAX_INCREMENTAL_CHANGES)) {
+			update(curConfig);
+		} else {
+			recompute(curConfig);
 		}
+		lastConfig = curConfig;
 
-		for (int i = 0; i < rec.length; i++) {
-			int fSum = 0;
-			for (int j = 0; j < w.length; j++) {
-				fSum += configurationMatrix.get(j).configArray[i] * w[j];
-			}
-			double recValue = ((double) fSum) / wSum;
-			if (curConfig.configArray[i] == 1) {
+		rec = new double[numberOfFeatures];
+		for (int i = 0; i < numberOfFeatures; i++) {
+			double recValue = ((double) fSums[i]) / wSum;
+			if (curConfig.get(i)) {
 				recValue = 1 - recValue;
 			}
 			rec[i] = recValue;
 		}
 	}
 
+	/**
+	 * Recomputes all weights and sums. The weight of a stored configuration is the number of features it has in common with the current configuration.
+	 */
+	private void recompute(Config curConfig) {
+		final int numberOfConfigs = configurationMatrix.size();
+		final int numberOfFeatures = configurationMatrix.get(0).size;
+
+		final long[] w = new long[numberOfConfigs];
+		wSum = 0;
+		for (int j = 0; j < numberOfConfigs; j++) {
+			final long delta = curConfig.size - curConfig.getDistance(configurationMatrix.get(j));
+			w[j] = delta;
+			wSum += delta;
+		}
+
+		fSums = new long[numberOfFeatures];
+		if ((numberOfThreads > 1) && (((long) numberOfConfigs * numberOfFeatures) >= parallelThreshold)) {
+			recomputeParallel(w);
+		} else {
+			for (int j = 0; j < numberOfConfigs; j++) {
+				final long[] bits = configurationMatrix.get(j).bits;
+				for (int k = 0; k < bits.length; k++) {
+					long word = bits[k];
+					while (word != 0) {
+						fSums[(k << 6) + Long.numberOfTrailingZeros(word)] += w[j];
+						word &= word - 1;
+					}
+				}
+			}
+		}
+	}
+
+	private void recomputeParallel(final long[] w) {
+		final long[][] columns = getColumns();
+		final int chunkSize = (columns.length + numberOfThreads - 1) / numberOfThreads;
+		final List<Callable<Void>> tasks = new ArrayList<>(numberOfThreads);
+		for (int start = 0; start < columns.length; start += chunkSize) {
+			final int chunkStart = start;
+			final int chunkEnd = Math.min(start + chunkSize, columns.length);
+			tasks.add(new Callable<Void>() {
+
+				@Override
+				public Void call() {
+					for (int i = chunkStart; i < chunkEnd; i++) {
+						final long[] column = columns[i];
+						long fSum = 0;
+						for (int k = 0; k < column.length; k++) {
+							long word = column[k];
+							while (word != 0) {
+								fSum += w[(k << 6) + Long.numberOfTrailingZeros(word)];
+								word &= word - 1;
+							}
+						}
+						fSums[i] = fSum;
+					}
+					return null;
+				}
+			});
+		}
+
+		try {
+			for (final Future<Void> future : ExecutorHolder.EXECUTOR.invokeAll(tasks)) {
+				future.get();
+			}
+		} catch (InterruptedException | ExecutionException e) {
+			Logger.logError(e);
+		}
+	}
+
+	/**
+	 * Updates the sums for each feature whose selection changed. If feature {@code k} is now selected, the weight of each configuration that contains
+	 * {@code k} increases by one, while the weight of all other configurations decreases by one (vice versa if it is deselected). Thus, the sum of feature
+	 * {@code i} changes by {@code +-(2 * |configurations containing i and k| - |configurations containing i|)}.
+	 */
+	private void update(Config curConfig) {
+		final long[][] columns = getColumns();
+		final int numberOfConfigs = configurationMatrix.size();
+
+		for (int k = 0; k < curConfig.bits.length; k++) {
+			long changed = curConfig.bits[k] ^ lastConfig.bits[k];
+			while (changed != 0) {
+				final int feature = (k << 6) + Long.numberOfTrailingZeros(changed);
+				changed &= changed - 1;
+
+				final long sign = curConfig.get(feature) ? 1 : -1;
+				final long[] featureColumn = columns[feature];
+				for (int i = 0; i < columns.length; i++) {
+					final long[] column = columns[i];
+					int count = 0;
+					for (int l = 0; l < column.length; l++) {
+						count += Long.bitCount(column[l] & featureColumn[l]);
+					}
+					fSums[i] += sign * ((2 * count) - columnCounts[i]);
+				}
+				wSum += sign * ((2 * columnCounts[feature]) - numberOfConfigs);
+			}
+		}
+	}
+
+	private long[][] getColumns() {
+		if (columns == null) {
+			final int numberOfConfigs = configurationMatrix.size();
+			final int numberOfFeatures = configurationMatrix.get(0).size;
+			columns = new long[numberOfFeatures][(numberOfConfigs + 63) >>> 6];
+			columnCounts = new int[numberOfFeatures];
+			for (int j = 0; j < numberOfConfigs; j++) {
+				final Config config = configurationMatrix.get(j);
+				for (int i = 0; i < numberOfFeatures; i++) {
+					if (config.get(i)) {
+						columns[i][j >>> 6] |= 1L << j;
+						columnCounts[i]++;
+					}
+				}
+			}
+		}
+		return columns;
+	}
+
+	/**
+	 * A configuration stored as bit set. Bit {@code i} is set iff the {@code i}-th feature is selected.
+	 */
 	private static class Config {
 
-		private final byte[] configArray;
+		private final long[] bits;
+		private final int size;
+
+		public Config(int size) {
+			this.size = size;
+			bits = new long[(size + 63) >>> 6];
+		}
+
+		public void set(int index) {
+			bits[index >>> 6] |= 1L << index;
+		}
 
-		public Config(byte[] configArray) {
-			this.configArray = configArray;
+		public boolean get(int index) {
+			return (bits[index >>> 6] & (1L << index)) != 0;
 		}
 
-		public int getDelta(Config otherConfig) {
+		/**
+		 * @return the number of features with a different selection in both configurations
+		 */
+		public int getDistance(Config otherConfig) {
 			int count = 0;
-			for (int i = 0; i < configArray.length; i++) {
-				if (configArray[i] == otherConfig.configArray[i]) {
-					count++;
-				}
+			for (int i = 0; i < bits.length; i++) {
+				count += Long.bitCount(bits[i] ^ otherConfig.bits[i]);
 			}
 			return count;
 		}
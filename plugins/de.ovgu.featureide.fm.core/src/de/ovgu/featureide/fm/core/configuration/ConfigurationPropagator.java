@@ -20,6 +20,7 @@
  */
 package de.ovgu.featureide.fm.core.configuration;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -39,6 +40,7 @@ import org.prop4j.analyses.GetSolutionAnalysis;
 import org.prop4j.analyses.RedundantAnalysis;
 import org.prop4j.analyses.ResolveAnalysis;
 import org.prop4j.solver.BasicSolver;
+import org.prop4j.solver.DDNNF;
 import org.prop4j.solver.ISatSolver.SatResult;
 import org.prop4j.solver.SatInstance;
 import org.sat4j.specs.ContradictionException;
@@ -204,8 +206,26 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 
 		@Override
 		public Long execute(IMonitor monitor) {
+			final BigInteger result = new CountExactSolutionsMethod(timeout, includeHiddenFeatures).execute(monitor);
+			// if the number cannot be represented, return the lowest possible lower bound
+			return result.bitLength() < Long.SIZE ? result.longValue() : Long.MIN_VALUE;
+		}
+	}
+
+	public class CountExactSolutionsMethod implements LongRunningMethod<BigInteger> {
+
+		private final long timeout;
+		private final boolean includeHiddenFeatures;
+
+		public CountExactSolutionsMethod(long timeout, boolean includeHiddenFeatures) {
+			this.timeout = timeout;
+			this.includeHiddenFeatures = includeHiddenFeatures;
+		}
+
+		@Override
+		public BigInteger execute(IMonitor monitor) {
 			if (rootNode == null) {
-				return 0L;
+				return BigInteger.ZERO;
 			}
 			final List<Literal> definedFeatures = new ArrayList<>();
 
@@ -216,10 +236,11 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 			}
 
 			final SatInstance node = includeHiddenFeatures ? rootNode : rootNodeWithoutHidden;
-			final CountSolutionAnalysis analysis = new CountSolutionAnalysis(node, timeout);
+			final DDNNF ddnnf = useKnowledgeCompilation ? node.getDDNNF() : null;
+			final CountSolutionAnalysis analysis = ddnnf != null ? new CountSolutionAnalysis(ddnnf) : new CountSolutionAnalysis(node, timeout);
 			analysis.setAssumptions(node.convertToInt(definedFeatures));
-			final Long result = LongRunningWrapper.runMethod(analysis);
-			return result == null ? 0 : result;
+			final BigInteger result = LongRunningWrapper.runMethod(analysis, monitor);
+			return result == null ? BigInteger.ZERO : result;
 		}
 	}
 
@@ -568,10 +589,16 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 			workMonitor.setRemainingWork(manualLiterals.size() + 1);
 			Collections.reverse(manualLiterals);
 
-			final ConditionallyCoreDeadAnalysis analysis = new ConditionallyCoreDeadAnalysis(rootNode);
+			final DDNNF ddnnf = useKnowledgeCompilation ? rootNode.getDDNNF() : null;
 			final int[] intLiterals = rootNode.convertToInt(manualLiterals);
-			analysis.setAssumptions(intLiterals);
-			final int[] impliedFeatures = LongRunningWrapper.runMethod(analysis, workMonitor.subTask(1));
+			final int[] impliedFeatures;
+			if (ddnnf != null) {
+				final ConditionallyCoreDeadAnalysis analysis = new ConditionallyCoreDeadAnalysis(ddnnf);
+				analysis.setAssumptions(intLiterals);
+				impliedFeatures = LongRunningWrapper.runMethod(analysis, workMonitor.subTask(1));
+			} else {
+				impliedFeatures = computeImpliedLiterals(intLiterals, workMonitor.subTask(1));
+			}
 
 			// if there is a contradiction within the configuration
 			if (impliedFeatures == null) {
@@ -598,14 +625,20 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 		}
 
 		private void computeRedundantManual(IMonitor workMonitor, final int[] intLiterals) {
-			final BasicSolver solver;
-			try {
-				solver = new BasicSolver(rootNode);
-			} catch (final ContradictionException e) {
-				Logger.logError(e);
-				return;
+			synchronized (ConfigurationPropagator.this) {
+				final BasicSolver solver = getPropagationSolver();
+				if (solver == null) {
+					return;
+				}
+				try {
+					computeRedundantManual(workMonitor, intLiterals, solver);
+				} finally {
+					solver.assignmentClear(0);
+				}
 			}
+		}
 
+		private void computeRedundantManual(IMonitor workMonitor, final int[] intLiterals, final BasicSolver solver) {
 			for (final int feature : intLiterals) {
 				solver.assignmentPush(feature);
 			}
@@ -642,6 +675,16 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 
 	private SatInstance rootNode = null, rootNodeWithoutHidden = null;
 
+	private BasicSolver propagationSolver = null;
+	private int[] lastAssumptions = null;
+	private int[] lastImpliedLiterals = null;
+
+	/**
+	 * Defines whether the feature model should be compiled into a {@link DDNNF} for counting solutions and propagating decisions. The model is compiled
+	 * only once per propagator. If the compilation fails, a SAT solver is used.
+	 */
+	private boolean useKnowledgeCompilation = false;
+
 	/**
 	 * This method creates a clone of the given {@link ConfigurationPropagator}
 	 *
@@ -657,12 +700,148 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 
 	ConfigurationPropagator(ConfigurationPropagator propagator, Configuration configuration) {
 		this.configuration = configuration;
+		useKnowledgeCompilation = propagator.useKnowledgeCompilation;
 		if (propagator.isLoaded()) {
 			rootNode = propagator.rootNode;
 			rootNodeWithoutHidden = propagator.rootNodeWithoutHidden;
 		}
 	}
 
+	/**
+	 * Returns the solver that is used for all updates of the configuration. The solver is created only once, such that learned clauses are kept between
+	 * updates.
+	 *
+	 * @return the solver or {@code null} if the feature model is contradicting
+	 */
+	private BasicSolver getPropagationSolver() {
+		if (propagationSolver == null) {
+			try {
+				propagationSolver = new BasicSolver(rootNode);
+			} catch (final ContradictionException e) {
+				Logger.logError(e);
+				return null;
+			}
+		}
+		return propagationSolver;
+	}
+
+	/**
+	 * Computes all literals that are implied by the given assumptions (i.e., the manually selected features).</br> Reuses the result of the previous call,
+	 * such that only the difference between the previous and the current assumptions is analyzed:
+	 * <ul>
+	 * <li>If assumptions were removed, only the previous assumptions and implied literals can still be implied.</li>
+	 * <li>If assumptions were added, all previously implied literals stay implied.</li>
+	 * </ul>
+	 *
+	 * @param assumptions the current assumptions
+	 * @param monitor the monitor
+	 *
+	 * @return all implied literals of variables that are not contained in the assumptions</br> or {@code null} if the computation was canceled or the
+	 *         feature model is contradicting
+	 */
+	private synchronized int[] computeImpliedLiterals(int[] assumptions, IMonitor monitor) {
+		final BasicSolver solver = getPropagationSolver();
+		if (solver == null) {
+			return null;
+		}
+
+		int[] impliedLiterals;
+		boolean satisfiable;
+		if (lastAssumptions == null) {
+			impliedLiterals = findImpliedLiterals(solver, assumptions, null, monitor);
+			satisfiable = (impliedLiterals != null) && ((impliedLiterals.length > 0) || isSatisfiable(solver, assumptions));
+		} else {
+			final byte[] values = getValues(assumptions);
+			final int[] commonAssumptions = new int[lastAssumptions.length];
+			final int[] changedVariables = new int[lastAssumptions.length + lastImpliedLiterals.length];
+			int commonSize = 0;
+			int changedSize = 0;
+			for (final int literal : lastAssumptions) {
+				if (values[Math.abs(literal)] == Integer.signum(literal)) {
+					commonAssumptions[commonSize++] = literal;
+				} else {
+					changedVariables[changedSize++] = Math.abs(literal);
+				}
+			}
+
+			// the common assumptions are satisfiable, because the last assumptions were satisfiable
+			impliedLiterals = lastImpliedLiterals;
+			if (changedSize > 0) {
+				for (final int literal : lastImpliedLiterals) {
+					changedVariables[changedSize++] = Math.abs(literal);
+				}
+				impliedLiterals = findImpliedLiterals(solver, Arrays.copyOf(commonAssumptions, commonSize), Arrays.copyOf(changedVariables, changedSize), monitor);
+			}
+			satisfiable = impliedLiterals != null;
+
+			if (satisfiable && (commonSize < assumptions.length)) {
+				final int[] extendedAssumptions = Arrays.copyOf(assumptions, assumptions.length + impliedLiterals.length);
+				int extendedSize = assumptions.length;
+				for (final int literal : impliedLiterals) {
+					final byte value = values[Math.abs(literal)];
+					if (value == 0) {
+						extendedAssumptions[extendedSize++] = literal;
+					} else if (value != Integer.signum(literal)) {
+						// an assumption contradicts an implied literal
+						satisfiable = false;
+						break;
+					}
+				}
+				if (satisfiable) {
+					final int[] oldImpliedLiterals = Arrays.copyOfRange(extendedAssumptions, assumptions.length, extendedSize);
+					final int[] newImpliedLiterals = findImpliedLiterals(solver, Arrays.copyOf(extendedAssumptions, extendedSize), null, monitor);
+					if (newImpliedLiterals == null) {
+						impliedLiterals = null;
+						satisfiable = false;
+					} else if ((newImpliedLiterals.length == 0) && !isSatisfiable(solver, assumptions)) {
+						impliedLiterals = newImpliedLiterals;
+						satisfiable = false;
+					} else {
+						impliedLiterals = Arrays.copyOf(oldImpliedLiterals, oldImpliedLiterals.length + newImpliedLiterals.length);
+						System.arraycopy(newImpliedLiterals, 0, impliedLiterals, oldImpliedLiterals.length, newImpliedLiterals.length);
+					}
+				} else {
+					impliedLiterals = new int[0];
+				}
+			}
+		}
+
+		if (satisfiable) {
+			lastAssumptions = Arrays.copyOf(assumptions, assumptions.length);
+			lastImpliedLiterals = impliedLiterals;
+		} else {
+			lastAssumptions = null;
+			lastImpliedLiterals = null;
+		}
+		return impliedLiterals;
+	}
+
+	private int[] findImpliedLiterals(BasicSolver solver, int[] assumptions, int[] variables, IMonitor monitor) {
+		final ConditionallyCoreDeadAnalysis analysis = new ConditionallyCoreDeadAnalysis(solver);
+		analysis.setAssumptions(assumptions);
+		analysis.setVariables(variables);
+		return LongRunningWrapper.runMethod(analysis, monitor);
+	}
+
+	private boolean isSatisfiable(BasicSolver solver, int[] assumptions) {
+		for (final int assumption : assumptions) {
+			solver.assignmentPush(assumption);
+		}
+		try {
+			return solver.isSatisfiable() == SatResult.TRUE;
+		} finally {
+			solver.assignmentClear(0);
+		}
+	}
+
+	private byte[] getValues(int[] literals) {
+		final byte[] values = new byte[rootNode.getNumberOfVariables() + 1];
+		for (final int literal : literals) {
+			values[Math.abs(literal)] = (byte) Integer.signum(literal);
+		}
+		return values;
+	}
+
 	@Override
 	public IsValidMethod canBeValid() {
 		return new IsValidMethod(false, true);
@@ -698,6 +877,30 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 		return rootNode != null;
 	}
 
+	public boolean isUseKnowledgeCompilation() {
+		return useKnowledgeCompilation;
+	}
+
+	/**
+	 * Sets whether the feature model should be compiled into a {@link DDNNF} for counting solutions and propagating decisions. Clones of this propagator
+	 * keep this option. The default value is {@code false}.
+	 *
+	 * @param useKnowledgeCompilation whether to use a compiled formula
+	 */
+	public void setUseKnowledgeCompilation(boolean useKnowledgeCompilation) {
+		this.useKnowledgeCompilation = useKnowledgeCompilation;
+	}
+
+	/**
+	 * @return the satisfiability instance used for the validity check, which is shared by all clones of the configuration
+	 */
+	SatInstance getSatInstance() {
+		if (rootNode == null) {
+			LongRunningWrapper.runMethod(load());
+		}
+		return rootNode;
+	}
+
 	@Override
 	public IsValidMethod isValid() {
 		return new IsValidMethod(true, true);
@@ -737,6 +940,16 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 		return new CountSolutionsMethod(timeout, includeHiddenFeatures);
 	}
 
+	/**
+	 * Counts the number of possible solutions without any upper limit.
+	 *
+	 * @return a positive value equal to the number of solutions (if the method terminated in time)</br> or a negative value (if a timeout occurred) that
+	 *         indicates that there are more solutions than the absolute value
+	 */
+	public CountExactSolutionsMethod numberExact(long timeout, boolean includeHiddenFeatures) {
+		return new CountExactSolutionsMethod(timeout, includeHiddenFeatures);
+	}
+
 	@Override
 	public UpdateMethod update(boolean redundantManual, List<SelectableFeature> featureOrder) {
 		return new UpdateMethod(redundantManual, featureOrder);
@@ -0,0 +1,104 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.configuration;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.prop4j.solver.BasicSolver;
+import org.prop4j.solver.ISatSolver.SatResult;
+import org.prop4j.solver.SatInstance;
+import org.sat4j.specs.ContradictionException;
+
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+
+/**
+ * Checks configurations of one feature model for validity, with the same result as {@link Configuration#isValid()}. The feature model is translated into a
+ * {@link SatInstance} and a solver only once. Each check uses a clone of this solver from a pool, such that configurations can be checked by multiple
+ * threads at the same time.
+ */
+public class ConfigurationValidator {
+
+	private final SatInstance satInstance;
+	private final boolean ignoreAbstractFeatures;
+	private final BasicSolver baseSolver;
+	private final ConcurrentLinkedQueue<BasicSolver> solvers = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Creates a validator for configurations that consider abstract features.
+	 *
+	 * @param featureModel the feature model
+	 */
+	public ConfigurationValidator(IFeatureModel featureModel) {
+		this(new Configuration(featureModel, false));
+	}
+
+	/**
+	 * Creates a validator for the given configuration and its clones. The validator uses the {@link SatInstance} of the configuration's propagator.
+	 *
+	 * @param template the configuration
+	 */
+	public ConfigurationValidator(Configuration template) {
+		satInstance = ((ConfigurationPropagator) template.getPropagator()).getSatInstance();
+		ignoreAbstractFeatures = template.ignoreAbstractFeatures;
+
+		BasicSolver solver;
+		try {
+			solver = new BasicSolver(satInstance);
+		} catch (final ContradictionException e) {
+			solver = null;
+		}
+		baseSolver = solver;
+	}
+
+	/**
+	 * Checks whether the given configuration is valid. Features that are not selected are treated as deselected. This method is thread-safe.
+	 *
+	 * @param configuration a configuration of the same feature model
+	 * @return {@code true} if the selection of all features satisfies the feature model, {@code false} otherwise or if the feature model is void
+	 */
+	public boolean isValid(Configuration configuration) {
+		if (baseSolver == null) {
+			return false;
+		}
+		BasicSolver solver = solvers.poll();
+		if (solver == null) {
+			synchronized (baseSolver) {
+				solver = baseSolver.clone();
+			}
+		}
+		try {
+			for (final SelectableFeature feature : configuration.getFeatures()) {
+				final IFeature f = feature.getFeature();
+				if ((f != null) && (ignoreAbstractFeatures || FeatureUtils.isConcrete(f))) {
+					final int variable = satInstance.getVariable(f.getName());
+					solver.assignmentPush((feature.getSelection() == Selection.SELECTED) ? variable : -variable);
+				}
+			}
+			return solver.isSatisfiable() == SatResult.TRUE;
+		} finally {
+			solver.assignmentClear(0);
+			solvers.offer(solver);
+		}
+	}
+
+}
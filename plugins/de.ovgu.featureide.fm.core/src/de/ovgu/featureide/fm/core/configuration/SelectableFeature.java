@@ -46,6 +46,7 @@ public class SelectableFeature extends TreeElement {
 	private Selection recommended = Selection.UNDEFINED;
 
 	private final IFeature feature;
+	private final Configuration configuration;
 
 	private int recommendationValue = -1;
 	private Map<Integer, Node> openClauses = null;
@@ -53,7 +54,16 @@ public class SelectableFeature extends TreeElement {
 	private String name;
 
 	public SelectableFeature(IFeature feature) {
+		this(feature, null);
+	}
+
+	/**
+	 * @param feature the corresponding feature
+	 * @param configuration the configuration that contains this feature and is notified about changes of its selection (can be {@code null})
+	 */
+	public SelectableFeature(IFeature feature, Configuration configuration) {
 		this.feature = feature;
+		this.configuration = configuration;
 	}
 
 	public Selection getSelection() {
@@ -66,7 +76,10 @@ public class SelectableFeature extends TreeElement {
 
 	public void setManual(Selection manual) {
 		if ((manual == Selection.UNDEFINED) || (automatic == Selection.UNDEFINED)) {
-			this.manual = manual;
+			if (this.manual != manual) {
+				this.manual = manual;
+				modified();
+			}
 		} else if (manual != automatic) {
 			throw new SelectionNotPossibleException(getName(), manual);
 		}
@@ -78,12 +91,21 @@ public class SelectableFeature extends TreeElement {
 
 	public void setAutomatic(Selection automatic) {
 		if ((automatic == Selection.UNDEFINED) || (manual == Selection.UNDEFINED) || (manual == automatic)) {
-			this.automatic = automatic;
+			if (this.automatic != automatic) {
+				this.automatic = automatic;
+				modified();
+			}
 		} else {
 			throw new AutomaticalSelectionNotPossibleException(feature.getName(), automatic);
 		}
 	}
 
+	private void modified() {
+		if (configuration != null) {
+			configuration.modified();
+		}
+	}
+
 	public String getName() {
 		if (name != null) {
 			return name;
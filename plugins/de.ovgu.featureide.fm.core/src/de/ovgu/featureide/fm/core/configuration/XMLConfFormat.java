@@ -23,6 +23,9 @@ package de.ovgu.featureide.fm.core.configuration;
 import java.util.List;
 import java.util.regex.Pattern;
 
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.NamedNodeMap;
@@ -33,6 +36,7 @@ import de.ovgu.featureide.fm.core.io.LazyReader;
 import de.ovgu.featureide.fm.core.io.Problem;
 import de.ovgu.featureide.fm.core.io.UnsupportedModelException;
 import de.ovgu.featureide.fm.core.io.xml.AXMLFormat;
+import de.ovgu.featureide.fm.core.io.xml.IndentingXMLWriter;
 import de.ovgu.featureide.fm.core.io.xml.PositionalXMLHandler;
 import de.ovgu.featureide.fm.core.localization.StringTable;
 
@@ -109,6 +113,93 @@ public class XMLConfFormat extends AXMLFormat<Configuration> implements IConfigu
 		}
 	}
 
+	@Override
+	protected boolean supportsStreaming() {
+		return true;
+	}
+
+	@Override
+	protected void readStream(XMLStreamReader reader, List<Problem> warnings) throws XMLStreamException {
+		object.resetValues();
+
+		if (!nextElement(reader)) {
+			warnings.add(new Problem("No root element specified", 1, Problem.Severity.ERROR));
+			return;
+		}
+		if (reader.getLocalName().equals("configuration")) {
+			int depth = 0;
+			while (depth >= 0) {
+				if (!nextElement(reader)) {
+					depth--;
+					continue;
+				}
+				depth++;
+				if (!reader.getLocalName().equals(NODE_FEATURE)) {
+					continue;
+				}
+				final int line = getLineNumber(reader.getLocation());
+				final String featureName = reader.getAttributeValue(null, ATTRIBUTE_NAME);
+				final SelectableFeature selectablefeature;
+				if (featureName != null) {
+					selectablefeature = object.getSelectablefeature(object.getFeatureModel().getRenamingsManager().getNewName(featureName));
+					if (selectablefeature == null) {
+						warnings.add(new Problem("Invalid feature name: " + featureName, line, Problem.Severity.WARNING));
+						continue;
+					}
+				} else {
+					warnings.add(new Problem("No feature name specified", line, Problem.Severity.ERROR));
+					continue;
+				}
+
+				final String manual = reader.getAttributeValue(null, ATTRIBUTE_MANUAL);
+				if (manual != null) {
+					selectablefeature.setManual(getSelection(manual, null, warnings));
+				}
+				final String automatic = reader.getAttributeValue(null, ATTRIBUTE_AUTOMATIC);
+				if (automatic != null) {
+					selectablefeature.setAutomatic(getSelection(automatic, null, warnings));
+				}
+
+				if (reader.getAttributeCount() > 3) {
+					for (int i = 0; i < reader.getAttributeCount(); i++) {
+						final String attributeName = reader.getAttributeLocalName(i);
+						switch (attributeName) {
+						case ATTRIBUTE_NAME:
+						case ATTRIBUTE_MANUAL:
+						case ATTRIBUTE_AUTOMATIC:
+							break;
+						default:
+							warnings.add(new Problem("Unknown attribute: " + attributeName, line, Problem.Severity.WARNING));
+							break;
+						}
+					}
+				}
+			}
+		} else {
+			warnings.add(new Problem("Root element must be <configuration>", 1, Problem.Severity.ERROR));
+		}
+	}
+
+	@Override
+	protected void writeStream(IndentingXMLWriter writer) throws XMLStreamException {
+		writer.startElement("configuration");
+		for (final SelectableFeature feature : object.getFeatures()) {
+			if ((feature.getManual() == Selection.UNDEFINED) && (feature.getAutomatic() == Selection.UNDEFINED)) {
+				continue;
+			}
+			writer.startElement(NODE_FEATURE);
+			writer.attribute(ATTRIBUTE_NAME, feature.getName());
+			if (feature.getManual() != Selection.UNDEFINED) {
+				writer.attribute(ATTRIBUTE_MANUAL, getSelectionString(feature.getManual()));
+			}
+			if (feature.getAutomatic() != Selection.UNDEFINED) {
+				writer.attribute(ATTRIBUTE_AUTOMATIC, getSelectionString(feature.getAutomatic()));
+			}
+			writer.endElement();
+		}
+		writer.endElement();
+	}
+
 	protected void createWarning(final String message, Element element, List<Problem> warnings) {
 		final Object lineNumber = element.getUserData(PositionalXMLHandler.LINE_NUMBER_KEY_NAME);
 		warnings.add(new Problem(message, (lineNumber instanceof Integer) ? (int) lineNumber : 1, Problem.Severity.WARNING));
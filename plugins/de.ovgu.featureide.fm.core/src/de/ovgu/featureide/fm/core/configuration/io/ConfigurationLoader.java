@@ -28,12 +28,21 @@ import java.nio.file.Paths;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.prop4j.solver.SatInstance;
 
 import de.ovgu.featureide.fm.core.Logger;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.configuration.Configuration;
+import de.ovgu.featureide.fm.core.configuration.ConfigurationValidator;
 import de.ovgu.featureide.fm.core.configuration.FeatureIDEFormat;
 import de.ovgu.featureide.fm.core.io.manager.ConfigurationManager;
 import de.ovgu.featureide.fm.core.io.manager.FileHandler;
@@ -47,8 +56,104 @@ import de.ovgu.featureide.fm.core.io.manager.FileHandler;
  */
 public class ConfigurationLoader {
 
+	/**
+	 * Timing information about the last call of {@link ConfigurationLoader#loadConfigurations(IFeatureModel, Path, String)}.
+	 */
+	public static class Statistics {
+
+		private int numberOfFiles;
+		private int numberOfConfigurations;
+		private int numberOfInvalidConfigurations = -1;
+		private long totalTime;
+		private long totalLatency;
+		private long maxLatency;
+
+		private void addLatency(long latency) {
+			totalLatency += latency;
+			maxLatency = Math.max(maxLatency, latency);
+		}
+
+		/**
+		 * @return the number of files that were considered
+		 */
+		public int getNumberOfFiles() {
+			return numberOfFiles;
+		}
+
+		/**
+		 * @return the number of configurations that were loaded without errors
+		 */
+		public int getNumberOfConfigurations() {
+			return numberOfConfigurations;
+		}
+
+		/**
+		 * @return the number of loaded configurations that are not valid or {@code -1}, if the configurations were not validated
+		 */
+		public int getNumberOfInvalidConfigurations() {
+			return numberOfInvalidConfigurations;
+		}
+
+		/**
+		 * @return the elapsed time in milliseconds
+		 */
+		public long getTotalTime() {
+			return totalTime / 1000000;
+		}
+
+		/**
+		 * @return the number of files processed per second
+		 */
+		public double getThroughput() {
+			return totalTime > 0 ? (numberOfFiles * 1000000000.0) / totalTime : 0;
+		}
+
+		/**
+		 * @return the average time in milliseconds needed to load (and propagate and validate) a single file
+		 */
+		public double getAverageLatency() {
+			return numberOfFiles > 0 ? totalLatency / (numberOfFiles * 1000000.0) : 0;
+		}
+
+		/**
+		 * @return the maximum time in milliseconds needed to load (and propagate and validate) a single file
+		 */
+		public double getMaxLatency() {
+			return maxLatency / 1000000.0;
+		}
+
+		@Override
+		public String toString() {
+			return "Statistics [files=" + numberOfFiles + ", configurations=" + numberOfConfigurations + ", invalid=" + numberOfInvalidConfigurations
+				+ ", time=" + getTotalTime() + "ms, throughput=" + getThroughput() + "/s, average latency=" + getAverageLatency() + "ms, max latency="
+				+ getMaxLatency() + "ms]";
+		}
+
+	}
+
+	private static class LoadResult {
+
+		private final Path file;
+		private final Configuration configuration;
+		private final boolean valid;
+		private final long latency;
+
+		public LoadResult(Path file, Configuration configuration, boolean valid, long latency) {
+			this.file = file;
+			this.configuration = configuration;
+			this.valid = valid;
+			this.latency = latency;
+		}
+
+	}
+
 	private final IConfigurationLoaderCallback callback;
 	private boolean propagateConfigs;
+	private boolean validateConfigs = false;
+	private int numberOfThreads = 1;
+
+	private Statistics statistics = null;
+	private List<Configuration> invalidConfigurations = Collections.emptyList();
 
 	public ConfigurationLoader() {
 		this(null);
@@ -74,6 +179,51 @@ public class ConfigurationLoader {
 		this.propagateConfigs = propagateConfigs;
 	}
 
+	/**
+	 * @return If the configs should be checked for validity. The default value is false.
+	 */
+	public boolean isValidatingConfigs() {
+		return validateConfigs;
+	}
+
+	/**
+	 * Sets whether all loaded configurations should be checked for validity. The invalid configurations can be retrieved with
+	 * {@link #getInvalidConfigurations()}.
+	 *
+	 * @param validateConfigs the value to set
+	 */
+	public void setValidateConfigs(boolean validateConfigs) {
+		this.validateConfigs = validateConfigs;
+	}
+
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	/**
+	 * Sets the number of threads that load the configuration files. If greater than 1, all files are parsed, propagated, and validated concurrently. The
+	 * callback is still notified by the calling thread and in the same order as in sequential mode. The default value is 1.
+	 *
+	 * @param numberOfThreads the number of threads
+	 */
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = Math.max(1, numberOfThreads);
+	}
+
+	/**
+	 * @return the statistics of the last loading process or {@code null} if no configurations were loaded yet
+	 */
+	public Statistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * @return the invalid configurations found during the last loading process, if {@link #setValidateConfigs(boolean) validation} is enabled
+	 */
+	public List<Configuration> getInvalidConfigurations() {
+		return invalidConfigurations;
+	}
+
 	public List<Configuration> loadConfigurations(IFeatureModel featureModel, String path) {
 		return loadConfigurations(featureModel, Paths.get(path));
 	}
@@ -87,13 +237,96 @@ public class ConfigurationLoader {
 	}
 
 	public List<Configuration> loadConfigurations(final IFeatureModel featureModel, Path path, final String excludeFile) {
+		final long startTime = System.nanoTime();
+		final Statistics currentStatistics = new Statistics();
 		final List<Configuration> configs = new ArrayList<>();
-		final HashSet<String> configurationNames = new HashSet<>();
+		final List<Configuration> invalidConfigs = new ArrayList<>();
 
 		if (callback != null) {
 			callback.onLoadingStarted();
 		}
 
+		final List<Path> files = getConfigurationFiles(path, excludeFile);
+		currentStatistics.numberOfFiles = files.size();
+
+		if (!files.isEmpty()) {
+			final Configuration template = new Configuration(featureModel, propagateConfigs);
+			final ConfigurationValidator validator = validateConfigs ? new ConfigurationValidator(template) : null;
+			if (numberOfThreads > 1) {
+				final ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+				try {
+					final List<Future<LoadResult>> futures = new ArrayList<>(files.size());
+					for (final Path file : files) {
+						futures.add(executor.submit(new Callable<LoadResult>() {
+
+							@Override
+							public LoadResult call() throws Exception {
+								return loadConfiguration(template, validator, file);
+							}
+						}));
+					}
+					for (final Future<LoadResult> future : futures) {
+						try {
+							addResult(future.get(), configs, invalidConfigs, currentStatistics);
+						} catch (final ExecutionException e) {
+							Logger.logError(e.getCause());
+						}
+					}
+				} catch (final InterruptedException e) {
+					Logger.logError(e);
+				} finally {
+					executor.shutdownNow();
+				}
+			} else {
+				for (final Path file : files) {
+					addResult(loadConfiguration(template, validator, file), configs, invalidConfigs, currentStatistics);
+				}
+			}
+		}
+
+		currentStatistics.numberOfConfigurations = configs.size();
+		currentStatistics.numberOfInvalidConfigurations = validateConfigs ? invalidConfigs.size() : -1;
+		currentStatistics.totalTime = System.nanoTime() - startTime;
+		statistics = currentStatistics;
+		invalidConfigurations = invalidConfigs;
+
+		if (callback != null) {
+			callback.onLoadingFinished();
+		}
+
+		return configs;
+	}
+
+	/**
+	 * Parses a single file into a clone of the given template. All clones share the propagator's {@link SatInstance}.
+	 */
+	private static LoadResult loadConfiguration(Configuration template, ConfigurationValidator validator, Path file) {
+		final long startTime = System.nanoTime();
+		final Configuration currentConfiguration = template.clone();
+		final FileHandler<Configuration> fileHandler = ConfigurationManager.load(file, currentConfiguration);
+		if (fileHandler.getLastProblems().containsError()) {
+			return new LoadResult(file, null, true, System.nanoTime() - startTime);
+		}
+		final boolean valid = (validator == null) || validator.isValid(currentConfiguration);
+		return new LoadResult(file, currentConfiguration, valid, System.nanoTime() - startTime);
+	}
+
+	private void addResult(LoadResult result, List<Configuration> configs, List<Configuration> invalidConfigs, Statistics currentStatistics) {
+		currentStatistics.addLatency(result.latency);
+		if (result.configuration != null) {
+			configs.add(result.configuration);
+			if (!result.valid) {
+				invalidConfigs.add(result.configuration);
+			}
+			if (callback != null) {
+				callback.onConfigurationLoaded(result.configuration, result.file);
+			}
+		}
+	}
+
+	private List<Path> getConfigurationFiles(Path path, final String excludeFile) {
+		final List<Path> files = new ArrayList<>();
+		final HashSet<String> configurationNames = new HashSet<>();
 		try {
 			Files.walkFileTree(path, new SimpleFileVisitor<Path>() {
 
@@ -105,14 +338,7 @@ public class ConfigurationLoader {
 						final int extensionIndex = fileName.lastIndexOf('.');
 						final String configurationName = (extensionIndex > 0) ? fileName.substring(0, extensionIndex) : fileName;
 						if (configurationNames.add(configurationName)) {
-							final Configuration currentConfiguration = new Configuration(featureModel, propagateConfigs);
-							final FileHandler<Configuration> fileHandler = ConfigurationManager.load(file, currentConfiguration);
-							if (!fileHandler.getLastProblems().containsError()) {
-								configs.add(currentConfiguration);
-								if (callback != null) {
-									callback.onConfigurationLoaded(currentConfiguration, file);
-								}
-							}
+							files.add(file);
 						}
 					}
 					return super.visitFile(file, attrs);
@@ -124,12 +350,7 @@ public class ConfigurationLoader {
 				callback.onLoadingError(e);
 			}
 		}
-
-		if (callback != null) {
-			callback.onLoadingFinished();
-		}
-
-		return configs;
+		return files;
 	}
 
 }
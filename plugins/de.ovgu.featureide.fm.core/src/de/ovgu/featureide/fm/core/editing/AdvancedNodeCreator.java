@@ -247,6 +247,15 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 			}
 		}
 
+		if (canEmitClauses()) {
+			final CNFEmitter emitter = new CNFEmitter(featureModel);
+			emitter.setModelType(modelType);
+			emitter.setIncludeBooleanValues(includeBooleanValues);
+			emitter.setUseOldNames(useOldNames);
+			emitter.setOptionalRoot(optionalRoot);
+			return emitter.createNode(cnfType, monitor);
+		}
+
 		monitor.setRemainingWork(10);
 		final Node[] basicFormula = createFormula(monitor.subTask(1));
 		final Node newFormula = removeFeatures(basicFormula, monitor.subTask(9));
@@ -254,6 +263,14 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 		return newFormula;
 	}
 
+	/**
+	 * The {@link CNFEmitter} is used if the result is a CNF of the complete feature model. It streams the clauses directly instead of creating and transforming
+	 * a formula for each part of the feature model.
+	 */
+	private boolean canEmitClauses() {
+		return (cnfType != CNFType.None) && ((excludedFeatureNames == null) || excludedFeatureNames.isEmpty()) && !isRecordingTraceModel();
+	}
+
 	private Node[] createFormula(IMonitor monitor) {
 		monitor.setTaskName("Creating Formula");
 		monitor.setRemainingWork(2);
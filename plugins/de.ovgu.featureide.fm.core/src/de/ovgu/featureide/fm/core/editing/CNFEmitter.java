@@ -0,0 +1,534 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.editing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.Set;
+
+import org.prop4j.And;
+import org.prop4j.Equals;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Not;
+import org.prop4j.Or;
+
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureStructure;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.CNFType;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.ModelType;
+import de.ovgu.featureide.fm.core.editing.cnf.Clause;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+
+/**
+ * Creates the CNF of a feature model and streams its clauses into an {@link IClauseSink}.</br> The feature structure is traversed once and translated directly
+ * into clauses. Each cross-tree constraint is translated separately without building an intermediate formula. Duplicate and tautological clauses are dropped
+ * on the fly.</br> Constraints whose direct CNF would exceed the {@link #setTseitinThreshold(int) Tseitin threshold} are encoded with auxiliary variables
+ * instead (Tseitin transformation). The auxiliary variables are defined by equivalences, thus, the number of solutions does not change. As other parts of
+ * FeatureIDE expect one variable per feature, this is disabled by default.
+ */
+public class CNFEmitter {
+
+	/** Prefix of the names of auxiliary variables introduced by the Tseitin transformation. */
+	public static final String AUXILIARY_VARIABLE_PREFIX = "__Tseitin_";
+
+	private final IFeatureModel featureModel;
+
+	private final Map<Object, Integer> varToInt = new HashMap<>();
+	private final List<Object> variables = new ArrayList<>();
+	private final Set<Clause> emittedClauses = new HashSet<>();
+
+	private ModelType modelType = ModelType.All;
+	private boolean includeBooleanValues = true;
+	private boolean useOldNames = true;
+	private boolean optionalRoot = false;
+	private int tseitinThreshold = Integer.MAX_VALUE;
+
+	private IClauseSink sink;
+	private int numberOfAuxiliaryVariables;
+	private int numberOfClauses;
+
+	public CNFEmitter(IFeatureModel featureModel) {
+		this.featureModel = featureModel;
+	}
+
+	/**
+	 * Creates the CNF of the feature model as a {@link Node}.
+	 *
+	 * @param cnfType either {@link CNFType#Compact} (unit clauses are represented by a single {@link Literal}) or {@link CNFType#Regular} (each clause is an
+	 *            {@link Or})
+	 * @return an {@link And} containing all clauses
+	 */
+	public Node createNode(final CNFType cnfType) {
+		return createNode(cnfType, new NullMonitor());
+	}
+
+	public Node createNode(final CNFType cnfType, IMonitor monitor) {
+		final List<Node> clauses = new ArrayList<>();
+		emit(new IClauseSink() {
+
+			@Override
+			public void addClause(int[] clause) {
+				if ((clause.length == 1) && (cnfType != CNFType.Regular)) {
+					clauses.add(getLiteral(clause[0]));
+				} else {
+					final Literal[] literals = new Literal[clause.length];
+					for (int i = 0; i < clause.length; i++) {
+						literals[i] = getLiteral(clause[i]);
+					}
+					clauses.add(new Or(literals));
+				}
+			}
+		}, monitor);
+		return new And(clauses.toArray(new Node[clauses.size()]));
+	}
+
+	public void emit(IClauseSink sink) {
+		emit(sink, new NullMonitor());
+	}
+
+	/**
+	 * Translates the feature model and passes each resulting clause to the given sink. Variables are numbered in the order of their first occurrence. Use
+	 * {@link #getVariables()} to map indices back to variables.
+	 *
+	 * @param sink the receiver of the clauses
+	 * @param monitor the monitor
+	 */
+	public void emit(IClauseSink sink, IMonitor monitor) {
+		this.sink = sink;
+		varToInt.clear();
+		variables.clear();
+		emittedClauses.clear();
+		numberOfAuxiliaryVariables = 0;
+		numberOfClauses = 0;
+
+		try {
+			monitor.setRemainingWork(2);
+			if (modelType != ModelType.OnlyConstraints) {
+				emitStructure();
+			}
+			monitor.step();
+			if (modelType != ModelType.OnlyStructure) {
+				for (final IConstraint constraint : featureModel.getConstraints()) {
+					emitConstraint(constraint.getNode(), true);
+					monitor.checkCancel();
+				}
+			}
+			if (includeBooleanValues) {
+				addClause(getVariable(NodeCreator.varTrue));
+				addClause(-getVariable(NodeCreator.varFalse));
+			}
+			monitor.step();
+		} finally {
+			emittedClauses.clear();
+			this.sink = null;
+		}
+	}
+
+	private void emitStructure() {
+		final IFeature root = FeatureUtils.getRoot(featureModel);
+		if (root == null) {
+			return;
+		}
+		if (!optionalRoot) {
+			addClause(getVariable(root));
+		}
+
+		for (final IFeature feature : featureModel.getFeatures()) {
+			final IFeatureStructure structure = feature.getStructure();
+			final int parent = getVariable(feature);
+			for (final IFeatureStructure child : structure.getChildren()) {
+				addClause(parent, -getVariable(child.getFeature()));
+			}
+
+			if (structure.hasChildren()) {
+				if (structure.isAnd()) {
+					for (final IFeatureStructure child : structure.getChildren()) {
+						if (child.isMandatory()) {
+							addClause(getVariable(child.getFeature()), -parent);
+						}
+					}
+				} else {
+					final int[] clause = new int[structure.getChildrenCount() + 1];
+					int i = 0;
+					for (final IFeatureStructure child : structure.getChildren()) {
+						clause[i++] = getVariable(child.getFeature());
+					}
+					clause[i] = -parent;
+					addClause(clause);
+
+					if (structure.isAlternative()) {
+						for (final ListIterator<IFeatureStructure> it1 = structure.getChildren().listIterator(); it1.hasNext();) {
+							final int sibling1 = getVariable(it1.next().getFeature());
+							for (final ListIterator<IFeatureStructure> it2 = structure.getChildren().listIterator(it1.nextIndex()); it2.hasNext();) {
+								addClause(-sibling1, -getVariable(it2.next().getFeature()));
+							}
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Emits the clauses of a (sub-)formula that must be satisfied.
+	 *
+	 * @param node the formula
+	 * @param positive {@code false} if the negation of the formula must be satisfied
+	 */
+	private void emitConstraint(Node node, boolean positive) {
+		if (node instanceof Not) {
+			emitConstraint(node.getChildren()[0], !positive);
+		} else if (isConjunction(node, positive)) {
+			for (final Node child : node.getChildren()) {
+				emitConstraint(child, positive);
+			}
+		} else if ((node instanceof Implies) && !positive) {
+			emitConstraint(node.getChildren()[0], true);
+			emitConstraint(node.getChildren()[1], false);
+		} else if ((countClauses(node, positive) <= tseitinThreshold) || !isSupported(node)) {
+			for (final int[] clause : toClauses(node, positive)) {
+				addClause(clause);
+			}
+		} else if (isDisjunction(node, positive)) {
+			final Node[] children = node.getChildren();
+			final int[] clause = new int[children.length];
+			for (int i = 0; i < children.length; i++) {
+				clause[i] = encode(children[i], positive);
+			}
+			addClause(clause);
+		} else if (node instanceof Implies) {
+			addClause(encode(node.getChildren()[0], false), encode(node.getChildren()[1], true));
+		} else {
+			addClause(encode(node, positive));
+		}
+	}
+
+	/**
+	 * Translates a formula into CNF by distributing disjunctions over conjunctions.
+	 *
+	 * @param node the formula
+	 * @param positive {@code false} to translate the negation of the formula
+	 * @return the clauses
+	 */
+	private List<int[]> toClauses(Node node, boolean positive) {
+		if (node instanceof Literal) {
+			final Literal literal = (Literal) node;
+			final int variable = getVariable(literal.var);
+			return Collections.singletonList(new int[] { (literal.positive == positive) ? variable : -variable });
+		} else if (node instanceof Not) {
+			return toClauses(node.getChildren()[0], !positive);
+		} else if (isConjunction(node, positive)) {
+			final List<int[]> clauses = new ArrayList<>();
+			for (final Node child : node.getChildren()) {
+				clauses.addAll(toClauses(child, positive));
+			}
+			return clauses;
+		} else if (isDisjunction(node, positive)) {
+			List<int[]> clauses = Collections.singletonList(new int[0]);
+			for (final Node child : node.getChildren()) {
+				clauses = distribute(clauses, toClauses(child, positive));
+			}
+			return clauses;
+		} else if (node instanceof Implies) {
+			final Node[] children = node.getChildren();
+			if (positive) {
+				return distribute(toClauses(children[0], false), toClauses(children[1], true));
+			} else {
+				final List<int[]> clauses = new ArrayList<>(toClauses(children[0], true));
+				clauses.addAll(toClauses(children[1], false));
+				return clauses;
+			}
+		} else if (node instanceof Equals) {
+			final Node[] children = node.getChildren();
+			final List<int[]> clauses = new ArrayList<>(distribute(toClauses(children[0], !positive), toClauses(children[1], true)));
+			clauses.addAll(distribute(toClauses(children[0], positive), toClauses(children[1], false)));
+			return clauses;
+		} else {
+			final Node cnf = (positive ? node.clone() : new Not(node.clone())).toRegularCNF();
+			final List<int[]> clauses = new ArrayList<>();
+			for (final Node clauseNode : cnf.getChildren()) {
+				final Node[] literals = clauseNode.getChildren();
+				final int[] clause = new int[literals.length];
+				for (int i = 0; i < literals.length; i++) {
+					final Literal literal = (Literal) literals[i];
+					final int variable = getVariable(literal.var);
+					clause[i] = literal.positive ? variable : -variable;
+				}
+				clauses.add(clause);
+			}
+			return clauses;
+		}
+	}
+
+	private static List<int[]> distribute(List<int[]> clauses1, List<int[]> clauses2) {
+		final List<int[]> clauses = new ArrayList<>(clauses1.size() * clauses2.size());
+		for (final int[] clause1 : clauses1) {
+			for (final int[] clause2 : clauses2) {
+				final int[] clause = Arrays.copyOf(clause1, clause1.length + clause2.length);
+				System.arraycopy(clause2, 0, clause, clause1.length, clause2.length);
+				clauses.add(clause);
+			}
+		}
+		return clauses;
+	}
+
+	/**
+	 * Computes the number of clauses that {@link #toClauses(Node, boolean)} would create (without removing duplicates).
+	 *
+	 * @return the number of clauses or {@link Integer#MAX_VALUE} if it is too large
+	 */
+	private static int countClauses(Node node, boolean positive) {
+		if (node instanceof Literal) {
+			return 1;
+		} else if (node instanceof Not) {
+			return countClauses(node.getChildren()[0], !positive);
+		} else if (isConjunction(node, positive)) {
+			long count = 0;
+			for (final Node child : node.getChildren()) {
+				count = Math.min(count + countClauses(child, positive), Integer.MAX_VALUE);
+			}
+			return (int) count;
+		} else if (isDisjunction(node, positive)) {
+			long count = 1;
+			for (final Node child : node.getChildren()) {
+				count = Math.min(count * countClauses(child, positive), Integer.MAX_VALUE);
+			}
+			return (int) count;
+		} else if (node instanceof Implies) {
+			final Node[] children = node.getChildren();
+			final long count = positive ? ((long) countClauses(children[0], false) * countClauses(children[1], true))
+				: ((long) countClauses(children[0], true) + countClauses(children[1], false));
+			return (int) Math.min(count, Integer.MAX_VALUE);
+		} else if (node instanceof Equals) {
+			final Node[] children = node.getChildren();
+			final long count = ((long) countClauses(children[0], !positive) * countClauses(children[1], true))
+				+ ((long) countClauses(children[0], positive) * countClauses(children[1], false));
+			return (int) Math.min(count, Integer.MAX_VALUE);
+		} else {
+			return 1;
+		}
+	}
+
+	/**
+	 * Introduces an auxiliary variable that is equivalent to the given formula.
+	 *
+	 * @param node the formula
+	 * @param positive {@code false} to encode the negation of the formula
+	 * @return a literal that is equivalent to the formula
+	 */
+	private int encode(Node node, boolean positive) {
+		if (node instanceof Literal) {
+			final Literal literal = (Literal) node;
+			final int variable = getVariable(literal.var);
+			return (literal.positive == positive) ? variable : -variable;
+		} else if (node instanceof Not) {
+			return encode(node.getChildren()[0], !positive);
+		} else if (node instanceof Equals) {
+			final int literal1 = encode(node.getChildren()[0], true);
+			final int literal2 = encode(node.getChildren()[1], true);
+			final int auxiliary = newAuxiliaryVariable();
+			addClause(-auxiliary, -literal1, literal2);
+			addClause(-auxiliary, literal1, -literal2);
+			addClause(auxiliary, literal1, literal2);
+			addClause(auxiliary, -literal1, -literal2);
+			return positive ? auxiliary : -auxiliary;
+		} else {
+			final int[] literals;
+			final boolean conjunction;
+			if (node instanceof Implies) {
+				literals = new int[] { encode(node.getChildren()[0], !positive), encode(node.getChildren()[1], positive) };
+				conjunction = !positive;
+			} else {
+				final Node[] children = node.getChildren();
+				literals = new int[children.length];
+				for (int i = 0; i < children.length; i++) {
+					literals[i] = encode(children[i], positive);
+				}
+				conjunction = isConjunction(node, positive);
+			}
+
+			final int auxiliary = newAuxiliaryVariable();
+			final int[] longClause = new int[literals.length + 1];
+			for (int i = 0; i < literals.length; i++) {
+				final int literal = literals[i];
+				if (conjunction) {
+					addClause(-auxiliary, literal);
+					longClause[i] = -literal;
+				} else {
+					addClause(auxiliary, -literal);
+					longClause[i] = literal;
+				}
+			}
+			longClause[literals.length] = conjunction ? auxiliary : -auxiliary;
+			addClause(longClause);
+			return auxiliary;
+		}
+	}
+
+	private static boolean isSupported(Node node) {
+		if (node instanceof Literal) {
+			return true;
+		} else if ((node instanceof And) || (node instanceof Or) || (node instanceof Not) || (node instanceof Implies) || (node instanceof Equals)) {
+			for (final Node child : node.getChildren()) {
+				if (!isSupported(child)) {
+					return false;
+				}
+			}
+			return true;
+		} else {
+			return false;
+		}
+	}
+
+	private static boolean isConjunction(Node node, boolean positive) {
+		return positive ? (node instanceof And) : (node instanceof Or);
+	}
+
+	private static boolean isDisjunction(Node node, boolean positive) {
+		return positive ? (node instanceof Or) : (node instanceof And);
+	}
+
+	private int newAuxiliaryVariable() {
+		return getVariable(AUXILIARY_VARIABLE_PREFIX + numberOfAuxiliaryVariables++);
+	}
+
+	/**
+	 * Removes duplicate literals and passes the clause to the sink, unless it is a tautology or was already emitted.
+	 *
+	 * @param clause the clause
+	 */
+	private void addClause(int... clause) {
+		final int[] sortedClause = Arrays.copyOf(clause, clause.length);
+		Arrays.sort(sortedClause);
+
+		int length = 0;
+		for (int i = 0; i < sortedClause.length; i++) {
+			final int literal = sortedClause[i];
+			if ((literal > 0) && (Arrays.binarySearch(sortedClause, -literal) >= 0)) {
+				return;
+			}
+			if ((length == 0) || (sortedClause[length - 1] != literal)) {
+				sortedClause[length++] = literal;
+			}
+		}
+		final int[] uniqueClause = (length < sortedClause.length) ? Arrays.copyOf(sortedClause, length) : sortedClause;
+
+		if (emittedClauses.add(new Clause(uniqueClause))) {
+			numberOfClauses++;
+			sink.addClause((length < clause.length) ? uniqueClause : clause);
+		}
+	}
+
+	private int getVariable(IFeature feature) {
+		return getVariable(useOldNames ? featureModel.getRenamingsManager().getOldName(feature.getName()) : feature.getName());
+	}
+
+	private int getVariable(Object variable) {
+		final Integer index = varToInt.get(variable);
+		if (index != null) {
+			return index;
+		}
+		variables.add(variable);
+		final int newIndex = variables.size();
+		varToInt.put(variable, newIndex);
+		return newIndex;
+	}
+
+	private Literal getLiteral(int literal) {
+		return new Literal(variables.get(Math.abs(literal) - 1), literal > 0);
+	}
+
+	/**
+	 * @return the variables of the last emitted formula; the variable with index {@code i} is at position {@code i - 1}
+	 */
+	public List<Object> getVariables() {
+		return Collections.unmodifiableList(variables);
+	}
+
+	/**
+	 * @return the number of clauses that were passed to the sink during the last call of {@link #emit(IClauseSink, IMonitor)}
+	 */
+	public int getNumberOfClauses() {
+		return numberOfClauses;
+	}
+
+	/**
+	 * @return the number of auxiliary variables introduced during the last call of {@link #emit(IClauseSink, IMonitor)}
+	 */
+	public int getNumberOfAuxiliaryVariables() {
+		return numberOfAuxiliaryVariables;
+	}
+
+	public ModelType getModelType() {
+		return modelType;
+	}
+
+	public void setModelType(ModelType modelType) {
+		this.modelType = modelType;
+	}
+
+	public boolean includeBooleanValues() {
+		return includeBooleanValues;
+	}
+
+	public void setIncludeBooleanValues(boolean includeBooleanValues) {
+		this.includeBooleanValues = includeBooleanValues;
+	}
+
+	public void setUseOldNames(boolean useOldNames) {
+		this.useOldNames = useOldNames;
+	}
+
+	public boolean optionalRoot() {
+		return optionalRoot;
+	}
+
+	public void setOptionalRoot(boolean optionalRoot) {
+		this.optionalRoot = optionalRoot;
+	}
+
+	public int getTseitinThreshold() {
+		return tseitinThreshold;
+	}
+
+	/**
+	 * Sets the maximum number of clauses a constraint may produce before it is encoded using auxiliary variables. Default value is {@link Integer#MAX_VALUE}
+	 * (no auxiliary variables).
+	 *
+	 * @param tseitinThreshold the maximum number of clauses
+	 */
+	public void setTseitinThreshold(int tseitinThreshold) {
+		this.tseitinThreshold = tseitinThreshold;
+	}
+
+}
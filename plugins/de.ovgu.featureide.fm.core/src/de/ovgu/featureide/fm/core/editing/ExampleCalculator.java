@@ -20,7 +20,19 @@
  */
 package de.ovgu.featureide.fm.core.editing;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.prop4j.And;
 import org.prop4j.Literal;
@@ -42,14 +54,26 @@ import de.ovgu.featureide.fm.core.configuration.DefaultFormat;
  */
 public class ExampleCalculator {
 
+	private static final int MIN_CLAUSES_PER_THREAD = 16;
+
 	private final IFeatureModel fm;
 
 	private Node a;
 
+	/**
+	 * The clauses of {@link #a} as sets of literals.
+	 */
+	private Set<Set<Node>> aClauses;
+
 	private Node[] bChildren;
 
 	private LinkedList<Integer> bSatisfiable;
 
+	/**
+	 * All indices of satisfiable children found so far. In contrast to {@link #bSatisfiable}, no index is removed when creating examples.
+	 */
+	private List<Integer> allSatisfiable;
+
 	private int bIndex;
 
 	private SatSolver solver;
@@ -60,6 +84,8 @@ public class ExampleCalculator {
 
 	private final long timeout;
 
+	private int numberOfThreads = 1;
+
 	public ExampleCalculator(IFeatureModel fm, long timeout) {
 		this.fm = fm;
 		this.timeout = timeout;
@@ -68,19 +94,52 @@ public class ExampleCalculator {
 	public void setLeft(Node a) {
 		a = a.clone().toCNF();
 		this.a = a;
-		solver = new SatSolver(a, timeout);
+		solver = new SatSolver(a, timeout, false);
+		aClauses = new HashSet<Set<Node>>();
+		for (final Node clause : getClauses(a)) {
+			aClauses.add(getLiterals(clause));
+		}
 	}
 
+	/**
+	 * Sets the formula that is checked against the formula of {@link #setLeft(Node)}. Clauses that are contained in both formulas are skipped, as they are
+	 * trivially implied.
+	 */
 	public void setRight(Node b) {
-		b = b.clone().toCNF();
-		if (b instanceof Or) {
-			b = new And(b);
+		final List<Node> children = new ArrayList<Node>();
+		for (final Node clause : getClauses(b.clone().toCNF())) {
+			if ((aClauses == null) || !aClauses.contains(getLiterals(clause))) {
+				children.add(clause);
+			}
 		}
-		bChildren = b.getChildren();
+		bChildren = children.toArray(new Node[children.size()]);
 		bSatisfiable = new LinkedList<Integer>();
+		allSatisfiable = new ArrayList<Integer>();
 		bIndex = -1;
 	}
 
+	private static Node[] getClauses(Node cnf) {
+		return cnf instanceof And ? cnf.getChildren() : new Node[] { cnf };
+	}
+
+	private static Set<Node> getLiterals(Node clause) {
+		return clause instanceof Or ? new HashSet<Node>(Arrays.asList(clause.getChildren())) : Collections.singleton(clause);
+	}
+
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	/**
+	 * Sets the number of threads that check the clauses in {@link #findSatisfiable(boolean)}. Each thread uses its own solver. The result does not depend on
+	 * the number of threads. The default value is 1.
+	 *
+	 * @param numberOfThreads the number of threads
+	 */
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = Math.max(1, numberOfThreads);
+	}
+
 	public boolean hasNextChild() {
 		if (bChildren == null) {
 			return false;
@@ -94,6 +153,28 @@ public class ExampleCalculator {
 
 	public void childIsSatisfiable() {
 		bSatisfiable.add(bIndex);
+		allSatisfiable.add(bIndex);
+	}
+
+	/**
+	 * Returns all clauses of the right formula that are not implied by the left formula, i.e., the clauses that are violated by at least one example. Checks
+	 * all clauses that have not been checked yet.
+	 *
+	 * @return the clauses in the order of the right formula
+	 * @throws TimeoutException
+	 */
+	public List<Node> getSatisfiableChildren() throws TimeoutException {
+		if (bChildren == null) {
+			return Collections.emptyList();
+		}
+		findSatisfiable(false);
+		final List<Integer> indices = new ArrayList<Integer>(allSatisfiable);
+		Collections.sort(indices);
+		final List<Node> children = new ArrayList<Node>(indices.size());
+		for (final Integer index : indices) {
+			children.add(bChildren[index]);
+		}
+		return children;
 	}
 
 	// might return some examples multiple times
@@ -122,17 +203,16 @@ public class ExampleCalculator {
 	}
 
 	public boolean findSatisfiable(boolean stopEarly) throws TimeoutException {
+		if (bChildren == null) {
+			return false;
+		}
+		final int threads = Math.min(numberOfThreads, (bChildren.length - bIndex - 1) / MIN_CLAUSES_PER_THREAD);
+		if (threads > 1) {
+			return findSatisfiableParallel(stopEarly, threads);
+		}
 		boolean sat = false;
 		while (hasNextChild()) {
-			Node child = nextChild();
-			if (!(child instanceof Or)) {
-				child = new Or(child);
-			}
-			final Node[] list = Node.clone(child.getChildren());
-			for (final Node node : list) {
-				((Literal) node).positive ^= true;
-			}
-			if (solver.isSatisfiable(list)) {
+			if (isSatisfiable(solver, nextChild())) {
 				childIsSatisfiable();
 				if (stopEarly) {
 					return true;
@@ -143,4 +223,77 @@ public class ExampleCalculator {
 		return sat;
 	}
 
+	/**
+	 * Checks the remaining clauses with multiple solvers. Clauses are taken in ascending order, so when stopping early, all clauses before the first
+	 * satisfiable one are checked, as in the sequential case.
+	 */
+	private boolean findSatisfiableParallel(final boolean stopEarly, int threads) throws TimeoutException {
+		final AtomicInteger nextIndex = new AtomicInteger(bIndex + 1);
+		final AtomicInteger bound = new AtomicInteger(bChildren.length);
+		final Node cnf = a;
+
+		final ExecutorService executor = Executors.newFixedThreadPool(threads);
+		final List<Integer> satisfiable = new ArrayList<Integer>();
+		try {
+			final List<Future<List<Integer>>> futures = new ArrayList<Future<List<Integer>>>(threads);
+			for (int i = 0; i < threads; i++) {
+				futures.add(executor.submit(new Callable<List<Integer>>() {
+
+					@Override
+					public List<Integer> call() throws Exception {
+						final SatSolver localSolver = new SatSolver(cnf, timeout, false);
+						final List<Integer> localSatisfiable = new ArrayList<Integer>();
+						for (int index = nextIndex.getAndIncrement(); index < bound.get(); index = nextIndex.getAndIncrement()) {
+							if (isSatisfiable(localSolver, bChildren[index])) {
+								localSatisfiable.add(index);
+								if (stopEarly) {
+									int currentBound;
+									do {
+										currentBound = bound.get();
+									} while (((index + 1) < currentBound) && !bound.compareAndSet(currentBound, index + 1));
+								}
+							}
+						}
+						return localSatisfiable;
+					}
+				}));
+			}
+			for (final Future<List<Integer>> future : futures) {
+				satisfiable.addAll(future.get());
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new TimeoutException(e);
+		} catch (final ExecutionException e) {
+			if (e.getCause() instanceof TimeoutException) {
+				throw (TimeoutException) e.getCause();
+			}
+			throw new RuntimeException(e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+
+		// clauses after the bound are checked again by the next call
+		Collections.sort(satisfiable);
+		final int checkedUpTo = bound.get();
+		boolean sat = false;
+		for (final Integer index : satisfiable) {
+			if (index < checkedUpTo) {
+				bSatisfiable.add(index);
+				allSatisfiable.add(index);
+				sat = true;
+			}
+		}
+		bIndex = checkedUpTo - 1;
+		return sat;
+	}
+
+	private static boolean isSatisfiable(SatSolver solver, Node child) throws TimeoutException {
+		final Node[] list = Node.clone(child instanceof Or ? child.getChildren() : new Node[] { child });
+		for (final Node node : list) {
+			((Literal) node).positive ^= true;
+		}
+		return solver.isSatisfiable(list);
+	}
+
 }
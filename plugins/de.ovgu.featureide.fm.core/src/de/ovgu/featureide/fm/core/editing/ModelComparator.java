@@ -20,6 +20,7 @@
  */
 package de.ovgu.featureide.fm.core.editing;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -80,6 +81,8 @@ public class ModelComparator {
 
 	private ExampleCalculator removedProducts;
 
+	private int numberOfThreads = 1;
+
 	public ModelComparator(long timeout) {
 		this(timeout, 3);
 	}
@@ -118,9 +121,11 @@ public class ModelComparator {
 			newRootUpdated = removeIdenticalNodes(newRoot, oldRoot);
 
 			removedProducts = new ExampleCalculator(oldModel, timeout);
+			removedProducts.setNumberOfThreads(numberOfThreads);
 			implies = implies(oldRoot, newRootUpdated, removedProducts);
 
 			addedProducts = new ExampleCalculator(newModel, timeout);
+			addedProducts.setNumberOfThreads(numberOfThreads);
 			isImplied = implies(newRoot, oldRootUpdated, addedProducts);
 
 			if (implies) {
@@ -237,6 +242,34 @@ public class ModelComparator {
 		return added ? addedProducts.nextExample() : removedProducts.nextExample();
 	}
 
+	/**
+	 * Returns the clauses that break the implication between both models. For added products, these are clauses of the old model that are not implied by the
+	 * new model. For removed products, these are clauses of the new model that are not implied by the old model. Each of these clauses is violated by at least
+	 * one added or removed product, respectively.</br> Requires the strategy of single testing (default).
+	 *
+	 * @param added whether the clauses for added or removed products are returned
+	 * @return the clauses in conjunctive normal form
+	 * @throws TimeoutException
+	 */
+	public List<Node> getViolatedClauses(boolean added) throws TimeoutException {
+		final ExampleCalculator calculator = added ? addedProducts : removedProducts;
+		return calculator == null ? Collections.<Node> emptyList() : calculator.getSatisfiableChildren();
+	}
+
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	/**
+	 * Sets the number of threads that check the clauses of one model against the other model when using the strategy of single testing. The default value is
+	 * 1.
+	 *
+	 * @param numberOfThreads the number of threads
+	 */
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = Math.max(1, numberOfThreads);
+	}
+
 	public Set<Strategy> getStrategy() {
 		return strategy;
 	}
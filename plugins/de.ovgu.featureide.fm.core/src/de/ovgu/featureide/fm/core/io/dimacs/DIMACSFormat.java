@@ -22,6 +22,7 @@ package de.ovgu.featureide.fm.core.io.dimacs;
 
 import java.io.IOException;
 import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -35,7 +36,8 @@ import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.base.IFeatureModelFactory;
 import de.ovgu.featureide.fm.core.base.IFeatureStructure;
 import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
-import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.editing.CNFEmitter;
+import de.ovgu.featureide.fm.core.editing.IClauseSink;
 import de.ovgu.featureide.fm.core.io.APersistentFormat;
 import de.ovgu.featureide.fm.core.io.IFeatureModelFormat;
 import de.ovgu.featureide.fm.core.io.Problem;
@@ -110,9 +112,20 @@ public class DIMACSFormat extends APersistentFormat<IFeatureModel> implements IF
 
 	@Override
 	public String write(IFeatureModel featureModel) {
+		final CNFEmitter emitter = new CNFEmitter(featureModel);
+		emitter.setIncludeBooleanValues(false);
+		final List<int[]> clauses = new ArrayList<>();
+		emitter.emit(new IClauseSink() {
+
+			@Override
+			public void addClause(int[] clause) {
+				clauses.add(clause);
+			}
+		});
+
 		final DimacsWriter w = new DimacsWriter();
 		w.setWritingVariableDirectory(true);
-		return w.write(AdvancedNodeCreator.createRegularCNF(featureModel));
+		return w.write(emitter.getVariables(), clauses);
 	}
 
 	@Override
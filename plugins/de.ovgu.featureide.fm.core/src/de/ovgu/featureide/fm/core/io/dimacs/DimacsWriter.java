@@ -79,7 +79,7 @@ public class DimacsWriter {
 
 			final StringBuilder sb = new StringBuilder();
 			writeVariableDirectory(sb);
-			writeProblem(sb);
+			writeProblem(sb, variableIndexes.size(), clauses.size());
 			writeClauses(sb);
 
 			return sb.toString();
@@ -89,6 +89,37 @@ public class DimacsWriter {
 		}
 	}
 
+	/**
+	 * Writes the DIMACS CNF file format.
+	 *
+	 * @param variables the variables; the variable with index {@code i} is at position {@code i - 1}; not null
+	 * @param clauses the clauses, literals are encoded by the (negated) index of their variable; not null
+	 * @return the transformed CNF; not null
+	 */
+	public String write(List<?> variables, List<int[]> clauses) {
+		final StringBuilder sb = new StringBuilder();
+		if (writeVariableDirectory) {
+			int index = 0;
+			for (final Object variable : variables) {
+				sb.append(DIMACSFormat.COMMENT_START);
+				sb.append(++index);
+				sb.append(' ');
+				sb.append(variable);
+				sb.append(System.lineSeparator());
+			}
+		}
+		writeProblem(sb, variables.size(), clauses.size());
+		for (final int[] clause : clauses) {
+			for (final int literal : clause) {
+				sb.append(literal);
+				sb.append(' ');
+			}
+			sb.append(DIMACSFormat.CLAUSE_END);
+			sb.append(System.lineSeparator());
+		}
+		return sb.toString();
+	}
+
 	/**
 	 * Adds the given variable. This means assigning an index to it.
 	 *
@@ -125,14 +156,14 @@ public class DimacsWriter {
 	 *
 	 * @return the problem description; not null
 	 */
-	private void writeProblem(StringBuilder sb) {
+	private void writeProblem(StringBuilder sb, int numberOfVariables, int numberOfClauses) {
 		sb.append(DIMACSFormat.PROBLEM);
 		sb.append(' ');
 		sb.append(DIMACSFormat.CNF);
 		sb.append(' ');
-		sb.append(variableIndexes.size());
+		sb.append(numberOfVariables);
 		sb.append(' ');
-		sb.append(clauses.size());
+		sb.append(numberOfClauses);
 		sb.append(System.lineSeparator());
 	}
 
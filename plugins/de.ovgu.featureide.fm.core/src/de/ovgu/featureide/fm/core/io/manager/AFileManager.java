@@ -24,6 +24,9 @@ import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.nio.charset.Charset;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -296,10 +299,23 @@ public abstract class AFileManager<T> implements IFileManager<T>, IEventManager
 
 	protected final FileIdentifier<T> identifier;
 
+	/**
+	 * The serialized form of the persistent object. Is computed on demand, thus it may be {@code null} even if there is a persistent object.
+	 */
 	protected String persistentObjectSource;
 	protected T persistentObject;
 	protected T variableObject;
 
+	/**
+	 * The {@link #getModificationCount(Object) modification count} of the variable object at the last time it was known to be equal to the persistent object,
+	 * or {@code -1} if unknown.
+	 */
+	private volatile long persistentModificationCount = -1;
+	/**
+	 * The hash of the file content that corresponds to the persistent object, or {@code null} if unknown.
+	 */
+	private byte[] persistentContentHash;
+
 	private boolean modifying = false;
 
 	protected AFileManager(T object, FileIdentifier<T> identifier) {
@@ -307,18 +323,23 @@ public abstract class AFileManager<T> implements IFileManager<T>, IEventManager
 
 		variableObject = object;
 
+		byte[] contentHash = null;
 		if (FileSystem.exists(identifier.getPath())) {
 			try {
-				final String content = new String(FileSystem.read(identifier.getPath()), DEFAULT_CHARSET);
-				final ProblemList problems = identifier.getFormat().getInstance().read(variableObject, content);
+				final byte[] content = FileSystem.read(identifier.getPath());
+				final ProblemList problems = identifier.getFormat().getInstance().read(variableObject, new String(content, DEFAULT_CHARSET));
 				if (problems != null) {
 					lastProblems.addAll(problems);
 				}
+				contentHash = computeHash(content);
 			} catch (final Exception e) {
 				handleException(e);
 			}
 		}
+		final long modificationCount = getModificationCount(variableObject);
 		setPersistentObject(copyObject(variableObject));
+		persistentModificationCount = modificationCount;
+		persistentContentHash = contentHash;
 	}
 
 	@Override
@@ -328,6 +349,17 @@ public abstract class AFileManager<T> implements IFileManager<T>, IEventManager
 
 	protected abstract T copyObject(T oldObject);
 
+	/**
+	 * Returns the current value of a counter that is increased with every modification of the given object.<br/> Subclasses should override this method, if
+	 * their objects provide such a counter. Otherwise, every call of {@link #hasChanged()} compares the serialized objects.
+	 *
+	 * @param object The given object.
+	 * @return the modification count of the object or {@code -1} if the object does not count its modifications.
+	 */
+	protected long getModificationCount(T object) {
+		return -1;
+	}
+
 	@Override
 	public T getObject() {
 		synchronized (syncObject) {
@@ -366,12 +398,31 @@ public abstract class AFileManager<T> implements IFileManager<T>, IEventManager
 	}
 
 	protected void setPersistentObject(T persistentObject) {
+		setPersistentObject(persistentObject, null);
+		persistentModificationCount = -1;
+		persistentContentHash = null;
+	}
+
+	private void setPersistentObject(T persistentObject, String persistentObjectSource) {
 		this.persistentObject = persistentObject;
-		if (persistentObject == null) {
-			persistentObjectSource = null;
-		} else {
+		this.persistentObjectSource = persistentObjectSource;
+	}
+
+	private String getPersistentObjectSource() {
+		if ((persistentObjectSource == null) && (persistentObject != null)) {
 			persistentObjectSource = identifier.getFormat().getInstance().write(persistentObject);
 		}
+		return persistentObjectSource;
+	}
+
+	@CheckForNull
+	private static byte[] computeHash(byte[] content) {
+		try {
+			return MessageDigest.getInstance("SHA-256").digest(content);
+		} catch (final NoSuchAlgorithmException e) {
+			Logger.logError(e);
+			return null;
+		}
 	}
 
 	@Override
@@ -387,22 +438,38 @@ public abstract class AFileManager<T> implements IFileManager<T>, IEventManager
 			if (modifying) {
 				return true;
 			}
+			final byte[] content;
+			try {
+				content = FileSystem.read(identifier.getPath());
+			} catch (final Exception e) {
+				lastProblems.clear();
+				handleException(e);
+				return false;
+			}
+			final byte[] contentHash = computeHash(content);
+			if ((contentHash != null) && Arrays.equals(contentHash, persistentContentHash)) {
+				// the file was not changed since it was read or written the last time
+				return lastProblems.isEmpty();
+			}
 			lastProblems.clear();
 			final T tempObject = copyObject(persistentObject);
+			final String tempObjectSource;
 			try {
-				final String content = new String(FileSystem.read(identifier.getPath()), DEFAULT_CHARSET);
-				final List<Problem> problemList = identifier.getFormat().getInstance().read(tempObject, content);
+				final List<Problem> problemList = identifier.getFormat().getInstance().read(tempObject, new String(content, DEFAULT_CHARSET));
 				if (problemList != null) {
 					lastProblems.addAll(problemList);
 				}
-				changed = hasChanged(tempObject);
+				tempObjectSource = identifier.getFormat().getInstance().write(tempObject);
+				changed = !Objects.equals(tempObjectSource, getPersistentObjectSource());
 			} catch (final Exception e) {
 				handleException(e);
 				return false;
 			}
 			if (changed) {
-				setPersistentObject(tempObject);
+				setPersistentObject(tempObject, tempObjectSource);
+				persistentModificationCount = -1;
 			}
+			persistentContentHash = contentHash;
 			success = lastProblems.isEmpty();
 		}
 		if (changed) {
@@ -418,8 +485,11 @@ public abstract class AFileManager<T> implements IFileManager<T>, IEventManager
 			if (modifying) {
 				return;
 			}
-			final String write = identifier.getFormat().getInstance().write(persistentObject);
-			identifier.getFormat().getInstance().read(variableObject, write);
+			final long modificationCount = getModificationCount(variableObject);
+			if ((modificationCount < 0) || (modificationCount != persistentModificationCount)) {
+				identifier.getFormat().getInstance().read(variableObject, getPersistentObjectSource());
+				persistentModificationCount = getModificationCount(variableObject);
+			}
 			// variableObject = copyObject(localObject);
 			// persistentObject = copyObject(localObject);
 		}
@@ -438,17 +508,28 @@ public abstract class AFileManager<T> implements IFileManager<T>, IEventManager
 	 * @return {@code true} if objects differ, {@code false} otherwise.
 	 */
 	protected boolean hasChanged(T newObject) {
-		return !Objects.equals(identifier.getFormat().getInstance().write(newObject), persistentObjectSource);
+		synchronized (syncObject) {
+			return !Objects.equals(identifier.getFormat().getInstance().write(newObject), getPersistentObjectSource());
+		}
 	}
 
 	/**
-	 * Compares the persistent with the variable object for equality.<br/> Uses {@link #hasChanged(T)}.
+	 * Compares the persistent with the variable object for equality.<br/> If the variable object was not modified since it was equal to the persistent object
+	 * the last time (see {@link #getModificationCount(Object)}), this method returns immediately. Otherwise, it uses {@link #hasChanged(T)}.
 	 *
 	 * @return {@code true} if objects differ, {@code false} otherwise.
 	 */
 	@Override
 	public boolean hasChanged() {
-		return hasChanged(variableObject);
+		final long modificationCount = getModificationCount(variableObject);
+		if ((modificationCount >= 0) && (modificationCount == persistentModificationCount)) {
+			return false;
+		}
+		final boolean changed = hasChanged(variableObject);
+		if (!changed) {
+			persistentModificationCount = modificationCount;
+		}
+		return changed;
 	}
 
 	@Override
@@ -461,9 +542,14 @@ public abstract class AFileManager<T> implements IFileManager<T>, IEventManager
 					return true;
 				}
 				modifying = true;
+				final long modificationCount = getModificationCount(variableObject);
 				final T tempObject = copyObject(variableObject);
-				FileSystem.write(identifier.getPath(), identifier.getFormat().getInstance().write(tempObject).getBytes(DEFAULT_CHARSET));
-				setPersistentObject(copyObject(tempObject));
+				final String source = identifier.getFormat().getInstance().write(tempObject);
+				final byte[] content = source.getBytes(DEFAULT_CHARSET);
+				FileSystem.write(identifier.getPath(), content);
+				setPersistentObject(tempObject, source);
+				persistentModificationCount = modificationCount;
+				persistentContentHash = computeHash(content);
 			} catch (final Exception e) {
 				handleException(e);
 				return false;
@@ -486,9 +572,11 @@ public abstract class AFileManager<T> implements IFileManager<T>, IEventManager
 					return true;
 				}
 				modifying = true;
+				final long modificationCount = getModificationCount(variableObject);
 				final T tempObject = copyObject(variableObject);
 				externalSaveMethod.run();
-				setPersistentObject(copyObject(tempObject));
+				setPersistentObject(tempObject);
+				persistentModificationCount = modificationCount;
 			} catch (final Exception e) {
 				handleException(e);
 				return false;
@@ -81,6 +81,11 @@ public class ConfigurationManager extends AFileManager<Configuration> {
 		return oldObject.clone();
 	}
 
+	@Override
+	protected long getModificationCount(Configuration object) {
+		return object == null ? -1 : object.getModificationCount();
+	}
+
 	public void setConfiguration(Configuration configuration) {
 		variableObject = configuration;
 		synchronized (syncObject) {
@@ -120,6 +120,11 @@ public class FeatureModelManager extends AFileManager<IFeatureModel> {
 		return clone;
 	}
 
+	@Override
+	protected long getModificationCount(IFeatureModel object) {
+		return object == null ? -1 : object.getModificationCount();
+	}
+
 	public static FileHandler<IFeatureModel> load(Path path) {
 		return getFileHandler(path, objectCreator);
 	}
@@ -34,6 +34,12 @@ import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
@@ -64,8 +70,27 @@ public abstract class AXMLFormat<T> extends APersistentFormat<T> implements IPer
 
 	public static final String FILE_EXTENSION = "xml";
 
+	private static final String STREAM_MESSAGE_PREFIX = "Message: ";
+	private static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>";
+
+	/**
+	 * Thrown by {@link AXMLFormat#readStream(XMLStreamReader, List)} if a document is well-formed, but its layout is not supported by the streaming reader.
+	 * The document is then read again with {@link AXMLFormat#readDocument(Document, List)}.
+	 */
+	protected static class UnsupportedLayoutException extends Exception {
+
+		private static final long serialVersionUID = 1L;
+
+		public UnsupportedLayoutException(String message) {
+			super(message);
+		}
+
+	}
+
 	protected T object;
 
+	private boolean streaming = true;
+
 	/**
 	 * @param nodeList
 	 * @return The child nodes from type Element of the given NodeList.
@@ -82,19 +107,160 @@ public abstract class AXMLFormat<T> extends APersistentFormat<T> implements IPer
 		return elements;
 	}
 
+	/**
+	 * @return The line number of the given location or {@code 1} if it is unknown.
+	 */
+	protected static final int getLineNumber(Location location) {
+		return ((location != null) && (location.getLineNumber() > 0)) ? location.getLineNumber() : 1;
+	}
+
+	/**
+	 * Moves the given reader to the next start or end tag.
+	 *
+	 * @return {@code true} if the reader is positioned at a start tag, {@code false} if it is positioned at an end tag or at the end of the document.
+	 */
+	protected static final boolean nextElement(XMLStreamReader reader) throws XMLStreamException {
+		while (reader.hasNext()) {
+			switch (reader.next()) {
+			case XMLStreamConstants.START_ELEMENT:
+				return true;
+			case XMLStreamConstants.END_ELEMENT:
+				return false;
+			default:
+				break;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Reads the text content of the current element and moves the reader to its end tag.
+	 *
+	 * @throws UnsupportedLayoutException if the element contains child elements
+	 */
+	protected static final String readText(XMLStreamReader reader) throws XMLStreamException, UnsupportedLayoutException {
+		final StringBuilder text = new StringBuilder();
+		while (reader.hasNext()) {
+			switch (reader.next()) {
+			case XMLStreamConstants.CHARACTERS:
+			case XMLStreamConstants.CDATA:
+			case XMLStreamConstants.SPACE:
+			case XMLStreamConstants.ENTITY_REFERENCE:
+				text.append(reader.getText());
+				break;
+			case XMLStreamConstants.START_ELEMENT:
+				throw new UnsupportedLayoutException("Unexpected element " + reader.getLocalName());
+			case XMLStreamConstants.END_ELEMENT:
+				return text.toString();
+			default:
+				break;
+			}
+		}
+		return text.toString();
+	}
+
+	/**
+	 * Moves the reader to the end tag of the current element, skipping all of its content.
+	 */
+	protected static final void skipElement(XMLStreamReader reader) throws XMLStreamException {
+		int depth = 1;
+		while (reader.hasNext()) {
+			switch (reader.next()) {
+			case XMLStreamConstants.START_ELEMENT:
+				depth++;
+				break;
+			case XMLStreamConstants.END_ELEMENT:
+				if (--depth == 0) {
+					return;
+				}
+				break;
+			default:
+				break;
+			}
+		}
+	}
+
+	/**
+	 * @return The message of the given exception without the position prefix that is added by some StAX implementations.
+	 */
+	private static String getMessage(XMLStreamException e) {
+		final String message = e.getMessage();
+		final int index = (message != null) ? message.indexOf(STREAM_MESSAGE_PREFIX) : -1;
+		return (index >= 0) ? message.substring(index + STREAM_MESSAGE_PREFIX.length()) : message;
+	}
+
+	private static XMLStreamReader createStreamReader(String source) throws XMLStreamException {
+		final XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.FALSE);
+		factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+		return factory.createXMLStreamReader(new StringReader(source));
+	}
+
 	@Override
 	public String getSuffix() {
 		return FILE_EXTENSION;
 	}
 
+	/**
+	 * Whether this format implements {@link #readStream(XMLStreamReader, List)} and {@link #writeStream(IndentingXMLWriter)}.
+	 *
+	 * @return {@code false} by default.
+	 */
+	protected boolean supportsStreaming() {
+		return false;
+	}
+
+	/**
+	 * @return {@code true} if documents are read and written with StAX instead of building a DOM.
+	 */
+	public boolean isStreaming() {
+		return streaming && supportsStreaming();
+	}
+
+	/**
+	 * Switches between the StAX based and the DOM based implementation. Has no effect for formats that do not support streaming.
+	 *
+	 * @param streaming whether to use the StAX based implementation
+	 */
+	public void setStreaming(boolean streaming) {
+		this.streaming = streaming;
+	}
+
 	@Override
 	public ProblemList read(T object, CharSequence source) {
 		this.object = object;
 
 		final ProblemList lastWarnings = new ProblemList();
+		final String content = source.toString();
+		if (isStreaming()) {
+			try {
+				// Check the whole document first, so the object is not modified if it is malformed.
+				final XMLStreamReader checkReader = createStreamReader(content);
+				while (checkReader.hasNext()) {
+					checkReader.next();
+				}
+				checkReader.close();
+
+				final XMLStreamReader reader = createStreamReader(content);
+				readStream(reader, lastWarnings);
+				reader.close();
+				return lastWarnings;
+			} catch (final UnsupportedLayoutException e) {
+				lastWarnings.clear();
+			} catch (final XMLStreamException e) {
+				lastWarnings.add(new Problem(getMessage(e), getLineNumber(e.getLocation()), e));
+				return lastWarnings;
+			} catch (final UnsupportedModelException e) {
+				lastWarnings.add(new Problem(e, e.lineNumber));
+				return lastWarnings;
+			} catch (final Exception e) {
+				lastWarnings.add(new Problem(e));
+				return lastWarnings;
+			}
+		}
 		try {
 			final Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
-			SAXParserFactory.newInstance().newSAXParser().parse(new InputSource(new StringReader(source.toString())), new PositionalXMLHandler(doc));
+			SAXParserFactory.newInstance().newSAXParser().parse(new InputSource(new StringReader(content)), new PositionalXMLHandler(doc));
 			doc.getDocumentElement().normalize();
 			readDocument(doc, lastWarnings);
 		} catch (final SAXParseException e) {
@@ -112,6 +278,20 @@ public abstract class AXMLFormat<T> extends APersistentFormat<T> implements IPer
 	public String write(T object) {
 		this.object = object;
 
+		if (isStreaming()) {
+			try (StringWriter stringWriter = new StringWriter()) {
+				stringWriter.write(XML_DECLARATION);
+				stringWriter.write(System.lineSeparator());
+				final IndentingXMLWriter writer = new IndentingXMLWriter(XMLOutputFactory.newInstance().createXMLStreamWriter(stringWriter));
+				writeStream(writer);
+				writer.endDocument();
+				return stringWriter.toString();
+			} catch (final IOException | XMLStreamException e) {
+				Logger.logError(e);
+				return "";
+			}
+		}
+
 		// Create Empty DOM Document
 		final DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
 		dbf.setNamespaceAware(true);
@@ -183,4 +363,26 @@ public abstract class AXMLFormat<T> extends APersistentFormat<T> implements IPer
 	 */
 	protected abstract void writeDocument(Document doc);
 
+	/**
+	 * Reads an XML-Document from a stream of parser events. Only called if {@link #supportsStreaming()} returns {@code true}.<br>
+	 * The document is known to be well-formed when this method is called.
+	 *
+	 * @param reader the reader, positioned before the start of the document
+	 * @param warnings list of warnings / errors that occur during read
+	 *
+	 * @throws UnsupportedLayoutException if the document must be read by {@link #readDocument(Document, List)} instead
+	 */
+	protected void readStream(XMLStreamReader reader, List<Problem> warnings) throws XMLStreamException, UnsupportedModelException, UnsupportedLayoutException {
+		throw new UnsupportedLayoutException(getName());
+	}
+
+	/**
+	 * Writes an XML-Document element by element. Only called if {@link #supportsStreaming()} returns {@code true}.
+	 *
+	 * @param writer the writer
+	 */
+	protected void writeStream(IndentingXMLWriter writer) throws XMLStreamException {
+		throw new UnsupportedOperationException(getName());
+	}
+
 }
@@ -0,0 +1,147 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.xml;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Writes an XML document element by element and reproduces the layout of the DOM based writer in {@link AXMLFormat}: one element per line, an indentation
+ * of four spaces, attributes in alphabetical order, and elements without content written as empty elements.<br>
+ * The start tag of an element is buffered until its first child or text is written, so callers do not need to know in advance whether an element is empty.
+ */
+public class IndentingXMLWriter {
+
+	private static final String INDENT = "    ";
+	private static final String NEW_LINE = "\n";
+
+	private static final Comparator<String[]> ATTRIBUTE_ORDER = new Comparator<String[]>() {
+
+		@Override
+		public int compare(String[] o1, String[] o2) {
+			return o1[0].compareTo(o2[0]);
+		}
+	};
+
+	private final XMLStreamWriter writer;
+	private final String lineSeparator = System.lineSeparator();
+
+	private final List<String[]> pendingAttributes = new ArrayList<>();
+	private String pendingElement = null;
+
+	private boolean[] hasChildElements = new boolean[16];
+	private int depth = 0;
+
+	public IndentingXMLWriter(XMLStreamWriter writer) {
+		this.writer = writer;
+	}
+
+	/**
+	 * Starts a new element. Attributes can be added until the first child element or text is written.
+	 *
+	 * @param name the element name
+	 */
+	public void startElement(String name) throws XMLStreamException {
+		writePendingElement();
+		if (depth > 0) {
+			hasChildElements[depth] = true;
+			writer.writeCharacters(lineSeparator);
+			for (int i = 0; i < depth; i++) {
+				writer.writeCharacters(INDENT);
+			}
+		}
+		pendingElement = name;
+	}
+
+	public void attribute(String name, String value) throws XMLStreamException {
+		if (pendingElement == null) {
+			throw new XMLStreamException("Attribute " + name + " must be written directly after a start element");
+		}
+		pendingAttributes.add(new String[] { name, value });
+	}
+
+	/**
+	 * Writes the given text as content of the current element. No indentation is added, but line breaks are converted to the system line separator. An element with empty text remains an empty element.
+	 *
+	 * @param text the text
+	 */
+	public void text(String text) throws XMLStreamException {
+		if (text.isEmpty()) {
+			return;
+		}
+		writePendingElement();
+		writer.writeCharacters(NEW_LINE.equals(lineSeparator) ? text : text.replace(NEW_LINE, lineSeparator));
+	}
+
+	public void endElement() throws XMLStreamException {
+		if (pendingElement != null) {
+			writer.writeEmptyElement(pendingElement);
+			writePendingAttributes();
+			pendingElement = null;
+		} else {
+			if (hasChildElements[depth]) {
+				writer.writeCharacters(lineSeparator);
+				for (int i = 1; i < depth; i++) {
+					writer.writeCharacters(INDENT);
+				}
+			}
+			writer.writeEndElement();
+			depth--;
+		}
+	}
+
+	/**
+	 * Writes a line break after the root element and flushes the underlying writer.
+	 */
+	public void endDocument() throws XMLStreamException {
+		writer.writeCharacters(lineSeparator);
+		writer.flush();
+	}
+
+	private void writePendingElement() throws XMLStreamException {
+		if (pendingElement != null) {
+			writer.writeStartElement(pendingElement);
+			writePendingAttributes();
+			pendingElement = null;
+			if (++depth == hasChildElements.length) {
+				hasChildElements = Arrays.copyOf(hasChildElements, depth << 1);
+			}
+			hasChildElements[depth] = false;
+		}
+	}
+
+	private void writePendingAttributes() throws XMLStreamException {
+		if (pendingAttributes.size() > 1) {
+			Collections.sort(pendingAttributes, ATTRIBUTE_ORDER);
+		}
+		for (final String[] attribute : pendingAttributes) {
+			writer.writeAttribute(attribute[0], attribute[1]);
+		}
+		pendingAttributes.clear();
+	}
+
+}
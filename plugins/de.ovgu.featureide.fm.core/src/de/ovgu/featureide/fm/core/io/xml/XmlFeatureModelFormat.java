@@ -29,12 +29,16 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.NOT;
 import static de.ovgu.featureide.fm.core.localization.StringTable.WRONG_SYNTAX;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 import java.util.regex.Pattern;
 
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
 import org.prop4j.And;
 import org.prop4j.AtMost;
 import org.prop4j.Equals;
@@ -62,6 +66,7 @@ import de.ovgu.featureide.fm.core.io.IFeatureModelFormat;
 import de.ovgu.featureide.fm.core.io.LazyReader;
 import de.ovgu.featureide.fm.core.io.Problem;
 import de.ovgu.featureide.fm.core.io.UnsupportedModelException;
+import de.ovgu.featureide.fm.core.io.xml.XmlPropertyLoader.FeaturePropertiesParser;
 import de.ovgu.featureide.fm.core.io.xml.XmlPropertyLoader.PropertiesParser;
 
 /**
@@ -176,6 +181,458 @@ public class XmlFeatureModelFormat extends AXMLFormat<IFeatureModel> implements
 		}
 	}
 
+	@Override
+	protected boolean supportsStreaming() {
+		return true;
+	}
+
+	/**
+	 * Reads documents in the layout written by this format, i.e., the sections of a feature model appear in the order properties, struct, constraints,
+	 * calculations, comments, featureOrder. Any other layout is read by {@link #readDocument(Document, List)}.
+	 */
+	@Override
+	protected void readStream(XMLStreamReader reader, List<Problem> warnings) throws XMLStreamException, UnsupportedModelException, UnsupportedLayoutException {
+		object.reset();
+
+		factory = FMFactoryManager.getFactory(object);
+
+		if (!nextElement(reader) || !reader.getLocalName().equals(FEATURE_MODEL)) {
+			throw new UnsupportedLayoutException(FEATURE_MODEL);
+		}
+
+		final List<String> propertyContainers = new ArrayList<>();
+		final List<List<String[]>> properties = new ArrayList<>();
+		final List<String> sections = Arrays.asList(PROPERTIES, STRUCT, CONSTRAINTS, CALCULATIONS, COMMENTS, FEATURE_ORDER);
+		int lastSection = -1;
+		while (nextElement(reader)) {
+			final String nodeName = reader.getLocalName();
+			final int section = sections.indexOf(nodeName);
+			if (section <= lastSection) {
+				throw new UnsupportedLayoutException(nodeName);
+			}
+			lastSection = section;
+			switch (nodeName) {
+			case PROPERTIES:
+				readProperties(reader, propertyContainers, properties);
+				break;
+			case STRUCT:
+				readFeatures(reader, null);
+				break;
+			case CONSTRAINTS:
+				readConstraints(reader);
+				break;
+			case CALCULATIONS:
+				readCalculations(reader);
+				break;
+			case COMMENTS:
+				readComments(reader);
+				break;
+			case FEATURE_ORDER:
+				readFeatureOrder(reader);
+				break;
+			default:
+				throw new UnsupportedLayoutException(nodeName);
+			}
+		}
+
+		final Collection<PropertiesParser> customProperties = new ArrayList<>(propertyContainers.size());
+		for (int i = 0; i < propertyContainers.size(); i++) {
+			customProperties.add(new FeaturePropertiesParser(propertyContainers.get(i), properties.get(i)));
+		}
+
+		if (object.getStructure().getRoot() == null) {
+			throw new UnsupportedModelException(WRONG_SYNTAX, 1);
+		}
+
+		importCustomProperties(customProperties, object);
+	}
+
+	@Override
+	protected void writeStream(IndentingXMLWriter writer) throws XMLStreamException {
+		writer.startElement(FEATURE_MODEL);
+
+		writer.startElement(PROPERTIES);
+		for (final IFeature feature : object.getFeatures()) {
+			final Set<Entry<String, Type, Object>> propertyEntries = feature.getCustomProperties().entrySet();
+			if (!propertyEntries.isEmpty()) {
+				writer.startElement(FEATURE);
+				writer.attribute(NAME, feature.getName());
+				for (final Entry<String, Type, Object> entry : propertyEntries) {
+					writer.startElement(XmlPropertyLoader.PROPERTY);
+					writer.attribute(XmlPropertyLoader.KEY, entry.getKey());
+					writer.attribute(XmlPropertyLoader.VALUE, entry.getValue().toString());
+					writer.attribute(XmlPropertyLoader.TYPE, entry.getType().toString());
+					writer.endElement();
+				}
+				writer.endElement();
+			}
+		}
+		writer.endElement();
+
+		writer.startElement(STRUCT);
+		writeFeature(writer, FeatureUtils.getRoot(object));
+		writer.endElement();
+
+		writer.startElement(CONSTRAINTS);
+		for (final IConstraint constraint : object.getConstraints()) {
+			writer.startElement(RULE);
+			writeDescription(writer, constraint.getDescription());
+			writePropositionalConstraints(writer, constraint.getNode());
+			writer.endElement();
+		}
+		writer.endElement();
+
+		writer.startElement(CALCULATIONS);
+		writer.attribute(CALCULATE_AUTO, "" + object.getAnalyser().runCalculationAutomatically);
+		writer.attribute(CALCULATE_FEATURES, "" + object.getAnalyser().calculateFeatures);
+		writer.attribute(CALCULATE_CONSTRAINTS, "" + object.getAnalyser().calculateConstraints);
+		writer.attribute(CALCULATE_REDUNDANT, "" + object.getAnalyser().calculateRedundantConstraints);
+		writer.attribute(CALCULATE_TAUTOLOGY, "" + object.getAnalyser().calculateTautologyConstraints);
+		writer.endElement();
+
+		writer.startElement(COMMENTS);
+		for (final String comment : object.getProperty().getComments()) {
+			writer.startElement(C);
+			writer.text(comment);
+			writer.endElement();
+		}
+		writer.endElement();
+
+		writer.startElement(FEATURE_ORDER);
+		writer.attribute(USER_DEFINED, Boolean.toString(object.isFeatureOrderUserDefined()));
+		if (object.isFeatureOrderUserDefined()) {
+			Collection<String> featureOrderList = object.getFeatureOrderList();
+
+			if (featureOrderList.isEmpty()) {
+				featureOrderList = FeatureUtils.extractConcreteFeaturesAsStringList(object);
+			}
+
+			for (final String featureName : featureOrderList) {
+				writer.startElement(FEATURE);
+				writer.attribute(NAME, featureName);
+				writer.endElement();
+			}
+		}
+		writer.endElement();
+
+		writer.endElement();
+	}
+
+	private void writeFeature(IndentingXMLWriter writer, IFeature feat) throws XMLStreamException {
+		if (feat == null) {
+			return;
+		}
+
+		final List<IFeature> children = FeatureUtils.convertToFeatureList(feat.getStructure().getChildren());
+
+		if (children.isEmpty()) {
+			writer.startElement(FEATURE);
+		} else if (feat.getStructure().isAnd()) {
+			writer.startElement(AND);
+		} else if (feat.getStructure().isOr()) {
+			writer.startElement(OR);
+		} else if (feat.getStructure().isAlternative()) {
+			writer.startElement(ALT);
+		} else {
+			writer.startElement(UNKNOWN);
+		}
+
+		writer.attribute(NAME, feat.getName());
+		if (feat.getStructure().isHidden()) {
+			writer.attribute(HIDDEN, TRUE);
+		}
+		if (feat.getStructure().isMandatory()) {
+			if ((feat.getStructure().getParent() == null) || feat.getStructure().getParent().isAnd()) {
+				writer.attribute(MANDATORY, TRUE);
+			}
+		}
+		if (feat.getStructure().isAbstract()) {
+			writer.attribute(ABSTRACT, TRUE);
+		}
+		writeDescription(writer, feat.getProperty().getDescription());
+
+		for (final IFeature feature : children) {
+			writeFeature(writer, feature);
+		}
+		writer.endElement();
+	}
+
+	private void writeDescription(IndentingXMLWriter writer, String description) throws XMLStreamException {
+		if ((description != null) && !description.trim().isEmpty()) {
+			writer.startElement(DESCRIPTION);
+			writer.text("\n" + description.replace("\r", "") + "\n");
+			writer.endElement();
+		}
+	}
+
+	private void writePropositionalConstraints(IndentingXMLWriter writer, org.prop4j.Node node) throws XMLStreamException {
+		if (node == null) {
+			return;
+		}
+
+		if (node instanceof Literal) {
+			final Literal literal = (Literal) node;
+			if (!literal.positive) {
+				writer.startElement(NOT);
+			}
+			writer.startElement(VAR);
+			writer.text(String.valueOf(literal.var));
+			writer.endElement();
+			if (!literal.positive) {
+				writer.endElement();
+			}
+			return;
+		} else if (node instanceof Or) {
+			writer.startElement(DISJ);
+		} else if (node instanceof Equals) {
+			writer.startElement(EQ);
+		} else if (node instanceof Implies) {
+			writer.startElement(IMP);
+		} else if (node instanceof And) {
+			writer.startElement(CONJ);
+		} else if (node instanceof Not) {
+			writer.startElement(NOT);
+		} else if (node instanceof AtMost) {
+			writer.startElement(ATMOST1);
+		} else {
+			writer.startElement(UNKNOWN);
+		}
+
+		for (final org.prop4j.Node child : node.getChildren()) {
+			writePropositionalConstraints(writer, child);
+		}
+		writer.endElement();
+	}
+
+	private void readFeatures(XMLStreamReader reader, IFeature parent) throws XMLStreamException, UnsupportedModelException, UnsupportedLayoutException {
+		while (nextElement(reader)) {
+			final String nodeName = reader.getLocalName();
+			final int line = getLineNumber(reader.getLocation());
+			if (nodeName.equals(DESCRIPTION)) {
+				String nodeValue = readText(reader);
+				if (!nodeValue.isEmpty()) {
+					nodeValue = nodeValue.replace("\t", "");
+					nodeValue = nodeValue.substring(1, nodeValue.length() - 1);
+					nodeValue = nodeValue.trim();
+					parent.getProperty().setDescription(nodeValue);
+				}
+				continue;
+			}
+			boolean mandatory = false;
+			boolean _abstract = false;
+			boolean hidden = false;
+			String name = "";
+			for (int i = 0; i < reader.getAttributeCount(); i++) {
+				final String attributeName = reader.getAttributeLocalName(i);
+				final String attributeValue = reader.getAttributeValue(i);
+				if (attributeName.equals(ABSTRACT)) {
+					_abstract = attributeValue.equals(TRUE);
+				} else if (attributeName.equals(MANDATORY)) {
+					mandatory = attributeValue.equals(TRUE);
+				} else if (attributeName.equals(NAME)) {
+					name = attributeValue;
+				} else if (attributeName.equals(HIDDEN)) {
+					hidden = attributeValue.equals(TRUE);
+				} else if (attributeName.equals(COORDINATES)) {
+					// Legacy case, for backwards compatibility
+				} else {
+					throwError("Unknown feature attribute: " + attributeName, line);
+				}
+			}
+
+			if (object.getFeature(name) != null) {
+				throwError("Duplicate entry for feature: " + name, line);
+			}
+			final IFeature f = factory.createFeature(object, name);
+			f.getStructure().setMandatory(true);
+			if (nodeName.equals(AND)) {
+				f.getStructure().setAnd();
+			} else if (nodeName.equals(ALT)) {
+				f.getStructure().setAlternative();
+			} else if (nodeName.equals(OR)) {
+				f.getStructure().setOr();
+			} else if (nodeName.equals(FEATURE)) {
+
+			} else {
+				throwError("Unknown feature type: " + nodeName, line);
+			}
+			f.getStructure().setAbstract(_abstract);
+			f.getStructure().setMandatory(mandatory);
+			f.getStructure().setHidden(hidden);
+
+			object.addFeature(f);
+			if (parent == null) {
+				object.getStructure().setRoot(f.getStructure());
+			} else {
+				parent.getStructure().addChild(f.getStructure());
+			}
+			readFeatures(reader, f);
+		}
+	}
+
+	private void readConstraints(XMLStreamReader reader) throws XMLStreamException, UnsupportedModelException, UnsupportedLayoutException {
+		while (nextElement(reader)) {
+			final String nodeName = reader.getLocalName();
+			if (nodeName.equals(RULE)) {
+				for (int i = 0; i < reader.getAttributeCount(); i++) {
+					if (!reader.getAttributeLocalName(i).equals(COORDINATES)) {
+						throw new UnsupportedLayoutException(reader.getAttributeLocalName(i));
+					}
+				}
+				final List<String> descriptions = new ArrayList<>(1);
+				final IConstraint c = factory.createConstraint(object, readConstraintNodes(reader, descriptions).getFirst());
+				for (String description : descriptions) {
+					if (!description.isEmpty()) {
+						description = description.replace("\t", "");
+						description = description.trim();
+					}
+					c.setDescription(description);
+				}
+				object.addConstraint(c);
+			} else {
+				throwError("Unknown constraint node: " + nodeName, getLineNumber(reader.getLocation()));
+			}
+		}
+	}
+
+	/**
+	 * Reads the children of the current element as propositional formulas.
+	 *
+	 * @param descriptions Output parameter: receives the description texts found among the children. If {@code null}, descriptions are skipped.
+	 */
+	private LinkedList<org.prop4j.Node> readConstraintNodes(XMLStreamReader reader, List<String> descriptions)
+			throws XMLStreamException, UnsupportedModelException, UnsupportedLayoutException {
+		final LinkedList<org.prop4j.Node> nodes = new LinkedList<>();
+		LinkedList<org.prop4j.Node> children;
+		while (nextElement(reader)) {
+			final String nodeName = reader.getLocalName();
+			if (nodeName.equals(DISJ)) {
+				nodes.add(new Or(readConstraintNodes(reader, null)));
+			} else if (nodeName.equals(CONJ)) {
+				nodes.add(new And(readConstraintNodes(reader, null)));
+			} else if (nodeName.equals(EQ)) {
+				children = readConstraintNodes(reader, null);
+				nodes.add(new Equals(children.get(0), children.get(1)));
+			} else if (nodeName.equals(IMP)) {
+				children = readConstraintNodes(reader, null);
+				nodes.add(new Implies(children.get(0), children.get(1)));
+			} else if (nodeName.equals(NOT)) {
+				nodes.add(new Not((readConstraintNodes(reader, null)).getFirst()));
+			} else if (nodeName.equals(ATMOST1)) {
+				nodes.add(new AtMost(1, readConstraintNodes(reader, null)));
+			} else if (nodeName.equals(VAR)) {
+				final int line = getLineNumber(reader.getLocation());
+				final String featureName = readText(reader);
+				if (object.getFeature(featureName) != null) {
+					nodes.add(new Literal(featureName));
+				} else {
+					throwError("Feature \"" + featureName + "\" does not exists", line);
+				}
+			} else if (nodeName.equals(DESCRIPTION)) {
+				if (descriptions != null) {
+					descriptions.add(readText(reader));
+				} else {
+					skipElement(reader);
+				}
+			} else {
+				throwError("Unknown constraint type: " + nodeName, getLineNumber(reader.getLocation()));
+			}
+		}
+		return nodes;
+	}
+
+	private void readCalculations(XMLStreamReader reader) throws XMLStreamException, UnsupportedModelException {
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			final String nodeName = reader.getAttributeLocalName(i);
+			final boolean value = reader.getAttributeValue(i).equals(TRUE);
+			if (nodeName.equals(CALCULATE_AUTO)) {
+				object.getAnalyser().runCalculationAutomatically = value;
+			} else if (nodeName.equals(CALCULATE_CONSTRAINTS)) {
+				object.getAnalyser().calculateConstraints = value;
+			} else if (nodeName.equals(CALCULATE_REDUNDANT)) {
+				object.getAnalyser().calculateRedundantConstraints = value;
+			} else if (nodeName.equals(CALCULATE_FEATURES)) {
+				object.getAnalyser().calculateFeatures = value;
+			} else if (nodeName.equals(CALCULATE_TAUTOLOGY)) {
+				object.getAnalyser().calculateTautologyConstraints = value;
+			} else {
+				throwError("Unknown calculations attribute: " + nodeName, getLineNumber(reader.getLocation()));
+			}
+		}
+		skipElement(reader);
+	}
+
+	private void readComments(XMLStreamReader reader) throws XMLStreamException, UnsupportedModelException, UnsupportedLayoutException {
+		while (nextElement(reader)) {
+			final String nodeName = reader.getLocalName();
+			if (nodeName.equals(C)) {
+				object.getProperty().addComment(readText(reader));
+			} else {
+				throwError("Unknown comment attribute: " + nodeName, getLineNumber(reader.getLocation()));
+			}
+		}
+	}
+
+	private void readFeatureOrder(XMLStreamReader reader) throws XMLStreamException, UnsupportedModelException, UnsupportedLayoutException {
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			if (reader.getAttributeLocalName(i).equals(USER_DEFINED)) {
+				object.setFeatureOrderUserDefined(reader.getAttributeValue(i).equals(TRUE));
+			} else {
+				throw new UnsupportedLayoutException(reader.getAttributeLocalName(i));
+			}
+		}
+		final ArrayList<String> order = new ArrayList<>(object.getNumberOfFeatures());
+		while (nextElement(reader)) {
+			final int line = getLineNumber(reader.getLocation());
+			for (int i = 0; i < reader.getAttributeCount(); i++) {
+				final String attributeName = reader.getAttributeLocalName(i);
+				final String attributeValue = reader.getAttributeValue(i);
+				if (attributeName.equals(USER_DEFINED)) {
+					object.setFeatureOrderUserDefined(attributeValue.equals(TRUE));
+				} else if (attributeName.equals(NAME)) {
+					if (object.getFeature(attributeValue) != null) {
+						order.add(attributeValue);
+					} else {
+						throwError("Feature \"" + attributeValue + "\" does not exists", line);
+					}
+				} else {
+					throwError("Unknown feature order attribute: " + attributeName, line);
+				}
+			}
+			if (nextElement(reader)) {
+				throw new UnsupportedLayoutException(reader.getLocalName());
+			}
+		}
+		if (!order.isEmpty()) {
+			object.setFeatureOrderList(order);
+		}
+	}
+
+	/**
+	 * Collects the attributes of all properties. They are parsed after the rest of the feature model, like in {@link #readDocument(Document, List)}.
+	 */
+	private void readProperties(XMLStreamReader reader, List<String> propertyContainers, List<List<String[]>> properties)
+			throws XMLStreamException, UnsupportedLayoutException {
+		while (nextElement(reader)) {
+			if (!reader.getLocalName().equals(XmlPropertyLoader.FEATURE)) {
+				throw new UnsupportedLayoutException(reader.getLocalName());
+			}
+			propertyContainers.add(reader.getAttributeValue(null, XmlPropertyLoader.NAME));
+			final List<String[]> featureProperties = new ArrayList<>();
+			while (nextElement(reader)) {
+				if (!reader.getLocalName().equals(XmlPropertyLoader.PROPERTY)) {
+					throw new UnsupportedLayoutException(reader.getLocalName());
+				}
+				featureProperties.add(new String[] { reader.getAttributeValue(null, XmlPropertyLoader.KEY),
+					reader.getAttributeValue(null, XmlPropertyLoader.TYPE), reader.getAttributeValue(null, XmlPropertyLoader.VALUE) });
+				if (nextElement(reader)) {
+					throw new UnsupportedLayoutException(reader.getLocalName());
+				}
+			}
+			properties.add(featureProperties);
+		}
+	}
+
 	private Node createFeaturePropertyContainerNode(Document doc, String featureName, Set<Entry<String, Type, Object>> propertyEntries) {
 		final Element result = doc.createElement(FEATURE);
 		result.setAttribute(NAME, featureName);
@@ -606,6 +1063,10 @@ public class XmlFeatureModelFormat extends AXMLFormat<IFeatureModel> implements
 		throw new UnsupportedModelException(message, Integer.parseInt(node.getUserData(PositionalXMLHandler.LINE_NUMBER_KEY_NAME).toString()));
 	}
 
+	private void throwError(String message, int line) throws UnsupportedModelException {
+		throw new UnsupportedModelException(message, line);
+	}
+
 	// TODO implement warnings
 	@SuppressWarnings("unused")
 	private void throwWarning(String message, org.w3c.dom.Node node) throws UnsupportedModelException {
@@ -62,7 +62,7 @@ public class XmlPropertyLoader {
 		ParserType getType();
 	}
 
-	class FeaturePropertiesParser implements PropertiesParser {
+	static class FeaturePropertiesParser implements PropertiesParser {
 
 		private final Map<String, Set<IPropertyContainer.Entry<String, IPropertyContainer.Type, Object>>> featureProperties = new HashMap<>();
 
@@ -70,6 +70,23 @@ public class XmlPropertyLoader {
 			parsePropertiesOfFeature(e);
 		}
 
+		/**
+		 * Creates a parser for properties that were already read by a streaming reader.
+		 *
+		 * @param featureName the name attribute of the feature element or {@code null} if it is missing
+		 * @param properties the key, data-type, and value attributes of each property element (missing attributes are {@code null})
+		 */
+		public FeaturePropertiesParser(String featureName, List<String[]> properties) {
+			if (featureName == null) {
+				throw new UnsupportedOperationException("Property container of type feature is missing required name attribute");
+			}
+			final Set<Entry<String, Type, Object>> propertyEntries = new HashSet<>();
+			for (final String[] property : properties) {
+				addPropertyEntry(propertyEntries, featureName, property[0], property[1], property[2]);
+			}
+			featureProperties.put(featureName, propertyEntries);
+		}
+
 		private void parsePropertiesOfFeature(Element featureNode) {
 			if (!featureNode.hasAttribute(NAME)) {
 				throw new UnsupportedOperationException("Property container of type feature is missing required name attribute");
@@ -114,7 +131,7 @@ public class XmlPropertyLoader {
 		return result;
 	}
 
-	private ArrayList<Element> getElements(NodeList nodeList) {
+	private static ArrayList<Element> getElements(NodeList nodeList) {
 		final ArrayList<Element> elements = new ArrayList<Element>(nodeList.getLength());
 		for (int temp = 0; temp < nodeList.getLength(); temp++) {
 			final org.w3c.dom.Node nNode = nodeList.item(temp);
@@ -141,33 +158,37 @@ public class XmlPropertyLoader {
 		return parsers;
 	}
 
-	private Set<Entry<String, Type, Object>> parsePropertyEntries(Element propertyContainerNode) {
+	private static Set<Entry<String, Type, Object>> parsePropertyEntries(Element propertyContainerNode) {
 		final Set<Entry<String, Type, Object>> result = new HashSet<>();
 		final NodeList properties = propertyContainerNode.getElementsByTagName(PROPERTY);
 		for (final Element property : getElements(properties)) {
-			if (!(property.hasAttribute(KEY) && property.hasAttribute(VALUE) && property.hasAttribute(TYPE))) {
-				throw new UnsupportedOperationException("One property of container " + propertyContainerNode.getAttribute(NAME)
-					+ " is missing one of the required attributes: " + KEY + ", " + VALUE + "," + TYPE);
-			} else {
-				final String key = property.getAttribute(KEY);
-				final Type type = Type.valueOf(property.getAttribute(TYPE));
-				final Object value = castValue(type, property.getAttribute(VALUE));
-				final Entry<String, Type, Object> entry = new Entry<String, IPropertyContainer.Type, Object>(key, type, value);
-				if (result.contains(entry)) {
-					for (final Entry<String, Type, Object> e : result) {
-						if (e.equals(entry) && (!(e.getValue().equals(entry.getValue()) && (e.getType().equals(entry.getType()))))) {
-							throw new IllegalStateException("Ambigous property definition for key: " + key);
-						}
+			addPropertyEntry(result, propertyContainerNode.getAttribute(NAME), property.hasAttribute(KEY) ? property.getAttribute(KEY) : null,
+				property.hasAttribute(TYPE) ? property.getAttribute(TYPE) : null, property.hasAttribute(VALUE) ? property.getAttribute(VALUE) : null);
+		}
+		return result;
+	}
+
+	private static void addPropertyEntry(Set<Entry<String, Type, Object>> result, String containerName, String key, String typeName, String valueString) {
+		if ((key == null) || (valueString == null) || (typeName == null)) {
+			throw new UnsupportedOperationException(
+				"One property of container " + containerName + " is missing one of the required attributes: " + KEY + ", " + VALUE + "," + TYPE);
+		} else {
+			final Type type = Type.valueOf(typeName);
+			final Object value = castValue(type, valueString);
+			final Entry<String, Type, Object> entry = new Entry<String, IPropertyContainer.Type, Object>(key, type, value);
+			if (result.contains(entry)) {
+				for (final Entry<String, Type, Object> e : result) {
+					if (e.equals(entry) && (!(e.getValue().equals(entry.getValue()) && (e.getType().equals(entry.getType()))))) {
+						throw new IllegalStateException("Ambigous property definition for key: " + key);
 					}
-				} else {
-					result.add(entry);
 				}
+			} else {
+				result.add(entry);
 			}
 		}
-		return result;
 	}
 
-	private Object castValue(Type type, String value) {
+	private static Object castValue(Type type, String value) {
 		if ((value == null) || value.trim().isEmpty()) {
 			throw new RuntimeException("Property value is not allowed to be empty");
 		}
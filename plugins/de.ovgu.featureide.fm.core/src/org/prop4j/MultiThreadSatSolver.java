@@ -24,6 +24,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.prop4j.solver.ClauseStore;
 import org.sat4j.core.VecInt;
 import org.sat4j.minisat.SolverFactory;
 import org.sat4j.specs.ContradictionException;
@@ -65,7 +66,7 @@ public class MultiThreadSatSolver {
 
 	private final long timeout;
 
-	private final Node node;
+	private final ClauseStore clauses;
 
 	private int[] literals;
 
@@ -73,14 +74,14 @@ public class MultiThreadSatSolver {
 		readVars(node);
 
 		this.timeout = timeout;
-		this.node = createCNF ? node.toCNF() : node;
+		clauses = new ClauseStore(createCNF ? node.toCNF() : node, varToInt);
 
 		solvers = new Solver[numberOfSolvers];
 	}
 
 	public boolean initSolver(int id) {
 		solvers[id] = new Solver(varToInt.size(), timeout);
-		addClauses(node.clone(), id);
+		addClauses(id);
 
 		if (literals != null) {
 			solvers[id].backbone = newCopiedVecInt(literals, 10);
@@ -131,37 +132,14 @@ public class MultiThreadSatSolver {
 		}
 	}
 
-	private void addClauses(Node root, int id) {
+	private void addClauses(int id) {
 		try {
-			if (root instanceof And) {
-				for (final Node node : root.getChildren()) {
-					addClause(node, id);
-				}
-			} else {
-				addClause(root, id);
-			}
+			clauses.addTo(solvers[id].solver, null);
 		} catch (final ContradictionException e) {
 			satisfiable = false;
 		}
 	}
 
-	private void addClause(Node node, int id) throws ContradictionException {
-		if (node instanceof Or) {
-			final int[] clause = new int[node.children.length];
-			int i = 0;
-			for (final Node child : node.getChildren()) {
-				clause[i++] = getIntOfLiteral(child);
-			}
-			addClause(clause, id);
-		} else {
-			addClause(new int[] { getIntOfLiteral(node) }, id);
-		}
-	}
-
-	private void addClause(int[] literals, int id) throws ContradictionException {
-		solvers[id].solver.addClause(new VecInt(literals));
-	}
-
 	private VecInt newCopiedVecInt(int[] literals, int additionalSpace) {
 		final int[] copiedLiterals = new int[literals.length + additionalSpace];
 		System.arraycopy(literals, 0, copiedLiterals, 0, literals.length);
@@ -170,10 +148,6 @@ public class MultiThreadSatSolver {
 		return vecInt;
 	}
 
-	private int getIntOfLiteral(Node node) {
-		return getIntOfLiteral((Literal) node);
-	}
-
 	private int getIntOfLiteral(Literal node) {
 		return node.positive ? varToInt.get(node.var) : -varToInt.get(node.var);
 	}
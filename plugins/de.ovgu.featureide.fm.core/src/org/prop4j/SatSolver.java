@@ -31,6 +31,7 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 
+import org.prop4j.solver.ClauseStore;
 import org.sat4j.core.ConstrGroup;
 import org.sat4j.core.VecInt;
 import org.sat4j.minisat.SolverFactory;
@@ -110,7 +111,18 @@ public class SatSolver {
 		solver.setTimeoutMs(timeout);
 		solver.newVar(varToInt.size());
 
-		addClauses(createCNF ? node.toCNF() : node.clone());
+		// all variables are known at this point, so the initial clauses can be added from a compact clause store
+		final ClauseStore clauses;
+		try {
+			clauses = new ClauseStore(createCNF ? node.toCNF() : node, varToInt);
+		} catch (final ClassCastException e) {
+			throw new RuntimeException(EXPRESSION_IS_NOT_IN_CNF, e);
+		}
+		try {
+			clauses.addTo(solver, null);
+		} catch (final ContradictionException e) {
+			contradiction = true;
+		}
 	}
 
 	public void setTimeout(long timeout) {
@@ -52,7 +52,7 @@ public abstract class AbstractAnalysis<T> implements LongRunningMethod<T> {
 	}
 
 	@Override
-	public final T execute(IMonitor monitor) throws Exception {
+	public T execute(IMonitor monitor) throws Exception {
 		if (solver == null) {
 			return null;
 		}
@@ -73,6 +73,10 @@ public abstract class AbstractAnalysis<T> implements LongRunningMethod<T> {
 
 	protected abstract T analyze(IMonitor monitor) throws Exception;
 
+	protected int[] getAssumptionArray() {
+		return assumptions != null ? assumptions : new int[0];
+	}
+
 	public int[] getAssumptions() {
 		return assumptions;
 	}
@@ -0,0 +1,66 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import org.prop4j.solver.DDNNF;
+import org.prop4j.solver.ISatSolver;
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * An analysis that can either use a SAT solver or a compiled formula.
+ */
+public abstract class AbstractDDNNFAnalysis<T> extends AbstractAnalysis<T> {
+
+	protected DDNNF ddnnf = null;
+
+	public AbstractDDNNFAnalysis(SatInstance satInstance) {
+		super(satInstance);
+	}
+
+	public AbstractDDNNFAnalysis(ISatSolver solver) {
+		super(solver);
+	}
+
+	/**
+	 * Creates an analysis that uses a compiled formula instead of a SAT solver.
+	 */
+	public AbstractDDNNFAnalysis(DDNNF ddnnf) {
+		super((ISatSolver) null);
+		this.ddnnf = ddnnf;
+	}
+
+	@Override
+	public final T execute(IMonitor monitor) throws Exception {
+		if (ddnnf != null) {
+			monitor.checkCancel();
+			return analyze(ddnnf, monitor);
+		}
+		return super.execute(monitor);
+	}
+
+	/**
+	 * Computes the result of this analysis using a compiled formula. The {@link #getAssumptions() assumptions} are not applied automatically.
+	 */
+	protected abstract T analyze(DDNNF ddnnf, IMonitor monitor) throws Exception;
+
+}
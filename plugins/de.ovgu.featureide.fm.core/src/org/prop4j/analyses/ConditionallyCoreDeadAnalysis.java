@@ -20,6 +20,9 @@
  */
 package org.prop4j.analyses;
 
+import java.util.Arrays;
+
+import org.prop4j.solver.DDNNF;
 import org.prop4j.solver.FixedLiteralSelectionStrategy;
 import org.prop4j.solver.ISatSolver;
 import org.prop4j.solver.ISatSolver.SelectionStrategy;
@@ -34,7 +37,9 @@ import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
  *
  * @author Sebastian Krieter
  */
-public class ConditionallyCoreDeadAnalysis extends AbstractAnalysis<int[]> {
+public class ConditionallyCoreDeadAnalysis extends AbstractDDNNFAnalysis<int[]> {
+
+	private int[] variables = null;
 
 	public ConditionallyCoreDeadAnalysis(ISatSolver solver) {
 		super(solver);
@@ -44,6 +49,10 @@ public class ConditionallyCoreDeadAnalysis extends AbstractAnalysis<int[]> {
 		super(satInstance);
 	}
 
+	public ConditionallyCoreDeadAnalysis(DDNNF ddnnf) {
+		super(ddnnf);
+	}
+
 	@Override
 	public int[] analyze(IMonitor monitor) throws Exception {
 		solver.setSelectionStrategy(SelectionStrategy.POSITIVE);
@@ -57,6 +66,17 @@ public class ConditionallyCoreDeadAnalysis extends AbstractAnalysis<int[]> {
 			for (int i = 0; i < assumptions.length; i++) {
 				model1[Math.abs(assumptions[i]) - 1] = 0;
 			}
+			if (variables != null) {
+				final boolean[] selectedVariables = new boolean[model1.length];
+				for (final int variable : variables) {
+					selectedVariables[Math.abs(variable) - 1] = true;
+				}
+				for (int i = 0; i < model1.length; i++) {
+					if (!selectedVariables[i]) {
+						model1[i] = 0;
+					}
+				}
+			}
 
 			((Solver<?>) solver.getInternalSolver()).setOrder(new VarOrderHeap2(new FixedLiteralSelectionStrategy(model1, true), solver.getOrder()));
 
@@ -83,4 +103,37 @@ public class ConditionallyCoreDeadAnalysis extends AbstractAnalysis<int[]> {
 		return solver.getAssignmentArray(assumptions.length, solver.getAssignment().size());
 	}
 
+	@Override
+	protected int[] analyze(DDNNF ddnnf, IMonitor monitor) throws Exception {
+		final int[] coreDead = ddnnf.getCoreDead(getAssumptionArray());
+		if (variables == null) {
+			return coreDead;
+		}
+		final boolean[] selectedVariables = new boolean[ddnnf.getNumberOfVariables() + 1];
+		for (final int variable : variables) {
+			selectedVariables[Math.abs(variable)] = true;
+		}
+		final int[] filteredCoreDead = new int[coreDead.length];
+		int size = 0;
+		for (final int literal : coreDead) {
+			if (selectedVariables[Math.abs(literal)]) {
+				filteredCoreDead[size++] = literal;
+			}
+		}
+		return Arrays.copyOf(filteredCoreDead, size);
+	}
+
+	public int[] getVariables() {
+		return variables;
+	}
+
+	/**
+	 * Restricts the analysis to the given variables. All other variables are not checked.
+	 *
+	 * @param variables the variables to check or {@code null} to check all variables
+	 */
+	public void setVariables(int[] variables) {
+		this.variables = variables;
+	}
+
 }
@@ -20,6 +20,12 @@
  */
 package org.prop4j.analyses;
 
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.prop4j.solver.DDNNF;
 import org.prop4j.solver.FixedLiteralSelectionStrategy;
 import org.prop4j.solver.ISatSolver;
 import org.prop4j.solver.ISatSolver.SelectionStrategy;
@@ -34,7 +40,92 @@ import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
  *
  * @author Sebastian Krieter
  */
-public class CoreDeadAnalysis extends AbstractAnalysis<int[]> {
+public class CoreDeadAnalysis extends AbstractDDNNFAnalysis<int[]> {
+
+	/**
+	 * Tests a range of candidate variables. Ranges are split until they are small enough, such that idle threads can steal the remaining work.
+	 */
+	private class CandidateTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final ParallelState state;
+		private final int from, to;
+
+		public CandidateTask(ParallelState state, int from, int to) {
+			this.state = state;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if ((to - from) > state.threshold) {
+				final int middle = (from + to) >>> 1;
+				invokeAll(new CandidateTask(state, from, middle), new CandidateTask(state, middle, to));
+			} else {
+				final ISatSolver localSolver = state.solvers.get();
+				for (int i = from; i < to; i++) {
+					state.monitor.checkCancel();
+					final int varX = state.candidates.get(i);
+					if (varX != 0) {
+						localSolver.assignmentPush(-varX);
+						switch (localSolver.isSatisfiable()) {
+						case FALSE:
+							localSolver.assignmentReplaceLast(varX);
+							state.results.set(i, varX);
+							break;
+						case TIMEOUT:
+							localSolver.assignmentPop();
+							break;
+						case TRUE:
+							localSolver.assignmentPop();
+							// share the new solution with all other threads
+							final int[] model = localSolver.getModel();
+							for (int j = 0; j < model.length; j++) {
+								if (state.candidates.get(j) != model[j]) {
+									state.candidates.set(j, 0);
+								}
+							}
+							localSolver.shuffleOrder();
+							break;
+						}
+					}
+				}
+			}
+		}
+	}
+
+	private static class ParallelState {
+
+		private final AtomicIntegerArray candidates;
+		private final AtomicIntegerArray results;
+		private final ThreadLocal<ISatSolver> solvers;
+		private final IMonitor monitor;
+		private final int threshold;
+
+		public ParallelState(final ISatSolver solver, final int[] model, IMonitor monitor, int numberOfThreads) {
+			candidates = new AtomicIntegerArray(model);
+			results = new AtomicIntegerArray(model.length);
+			this.monitor = monitor;
+			threshold = Math.max(1, model.length / (numberOfThreads << 3));
+			solvers = new ThreadLocal<ISatSolver>() {
+				@Override
+				protected ISatSolver initialValue() {
+					final ISatSolver localSolver;
+					synchronized (solver) {
+						localSolver = solver.clone();
+					}
+					((Solver<?>) localSolver.getInternalSolver())
+							.setOrder(new VarOrderHeap2(new FixedLiteralSelectionStrategy(Arrays.copyOf(model, model.length), true), localSolver.getOrder()));
+					return localSolver;
+				}
+			};
+		}
+
+	}
+
+	private int numberOfThreads = 1;
 
 	public CoreDeadAnalysis(ISatSolver solver) {
 		this(solver, null);
@@ -56,6 +147,15 @@ public class CoreDeadAnalysis extends AbstractAnalysis<int[]> {
 		setFeatures(features);
 	}
 
+	public CoreDeadAnalysis(DDNNF ddnnf) {
+		this(ddnnf, null);
+	}
+
+	public CoreDeadAnalysis(DDNNF ddnnf, int[] features) {
+		super(ddnnf);
+		setFeatures(features);
+	}
+
 	@Override
 	public int[] analyze(IMonitor monitor) throws Exception {
 		final int orgAssignmentSize = solver.getAssignment().size();
@@ -78,6 +178,9 @@ public class CoreDeadAnalysis extends AbstractAnalysis<int[]> {
 			}
 
 			SatInstance.updateModel(model1, model2);
+			if (numberOfThreads > 1) {
+				return analyzeParallel(model1, monitor);
+			}
 			((Solver<?>) solver.getInternalSolver()).setOrder(new VarOrderHeap2(new FixedLiteralSelectionStrategy(model1, true), solver.getOrder()));
 
 			for (int i = 0; i < model1.length; i++) {
@@ -105,6 +208,54 @@ public class CoreDeadAnalysis extends AbstractAnalysis<int[]> {
 		return solver.getAssignmentArray(orgAssignmentSize, solver.getAssignment().size());
 	}
 
+	private int[] analyzeParallel(int[] model1, IMonitor monitor) {
+		final ParallelState state = new ParallelState(solver, model1, monitor, numberOfThreads);
+		final ForkJoinPool pool = new ForkJoinPool(numberOfThreads);
+		try {
+			pool.invoke(new CandidateTask(state, 0, model1.length));
+		} finally {
+			pool.shutdownNow();
+		}
+
+		final int[] result = new int[model1.length];
+		int size = 0;
+		for (int i = 0; i < result.length; i++) {
+			final int varX = state.results.get(i);
+			if (varX != 0) {
+				result[size++] = varX;
+				monitor.invoke(varX);
+			}
+		}
+		return Arrays.copyOf(result, size);
+	}
+
+	@Override
+	protected int[] analyze(DDNNF ddnnf, IMonitor monitor) throws Exception {
+		final int[] coreDead = ddnnf.getCoreDead(getAssumptionArray());
+		if (features == null) {
+			for (final int literal : coreDead) {
+				monitor.invoke(literal);
+			}
+			return coreDead;
+		}
+
+		final boolean[] selectedFeatures = new boolean[ddnnf.getNumberOfVariables() + 1];
+		for (final int feature : features) {
+			if (feature > 0) {
+				selectedFeatures[feature] = true;
+			}
+		}
+		final int[] filteredCoreDead = new int[coreDead.length];
+		int size = 0;
+		for (final int literal : coreDead) {
+			if (selectedFeatures[Math.abs(literal)]) {
+				filteredCoreDead[size++] = literal;
+				monitor.invoke(literal);
+			}
+		}
+		return Arrays.copyOf(filteredCoreDead, size);
+	}
+
 	public int[] getFeatures() {
 		return features;
 	}
@@ -113,4 +264,18 @@ public class CoreDeadAnalysis extends AbstractAnalysis<int[]> {
 		this.features = features;
 	}
 
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	/**
+	 * Sets the number of threads that test the candidate variables. Each thread uses its own {@link ISatSolver#clone() copy} of the solver and shares found
+	 * solutions with the other threads. The result does not depend on the number of threads.
+	 *
+	 * @param numberOfThreads the number of threads (default: 1)
+	 */
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = Math.max(1, numberOfThreads);
+	}
+
 }
@@ -20,71 +20,69 @@
  */
 package org.prop4j.analyses;
 
-import org.prop4j.solver.BasicSolver;
+import java.math.BigInteger;
+
+import org.prop4j.solver.DDNNF;
 import org.prop4j.solver.ISatSolver;
-import org.prop4j.solver.ISatSolver.SelectionStrategy;
+import org.prop4j.solver.ModelCounter;
 import org.prop4j.solver.SatInstance;
-import org.sat4j.core.VecInt;
-import org.sat4j.minisat.core.Solver;
-import org.sat4j.specs.ContradictionException;
 
+import de.ovgu.featureide.fm.core.job.LongRunningMethod;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 
 /**
- * Computes the number of valid solutions for the given {@link SatInstance}.
+ * Computes the number of valid solutions for the given {@link SatInstance}.</br> Uses a {@link ModelCounter} instead of enumerating all solutions or, if
+ * available, a compiled {@link DDNNF}.
  *
  * @author Sebastian Krieter
  */
-public class CountSolutionAnalysis extends AbstractAnalysis<Long> {
+public class CountSolutionAnalysis implements LongRunningMethod<BigInteger> {
+
+	private final SatInstance satInstance;
+	private final DDNNF ddnnf;
+	private final long timeout;
+
+	private int[] assumptions = null;
 
 	public CountSolutionAnalysis(SatInstance satInstance) {
 		this(satInstance, ISatSolver.DEFAULT_TIMEOUT);
 	}
 
 	public CountSolutionAnalysis(SatInstance satInstance, long globalTimeout) {
-		super(createSolver(satInstance, globalTimeout));
+		this.satInstance = satInstance;
+		ddnnf = null;
+		timeout = globalTimeout;
 	}
 
-	private static BasicSolver createSolver(SatInstance satInstance, final long timeout) {
-		try {
-			return new BasicSolver(satInstance) {
-				@Override
-				protected Solver<?> initSolver() {
-					final Solver<?> solver = super.initSolver();
-					solver.setTimeoutMs(timeout);
-					setGlobalTimeout(true);
-					return solver;
-				}
-			};
-		} catch (final ContradictionException e) {
-			return null;
-		}
+	public CountSolutionAnalysis(DDNNF ddnnf) {
+		satInstance = ddnnf.getSatInstance();
+		this.ddnnf = ddnnf;
+		timeout = 0;
 	}
 
+	/**
+	 * @return the exact number of solutions</br> or a negative value (if a timeout occurred) that indicates that there are more solutions than the
+	 *         absolute value minus one
+	 */
 	@Override
-	public Long analyze(IMonitor monitor) throws Exception {
-		long lowerBound = 0;
-		solver.setSelectionStrategy(SelectionStrategy.RANDOM);
-		solutionLoop: while (true) {
-			switch (solver.isSatisfiable()) {
-			case TIMEOUT:
-				lowerBound = -1 - lowerBound;
-			case FALSE:
-				break solutionLoop;
-			case TRUE:
-				lowerBound++;
-				try {
-					solver.getInternalSolver().addClause(new VecInt(SatInstance.negateModel(solver.getModel())));
-				} catch (final ContradictionException e) {
-					break solutionLoop;
-				}
-				solver.shuffleOrder();
-				break;
-			default:
-				throw new RuntimeException();
-			}
+	public BigInteger execute(IMonitor monitor) throws Exception {
+		if (ddnnf != null) {
+			monitor.checkCancel();
+			return ddnnf.count(assumptions != null ? assumptions : new int[0]);
 		}
-		return lowerBound;
+		final ModelCounter counter = new ModelCounter(satInstance);
+		counter.setTimeout(timeout);
+		counter.setMonitor(monitor);
+		monitor.checkCancel();
+		return counter.count(assumptions != null ? assumptions : new int[0]);
+	}
+
+	public int[] getAssumptions() {
+		return assumptions;
+	}
+
+	public void setAssumptions(int[] assumptions) {
+		this.assumptions = assumptions;
 	}
 
 }
@@ -21,16 +21,23 @@
 package org.prop4j.analyses;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 
+import org.prop4j.And;
+import org.prop4j.Literal;
 import org.prop4j.Node;
 import org.prop4j.Not;
 import org.prop4j.solver.BasicSolver;
+import org.prop4j.solver.DDNNF;
 import org.prop4j.solver.ISatSolver.SatResult;
 import org.prop4j.solver.ModifiableSolver;
+import org.prop4j.solver.PortfolioSolver;
 import org.prop4j.solver.SatInstance;
 import org.sat4j.specs.ContradictionException;
 import org.sat4j.specs.IConstr;
@@ -86,6 +93,21 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 	 */
 	public boolean calculateTautologyConstraints = true;
 
+	/**
+	 * Defines whether the feature model should be compiled into a {@link DDNNF} before analyzing features. If the compilation fails, a SAT solver is used.
+	 */
+	public boolean useKnowledgeCompilation = false;
+
+	/**
+	 * Defines how many threads are used to compute core and dead features.
+	 */
+	private int numberOfThreads = 1;
+
+	/**
+	 * Defines whether the validity of the feature model is checked by a {@link PortfolioSolver} instead of a single solver.
+	 */
+	private boolean usePortfolioSolver = false;
+
 	private final HashMap<Object, Object> changedAttributes = new HashMap<>();
 
 	private boolean valid;
@@ -96,6 +118,24 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 	private final IFeatureModel fm;
 	private final AdvancedNodeCreator nodeCreator;
 
+	/**
+	 * A previous analysis of the same feature model, whose results are reused (see {@link #setPreviousAnalysis(FeatureModelAnalysis)}).
+	 */
+	private FeatureModelAnalysis previousAnalysis = null;
+
+	/**
+	 * The formula that was used for the feature analysis and its results in terms of feature names. {@code null} until the feature analysis has finished.
+	 */
+	private Set<String> clauses = null;
+	private Set<String> variables = null;
+	private Set<String> coreFeatureNames = null;
+	private Set<String> deadFeatureNames = null;
+	private Set<String> falseOptionalPairs = null;
+	/**
+	 * The pairs of parent and child that were checked for false-optional features. The candidates depend on the feature tree, not only on the formula.
+	 */
+	private Set<String> falseOptionalCandidates = null;
+
 	private IMonitor monitor = new NullMonitor();
 
 	public FeatureModelAnalysis(IFeatureModel fm) {
@@ -127,6 +167,18 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 		return calculateTautologyConstraints;
 	}
 
+	public boolean isUseKnowledgeCompilation() {
+		return useKnowledgeCompilation;
+	}
+
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	public boolean isUsePortfolioSolver() {
+		return usePortfolioSolver;
+	}
+
 	public boolean isValid() {
 		return valid;
 	}
@@ -167,6 +219,30 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 		this.calculateDeadConstraints = calculateDeadConstraints;
 	}
 
+	public void setUseKnowledgeCompilation(boolean useKnowledgeCompilation) {
+		this.useKnowledgeCompilation = useKnowledgeCompilation;
+	}
+
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = Math.max(1, numberOfThreads);
+	}
+
+	public void setUsePortfolioSolver(boolean usePortfolioSolver) {
+		this.usePortfolioSolver = usePortfolioSolver;
+	}
+
+	/**
+	 * Sets a previous analysis of the same feature model, whose feature results are reused.</br> The formulas of both analyses are compared clause by clause.
+	 * If the new formula only adds clauses (e.g., a constraint was added or a feature became mandatory), all previously core, dead, and false-optional features
+	 * keep their status and only the remaining features are checked. If the new formula only removes clauses (e.g., a constraint was removed or an alternative
+	 * group became an or group), only the previously core, dead, and false-optional features are checked. Otherwise, all features are analyzed.
+	 *
+	 * @param previousAnalysis an analysis whose feature analysis has finished or {@code null}
+	 */
+	public void setPreviousAnalysis(FeatureModelAnalysis previousAnalysis) {
+		this.previousAnalysis = previousAnalysis;
+	}
+
 	/**
 	 * @return Hashmap: key entry is Feature/Constraint, value usually indicating the kind of attribute (non-Javadoc)
 	 */
@@ -216,21 +292,70 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 		monitor.step();
 
 		nodeCreator.setModelType(ModelType.All);
-		final SatInstance si = new SatInstance(nodeCreator.createNodes(), FeatureUtils.getFeatureNamesPreorder(fm));
+		final Node cnf = nodeCreator.createNodes();
+		final List<String> featureNames = FeatureUtils.getFeatureNamesPreorder(fm);
+		final SatInstance si = new SatInstance(cnf, featureNames);
+		final Set<String> newClauses = getClauses(cnf);
+		final Set<String> newVariables = new HashSet<>(featureNames);
+
+		// a previous result is only reused if both formulas have the same variables and one contains all clauses of the other
+		final FeatureModelAnalysis previous = previousAnalysis;
+		previousAnalysis = null;
+		boolean strengthened = false, relaxed = false;
+		if ((previous != null) && (previous.clauses != null) && (newClauses != null) && previous.variables.equals(newVariables)) {
+			strengthened = newClauses.containsAll(previous.clauses);
+			// a void feature model provides no results for a weaker formula
+			relaxed = previous.clauses.containsAll(newClauses) && (strengthened || previous.valid);
+		}
 
-		checkValidity(si);
+		final DDNNF ddnnf = useKnowledgeCompilation && !strengthened && !relaxed ? si.getDDNNF() : null;
+
+		if (strengthened && !previous.valid) {
+			setValid(false);
+		} else if (relaxed && previous.valid) {
+			setValid(true);
+		} else {
+			checkValidity(si, ddnnf);
+		}
 		monitor.step();
 
 		if (valid) {
-			checkFeatureFalseOptional(features, si);
+			checkFeatureFalseOptional(features, si, ddnnf, strengthened, relaxed, previous);
 			monitor.step();
 
-			checkFeatureDead(si);
+			checkFeatureDead(si, ddnnf, strengthened, relaxed, previous);
 			monitor.step();
 
 			checkFeatureHidden(features);
 			monitor.step();
 		}
+
+		clauses = newClauses;
+		variables = newVariables;
+	}
+
+	/**
+	 * @return the clauses of the given formula in a canonical form or {@code null} if the formula is not in conjunctive normal form
+	 */
+	private static Set<String> getClauses(Node cnf) {
+		if (!(cnf instanceof And)) {
+			return null;
+		}
+		final Set<String> clauses = new HashSet<>();
+		for (final Node clause : cnf.getChildren()) {
+			final Node[] literals = clause instanceof Literal ? new Node[] { clause } : clause.getChildren();
+			final String[] literalStrings = new String[literals.length];
+			for (int i = 0; i < literals.length; i++) {
+				if (!(literals[i] instanceof Literal)) {
+					return null;
+				}
+				final Literal literal = (Literal) literals[i];
+				literalStrings[i] = (literal.positive ? "+" : "-") + literal.var;
+			}
+			Arrays.sort(literalStrings);
+			clauses.add(Arrays.toString(literalStrings));
+		}
+		return clauses;
 	}
 
 	public void updateConstraints() {
@@ -243,7 +368,7 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 		}
 
 		if (!calculateFeatures) {
-			checkValidity(new SatInstance(nodeCreator.createNodes(), FeatureUtils.getFeatureNamesPreorder(fm)));
+			checkValidity(new SatInstance(nodeCreator.createNodes(), FeatureUtils.getFeatureNamesPreorder(fm)), null);
 		}
 
 		try {
@@ -417,21 +542,60 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 		}
 	}
 
-	private void checkFeatureDead(final SatInstance si) {
+	private void checkFeatureDead(final SatInstance si, final DDNNF ddnnf, boolean strengthened, boolean relaxed, FeatureModelAnalysis previous) {
 		deadFeatures.clear();
 		coreFeatures.clear();
-		final int[] solution2 = LongRunningWrapper.runMethod(new CoreDeadAnalysis(si), monitor.subTask(0));
+		final Set<String> newCoreFeatureNames = new HashSet<>();
+		final Set<String> newDeadFeatureNames = new HashSet<>();
+
+		final int[] solution2;
+		if (strengthened || relaxed) {
+			// core and dead features of a weaker formula stay core and dead, features that are neither stay neither for a weaker formula
+			final List<Integer> candidates = new ArrayList<>();
+			for (final String name : previous.variables) {
+				final boolean coreOrDead = previous.coreFeatureNames.contains(name) || previous.deadFeatureNames.contains(name);
+				if (coreOrDead && strengthened) {
+					final int var = si.getVariable(name);
+					addCoreDeadFeature(previous.coreFeatureNames.contains(name) ? var : -var, si, newCoreFeatureNames, newDeadFeatureNames);
+				} else if (coreOrDead == relaxed) {
+					candidates.add(si.getVariable(name));
+				}
+			}
+			final int[] features = new int[candidates.size()];
+			for (int i = 0; i < features.length; i++) {
+				features[i] = candidates.get(i);
+			}
+			if (features.length > 0) {
+				final CoreDeadAnalysis analysis = new CoreDeadAnalysis(si, features);
+				analysis.setNumberOfThreads(numberOfThreads);
+				solution2 = LongRunningWrapper.runMethod(analysis, monitor.subTask(0));
+			} else {
+				solution2 = new int[0];
+			}
+		} else {
+			final CoreDeadAnalysis analysis = ddnnf != null ? new CoreDeadAnalysis(ddnnf) : new CoreDeadAnalysis(si);
+			analysis.setNumberOfThreads(numberOfThreads);
+			solution2 = LongRunningWrapper.runMethod(analysis, monitor.subTask(0));
+		}
 		monitor.checkCancel();
 		for (int i = 0; i < solution2.length; i++) {
 			monitor.checkCancel();
-			final int var = solution2[i];
-			final IFeature feature = fm.getFeature((String) si.getVariableObject(var));
-			if (var < 0) {
-				setFeatureAttribute(feature, FeatureStatus.DEAD);
-				deadFeatures.add(feature);
-			} else {
-				coreFeatures.add(feature);
-			}
+			addCoreDeadFeature(solution2[i], si, newCoreFeatureNames, newDeadFeatureNames);
+		}
+		coreFeatureNames = newCoreFeatureNames;
+		deadFeatureNames = newDeadFeatureNames;
+	}
+
+	private void addCoreDeadFeature(int var, SatInstance si, Set<String> coreFeatureNames, Set<String> deadFeatureNames) {
+		final String name = (String) si.getVariableObject(var);
+		final IFeature feature = fm.getFeature(name);
+		if (var < 0) {
+			setFeatureAttribute(feature, FeatureStatus.DEAD);
+			deadFeatures.add(feature);
+			deadFeatureNames.add(name);
+		} else {
+			coreFeatures.add(feature);
+			coreFeatureNames.add(name);
 		}
 	}
 
@@ -455,23 +619,56 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 		return result;
 	}
 
-	private void checkFeatureFalseOptional(final Iterable<IFeature> features, final SatInstance si) {
+	private void checkFeatureFalseOptional(final Iterable<IFeature> features, final SatInstance si, final DDNNF ddnnf, boolean strengthened, boolean relaxed,
+			FeatureModelAnalysis previous) {
+		falseOptionalFeatures.clear();
+		final Set<String> newFalseOptionalPairs = new HashSet<>();
+		final Set<String> newCandidates = new HashSet<>();
+
 		final List<int[]> possibleFOFeatures = new ArrayList<>();
 		for (final IFeature feature : features) {
 			final IFeature parent = FeatureUtils.getParent(feature);
 			if ((parent != null) && (!feature.getStructure().isMandatorySet() || !parent.getStructure().isAnd())) {
-				possibleFOFeatures.add(new int[] { -si.getVariable(parent.getName()), si.getVariable(feature.getName()) });
+				final int[] pair = new int[] { -si.getVariable(parent.getName()), si.getVariable(feature.getName()) };
+				final String pairKey = getPairKey(pair, si);
+				newCandidates.add(pairKey);
+				// pairs that were no candidates before (e.g., a mandatory feature became optional) have no previous result
+				if ((strengthened || relaxed) && (previous.falseOptionalCandidates != null) && previous.falseOptionalCandidates.contains(pairKey)) {
+					// implications of a weaker formula still hold, implications that do not hold still do not hold for a weaker formula
+					final boolean falseOptional = previous.falseOptionalPairs.contains(pairKey);
+					if (falseOptional && strengthened) {
+						addFalseOptionalFeature(pair, si, newFalseOptionalPairs);
+					} else if (falseOptional == relaxed) {
+						possibleFOFeatures.add(pair);
+					}
+				} else {
+					possibleFOFeatures.add(pair);
+				}
 			}
 		}
-		final List<int[]> solution3 = LongRunningWrapper.runMethod(new ImplicationAnalysis(si, possibleFOFeatures), monitor.subTask(0));
-		monitor.checkCancel();
-		falseOptionalFeatures.clear();
-		for (final int[] pair : solution3) {
+		if (!possibleFOFeatures.isEmpty()) {
+			final ImplicationAnalysis analysis =
+				ddnnf != null ? new ImplicationAnalysis(ddnnf, possibleFOFeatures) : new ImplicationAnalysis(si, possibleFOFeatures);
+			final List<int[]> solution3 = LongRunningWrapper.runMethod(analysis, monitor.subTask(0));
 			monitor.checkCancel();
-			final IFeature feature = fm.getFeature((CharSequence) si.getVariableObject(pair[1]));
-			setFeatureAttribute(feature, FeatureStatus.FALSE_OPTIONAL);
-			falseOptionalFeatures.add(feature);
+			for (final int[] pair : solution3) {
+				monitor.checkCancel();
+				addFalseOptionalFeature(pair, si, newFalseOptionalPairs);
+			}
 		}
+		falseOptionalPairs = newFalseOptionalPairs;
+		falseOptionalCandidates = newCandidates;
+	}
+
+	private void addFalseOptionalFeature(int[] pair, SatInstance si, Set<String> falseOptionalPairs) {
+		final IFeature feature = fm.getFeature((CharSequence) si.getVariableObject(pair[1]));
+		setFeatureAttribute(feature, FeatureStatus.FALSE_OPTIONAL);
+		falseOptionalFeatures.add(feature);
+		falseOptionalPairs.add(getPairKey(pair, si));
+	}
+
+	private static String getPairKey(int[] pair, SatInstance si) {
+		return si.getVariableObject(pair[0]) + " -> " + si.getVariableObject(pair[1]);
 	}
 
 	private List<IFeature> checkFeatureFalseOptional2(final BasicSolver solver, List<IFeature> foList) {
@@ -522,8 +719,25 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 		}
 	}
 
-	private void checkValidity(final SatInstance si) {
-		valid = LongRunningWrapper.runMethod(new ValidAnalysis(si)) != null;
+	private void checkValidity(final SatInstance si, final DDNNF ddnnf) {
+		final ValidAnalysis analysis;
+		if (ddnnf != null) {
+			analysis = new ValidAnalysis(ddnnf);
+		} else if (usePortfolioSolver) {
+			try {
+				analysis = new ValidAnalysis(new PortfolioSolver(si));
+			} catch (final ContradictionException e) {
+				setValid(false);
+				return;
+			}
+		} else {
+			analysis = new ValidAnalysis(si);
+		}
+		setValid(LongRunningWrapper.runMethod(analysis) != null);
+	}
+
+	private void setValid(boolean valid) {
+		this.valid = valid;
 		if (!valid) {
 			changedAttributes.put(fm.getStructure().getRoot().getFeature(), FeatureStatus.DEAD);
 		}
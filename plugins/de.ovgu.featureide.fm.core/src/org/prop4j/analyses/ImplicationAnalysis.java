@@ -21,9 +21,11 @@
 package org.prop4j.analyses;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.prop4j.solver.BasicSolver;
+import org.prop4j.solver.DDNNF;
 import org.prop4j.solver.ISatSolver;
 import org.prop4j.solver.ISatSolver.SelectionStrategy;
 import org.prop4j.solver.SatInstance;
@@ -36,7 +38,7 @@ import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
  *
  * @author Sebastian Krieter
  */
-public class ImplicationAnalysis extends AbstractAnalysis<List<int[]>> {
+public class ImplicationAnalysis extends AbstractDDNNFAnalysis<List<int[]>> {
 
 	private final List<int[]> pairs;
 
@@ -50,6 +52,11 @@ public class ImplicationAnalysis extends AbstractAnalysis<List<int[]>> {
 		this.pairs = pairs;
 	}
 
+	public ImplicationAnalysis(DDNNF ddnnf, List<int[]> pairs) {
+		super(ddnnf);
+		this.pairs = pairs;
+	}
+
 	@Override
 	public List<int[]> analyze(IMonitor monitor) throws Exception {
 		final List<int[]> resultList = new ArrayList<>();
@@ -111,6 +118,28 @@ public class ImplicationAnalysis extends AbstractAnalysis<List<int[]>> {
 		return resultList;
 	}
 
+	@Override
+	protected List<int[]> analyze(DDNNF ddnnf, IMonitor monitor) throws Exception {
+		final List<int[]> resultList = new ArrayList<>();
+
+		if ((pairs == null) || !ddnnf.isSatisfiable(getAssumptionArray())) {
+			return resultList;
+		}
+
+		final int[] assumptionArray = getAssumptionArray();
+		for (final int[] pair : pairs) {
+			monitor.checkCancel();
+			final int[] negatedPair = Arrays.copyOf(assumptionArray, assumptionArray.length + pair.length);
+			for (int i = 0; i < pair.length; i++) {
+				negatedPair[assumptionArray.length + i] = -pair[i];
+			}
+			if (!ddnnf.isSatisfiable(negatedPair)) {
+				resultList.add(pair);
+			}
+		}
+		return resultList;
+	}
+
 	private static int countNegative(int[] model) {
 		int count = 0;
 		for (int i = 0; i < model.length; i++) {
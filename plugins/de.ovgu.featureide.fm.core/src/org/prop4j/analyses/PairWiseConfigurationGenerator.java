@@ -175,7 +175,7 @@ public class PairWiseConfigurationGenerator extends AbstractAnalysis<List<List<S
 
 	private int[] allYesSolution, allNoSolution;
 
-	private List<int[]> predefinedConfigurations;
+	protected List<int[]> predefinedConfigurations;
 
 	public PairWiseConfigurationGenerator(SatInstance satInstance, int maxNumber) {
 		super(satInstance);
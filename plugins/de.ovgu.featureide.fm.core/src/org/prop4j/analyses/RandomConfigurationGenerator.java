@@ -20,29 +20,81 @@
  */
 package org.prop4j.analyses;
 
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
 
+import org.prop4j.solver.DDNNF;
 import org.prop4j.solver.ISatSolver.SelectionStrategy;
 import org.prop4j.solver.SatInstance;
+import org.prop4j.solver.UniformSampler;
 import org.sat4j.core.VecInt;
 import org.sat4j.specs.ContradictionException;
 
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 
 /**
- * Finds random solutions of propositional formulas.
+ * Finds random solutions of propositional formulas.</br> If the formula can be compiled into a {@link DDNNF}, the solutions are distinct and drawn uniformly
+ * at random from all solutions. The result then only depends on the {@link #setSeed(long) seed}. Otherwise, a randomized SAT solver is used, which is biased
+ * towards some solutions.
  *
  * @author Sebastian Krieter
  */
 public class RandomConfigurationGenerator extends PairWiseConfigurationGenerator {
 
+	/**
+	 * The number of solutions that are created and passed to the {@link #q queue} at once.
+	 */
+	private static final int CHUNK_SIZE = 1024;
+
+	private long seed = new Random().nextLong();
+
 	public RandomConfigurationGenerator(SatInstance satInstance, int maxNumber) {
 		super(satInstance, maxNumber);
 	}
 
+	public long getSeed() {
+		return seed;
+	}
+
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
 	@Override
 	public List<List<String>> analyze(IMonitor monitor) throws Exception {
 		time = System.nanoTime();
+		final DDNNF compiledFormula = solver.getSatInstance().getDDNNF();
+		if (compiledFormula != null) {
+			sampleUniformly(compiledFormula.getSampler(getAssumptionArray()), monitor);
+		} else {
+			sampleWithSolver(monitor);
+		}
+		return getConfigurations();
+	}
+
+	private void sampleUniformly(UniformSampler sampler, IMonitor monitor) {
+		// the indices are drawn lazily, as maxNumber may exceed the number of configurations that fit into memory
+		final Iterator<BigInteger> indices = sampler.getDistinctRandomIndices(new Random(seed));
+		final int numberOfThreads = Runtime.getRuntime().availableProcessors();
+		final List<BigInteger> chunk = new ArrayList<>(CHUNK_SIZE);
+		int remaining = maxNumber;
+		while ((remaining > 0) && indices.hasNext()) {
+			monitor.checkCancel();
+			chunk.clear();
+			while ((chunk.size() < Math.min(CHUNK_SIZE, remaining)) && indices.hasNext()) {
+				chunk.add(indices.next());
+			}
+			for (final int[] solution : sampler.getSolutions(chunk, numberOfThreads)) {
+				addConfig(solution);
+			}
+			remaining -= chunk.size();
+		}
+	}
+
+	private void sampleWithSolver(IMonitor monitor) {
 		solver.setSelectionStrategy(SelectionStrategy.RANDOM);
 
 		for (int i = 0; i < maxNumber; i++) {
@@ -52,8 +104,6 @@ public class RandomConfigurationGenerator extends PairWiseConfigurationGenerator
 			}
 			solver.shuffleOrder();
 		}
-
-		return getConfigurations();
 	}
 
 	@Override
@@ -62,6 +112,19 @@ public class RandomConfigurationGenerator extends PairWiseConfigurationGenerator
 			// Found everything
 			return true;
 		}
+		final Configuration config = addConfig(curModel);
+
+		try {
+			config.setBlockingClauseConstraint(solver.getInternalSolver().addBlockingClause(new VecInt(SatInstance.negateModel(curModel))));
+		} catch (final ContradictionException e) {
+			// Unsatisfiable -> Found everything
+			return true;
+		}
+
+		return false;
+	}
+
+	private Configuration addConfig(int[] curModel) {
 		final int partCount = count(curModel);
 		final Configuration config = new Configuration(curModel, partCount - getLastCoverage(), partCount);
 
@@ -73,15 +136,7 @@ public class RandomConfigurationGenerator extends PairWiseConfigurationGenerator
 			tempConfigurationList.add(config);
 		}
 		time = System.nanoTime();
-
-		try {
-			config.setBlockingClauseConstraint(solver.getInternalSolver().addBlockingClause(new VecInt(SatInstance.negateModel(curModel))));
-		} catch (final ContradictionException e) {
-			// Unsatisfiable -> Found everything
-			return true;
-		}
-
-		return false;
+		return config;
 	}
 
 }
@@ -0,0 +1,447 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.prop4j.analyses.TWiseCoverage.CombinationIterator;
+import org.prop4j.solver.ISatSolver;
+import org.prop4j.solver.ISatSolver.SelectionStrategy;
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+
+/**
+ * Generates a sample of configurations that covers all valid t-wise interactions of the variables (a t-wise covering array).<br>
+ * Interactions are stored in a {@link TWiseCoverage bitmap}. Each configuration is built greedily: starting with an uncovered interaction, all compatible
+ * uncovered interactions are added as long as the formula remains satisfiable. In each round, several candidate configurations are built and evaluated in
+ * parallel, each with its own {@link ISatSolver#clone() copy} of the solver. The candidate that covers the most new interactions is added to the sample.<br>
+ * Configurations set by {@link #setPredefinedConfigurations(java.util.Collection)} are added first, so an existing sample can be extended.
+ */
+public class TWiseConfigurationGenerator extends PairWiseConfigurationGenerator {
+
+	private static class Candidate {
+
+		private final List<long[]> invalidInteractions = new ArrayList<>();
+		private int[] model = null;
+		private long gain = 0;
+
+	}
+
+	private final int t;
+
+	private int numberOfThreads = 1;
+	private int numberOfCandidates = 4;
+
+	private TWiseCoverage coverage;
+	private int[] variables;
+	private long[] invalidPairs;
+
+	/**
+	 * @param satInstance the formula
+	 * @param t the size of the interactions (between 1 and {@link TWiseCoverage#MAX_T})
+	 * @param maxNumber the maximum number of configurations
+	 */
+	public TWiseConfigurationGenerator(SatInstance satInstance, int t, int maxNumber) {
+		super(satInstance, maxNumber);
+		if ((t < 1) || (t > TWiseCoverage.MAX_T)) {
+			throw new IllegalArgumentException("t must be between 1 and " + TWiseCoverage.MAX_T + ": " + t);
+		}
+		this.t = t;
+	}
+
+	@Override
+	public List<List<String>> analyze(IMonitor monitor) throws Exception {
+		if (maxNumber <= 0) {
+			return Collections.emptyList();
+		}
+		time = System.nanoTime();
+		synchronized (tempConfigurationList) {
+			tempConfigurationList.clear();
+			finalConfigurationList.clear();
+		}
+		coverage = null;
+
+		if (solver.findModel() == null) {
+			return Collections.emptyList();
+		}
+		final CoreDeadAnalysis coreDeadAnalysis = new CoreDeadAnalysis(solver.clone());
+		coreDeadAnalysis.setNumberOfThreads(numberOfThreads);
+		final int[] coreDead = coreDeadAnalysis.analyze(new NullMonitor());
+		monitor.checkCancel();
+
+		final boolean[] fixed = new boolean[numVariables];
+		for (final int literal : coreDead) {
+			fixed[Math.abs(literal) - 1] = true;
+		}
+		variables = new int[numVariables - coreDead.length];
+		for (int i = 0, j = 0; i < numVariables; i++) {
+			if (!fixed[i]) {
+				variables[j++] = i + 1;
+			}
+		}
+		coverage = new TWiseCoverage(variables.length, t);
+		findInvalidPairs(solver.clone(), monitor);
+
+		int numberOfConfigurations = 0;
+		if (predefinedConfigurations != null) {
+			for (final int[] predefinedConfiguration : predefinedConfigurations) {
+				if (numberOfConfigurations++ >= maxNumber) {
+					return getConfigurations();
+				}
+				addConfiguration(predefinedConfiguration, cover(predefinedConfiguration));
+			}
+		}
+
+		final ISatSolver[] solvers = new ISatSolver[numberOfCandidates];
+		for (int i = 0; i < solvers.length; i++) {
+			solvers[i] = solver.clone();
+			solvers[i].setSelectionStrategy(((i % 2) == 0) ? SelectionStrategy.NEGATIVE : SelectionStrategy.POSITIVE);
+		}
+		final ExecutorService executor = (numberOfThreads > 1) ? Executors.newFixedThreadPool(Math.min(numberOfThreads, numberOfCandidates)) : null;
+		try {
+			while ((numberOfConfigurations < maxNumber) && (coverage.getNumberOfUncovered() > 0)) {
+				monitor.checkCancel();
+				final List<Candidate> candidates = buildCandidates(solvers, executor);
+
+				boolean progress = false;
+				Candidate best = null;
+				for (final Candidate candidate : candidates) {
+					for (final long[] interaction : candidate.invalidInteractions) {
+						progress |= coverage.invalidate(interaction[0], (int) interaction[1]);
+					}
+					if ((candidate.model != null) && ((best == null) || (candidate.gain > best.gain))) {
+						best = candidate;
+					}
+				}
+				if (best != null) {
+					cover(best.model);
+					addConfiguration(best.model, best.gain);
+					numberOfConfigurations++;
+				} else if (!progress) {
+					break;
+				}
+			}
+		} finally {
+			if (executor != null) {
+				executor.shutdownNow();
+			}
+		}
+		return getConfigurations();
+	}
+
+	private List<Candidate> buildCandidates(final ISatSolver[] solvers, ExecutorService executor) throws Exception {
+		final List<Candidate> candidates = new ArrayList<>(solvers.length);
+		if (executor == null) {
+			for (int i = 0; i < solvers.length; i++) {
+				candidates.add(buildCandidate(i, solvers[i]));
+			}
+		} else {
+			final List<Callable<Candidate>> tasks = new ArrayList<>(solvers.length);
+			for (int i = 0; i < solvers.length; i++) {
+				final int index = i;
+				tasks.add(new Callable<Candidate>() {
+
+					@Override
+					public Candidate call() throws Exception {
+						return buildCandidate(index, solvers[index]);
+					}
+				});
+			}
+			for (final Future<Candidate> future : executor.invokeAll(tasks)) {
+				candidates.add(future.get());
+			}
+		}
+		return candidates;
+	}
+
+	/**
+	 * Builds a candidate configuration starting with the uncovered interaction at position {@code index}. Only reads the coverage, so several candidates can
+	 * be built at the same time.
+	 */
+	private Candidate buildCandidate(int index, ISatSolver solver) {
+		final Candidate candidate = new Candidate();
+		final int orgAssignmentSize = solver.getAssignment().size();
+		final int numberOfPatterns = 1 << t;
+		final long allPatterns = (t == TWiseCoverage.MAX_T) ? -1L : ((1L << numberOfPatterns) - 1);
+		final int allVariables = numberOfPatterns - 1;
+		final int[] assignment = new int[variables.length];
+		int[] model = null;
+
+		int skip = index;
+		CombinationIterator iterator = new CombinationIterator(variables.length, t);
+		seedLoop: while (iterator.next()) {
+			final long patterns = coverage.getPatterns(iterator.getIndex());
+			if (patterns != allPatterns) {
+				final int[] elements = iterator.getElements();
+				for (int pattern = 0; pattern < numberOfPatterns; pattern++) {
+					if ((patterns & (1L << pattern)) == 0) {
+						if (skip > 0) {
+							skip--;
+							continue;
+						}
+						if (containsInvalidPair(elements, pattern)) {
+							candidate.invalidInteractions.add(new long[] { iterator.getIndex(), pattern });
+							continue;
+						}
+						for (int j = 0; j < t; j++) {
+							solver.assignmentPush(getLiteral(elements[j], pattern, j));
+						}
+						final ISatSolver.SatResult result = solver.isSatisfiable();
+						if (result == ISatSolver.SatResult.TRUE) {
+							model = solver.getModel();
+							for (int j = 0; j < t; j++) {
+								assignment[elements[j]] = getLiteral(elements[j], pattern, j);
+							}
+							break seedLoop;
+						}
+						// Interactions that cannot be decided within the time limit stay uncovered and are tried again in the next round
+						if (result == ISatSolver.SatResult.FALSE) {
+							candidate.invalidInteractions.add(new long[] { iterator.getIndex(), pattern });
+						}
+						solver.assignmentClear(orgAssignmentSize);
+					}
+				}
+			}
+		}
+		if (model == null) {
+			return candidate;
+		}
+
+		iterator = new CombinationIterator(variables.length, t);
+		while (iterator.next()) {
+			final long patterns = coverage.getPatterns(iterator.getIndex());
+			if (patterns == allPatterns) {
+				continue;
+			}
+			final int[] elements = iterator.getElements();
+			int assignedMask = 0;
+			int assignedPattern = 0;
+			for (int j = 0; j < t; j++) {
+				final int literal = assignment[elements[j]];
+				if (literal != 0) {
+					assignedMask |= 1 << j;
+					if (literal > 0) {
+						assignedPattern |= 1 << j;
+					}
+				}
+			}
+			if (assignedMask == allVariables) {
+				continue;
+			}
+			for (int pattern = 0; pattern < numberOfPatterns; pattern++) {
+				if (((patterns & (1L << pattern)) != 0) || ((pattern & assignedMask) != assignedPattern) || containsInvalidPair(elements, pattern)) {
+					continue;
+				}
+				final int assignmentSize = solver.getAssignment().size();
+				boolean inModel = true;
+				int lastElement = -1;
+				for (int j = 0; j < t; j++) {
+					if ((assignedMask & (1 << j)) == 0) {
+						final int literal = getLiteral(elements[j], pattern, j);
+						solver.assignmentPush(literal);
+						inModel &= model[Math.abs(literal) - 1] == literal;
+						lastElement = j;
+					}
+				}
+				final ISatSolver.SatResult result = inModel ? ISatSolver.SatResult.TRUE : solver.isSatisfiable();
+				if (result == ISatSolver.SatResult.TRUE) {
+					if (!inModel) {
+						model = solver.getModel();
+					}
+					for (int j = 0; j < t; j++) {
+						assignment[elements[j]] = getLiteral(elements[j], pattern, j);
+					}
+					break;
+				}
+				solver.assignmentClear(assignmentSize);
+				if ((result == ISatSolver.SatResult.FALSE) && (Integer.bitCount(allVariables & ~assignedMask) == 1)) {
+					// Only one variable was open, so the current assignment implies its complement
+					final int literal = -getLiteral(elements[lastElement], pattern, lastElement);
+					solver.assignmentPush(literal);
+					assignment[elements[lastElement]] = literal;
+					assignedMask |= 1 << lastElement;
+					if (literal > 0) {
+						assignedPattern |= 1 << lastElement;
+					}
+				}
+			}
+		}
+		solver.assignmentClear(orgAssignmentSize);
+
+		candidate.model = Arrays.copyOf(model, model.length);
+		candidate.gain = countUncovered(candidate.model);
+		return candidate;
+	}
+
+	/**
+	 * Finds all pairs of literals that cannot be selected together. Interactions that contain such a pair are invalid, which can be decided without calling
+	 * the solver again.
+	 */
+	private void findInvalidPairs(ISatSolver solver, IMonitor monitor) {
+		final int numberOfLiterals = variables.length << 1;
+		invalidPairs = new long[(int) ((((long) numberOfLiterals * numberOfLiterals) + 63) >>> 6)];
+		if (t < 2) {
+			return;
+		}
+		final TWiseCoverage validPairs = new TWiseCoverage(variables.length, 2);
+		final CombinationIterator iterator = new CombinationIterator(variables.length, 2);
+		while (iterator.next()) {
+			monitor.checkCancel();
+			final int[] elements = iterator.getElements();
+			for (int pattern = 0; pattern < 4; pattern++) {
+				if (validPairs.isCovered(iterator.getIndex(), pattern)) {
+					continue;
+				}
+				solver.assignmentPush(getLiteral(elements[0], pattern, 0));
+				solver.assignmentPush(getLiteral(elements[1], pattern, 1));
+				final ISatSolver.SatResult result = solver.isSatisfiable();
+				if (result == ISatSolver.SatResult.TRUE) {
+					final int[] model = solver.getModel();
+					final CombinationIterator modelIterator = new CombinationIterator(variables.length, 2);
+					while (modelIterator.next()) {
+						validPairs.cover(modelIterator.getIndex(), getPattern(model, modelIterator.getElements()));
+					}
+					solver.shuffleOrder();
+				} else if (result == ISatSolver.SatResult.FALSE) {
+					final int literalA = (elements[0] << 1) | (pattern & 1);
+					final int literalB = (elements[1] << 1) | ((pattern >> 1) & 1);
+					setInvalidPair(literalA, literalB, numberOfLiterals);
+					setInvalidPair(literalB, literalA, numberOfLiterals);
+				}
+				solver.assignmentPop();
+				solver.assignmentPop();
+			}
+		}
+	}
+
+	private void setInvalidPair(int literalA, int literalB, int numberOfLiterals) {
+		final long index = ((long) literalA * numberOfLiterals) + literalB;
+		invalidPairs[(int) (index >>> 6)] |= 1L << index;
+	}
+
+	private boolean containsInvalidPair(int[] elements, int pattern) {
+		final long numberOfLiterals = variables.length << 1;
+		for (int i = 0; i < elements.length; i++) {
+			final long literalA = (elements[i] << 1) | ((pattern >> i) & 1);
+			for (int j = i + 1; j < elements.length; j++) {
+				final long index = (literalA * numberOfLiterals) + ((elements[j] << 1) | ((pattern >> j) & 1));
+				if ((invalidPairs[(int) (index >>> 6)] & (1L << index)) != 0) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private int getLiteral(int element, int pattern, int position) {
+		return ((pattern & (1 << position)) != 0) ? variables[element] : -variables[element];
+	}
+
+	private int getPattern(int[] model, int[] elements) {
+		int pattern = 0;
+		for (int j = 0; j < elements.length; j++) {
+			if (model[variables[elements[j]] - 1] > 0) {
+				pattern |= 1 << j;
+			}
+		}
+		return pattern;
+	}
+
+	private long countUncovered(int[] model) {
+		long count = 0;
+		final CombinationIterator iterator = new CombinationIterator(variables.length, t);
+		while (iterator.next()) {
+			if ((coverage.getPatterns(iterator.getIndex()) & (1L << getPattern(model, iterator.getElements()))) == 0) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private long cover(int[] model) {
+		long count = 0;
+		final CombinationIterator iterator = new CombinationIterator(variables.length, t);
+		while (iterator.next()) {
+			if (coverage.cover(iterator.getIndex(), getPattern(model, iterator.getElements()))) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private void addConfiguration(int[] model, long gain) {
+		final Configuration config = new Configuration(model, (int) Math.min(gain, Integer.MAX_VALUE),
+				(int) Math.min(coverage.getNumberOfCovered(), Integer.MAX_VALUE));
+		config.time = System.nanoTime() - time;
+		synchronized (tempConfigurationList) {
+			tempConfigurationList.add(config);
+		}
+		q.offer(config);
+		time = System.nanoTime();
+	}
+
+	public int getT() {
+		return t;
+	}
+
+	/**
+	 * @return The coverage of the last generated sample or {@code null} if no sample was generated yet.
+	 */
+	public TWiseCoverage getCoverage() {
+		return coverage;
+	}
+
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	/**
+	 * Sets the number of threads that build candidate configurations. The result does not depend on the number of threads.
+	 *
+	 * @param numberOfThreads the number of threads (default: 1)
+	 */
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = Math.max(1, numberOfThreads);
+	}
+
+	public int getNumberOfCandidates() {
+		return numberOfCandidates;
+	}
+
+	/**
+	 * Sets the number of candidate configurations that are built in each round. More candidates usually lead to smaller samples.
+	 *
+	 * @param numberOfCandidates the number of candidates (default: 4)
+	 */
+	public void setNumberOfCandidates(int numberOfCandidates) {
+		this.numberOfCandidates = Math.max(1, numberOfCandidates);
+	}
+
+}
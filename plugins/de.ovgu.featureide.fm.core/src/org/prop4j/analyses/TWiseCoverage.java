@@ -0,0 +1,226 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+/**
+ * Stores which t-wise interactions of a set of variables are covered using one bit per interaction.<br>
+ * An interaction consists of a combination of t distinct variables and a pattern that assigns a value to each of them. Combinations are numbered in
+ * lexicographic order (see {@link CombinationIterator}). The bits of all 2<sup>t</sup> patterns of one combination are stored next to each other, so they can
+ * be read with one access to the underlying array.
+ */
+public class TWiseCoverage {
+
+	public static final int MAX_T = 6;
+
+	/**
+	 * Iterates over all combinations of t elements from the set {0, ..., n - 1} in lexicographic order.
+	 */
+	public static class CombinationIterator {
+
+		private final int[] elements;
+		private final int n;
+		private long index = -1;
+
+		public CombinationIterator(int n, int t) {
+			this.n = n;
+			elements = new int[t];
+		}
+
+		/**
+		 * Moves to the next combination.
+		 *
+		 * @return {@code false} if there are no more combinations.
+		 */
+		public boolean next() {
+			final int t = elements.length;
+			if (index < 0) {
+				if (t > n) {
+					return false;
+				}
+				for (int i = 0; i < t; i++) {
+					elements[i] = i;
+				}
+			} else {
+				int i = t - 1;
+				while ((i >= 0) && (elements[i] == ((n - t) + i))) {
+					i--;
+				}
+				if (i < 0) {
+					return false;
+				}
+				elements[i]++;
+				for (int j = i + 1; j < t; j++) {
+					elements[j] = elements[j - 1] + 1;
+				}
+			}
+			index++;
+			return true;
+		}
+
+		/**
+		 * @return The elements of the current combination in ascending order. The array is reused and must not be modified.
+		 */
+		public int[] getElements() {
+			return elements;
+		}
+
+		/**
+		 * @return The index of the current combination.
+		 */
+		public long getIndex() {
+			return index;
+		}
+
+	}
+
+	private final long[] bits;
+	private final int t;
+	private final int numberOfVariables;
+	private final long numberOfCombinations;
+
+	private long numberOfCovered = 0;
+	private long numberOfInvalid = 0;
+
+	/**
+	 * @param numberOfVariables the number of variables
+	 * @param t the size of the interactions (between 1 and {@link #MAX_T})
+	 */
+	public TWiseCoverage(int numberOfVariables, int t) {
+		if ((t < 1) || (t > MAX_T)) {
+			throw new IllegalArgumentException("t must be between 1 and " + MAX_T + ": " + t);
+		}
+		this.t = t;
+		this.numberOfVariables = numberOfVariables;
+		numberOfCombinations = binomial(numberOfVariables, t);
+		if ((numberOfCombinations > (Long.MAX_VALUE >>> (t + 1))) || ((((numberOfCombinations << t) + 63) >>> 6) > Integer.MAX_VALUE)) {
+			throw new IllegalArgumentException("Too many interactions: " + (numberOfCombinations << t));
+		}
+		bits = new long[(int) (((numberOfCombinations << t) + 63) >>> 6)];
+	}
+
+	/**
+	 * @return The binomial coefficient n over k or {@link Long#MAX_VALUE} if it does not fit into a long.
+	 */
+	public static long binomial(int n, int k) {
+		if ((k < 0) || (k > n)) {
+			return 0;
+		}
+		k = Math.min(k, n - k);
+		long result = 1;
+		for (int i = 1; i <= k; i++) {
+			if (result > (Long.MAX_VALUE / (n - k + i))) {
+				return Long.MAX_VALUE;
+			}
+			result = (result * (n - k + i)) / i;
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the coverage bits of all patterns of the given combination. Bit i is set if the pattern i is covered or invalid. In pattern i, the j-th variable
+	 * of the combination is positive iff bit j of i is set.
+	 *
+	 * @param combination the index of the combination
+	 * @return the coverage bits of the combination
+	 */
+	public long getPatterns(long combination) {
+		final long bitIndex = combination << t;
+		final long word = bits[(int) (bitIndex >>> 6)];
+		return (t == MAX_T) ? word : ((word >>> (bitIndex & 63)) & ((1L << (1 << t)) - 1));
+	}
+
+	public boolean isCovered(long combination, int pattern) {
+		final long bitIndex = (combination << t) | pattern;
+		return (bits[(int) (bitIndex >>> 6)] & (1L << bitIndex)) != 0;
+	}
+
+	/**
+	 * Marks an interaction as covered.
+	 *
+	 * @return {@code true} if the interaction was not covered or invalid before.
+	 */
+	public boolean cover(long combination, int pattern) {
+		if (set(combination, pattern)) {
+			numberOfCovered++;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Marks an interaction as invalid, i.e., no valid configuration can cover it.
+	 *
+	 * @return {@code true} if the interaction was not covered or invalid before.
+	 */
+	public boolean invalidate(long combination, int pattern) {
+		if (set(combination, pattern)) {
+			numberOfInvalid++;
+			return true;
+		}
+		return false;
+	}
+
+	private boolean set(long combination, int pattern) {
+		final long bitIndex = (combination << t) | pattern;
+		final int wordIndex = (int) (bitIndex >>> 6);
+		final long mask = 1L << bitIndex;
+		if ((bits[wordIndex] & mask) == 0) {
+			bits[wordIndex] |= mask;
+			return true;
+		}
+		return false;
+	}
+
+	public int getT() {
+		return t;
+	}
+
+	public int getNumberOfVariables() {
+		return numberOfVariables;
+	}
+
+	public long getNumberOfCombinations() {
+		return numberOfCombinations;
+	}
+
+	/**
+	 * @return The number of all interactions, i.e., the number of combinations times 2<sup>t</sup>.
+	 */
+	public long getNumberOfInteractions() {
+		return numberOfCombinations << t;
+	}
+
+	public long getNumberOfCovered() {
+		return numberOfCovered;
+	}
+
+	public long getNumberOfInvalid() {
+		return numberOfInvalid;
+	}
+
+	/**
+	 * @return The number of interactions that are neither covered nor invalid.
+	 */
+	public long getNumberOfUncovered() {
+		return getNumberOfInteractions() - numberOfCovered - numberOfInvalid;
+	}
+
+}
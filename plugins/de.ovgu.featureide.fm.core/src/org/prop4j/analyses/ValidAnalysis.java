@@ -20,6 +20,7 @@
  */
 package org.prop4j.analyses;
 
+import org.prop4j.solver.DDNNF;
 import org.prop4j.solver.ISatSolver;
 import org.prop4j.solver.SatInstance;
 
@@ -30,7 +31,7 @@ import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
  *
  * @author Sebastian Krieter
  */
-public class ValidAnalysis extends AbstractAnalysis<int[]> {
+public class ValidAnalysis extends AbstractDDNNFAnalysis<int[]> {
 
 	public ValidAnalysis(ISatSolver solver) {
 		super(solver);
@@ -40,9 +41,18 @@ public class ValidAnalysis extends AbstractAnalysis<int[]> {
 		super(satInstance);
 	}
 
+	public ValidAnalysis(DDNNF ddnnf) {
+		super(ddnnf);
+	}
+
 	@Override
 	public int[] analyze(IMonitor monitor) throws Exception {
 		return solver.findModel();
 	}
 
+	@Override
+	protected int[] analyze(DDNNF ddnnf, IMonitor monitor) throws Exception {
+		return ddnnf.getSolution(getAssumptionArray());
+	}
+
 }
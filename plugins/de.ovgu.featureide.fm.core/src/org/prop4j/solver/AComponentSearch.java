@@ -0,0 +1,514 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Exhaustive DPLL search for a {@link SatInstance} that splits the remaining formula into independent components after each decision.</br> The result of
+ * each component is stored in a cache, such that equal sub-formulas are only processed once. Subclasses define how the results of decisions and components
+ * are combined (e.g., {@link ModelCounter counting} or {@link DDNNFCompiler compilation}).
+ *
+ * @param <T> the type of the result for a (sub-)formula
+ */
+public abstract class AComponentSearch<T> {
+
+	public static final int DEFAULT_CACHE_SIZE = 1 << 18;
+
+	private static final int CHECK_INTERVAL = 1 << 10;
+
+	/**
+	 * Identifies a component by its free variables and its unsatisfied clauses. Both together uniquely determine the residual formula of the component.
+	 */
+	private static final class ComponentKey {
+
+		private final int[] data;
+		private final int hashCode;
+
+		private ComponentKey(int[] variables, int[] clauses) {
+			data = new int[variables.length + clauses.length + 1];
+			data[0] = variables.length;
+			System.arraycopy(variables, 0, data, 1, variables.length);
+			System.arraycopy(clauses, 0, data, variables.length + 1, clauses.length);
+			hashCode = Arrays.hashCode(data);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if ((obj == null) || (getClass() != obj.getClass())) {
+				return false;
+			}
+			final ComponentKey other = (ComponentKey) obj;
+			return (hashCode == other.hashCode) && Arrays.equals(data, other.data);
+		}
+
+	}
+
+	private static final class Component {
+
+		private final int[] variables;
+		private final int[] clauses;
+
+		private Component(int[] variables, int[] clauses) {
+			this.variables = variables;
+			this.clauses = clauses;
+		}
+
+	}
+
+	protected final int numberOfVariables;
+	private final int[][] clauses;
+	private final int[][] occurrences;
+	private final boolean containsEmptyClause;
+
+	private final byte[] values;
+	private final int[] trail;
+	private int trailSize = 0;
+
+	private final int[] clauseMarks;
+	private final int[] variableMarks;
+	private final int[] scores;
+	private final int[] clauseBuffer;
+	private final int[] variableBuffer;
+	private int mark = 0;
+
+	private final HashMap<ComponentKey, T> cache = new HashMap<>();
+	private int maxCacheSize = DEFAULT_CACHE_SIZE;
+
+	private long timeout = 0;
+	private long deadline = Long.MAX_VALUE;
+	private boolean timeoutOccured = false;
+	private int steps = 0;
+	private IMonitor monitor = null;
+
+	public AComponentSearch(SatInstance satInstance) {
+		numberOfVariables = satInstance.getNumberOfVariables();
+
+		final ClauseStore clauseStore = satInstance.getClauses();
+		final List<int[]> clauseList = new ArrayList<>(clauseStore.getNumberOfClauses());
+		boolean emptyClause = false;
+		for (int i = 0; i < clauseStore.getNumberOfClauses(); i++) {
+			final int[] simplifiedClause = simplify(clauseStore.getClause(i));
+			if (simplifiedClause != null) {
+				if (simplifiedClause.length == 0) {
+					emptyClause = true;
+				}
+				clauseList.add(simplifiedClause);
+			}
+		}
+		containsEmptyClause = emptyClause;
+		clauses = clauseList.toArray(new int[clauseList.size()][]);
+
+		final int[] occurrenceCount = new int[(numberOfVariables + 1) << 1];
+		for (final int[] clause : clauses) {
+			for (final int literal : clause) {
+				occurrenceCount[getLiteralIndex(literal)]++;
+			}
+		}
+		occurrences = new int[occurrenceCount.length][];
+		for (int i = 0; i < occurrenceCount.length; i++) {
+			occurrences[i] = new int[occurrenceCount[i]];
+			occurrenceCount[i] = 0;
+		}
+		for (int i = 0; i < clauses.length; i++) {
+			for (final int literal : clauses[i]) {
+				final int index = getLiteralIndex(literal);
+				occurrences[index][occurrenceCount[index]++] = i;
+			}
+		}
+
+		values = new byte[numberOfVariables + 1];
+		trail = new int[numberOfVariables + 1];
+		clauseMarks = new int[clauses.length];
+		variableMarks = new int[numberOfVariables + 1];
+		scores = new int[numberOfVariables + 1];
+		clauseBuffer = new int[clauses.length];
+		variableBuffer = new int[numberOfVariables + 1];
+	}
+
+	/**
+	 * Removes duplicate literals from a clause.
+	 *
+	 * @return the sorted clause or {@code null} if the clause is a tautology
+	 */
+	private static int[] simplify(int[] clause) {
+		final int[] sortedClause = Arrays.copyOf(clause, clause.length);
+		Arrays.sort(sortedClause);
+		int size = 0;
+		for (int i = 0; i < sortedClause.length; i++) {
+			final int literal = sortedClause[i];
+			if (literal == 0) {
+				continue;
+			}
+			if ((size > 0) && (sortedClause[size - 1] == literal)) {
+				continue;
+			}
+			if ((literal > 0) && (Arrays.binarySearch(sortedClause, -literal) >= 0)) {
+				return null;
+			}
+			sortedClause[size++] = literal;
+		}
+		return Arrays.copyOf(sortedClause, size);
+	}
+
+	private static int getLiteralIndex(int literal) {
+		return literal > 0 ? (literal << 1) : ((-literal << 1) + 1);
+	}
+
+	/**
+	 * @return the result for a contradicting (sub-)formula
+	 */
+	protected abstract T getContradiction();
+
+	protected abstract boolean isContradiction(T result);
+
+	/**
+	 * Combines the results of independent parts of a formula.
+	 *
+	 * @param literals the literals that were assigned by the last decision (including the decision itself) or by the initial propagation
+	 * @param freeVariables the variables that do not occur in any unsatisfied clause
+	 * @param components the results of all independent components
+	 */
+	protected abstract T conjoin(int[] literals, int[] freeVariables, List<T> components);
+
+	/**
+	 * Combines the results of both branches of a decision.
+	 *
+	 * @param variable the variable of the decision
+	 * @param positive the result if the variable is set to {@code true}
+	 * @param negative the result if the variable is set to {@code false}
+	 */
+	protected abstract T decide(int variable, T positive, T negative);
+
+	/**
+	 * Processes the complete formula under the given assumptions.
+	 *
+	 * @param assumptions literals that are fixed for the search
+	 *
+	 * @return the result of the search</br> or a partial result, if a timeout occurred (see {@link #hasTimeoutOccured()})
+	 */
+	protected T search(int[] assumptions) {
+		timeoutOccured = false;
+		steps = 0;
+		deadline = timeout > 0 ? System.currentTimeMillis() + timeout : Long.MAX_VALUE;
+		undo(0);
+
+		try {
+			if (containsEmptyClause) {
+				return getContradiction();
+			}
+			for (final int assumption : assumptions) {
+				if ((assumption != 0) && !assign(assumption)) {
+					return getContradiction();
+				}
+			}
+			for (final int[] clause : clauses) {
+				if ((clause.length == 1) && !assign(clause[0])) {
+					return getContradiction();
+				}
+			}
+			if (!propagate(0)) {
+				return getContradiction();
+			}
+
+			final int[] allVariables = new int[numberOfVariables];
+			for (int i = 0; i < allVariables.length; i++) {
+				allVariables[i] = i + 1;
+			}
+			final int[] allClauses = new int[clauses.length];
+			for (int i = 0; i < allClauses.length; i++) {
+				allClauses[i] = i;
+			}
+			return searchResidual(allVariables, allClauses, 0);
+		} finally {
+			undo(0);
+		}
+	}
+
+	private T searchComponent(Component component) {
+		if (checkTimeout()) {
+			return getContradiction();
+		}
+
+		final ComponentKey key = new ComponentKey(component.variables, component.clauses);
+		final T cachedResult = cache.get(key);
+		if (cachedResult != null) {
+			return cachedResult;
+		}
+
+		final int variable = selectVariable(component);
+
+		int start = trailSize;
+		final T positiveResult = (assign(variable) && propagate(start)) ? searchResidual(component.variables, component.clauses, start) : getContradiction();
+		undo(start);
+
+		start = trailSize;
+		final T negativeResult = (assign(-variable) && propagate(start)) ? searchResidual(component.variables, component.clauses, start) : getContradiction();
+		undo(start);
+
+		final T result = decide(variable, positiveResult, negativeResult);
+		if (!timeoutOccured) {
+			if (cache.size() >= maxCacheSize) {
+				cache.clear();
+			}
+			cache.put(key, result);
+		}
+		return result;
+	}
+
+	private T searchResidual(int[] variables, int[] clauseIndices, int start) {
+		final List<Component> components = decompose(clauseIndices);
+
+		int freeVariableCount = 0;
+		for (final int variable : variables) {
+			if (values[variable] == 0) {
+				freeVariableCount++;
+			}
+		}
+		for (final Component component : components) {
+			freeVariableCount -= component.variables.length;
+		}
+		final int[] freeVariables = new int[freeVariableCount];
+		if (freeVariableCount > 0) {
+			final int componentMark = nextMark();
+			for (final Component component : components) {
+				for (final int variable : component.variables) {
+					variableMarks[variable] = componentMark;
+				}
+			}
+			int i = 0;
+			for (final int variable : variables) {
+				if ((values[variable] == 0) && (variableMarks[variable] != componentMark)) {
+					freeVariables[i++] = variable;
+				}
+			}
+		}
+
+		final List<T> componentResults = new ArrayList<>(components.size());
+		for (final Component component : components) {
+			final T componentResult = searchComponent(component);
+			if (isContradiction(componentResult)) {
+				return componentResult;
+			}
+			componentResults.add(componentResult);
+		}
+		return conjoin(Arrays.copyOfRange(trail, start, trailSize), freeVariables, componentResults);
+	}
+
+	/**
+	 * Splits all unsatisfied clauses into sets that do not share any unassigned variable.
+	 */
+	private List<Component> decompose(int[] clauseIndices) {
+		final int candidateMark = nextMark();
+		for (final int clauseIndex : clauseIndices) {
+			if (!isSatisfied(clauses[clauseIndex])) {
+				clauseMarks[clauseIndex] = candidateMark;
+			}
+		}
+
+		final int visitedMark = nextMark();
+		final List<Component> components = new ArrayList<>();
+		for (final int startClause : clauseIndices) {
+			if (clauseMarks[startClause] != candidateMark) {
+				continue;
+			}
+			clauseMarks[startClause] = visitedMark;
+			clauseBuffer[0] = startClause;
+			int clauseCount = 1;
+			int variableCount = 0;
+			for (int i = 0; i < clauseCount; i++) {
+				for (final int literal : clauses[clauseBuffer[i]]) {
+					final int variable = Math.abs(literal);
+					if ((values[variable] == 0) && (variableMarks[variable] != visitedMark)) {
+						variableMarks[variable] = visitedMark;
+						variableBuffer[variableCount++] = variable;
+						for (final int clauseIndex : occurrences[variable << 1]) {
+							if (clauseMarks[clauseIndex] == candidateMark) {
+								clauseMarks[clauseIndex] = visitedMark;
+								clauseBuffer[clauseCount++] = clauseIndex;
+							}
+						}
+						for (final int clauseIndex : occurrences[(variable << 1) + 1]) {
+							if (clauseMarks[clauseIndex] == candidateMark) {
+								clauseMarks[clauseIndex] = visitedMark;
+								clauseBuffer[clauseCount++] = clauseIndex;
+							}
+						}
+					}
+				}
+			}
+			final int[] componentVariables = Arrays.copyOf(variableBuffer, variableCount);
+			final int[] componentClauses = Arrays.copyOf(clauseBuffer, clauseCount);
+			Arrays.sort(componentVariables);
+			Arrays.sort(componentClauses);
+			components.add(new Component(componentVariables, componentClauses));
+		}
+		return components;
+	}
+
+	/**
+	 * Selects the unassigned variable with the most occurrences in the unsatisfied clauses of a component.
+	 */
+	private int selectVariable(Component component) {
+		for (final int clauseIndex : component.clauses) {
+			for (final int literal : clauses[clauseIndex]) {
+				scores[Math.abs(literal)]++;
+			}
+		}
+		int bestVariable = 0;
+		int bestScore = -1;
+		for (final int variable : component.variables) {
+			if (scores[variable] > bestScore) {
+				bestScore = scores[variable];
+				bestVariable = variable;
+			}
+		}
+		for (final int clauseIndex : component.clauses) {
+			for (final int literal : clauses[clauseIndex]) {
+				scores[Math.abs(literal)] = 0;
+			}
+		}
+		return bestVariable;
+	}
+
+	private boolean assign(int literal) {
+		final int variable = Math.abs(literal);
+		final int value = values[variable];
+		if (value != 0) {
+			return (value > 0) == (literal > 0);
+		}
+		values[variable] = (byte) (literal > 0 ? 1 : -1);
+		trail[trailSize++] = literal;
+		return true;
+	}
+
+	private boolean propagate(int start) {
+		for (int i = start; i < trailSize; i++) {
+			for (final int clauseIndex : occurrences[getLiteralIndex(-trail[i])]) {
+				int unassignedLiteral = 0;
+				int unassignedCount = 0;
+				boolean satisfied = false;
+				for (final int literal : clauses[clauseIndex]) {
+					final int value = values[Math.abs(literal)];
+					if (value == 0) {
+						unassignedLiteral = literal;
+						unassignedCount++;
+					} else if ((value > 0) == (literal > 0)) {
+						satisfied = true;
+						break;
+					}
+				}
+				if (!satisfied) {
+					if (unassignedCount == 0) {
+						return false;
+					} else if (unassignedCount == 1) {
+						assign(unassignedLiteral);
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	private void undo(int size) {
+		while (trailSize > size) {
+			values[Math.abs(trail[--trailSize])] = 0;
+		}
+	}
+
+	private boolean isSatisfied(int[] clause) {
+		for (final int literal : clause) {
+			final int value = values[Math.abs(literal)];
+			if ((value != 0) && ((value > 0) == (literal > 0))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private int nextMark() {
+		if (mark == Integer.MAX_VALUE) {
+			Arrays.fill(clauseMarks, 0);
+			Arrays.fill(variableMarks, 0);
+			mark = 0;
+		}
+		return ++mark;
+	}
+
+	private boolean checkTimeout() {
+		if (!timeoutOccured && ((++steps % CHECK_INTERVAL) == 0)) {
+			if (monitor != null) {
+				monitor.checkCancel();
+			}
+			if (System.currentTimeMillis() > deadline) {
+				timeoutOccured = true;
+			}
+		}
+		return timeoutOccured;
+	}
+
+	public boolean hasTimeoutOccured() {
+		return timeoutOccured;
+	}
+
+	public long getTimeout() {
+		return timeout;
+	}
+
+	/**
+	 * Sets the timeout for a single search.
+	 *
+	 * @param timeout timeout in milliseconds (a value less than or equal to zero disables the timeout)
+	 */
+	public void setTimeout(long timeout) {
+		this.timeout = timeout;
+	}
+
+	public void setMonitor(IMonitor monitor) {
+		this.monitor = monitor;
+	}
+
+	public int getMaxCacheSize() {
+		return maxCacheSize;
+	}
+
+	public void setMaxCacheSize(int maxCacheSize) {
+		this.maxCacheSize = maxCacheSize;
+	}
+
+	public void clearCache() {
+		cache.clear();
+	}
+
+}
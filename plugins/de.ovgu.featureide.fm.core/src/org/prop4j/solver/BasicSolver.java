@@ -90,8 +90,9 @@ public class BasicSolver implements ISatSolver {
 		final int size = satInstance.getNumberOfVariables();
 		if (size > 0) {
 			solver.newVar(size);
-			solver.setExpectedNumberOfClauses(satInstance.getCnf().getChildren().length + 1);
-			addCNF(satInstance.getCnf().getChildren());
+			final ClauseStore clauses = satInstance.getClauses();
+			solver.setExpectedNumberOfClauses(clauses.getNumberOfClauses() + 1);
+			addClauses(clauses);
 			final VecInt pseudoClause = new VecInt(size + 1);
 			for (int i = 1; i <= size; i++) {
 				pseudoClause.push(i);
@@ -111,6 +112,13 @@ public class BasicSolver implements ISatSolver {
 		return solver;
 	}
 
+	/**
+	 * Adds the clauses of the {@link SatInstance} to the solver.
+	 */
+	protected void addClauses(ClauseStore clauses) throws ContradictionException {
+		clauses.addTo(solver, null);
+	}
+
 	@Override
 	public List<IConstr> addClauses(Node constraint) throws ContradictionException {
 		return addCNF(constraint.getChildren());
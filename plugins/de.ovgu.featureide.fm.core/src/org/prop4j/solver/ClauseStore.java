@@ -0,0 +1,145 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.prop4j.And;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Or;
+import org.sat4j.core.VecInt;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.IConstr;
+import org.sat4j.specs.ISolver;
+
+/**
+ * Compact representation of a formula in CNF.</br> All literals are stored in one array. The clause with index {@code i} consists of the literals from
+ * {@link #getClauseStart(int) getClauseStart(i)} (inclusive) to {@link #getClauseEnd(int) getClauseEnd(i)} (exclusive). Instances are immutable, such that
+ * they can be shared by any number of solvers.
+ */
+public class ClauseStore {
+
+	private final int[] literals;
+	private final int[] clauseOffsets;
+
+	/**
+	 * Converts a formula in CNF.
+	 *
+	 * @param cnf an {@link And} node of clauses, a single clause, or a single {@link Literal}
+	 * @param varToInt the mapping from variable objects to indices
+	 *
+	 * @throws ClassCastException if the formula is not in CNF
+	 */
+	public ClauseStore(Node cnf, Map<Object, Integer> varToInt) {
+		final Node[] clauses = (cnf instanceof And) ? cnf.getChildren() : new Node[] { cnf };
+
+		int numberOfLiterals = 0;
+		for (final Node clause : clauses) {
+			numberOfLiterals += (clause instanceof Literal) ? 1 : ((Or) clause).getChildren().length;
+		}
+
+		literals = new int[numberOfLiterals];
+		clauseOffsets = new int[clauses.length + 1];
+		int index = 0;
+		for (int i = 0; i < clauses.length; i++) {
+			final Node clause = clauses[i];
+			clauseOffsets[i] = index;
+			if (clause instanceof Literal) {
+				literals[index++] = getLiteral((Literal) clause, varToInt);
+			} else {
+				for (final Node literal : clause.getChildren()) {
+					literals[index++] = getLiteral((Literal) literal, varToInt);
+				}
+			}
+		}
+		clauseOffsets[clauses.length] = index;
+	}
+
+	private static int getLiteral(Literal literal, Map<Object, Integer> varToInt) {
+		final int variable = varToInt.get(literal.var);
+		return literal.positive ? variable : -variable;
+	}
+
+	public int getNumberOfClauses() {
+		return clauseOffsets.length - 1;
+	}
+
+	public int getNumberOfLiterals() {
+		return literals.length;
+	}
+
+	public int getClauseStart(int clauseIndex) {
+		return clauseOffsets[clauseIndex];
+	}
+
+	public int getClauseEnd(int clauseIndex) {
+		return clauseOffsets[clauseIndex + 1];
+	}
+
+	public int getClauseLength(int clauseIndex) {
+		return clauseOffsets[clauseIndex + 1] - clauseOffsets[clauseIndex];
+	}
+
+	/**
+	 * @return a copy of the literals of the given clause
+	 */
+	public int[] getClause(int clauseIndex) {
+		return Arrays.copyOfRange(literals, clauseOffsets[clauseIndex], clauseOffsets[clauseIndex + 1]);
+	}
+
+	public int getLiteral(int literalIndex) {
+		return literals[literalIndex];
+	}
+
+	/**
+	 * Adds all clauses to the given solver. A single buffer is used for all clauses.
+	 *
+	 * @param solver the solver
+	 * @param constraints a list to which the created constraints are added (may be {@code null})
+	 *
+	 * @throws ContradictionException if the solver detects a contradiction
+	 */
+	public void addTo(ISolver solver, List<IConstr> constraints) throws ContradictionException {
+		final VecInt clause = new VecInt(getMaxClauseLength());
+		for (int i = 0; i < clauseOffsets.length - 1; i++) {
+			clause.clear();
+			for (int j = clauseOffsets[i]; j < clauseOffsets[i + 1]; j++) {
+				clause.unsafePush(literals[j]);
+			}
+			final IConstr constraint = solver.addClause(clause);
+			if (constraints != null) {
+				constraints.add(constraint);
+			}
+		}
+	}
+
+	private int getMaxClauseLength() {
+		int maxLength = 0;
+		for (int i = 0; i < clauseOffsets.length - 1; i++) {
+			maxLength = Math.max(maxLength, clauseOffsets[i + 1] - clauseOffsets[i]);
+		}
+		return maxLength;
+	}
+
+}
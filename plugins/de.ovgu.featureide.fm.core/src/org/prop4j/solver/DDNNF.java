@@ -0,0 +1,335 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A propositional formula compiled into a smooth, deterministic, decomposable negation normal form (d-DNNF).</br> Use a {@link DDNNFCompiler} to create an
+ * instance from a {@link SatInstance}. All queries run in linear time with respect to the size of the compiled formula and do not require a SAT solver.
+ * Queries can be conditioned on a set of assumptions.
+ *
+ * @see DDNNFCompiler
+ */
+public class DDNNF {
+
+	public static final byte LITERAL = 0;
+	public static final byte AND = 1;
+	public static final byte OR = 2;
+
+	private final SatInstance satInstance;
+	private final int numberOfVariables;
+
+	private final byte[] types;
+	private final int[] literals;
+	private final int[][] children;
+	private final int root;
+
+	/**
+	 * Creates a new d-DNNF. The children of each node must have a lower index than the node itself.
+	 */
+	DDNNF(SatInstance satInstance, byte[] types, int[] literals, int[][] children, int root) {
+		this.satInstance = satInstance;
+		numberOfVariables = satInstance.getNumberOfVariables();
+		this.types = types;
+		this.literals = literals;
+		this.children = children;
+		this.root = root;
+	}
+
+	public SatInstance getSatInstance() {
+		return satInstance;
+	}
+
+	public int getNumberOfVariables() {
+		return numberOfVariables;
+	}
+
+	public int getNumberOfNodes() {
+		return root + 1;
+	}
+
+	public boolean isSatisfiable() {
+		return isSatisfiable(new int[0]);
+	}
+
+	public boolean isSatisfiable(int[] assumptions) {
+		return computeSatisfiable(getAssumptionValues(assumptions))[root];
+	}
+
+	public BigInteger count() {
+		return count(new int[0]);
+	}
+
+	/**
+	 * Counts all solutions that satisfy the given assumptions.
+	 *
+	 * @param assumptions literals that are fixed for all counted solutions
+	 *
+	 * @return the exact number of solutions
+	 */
+	public BigInteger count(int[] assumptions) {
+		return computeCounts(getAssumptionValues(assumptions))[root];
+	}
+
+	/**
+	 * Computes all literals that are implied by the formula and the given assumptions (i.e., all (conditionally) core and dead variables).
+	 *
+	 * @param assumptions literals that are fixed
+	 *
+	 * @return all implied literals of variables that are not contained in the assumptions</br> or an empty array if the assumptions are contradicting
+	 */
+	public int[] getCoreDead(int[] assumptions) {
+		final byte[] assumptionValues = getAssumptionValues(assumptions);
+		final boolean[] satisfiable = computeSatisfiable(assumptionValues);
+		if (!satisfiable[root]) {
+			return new int[0];
+		}
+
+		final boolean[] reachable = new boolean[root + 1];
+		final boolean[] possibleLiterals = new boolean[(numberOfVariables + 1) << 1];
+		reachable[root] = true;
+		for (int i = root; i >= 0; i--) {
+			if (reachable[i]) {
+				switch (types[i]) {
+				case LITERAL:
+					possibleLiterals[getLiteralIndex(literals[i])] = true;
+					break;
+				case AND:
+					for (final int child : children[i]) {
+						reachable[child] = true;
+					}
+					break;
+				case OR:
+					for (final int child : children[i]) {
+						if (satisfiable[child]) {
+							reachable[child] = true;
+						}
+					}
+					break;
+				default:
+					throw new AssertionError(types[i]);
+				}
+			}
+		}
+
+		final int[] impliedLiterals = new int[numberOfVariables];
+		int size = 0;
+		for (int variable = 1; variable <= numberOfVariables; variable++) {
+			if (assumptionValues[variable] == 0) {
+				final boolean positive = possibleLiterals[getLiteralIndex(variable)];
+				final boolean negative = possibleLiterals[getLiteralIndex(-variable)];
+				if (positive != negative) {
+					impliedLiterals[size++] = positive ? variable : -variable;
+				}
+			}
+		}
+		return Arrays.copyOf(impliedLiterals, size);
+	}
+
+	/**
+	 * Returns an arbitrary solution that satisfies the given assumptions.
+	 *
+	 * @return a solution in the same format as {@link ISatSolver#getModel()} or {@code null} if there is none
+	 */
+	public int[] getSolution(int[] assumptions) {
+		final byte[] assumptionValues = getAssumptionValues(assumptions);
+		final boolean[] satisfiable = computeSatisfiable(assumptionValues);
+		if (!satisfiable[root]) {
+			return null;
+		}
+
+		final int[] solution = new int[numberOfVariables];
+		final int[] stack = new int[root + 1];
+		int stackSize = 0;
+		stack[stackSize++] = root;
+		while (stackSize > 0) {
+			final int node = stack[--stackSize];
+			switch (types[node]) {
+			case LITERAL:
+				solution[Math.abs(literals[node]) - 1] = literals[node];
+				break;
+			case AND:
+				for (final int child : children[node]) {
+					stack[stackSize++] = child;
+				}
+				break;
+			case OR:
+				for (final int child : children[node]) {
+					if (satisfiable[child]) {
+						stack[stackSize++] = child;
+						break;
+					}
+				}
+				break;
+			default:
+				throw new AssertionError(types[node]);
+			}
+		}
+		return solution;
+	}
+
+	/**
+	 * Returns a solution that satisfies the given assumptions. Each solution is chosen with the same probability.
+	 *
+	 * @return a solution in the same format as {@link ISatSolver#getModel()} or {@code null} if there is none
+	 *
+	 * @see #getSampler(int[])
+	 */
+	public int[] getRandomSolution(Random random, int[] assumptions) {
+		return getSampler(assumptions).getRandomSolution(random);
+	}
+
+	/**
+	 * Returns several solutions that satisfy the given assumptions. Each solution is chosen independently with the same probability (i.e., the result may
+	 * contain duplicates).
+	 *
+	 * @param random the source of randomness
+	 * @param assumptions literals that are fixed for all solutions
+	 * @param numberOfSolutions the number of solutions to create
+	 *
+	 * @return a list of solutions in the same format as {@link ISatSolver#getModel()} (empty, if there is no solution)
+	 *
+	 * @see #getSampler(int[])
+	 */
+	public List<int[]> getRandomSolutions(Random random, int[] assumptions, int numberOfSolutions) {
+		final UniformSampler sampler = getSampler(assumptions);
+		if (sampler.getNumberOfSolutions().signum() == 0) {
+			return new ArrayList<>(0);
+		}
+		final List<int[]> solutions = new ArrayList<>(numberOfSolutions);
+		for (int i = 0; i < numberOfSolutions; i++) {
+			solutions.add(sampler.getRandomSolution(random));
+		}
+		return solutions;
+	}
+
+	/**
+	 * Creates a sampler for the solutions that satisfy the given assumptions. The solution counts are computed once for all samples.
+	 *
+	 * @param assumptions literals that are fixed for all solutions
+	 *
+	 * @return a sampler that draws solutions uniformly at random
+	 */
+	public UniformSampler getSampler(int[] assumptions) {
+		return new UniformSampler(this, computeCounts(getAssumptionValues(assumptions)));
+	}
+
+	byte getType(int node) {
+		return types[node];
+	}
+
+	int getLiteral(int node) {
+		return literals[node];
+	}
+
+	int[] getChildren(int node) {
+		return children[node];
+	}
+
+	private byte[] getAssumptionValues(int[] assumptions) {
+		final byte[] assumptionValues = new byte[numberOfVariables + 1];
+		for (final int assumption : assumptions) {
+			if (assumption != 0) {
+				final int variable = Math.abs(assumption);
+				final byte value = (byte) (assumption > 0 ? 1 : -1);
+				// contradicting assumptions are marked by an invalid value
+				assumptionValues[variable] = ((assumptionValues[variable] == 0) || (assumptionValues[variable] == value)) ? value : 2;
+			}
+		}
+		return assumptionValues;
+	}
+
+	private boolean[] computeSatisfiable(byte[] assumptionValues) {
+		final boolean[] satisfiable = new boolean[root + 1];
+		nodeLoop: for (int i = 0; i <= root; i++) {
+			switch (types[i]) {
+			case LITERAL:
+				satisfiable[i] = isCompatible(literals[i], assumptionValues);
+				break;
+			case AND:
+				for (final int child : children[i]) {
+					if (!satisfiable[child]) {
+						continue nodeLoop;
+					}
+				}
+				satisfiable[i] = true;
+				break;
+			case OR:
+				for (final int child : children[i]) {
+					if (satisfiable[child]) {
+						satisfiable[i] = true;
+						continue nodeLoop;
+					}
+				}
+				break;
+			default:
+				throw new AssertionError(types[i]);
+			}
+		}
+		return satisfiable;
+	}
+
+	private BigInteger[] computeCounts(byte[] assumptionValues) {
+		final BigInteger[] counts = new BigInteger[root + 1];
+		for (int i = 0; i <= root; i++) {
+			switch (types[i]) {
+			case LITERAL:
+				counts[i] = isCompatible(literals[i], assumptionValues) ? BigInteger.ONE : BigInteger.ZERO;
+				break;
+			case AND:
+				BigInteger product = BigInteger.ONE;
+				for (final int child : children[i]) {
+					product = product.multiply(counts[child]);
+					if (product.signum() == 0) {
+						break;
+					}
+				}
+				counts[i] = product;
+				break;
+			case OR:
+				BigInteger sum = BigInteger.ZERO;
+				for (final int child : children[i]) {
+					sum = sum.add(counts[child]);
+				}
+				counts[i] = sum;
+				break;
+			default:
+				throw new AssertionError(types[i]);
+			}
+		}
+		return counts;
+	}
+
+	private static boolean isCompatible(int literal, byte[] assumptionValues) {
+		final byte value = assumptionValues[Math.abs(literal)];
+		return (value == 0) || ((value == 1) && (literal > 0)) || ((value == -1) && (literal < 0));
+	}
+
+	private static int getLiteralIndex(int literal) {
+		return literal > 0 ? (literal << 1) : ((-literal << 1) + 1);
+	}
+
+}
@@ -0,0 +1,184 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compiles a {@link SatInstance} into a {@link DDNNF}.</br> Uses the same component-based search as the {@link ModelCounter}, but records the search space
+ * as a decision-DNNF instead of counting it. Each decision becomes an OR node and each set of independent components becomes an AND node. Variables that are
+ * not constrained anymore are represented explicitly, such that the resulting d-DNNF is smooth.
+ */
+public class DDNNFCompiler extends AComponentSearch<Integer> {
+
+	public static final long DEFAULT_TIMEOUT = 30000;
+	public static final int DEFAULT_MAX_NUMBER_OF_NODES = 1 << 22;
+
+	private static final class NodeLimitException extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+	}
+
+	private final SatInstance satInstance;
+
+	private byte[] types = new byte[1024];
+	private int[] nodeLiterals = new int[1024];
+	private int[][] nodeChildren = new int[1024][];
+	private int numberOfNodes = 0;
+
+	private final int[] literalNodes;
+	private final int[] freeVariableNodes;
+
+	private int trueNode;
+	private int falseNode;
+
+	private int maxNumberOfNodes = DEFAULT_MAX_NUMBER_OF_NODES;
+
+	public DDNNFCompiler(SatInstance satInstance) {
+		super(satInstance);
+		this.satInstance = satInstance;
+		literalNodes = new int[(numberOfVariables + 1) << 1];
+		freeVariableNodes = new int[numberOfVariables + 1];
+		setTimeout(DEFAULT_TIMEOUT);
+	}
+
+	/**
+	 * Compiles the formula.
+	 *
+	 * @return the compiled formula or {@code null} if a timeout occurred or the maximum number of nodes was exceeded
+	 */
+	public DDNNF compile() {
+		reset();
+		clearCache();
+		try {
+			final int root = search(new int[0]);
+			if (hasTimeoutOccured()) {
+				return null;
+			}
+			return new DDNNF(satInstance, Arrays.copyOf(types, numberOfNodes), Arrays.copyOf(nodeLiterals, numberOfNodes),
+					Arrays.copyOf(nodeChildren, numberOfNodes), root);
+		} catch (final NodeLimitException e) {
+			return null;
+		} finally {
+			clearCache();
+			reset();
+		}
+	}
+
+	public int getMaxNumberOfNodes() {
+		return maxNumberOfNodes;
+	}
+
+	public void setMaxNumberOfNodes(int maxNumberOfNodes) {
+		this.maxNumberOfNodes = maxNumberOfNodes;
+	}
+
+	private void reset() {
+		types = new byte[1024];
+		nodeLiterals = new int[1024];
+		nodeChildren = new int[1024][];
+		numberOfNodes = 0;
+		Arrays.fill(literalNodes, -1);
+		Arrays.fill(freeVariableNodes, -1);
+		trueNode = addNode(DDNNF.AND, 0, new int[0]);
+		falseNode = addNode(DDNNF.OR, 0, new int[0]);
+	}
+
+	private int addNode(byte type, int literal, int[] children) {
+		if (numberOfNodes >= maxNumberOfNodes) {
+			throw new NodeLimitException();
+		}
+		if (numberOfNodes == types.length) {
+			final int newLength = types.length << 1;
+			types = Arrays.copyOf(types, newLength);
+			nodeLiterals = Arrays.copyOf(nodeLiterals, newLength);
+			nodeChildren = Arrays.copyOf(nodeChildren, newLength);
+		}
+		types[numberOfNodes] = type;
+		nodeLiterals[numberOfNodes] = literal;
+		nodeChildren[numberOfNodes] = children;
+		return numberOfNodes++;
+	}
+
+	private int getLiteralNode(int literal) {
+		final int index = literal > 0 ? (literal << 1) : ((-literal << 1) + 1);
+		int node = literalNodes[index];
+		if (node < 0) {
+			node = addNode(DDNNF.LITERAL, literal, new int[0]);
+			literalNodes[index] = node;
+		}
+		return node;
+	}
+
+	private int getFreeVariableNode(int variable) {
+		int node = freeVariableNodes[variable];
+		if (node < 0) {
+			node = addNode(DDNNF.OR, 0, new int[] { getLiteralNode(variable), getLiteralNode(-variable) });
+			freeVariableNodes[variable] = node;
+		}
+		return node;
+	}
+
+	@Override
+	protected Integer getContradiction() {
+		return falseNode;
+	}
+
+	@Override
+	protected boolean isContradiction(Integer result) {
+		return result == falseNode;
+	}
+
+	@Override
+	protected Integer conjoin(int[] literals, int[] freeVariables, List<Integer> components) {
+		final int[] children = new int[literals.length + freeVariables.length + components.size()];
+		int i = 0;
+		for (final int literal : literals) {
+			children[i++] = getLiteralNode(literal);
+		}
+		for (final int variable : freeVariables) {
+			children[i++] = getFreeVariableNode(variable);
+		}
+		for (final int component : components) {
+			children[i++] = component;
+		}
+		switch (children.length) {
+		case 0:
+			return trueNode;
+		case 1:
+			return children[0];
+		default:
+			return addNode(DDNNF.AND, 0, children);
+		}
+	}
+
+	@Override
+	protected Integer decide(int variable, Integer positive, Integer negative) {
+		if (positive == falseNode) {
+			return negative;
+		} else if (negative == falseNode) {
+			return positive;
+		} else {
+			return addNode(DDNNF.OR, 0, new int[] { positive, negative });
+		}
+	}
+
+}
@@ -0,0 +1,83 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * Computes the exact number of solutions for a {@link SatInstance} (#SAT).</br> Uses a DPLL search with unit propagation that splits the remaining formula
+ * into independent components after each decision. The number of solutions of each component is stored in a cache, such that equal sub-formulas are only
+ * counted once.
+ */
+public class ModelCounter extends AComponentSearch<BigInteger> {
+
+	public ModelCounter(SatInstance satInstance) {
+		super(satInstance);
+	}
+
+	/**
+	 * Counts all solutions.
+	 *
+	 * @see #count(int[])
+	 */
+	public BigInteger count() {
+		return count(new int[0]);
+	}
+
+	/**
+	 * Counts all solutions that satisfy the given assumptions.
+	 *
+	 * @param assumptions literals that are fixed for all counted solutions
+	 *
+	 * @return the exact number of solutions</br> or a negative value (if a timeout occurred) that indicates that there are more solutions than the absolute
+	 *         value minus one
+	 */
+	public BigInteger count(int[] assumptions) {
+		final BigInteger result = search(assumptions);
+		return hasTimeoutOccured() ? BigInteger.ONE.negate().subtract(result) : result;
+	}
+
+	@Override
+	protected BigInteger getContradiction() {
+		return BigInteger.ZERO;
+	}
+
+	@Override
+	protected boolean isContradiction(BigInteger result) {
+		return result.signum() == 0;
+	}
+
+	@Override
+	protected BigInteger conjoin(int[] literals, int[] freeVariables, List<BigInteger> components) {
+		BigInteger result = BigInteger.ONE.shiftLeft(freeVariables.length);
+		for (final BigInteger component : components) {
+			result = result.multiply(component);
+		}
+		return result;
+	}
+
+	@Override
+	protected BigInteger decide(int variable, BigInteger positive, BigInteger negative) {
+		return positive.add(negative);
+	}
+
+}
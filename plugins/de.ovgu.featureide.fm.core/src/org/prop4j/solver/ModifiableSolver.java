@@ -63,6 +63,14 @@ public class ModifiableSolver extends BasicSolver {
 		return solver;
 	}
 
+	@Override
+	protected void addClauses(ClauseStore clauses) throws ContradictionException {
+		if (constrList == null) {
+			constrList = new ArrayList<>(clauses.getNumberOfClauses());
+		}
+		clauses.addTo(solver, constrList);
+	}
+
 	public List<IConstr> addCNF(final Collection<? extends Clause> cnfChildren) throws ContradictionException {
 		if (constrList == null) {
 			constrList = new ArrayList<>();
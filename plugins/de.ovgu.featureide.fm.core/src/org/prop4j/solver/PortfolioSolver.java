@@ -0,0 +1,582 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.sat4j.core.LiteralsUtils;
+import org.sat4j.core.VecInt;
+import org.sat4j.minisat.core.IPhaseSelectionStrategy;
+import org.sat4j.minisat.core.RestartStrategy;
+import org.sat4j.minisat.core.Solver;
+import org.sat4j.minisat.orders.NegativeLiteralSelectionStrategy;
+import org.sat4j.minisat.orders.PositiveLiteralSelectionStrategy;
+import org.sat4j.minisat.orders.RSATPhaseSelectionStrategy;
+import org.sat4j.minisat.orders.RandomLiteralSelectionStrategy;
+import org.sat4j.minisat.restarts.ArminRestarts;
+import org.sat4j.minisat.restarts.LubyRestarts;
+import org.sat4j.minisat.restarts.MiniSATRestarts;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.IConstr;
+import org.sat4j.specs.ISolver;
+import org.sat4j.specs.ISolverService;
+import org.sat4j.specs.IVec;
+import org.sat4j.specs.IVecInt;
+import org.sat4j.specs.SearchListener;
+import org.sat4j.specs.TimeoutException;
+import org.sat4j.specs.UnitClauseProvider;
+import org.sat4j.specs.UnitPropagationListener;
+import org.sat4j.tools.SearchListenerAdapter;
+import org.sat4j.tools.SolverDecorator;
+
+import de.ovgu.featureide.fm.core.Logger;
+
+/**
+ * Solves a satisfiability problem with a portfolio of differently configured solvers.</br> The solver used by the calling thread is configured like a
+ * {@link BasicSolver} (e.g., by {@link #setSelectionStrategy(SelectionStrategy)}). The other solvers use different phase selection strategies, restart
+ * strategies, and variable orders and run on a shared executor with a bounded number of threads. The first answer is taken and all other solvers are canceled.
+ * Learned unit clauses are shared between all solvers of a portfolio. Therefore, constraints that are added by {@link #addClauses(Node)} or to the
+ * {@link #getInternalSolver() internal solver} are added to all solvers.
+ */
+public class PortfolioSolver extends BasicSolver {
+
+	public static final int DEFAULT_NUMBER_OF_SOLVERS;
+	private static final int NUMBER_OF_THREADS;
+	static {
+		final int processors = Runtime.getRuntime().availableProcessors();
+		NUMBER_OF_THREADS = Math.max(1, processors - 1);
+		DEFAULT_NUMBER_OF_SOLVERS = Math.min(4, processors);
+	}
+
+	/**
+	 * Lazily creates the executor that is shared by all portfolios.
+	 */
+	private static final class ExecutorHolder {
+		private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(NUMBER_OF_THREADS, new ThreadFactory() {
+
+			private final AtomicInteger count = new AtomicInteger();
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				final Thread thread = new Thread(runnable, "PortfolioSolver-" + count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	private static final class Decision {
+
+		private final SatResult result;
+		private final int[] model;
+
+		public Decision(SatResult result, int[] model) {
+			this.result = result;
+			this.model = model;
+		}
+
+	}
+
+	/**
+	 * The state of a single call of {@link PortfolioSolver#isSatisfiable()}.
+	 */
+	private static final class Race {
+
+		private final AtomicReference<Decision> decision = new AtomicReference<>();
+		private final CountDownLatch finished = new CountDownLatch(1);
+		private final AtomicInteger remaining;
+
+		public Race(int numberOfSolvers) {
+			remaining = new AtomicInteger(numberOfSolvers);
+		}
+
+		public boolean isDecided() {
+			return decision.get() != null;
+		}
+
+		public boolean decide(SatResult result, int[] model) {
+			if (decision.compareAndSet(null, new Decision(result, model))) {
+				finished.countDown();
+				return true;
+			}
+			return false;
+		}
+
+		public void solverFinished() {
+			if (remaining.decrementAndGet() == 0) {
+				finished.countDown();
+			}
+		}
+
+	}
+
+	/**
+	 * A single solver of the portfolio.
+	 */
+	private final class Member extends SearchListenerAdapter<ISolverService> implements UnitClauseProvider, Runnable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Solver<?> memberSolver;
+		private final ConcurrentLinkedQueue<Integer> sharedUnits = new ConcurrentLinkedQueue<>();
+		private final AtomicBoolean busy = new AtomicBoolean(false);
+		private final VecInt memberAssumptions = new VecInt();
+		private volatile Race race = null;
+
+		public Member(Solver<?> memberSolver) {
+			this.memberSolver = memberSolver;
+			memberSolver.setSearchListener(this);
+			memberSolver.setUnitClauseProvider(this);
+		}
+
+		public void prepare(Race race) {
+			this.race = race;
+			memberAssumptions.clear();
+			assignment.copyTo(memberAssumptions);
+		}
+
+		@Override
+		public void run() {
+			final Race currentRace = race;
+			try {
+				if (!currentRace.isDecided()) {
+					final boolean satisfiable = memberSolver.isSatisfiable(memberAssumptions, globalTimeout);
+					if (currentRace.decide(satisfiable ? SatResult.TRUE : SatResult.FALSE, satisfiable ? memberSolver.model() : null)) {
+						PortfolioSolver.this.cancel(currentRace);
+					}
+				}
+			} catch (final TimeoutException e) {
+				// canceled or not solved in time
+			} finally {
+				race = null;
+				busy.set(false);
+				currentRace.solverFinished();
+			}
+		}
+
+		public void cancel() {
+			memberSolver.expireTimeout();
+		}
+
+		@Override
+		public void beginLoop() {
+			final Race currentRace = race;
+			if ((currentRace != null) && currentRace.isDecided()) {
+				memberSolver.expireTimeout();
+			}
+		}
+
+		@Override
+		public void learnUnit(int p) {
+			for (final Member member : members) {
+				if (member != this) {
+					member.sharedUnits.offer(p);
+				}
+			}
+		}
+
+		@Override
+		public void provideUnitClauses(UnitPropagationListener upl) {
+			for (Integer unit = sharedUnits.poll(); unit != null; unit = sharedUnits.poll()) {
+				upl.enqueue(LiteralsUtils.toInternal(unit));
+			}
+		}
+
+	}
+
+	/**
+	 * Adds one constraint to a solver.
+	 */
+	private interface ConstraintFactory {
+
+		IConstr add(ISolver solver, IVecInt literals) throws ContradictionException;
+
+	}
+
+	/**
+	 * The internal solver of a portfolio. Queries are answered by the solver of the calling thread. Constraints are added to and removed from all solvers of
+	 * the portfolio.
+	 */
+	private final class InternalSolver extends SolverDecorator<ISolver> {
+
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * The constraints of the other solvers for each constraint of the solver of the calling thread.
+		 */
+		private final Map<IConstr, IConstr[]> helperConstraints = new IdentityHashMap<>();
+
+		public InternalSolver(ISolver primarySolver) {
+			super(primarySolver);
+		}
+
+		private IConstr addToAll(IVecInt literals, ConstraintFactory factory) throws ContradictionException {
+			// the solvers may reorder the given literals
+			final int[] constraintLiterals = Arrays.copyOf(literals.toArray(), literals.size());
+			final IConstr constraint = factory.add(decorated(), new VecInt(Arrays.copyOf(constraintLiterals, constraintLiterals.length)));
+			final IConstr[] memberConstraints = new IConstr[members.length];
+			for (int i = 1; i < members.length; i++) {
+				final Member member = members[i];
+				while (!member.busy.compareAndSet(false, true)) {
+					Thread.yield();
+				}
+				try {
+					memberConstraints[i] = factory.add(member.memberSolver, new VecInt(Arrays.copyOf(constraintLiterals, constraintLiterals.length)));
+				} finally {
+					member.busy.set(false);
+				}
+			}
+			if (constraint != null) {
+				synchronized (helperConstraints) {
+					helperConstraints.put(constraint, memberConstraints);
+				}
+			}
+			return constraint;
+		}
+
+		private boolean removeFromAll(IConstr constraint, boolean subsumed) {
+			final boolean removed = subsumed ? decorated().removeSubsumedConstr(constraint) : decorated().removeConstr(constraint);
+			final IConstr[] memberConstraints;
+			synchronized (helperConstraints) {
+				memberConstraints = helperConstraints.remove(constraint);
+			}
+			if (memberConstraints != null) {
+				for (int i = 1; i < members.length; i++) {
+					final Member member = members[i];
+					if (memberConstraints[i] != null) {
+						while (!member.busy.compareAndSet(false, true)) {
+							Thread.yield();
+						}
+						try {
+							if (subsumed) {
+								member.memberSolver.removeSubsumedConstr(memberConstraints[i]);
+							} else {
+								member.memberSolver.removeConstr(memberConstraints[i]);
+							}
+						} finally {
+							member.busy.set(false);
+						}
+					}
+				}
+			}
+			return removed;
+		}
+
+		@Override
+		public IConstr addClause(IVecInt literals) throws ContradictionException {
+			return addToAll(literals, new ConstraintFactory() {
+
+				@Override
+				public IConstr add(ISolver solver, IVecInt literals) throws ContradictionException {
+					return solver.addClause(literals);
+				}
+			});
+		}
+
+		@Override
+		public void addAllClauses(IVec<IVecInt> clauses) throws ContradictionException {
+			for (int i = 0; i < clauses.size(); i++) {
+				addClause(clauses.get(i));
+			}
+		}
+
+		@Override
+		public IConstr addBlockingClause(IVecInt literals) throws ContradictionException {
+			return addToAll(literals, new ConstraintFactory() {
+
+				@Override
+				public IConstr add(ISolver solver, IVecInt literals) throws ContradictionException {
+					return solver.addBlockingClause(literals);
+				}
+			});
+		}
+
+		@Override
+		public IConstr addAtMost(IVecInt literals, final int degree) throws ContradictionException {
+			return addToAll(literals, new ConstraintFactory() {
+
+				@Override
+				public IConstr add(ISolver solver, IVecInt literals) throws ContradictionException {
+					return solver.addAtMost(literals, degree);
+				}
+			});
+		}
+
+		@Override
+		public IConstr addAtLeast(IVecInt literals, final int degree) throws ContradictionException {
+			return addToAll(literals, new ConstraintFactory() {
+
+				@Override
+				public IConstr add(ISolver solver, IVecInt literals) throws ContradictionException {
+					return solver.addAtLeast(literals, degree);
+				}
+			});
+		}
+
+		@Override
+		public IConstr addExactly(IVecInt literals, final int degree) throws ContradictionException {
+			return addToAll(literals, new ConstraintFactory() {
+
+				@Override
+				public IConstr add(ISolver solver, IVecInt literals) throws ContradictionException {
+					return solver.addExactly(literals, degree);
+				}
+			});
+		}
+
+		@Override
+		public boolean removeConstr(IConstr constraint) {
+			return removeFromAll(constraint, false);
+		}
+
+		@Override
+		public boolean removeSubsumedConstr(IConstr constraint) {
+			return removeFromAll(constraint, true);
+		}
+
+		/**
+		 * Not supported, the portfolio uses the search listeners of its solvers to share learned units.
+		 *
+		 * @throws UnsupportedOperationException always
+		 */
+		@Override
+		public <S extends ISolverService> void setSearchListener(SearchListener<S> listener) {
+			throw new UnsupportedOperationException();
+		}
+
+		/**
+		 * Not supported, the portfolio uses the unit clause providers of its solvers to share learned units.
+		 *
+		 * @throws UnsupportedOperationException always
+		 */
+		@Override
+		public void setUnitClauseProvider(UnitClauseProvider provider) {
+			throw new UnsupportedOperationException();
+		}
+
+	}
+
+	private final Member[] members;
+	private final InternalSolver internalSolver;
+	private int[] lastModel = null;
+
+	public PortfolioSolver(SatInstance satInstance) throws ContradictionException {
+		this(satInstance, DEFAULT_NUMBER_OF_SOLVERS);
+	}
+
+	/**
+	 * @param satInstance the problem
+	 * @param numberOfSolvers the number of solvers in the portfolio (including the solver of the calling thread)
+	 */
+	public PortfolioSolver(SatInstance satInstance, int numberOfSolvers) throws ContradictionException {
+		super(satInstance);
+		members = createMembers(Math.max(1, numberOfSolvers));
+		internalSolver = new InternalSolver(solver);
+	}
+
+	protected PortfolioSolver(PortfolioSolver oldSolver) {
+		super(oldSolver);
+		try {
+			members = createMembers(oldSolver.members.length);
+		} catch (final ContradictionException e) {
+			Logger.logError(e);
+			throw new RuntimeException();
+		}
+		internalSolver = new InternalSolver(solver);
+	}
+
+	private Member[] createMembers(int numberOfSolvers) throws ContradictionException {
+		final Member[] members = new Member[numberOfSolvers];
+		members[0] = new Member(solver);
+		for (int i = 1; i < numberOfSolvers; i++) {
+			members[i] = new Member(createHelperSolver(i));
+		}
+		return members;
+	}
+
+	private Solver<?> createHelperSolver(int index) throws ContradictionException {
+		final Solver<?> helperSolver = initSolver();
+		final int size = satInstance.getNumberOfVariables();
+		if (size > 0) {
+			helperSolver.newVar(size);
+			final ClauseStore clauses = satInstance.getClauses();
+			helperSolver.setExpectedNumberOfClauses(clauses.getNumberOfClauses() + 1);
+			clauses.addTo(helperSolver, null);
+			final VecInt pseudoClause = new VecInt(size + 1);
+			for (int i = 1; i <= size; i++) {
+				pseudoClause.push(i);
+			}
+			pseudoClause.push(-1);
+			helperSolver.addClause(pseudoClause);
+		}
+
+		final IPhaseSelectionStrategy phaseStrategy;
+		final RestartStrategy restartStrategy;
+		switch (index % 4) {
+		case 1:
+			phaseStrategy = new NegativeLiteralSelectionStrategy();
+			restartStrategy = new LubyRestarts(512);
+			break;
+		case 2:
+			phaseStrategy = new PositiveLiteralSelectionStrategy();
+			restartStrategy = new MiniSATRestarts();
+			break;
+		case 3:
+			phaseStrategy = new RandomLiteralSelectionStrategy();
+			restartStrategy = new ArminRestarts();
+			break;
+		default:
+			phaseStrategy = new RSATPhaseSelectionStrategy();
+			restartStrategy = new LubyRestarts(32);
+			break;
+		}
+		final int[] helperOrder = new int[size];
+		for (int i = 0; i < size; i++) {
+			helperOrder[i] = i + 1;
+		}
+		final Random random = new Random(index);
+		for (int i = size - 1; i > 0; i--) {
+			final int swapIndex = random.nextInt(i + 1);
+			final int temp = helperOrder[swapIndex];
+			helperOrder[swapIndex] = helperOrder[i];
+			helperOrder[i] = temp;
+		}
+		helperSolver.setOrder(new VarOrderHeap2(phaseStrategy, helperOrder));
+		helperSolver.setRestartStrategy(restartStrategy);
+		helperSolver.getOrder().init();
+		return helperSolver;
+	}
+
+	private void cancel(Race race) {
+		for (final Member member : members) {
+			if (member.race == race) {
+				member.cancel();
+			}
+		}
+	}
+
+	@Override
+	public SatResult isSatisfiable() {
+		final List<Member> helpers = new ArrayList<>(members.length - 1);
+		for (int i = 1; i < members.length; i++) {
+			final Member member = members[i];
+			// skip helpers that did not yet recognize the end of the previous race
+			if (member.busy.compareAndSet(false, true)) {
+				helpers.add(member);
+			}
+		}
+
+		final Race race = new Race(helpers.size() + 1);
+		for (final Member helper : helpers) {
+			helper.prepare(race);
+			ExecutorHolder.EXECUTOR.execute(helper);
+		}
+
+		final Member primary = members[0];
+		primary.race = race;
+		try {
+			final boolean satisfiable = solver.isSatisfiable(assignment, globalTimeout);
+			if (race.decide(satisfiable ? SatResult.TRUE : SatResult.FALSE, satisfiable ? solver.model() : null)) {
+				cancel(race);
+			}
+		} catch (final TimeoutException e) {
+			// wait for the other solvers
+		} finally {
+			primary.race = null;
+			race.solverFinished();
+		}
+
+		try {
+			race.finished.await();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		final Decision decision = race.decision.get();
+		if (decision == null) {
+			timeoutOccured = true;
+			return SatResult.TIMEOUT;
+		}
+		lastModel = decision.model;
+		if ((lastModel != null) && (solutionList != null)) {
+			solutionList.add(lastModel);
+		}
+		return decision.result;
+	}
+
+	@Override
+	public int[] findModel() {
+		return isSatisfiable() == SatResult.TRUE ? Arrays.copyOf(lastModel, lastModel.length) : null;
+	}
+
+	@Override
+	public int[] getModel() {
+		return lastModel != null ? Arrays.copyOf(lastModel, lastModel.length) : null;
+	}
+
+	@Override
+	protected IConstr addClause(Node node) throws ContradictionException {
+		if (internalSolver == null) {
+			// called during construction
+			return super.addClause(node);
+		}
+		final Node[] children = node.getChildren();
+		final int[] clause = new int[children.length];
+		for (int i = 0; i < children.length; i++) {
+			clause[i] = satInstance.getSignedVariable((Literal) children[i]);
+		}
+		return internalSolver.addClause(new VecInt(clause));
+	}
+
+	/**
+	 * Returns a view of all solvers of the portfolio. Queries are answered by the solver of the calling thread, constraints are added to and removed from
+	 * all solvers. Thus, the returned solver cannot be cast to a specific solver implementation.
+	 */
+	@Override
+	public ISolver getInternalSolver() {
+		return internalSolver;
+	}
+
+	@Override
+	public PortfolioSolver clone() {
+		return new PortfolioSolver(this);
+	}
+
+	public int getNumberOfSolvers() {
+		return members.length;
+	}
+
+}
@@ -76,6 +76,11 @@ public class SatInstance {
 	protected final Object[] intToVar;
 	protected final Node cnf;
 
+	private volatile ClauseStore clauses = null;
+
+	private DDNNF ddnnf = null;
+	private boolean ddnnfCompiled = false;
+
 	public SatInstance(Node root, Collection<?> featureList) {
 		intToVar = new Object[featureList.size() + 1];
 		cnf = root;
@@ -176,6 +181,36 @@ public class SatInstance {
 		return cnf;
 	}
 
+	/**
+	 * Returns the clauses of this instance as a {@link ClauseStore}. The clauses are converted only once, subsequent calls return the same object.
+	 */
+	public ClauseStore getClauses() {
+		ClauseStore result = clauses;
+		if (result == null) {
+			synchronized (this) {
+				result = clauses;
+				if (result == null) {
+					result = new ClauseStore(cnf, varToInt);
+					clauses = result;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns this instance compiled into a {@link DDNNF}. The instance is compiled only once, subsequent calls return the same object.
+	 *
+	 * @return the compiled instance or {@code null} if the instance could not be compiled within the default limits of the {@link DDNNFCompiler}
+	 */
+	public synchronized DDNNF getDDNNF() {
+		if (!ddnnfCompiled) {
+			ddnnf = new DDNNFCompiler(this).compile();
+			ddnnfCompiled = true;
+		}
+		return ddnnf;
+	}
+
 	public int getNumberOfVariables() {
 		return intToVar.length - 1;
 	}
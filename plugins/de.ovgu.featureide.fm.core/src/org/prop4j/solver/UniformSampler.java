@@ -0,0 +1,354 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Draws solutions of a {@link DDNNF} uniformly at random.</br> The solution counts of all nodes are computed once. They define a bijection between the
+ * numbers from zero to the number of solutions (exclusive) and the solutions of the formula (see {@link #getSolution(BigInteger)}). Thus, a uniformly
+ * distributed index results in a uniformly distributed solution and distinct indices result in distinct solutions.</br> An instance is immutable after
+ * construction and can be used by multiple threads at the same time.
+ *
+ * @see DDNNF#getSampler(int[])
+ */
+public class UniformSampler {
+
+	private static final int MIN_INDICES_PER_THREAD = 64;
+
+	private final DDNNF ddnnf;
+	private final int root;
+
+	private final BigInteger[] counts;
+	/**
+	 * The counts of the nodes as long values, or -1 if a count does not fit into a long.
+	 */
+	private final long[] longCounts;
+
+	UniformSampler(DDNNF ddnnf, BigInteger[] counts) {
+		this.ddnnf = ddnnf;
+		this.counts = counts;
+		root = ddnnf.getNumberOfNodes() - 1;
+		longCounts = new long[counts.length];
+		for (int i = 0; i < counts.length; i++) {
+			longCounts[i] = counts[i].bitLength() < Long.SIZE ? counts[i].longValue() : -1;
+		}
+	}
+
+	/**
+	 * @return the number of solutions that can be drawn
+	 */
+	public BigInteger getNumberOfSolutions() {
+		return counts[root];
+	}
+
+	/**
+	 * Returns the solution with the given index.
+	 *
+	 * @param index a number between zero (inclusive) and {@link #getNumberOfSolutions()} (exclusive)
+	 *
+	 * @return a solution in the same format as {@link ISatSolver#getModel()}
+	 */
+	public int[] getSolution(BigInteger index) {
+		if ((index.signum() < 0) || (index.compareTo(counts[root]) >= 0)) {
+			throw new IndexOutOfBoundsException(index.toString());
+		}
+
+		final int[] solution = new int[ddnnf.getNumberOfVariables()];
+		final int[] nodeStack = new int[root + 1];
+		final BigInteger[] bigIndexStack = new BigInteger[root + 1];
+		final long[] longIndexStack = new long[root + 1];
+		int stackSize = 0;
+		nodeStack[stackSize] = root;
+		if (longCounts[root] >= 0) {
+			longIndexStack[stackSize++] = index.longValue();
+		} else {
+			bigIndexStack[stackSize++] = index;
+		}
+
+		while (stackSize > 0) {
+			final int node = nodeStack[--stackSize];
+			if (longCounts[node] >= 0) {
+				// all descendants have smaller counts, so the remaining computation is done with long values
+				long longIndex = longIndexStack[stackSize];
+				switch (ddnnf.getType(node)) {
+				case DDNNF.LITERAL:
+					final int literal = ddnnf.getLiteral(node);
+					solution[Math.abs(literal) - 1] = literal;
+					break;
+				case DDNNF.AND:
+					for (final int child : ddnnf.getChildren(node)) {
+						final long childCount = longCounts[child];
+						nodeStack[stackSize] = child;
+						longIndexStack[stackSize++] = longIndex % childCount;
+						longIndex /= childCount;
+					}
+					break;
+				case DDNNF.OR:
+					for (final int child : ddnnf.getChildren(node)) {
+						final long childCount = longCounts[child];
+						if (longIndex < childCount) {
+							nodeStack[stackSize] = child;
+							longIndexStack[stackSize++] = longIndex;
+							break;
+						}
+						longIndex -= childCount;
+					}
+					break;
+				default:
+					throw new AssertionError(ddnnf.getType(node));
+				}
+			} else {
+				BigInteger bigIndex = bigIndexStack[stackSize];
+				bigIndexStack[stackSize] = null;
+				switch (ddnnf.getType(node)) {
+				case DDNNF.AND:
+					for (final int child : ddnnf.getChildren(node)) {
+						final BigInteger[] quotientAndRemainder = bigIndex.divideAndRemainder(counts[child]);
+						push(nodeStack, bigIndexStack, longIndexStack, stackSize++, child, quotientAndRemainder[1]);
+						bigIndex = quotientAndRemainder[0];
+					}
+					break;
+				case DDNNF.OR:
+					for (final int child : ddnnf.getChildren(node)) {
+						if (bigIndex.compareTo(counts[child]) < 0) {
+							push(nodeStack, bigIndexStack, longIndexStack, stackSize++, child, bigIndex);
+							break;
+						}
+						bigIndex = bigIndex.subtract(counts[child]);
+					}
+					break;
+				default:
+					// literals always have a count of at most one
+					throw new AssertionError(ddnnf.getType(node));
+				}
+			}
+		}
+		return solution;
+	}
+
+	private void push(int[] nodeStack, BigInteger[] bigIndexStack, long[] longIndexStack, int position, int node, BigInteger index) {
+		nodeStack[position] = node;
+		if (longCounts[node] >= 0) {
+			longIndexStack[position] = index.longValue();
+		} else {
+			bigIndexStack[position] = index;
+		}
+	}
+
+	/**
+	 * Returns a solution, where each solution is chosen with the same probability.
+	 *
+	 * @param random the source of randomness
+	 *
+	 * @return a solution in the same format as {@link ISatSolver#getModel()} or {@code null} if there is none
+	 */
+	public int[] getRandomSolution(Random random) {
+		return (counts[root].signum() == 0) ? null : getSolution(getRandomIndex(random, counts[root]));
+	}
+
+	/**
+	 * Returns several random solutions. The result only depends on the given seed, not on the number of threads.
+	 *
+	 * @param seed the seed for the random indices
+	 * @param numberOfSolutions the number of solutions to create
+	 * @param distinct whether the solutions must be distinct, in this case the result contains at most {@link #getNumberOfSolutions()} solutions
+	 * @param numberOfThreads the number of threads that create the solutions from their indices
+	 *
+	 * @return a list of solutions in the same format as {@link ISatSolver#getModel()} (empty, if there is no solution)
+	 */
+	public List<int[]> getRandomSolutions(long seed, int numberOfSolutions, boolean distinct, int numberOfThreads) {
+		return getSolutions(getRandomIndices(new Random(seed), numberOfSolutions, distinct), numberOfThreads);
+	}
+
+	/**
+	 * Draws uniformly distributed indices of solutions.
+	 *
+	 * @param random the source of randomness
+	 * @param numberOfIndices the number of indices to draw
+	 * @param distinct whether the indices must be distinct, in this case the result contains at most {@link #getNumberOfSolutions()} indices
+	 *
+	 * @return the indices in the order they were drawn
+	 *
+	 * @see #getDistinctRandomIndices(Random)
+	 */
+	public List<BigInteger> getRandomIndices(Random random, int numberOfIndices, boolean distinct) {
+		final BigInteger numberOfSolutions = counts[root];
+		if ((numberOfSolutions.signum() == 0) || (numberOfIndices <= 0)) {
+			return new ArrayList<>(0);
+		}
+		if (!distinct) {
+			final List<BigInteger> indices = new ArrayList<>(numberOfIndices);
+			for (int i = 0; i < numberOfIndices; i++) {
+				indices.add(getRandomIndex(random, numberOfSolutions));
+			}
+			return indices;
+		}
+		final boolean fewSolutions = numberOfSolutions.compareTo(BigInteger.valueOf(numberOfIndices)) < 0;
+		final List<BigInteger> indices = new ArrayList<>(fewSolutions ? numberOfSolutions.intValue() : numberOfIndices);
+		final Iterator<BigInteger> distinctIndices = getDistinctRandomIndices(random);
+		while ((indices.size() < numberOfIndices) && distinctIndices.hasNext()) {
+			indices.add(distinctIndices.next());
+		}
+		return indices;
+	}
+
+	/**
+	 * Returns an iterator over all indices of solutions in a uniformly distributed random order. The indices are drawn on demand, so the iterator can be
+	 * used for any number of solutions. Its memory only grows with the number of indices drawn so far.
+	 *
+	 * @param random the source of randomness
+	 *
+	 * @return an iterator that returns each index between zero (inclusive) and {@link #getNumberOfSolutions()} (exclusive) exactly once
+	 */
+	public Iterator<BigInteger> getDistinctRandomIndices(Random random) {
+		return new DistinctIndexIterator(random, counts[root]);
+	}
+
+	/**
+	 * Lazy Fisher-Yates shuffle of the numbers from zero to a bound. Only the positions that have been swapped are stored.
+	 */
+	private static class DistinctIndexIterator implements Iterator<BigInteger> {
+
+		private final Random random;
+		private final BigInteger bound;
+
+		/**
+		 * The values of all positions (at least the number of drawn indices) that differ from the position itself.
+		 */
+		private final Map<BigInteger, BigInteger> swappedValues = new HashMap<>();
+		private BigInteger numberOfDrawnIndices = BigInteger.ZERO;
+
+		public DistinctIndexIterator(Random random, BigInteger bound) {
+			this.random = random;
+			this.bound = bound;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return numberOfDrawnIndices.compareTo(bound) < 0;
+		}
+
+		@Override
+		public BigInteger next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			final BigInteger position = numberOfDrawnIndices.add(getRandomIndex(random, bound.subtract(numberOfDrawnIndices)));
+			final BigInteger index = getValue(position);
+			final BigInteger replacement = getValue(numberOfDrawnIndices);
+			// the current position is never read again
+			swappedValues.remove(numberOfDrawnIndices);
+			if (!position.equals(numberOfDrawnIndices)) {
+				swappedValues.put(position, replacement);
+			}
+			numberOfDrawnIndices = numberOfDrawnIndices.add(BigInteger.ONE);
+			return index;
+		}
+
+		private BigInteger getValue(BigInteger position) {
+			final BigInteger value = swappedValues.get(position);
+			return value != null ? value : position;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+	}
+
+	/**
+	 * Returns the solutions with the given indices, in the same order.
+	 *
+	 * @param indices the indices of the solutions
+	 * @param numberOfThreads the number of threads that create the solutions
+	 *
+	 * @see #getSolution(BigInteger)
+	 */
+	public List<int[]> getSolutions(List<BigInteger> indices, int numberOfThreads) {
+		final int threads = Math.max(1, Math.min(numberOfThreads, indices.size() / MIN_INDICES_PER_THREAD));
+		if (threads == 1) {
+			return getSolutions(indices);
+		}
+
+		final ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			final List<Future<List<int[]>>> futures = new ArrayList<>(threads);
+			final int chunkSize = ((indices.size() - 1) / threads) + 1;
+			for (int start = 0; start < indices.size(); start += chunkSize) {
+				final List<BigInteger> chunk = indices.subList(start, Math.min(indices.size(), start + chunkSize));
+				futures.add(executor.submit(new Callable<List<int[]>>() {
+
+					@Override
+					public List<int[]> call() throws Exception {
+						return getSolutions(chunk);
+					}
+				}));
+			}
+			final List<int[]> solutions = new ArrayList<>(indices.size());
+			for (final Future<List<int[]>> future : futures) {
+				solutions.addAll(future.get());
+			}
+			return solutions;
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		} catch (final ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private List<int[]> getSolutions(List<BigInteger> indices) {
+		final List<int[]> solutions = new ArrayList<>(indices.size());
+		for (final BigInteger index : indices) {
+			solutions.add(getSolution(index));
+		}
+		return solutions;
+	}
+
+	/**
+	 * @return a uniformly distributed number between zero (inclusive) and the given bound (exclusive)
+	 */
+	private static BigInteger getRandomIndex(Random random, BigInteger bound) {
+		final int bitLength = bound.bitLength();
+		BigInteger value;
+		do {
+			value = new BigInteger(bitLength, random);
+		} while (value.compareTo(bound) >= 0);
+		return value;
+	}
+
+}
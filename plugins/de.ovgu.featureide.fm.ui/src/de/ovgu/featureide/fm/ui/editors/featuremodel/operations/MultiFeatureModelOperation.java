@@ -51,22 +51,32 @@ public abstract class MultiFeatureModelOperation extends AbstractFeatureModelOpe
 
 	@Override
 	protected FeatureIDEEvent operation() {
-		for (final Iterator<AbstractFeatureModelOperation> it = operations.iterator(); it.hasNext();) {
-			final AbstractFeatureModelOperation operation = it.next();
-			if (operation.canRedo()) {
-				operation.redo();
+		featureModel.beginBatch();
+		try {
+			for (final Iterator<AbstractFeatureModelOperation> it = operations.iterator(); it.hasNext();) {
+				final AbstractFeatureModelOperation operation = it.next();
+				if (operation.canRedo()) {
+					operation.redo();
+				}
 			}
+		} finally {
+			featureModel.endBatch();
 		}
 		return new FeatureIDEEvent(null, EventType.STRUCTURE_CHANGED);
 	}
 
 	@Override
 	protected FeatureIDEEvent inverseOperation() {
-		for (final Iterator<AbstractFeatureModelOperation> it = operations.descendingIterator(); it.hasNext();) {
-			final AbstractFeatureModelOperation operation = it.next();
-			if (operation.canUndo()) {
-				operation.undo();
+		featureModel.beginBatch();
+		try {
+			for (final Iterator<AbstractFeatureModelOperation> it = operations.descendingIterator(); it.hasNext();) {
+				final AbstractFeatureModelOperation operation = it.next();
+				if (operation.canUndo()) {
+					operation.undo();
+				}
 			}
+		} finally {
+			featureModel.endBatch();
 		}
 		return new FeatureIDEEvent(null, EventType.STRUCTURE_CHANGED);
 	}
@@ -0,0 +1,489 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.ui.actions.generator;
+
+import static de.ovgu.featureide.fm.core.localization.StringTable.ERROR_IN_CONFIGURATION;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.CheckForNull;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.Platform;
+
+import de.ovgu.featureide.ui.UIPlugin;
+
+/**
+ * Builds the configurations of a {@link ConfigurationBuilder} in a pipeline of stages: composition, compilation, and tests.<br/> Each stage has its own
+ * worker threads and passes the products to the next stage via a bounded queue, such that a slow stage slows down the previous stages instead of buffering
+ * an arbitrary number of products. A stage completes as soon as the previous stage completed and its queue is empty.
+ *
+ * @see Generator
+ * @see JavaCompiler
+ * @see TestRunner
+ */
+public class BuildPipeline {
+
+	private static final UIPlugin LOGGER = UIPlugin.getDefault();
+
+	private static final boolean JUNIT_INSTALLED = Platform.getBundle("org.junit") != null;
+
+	/**
+	 * Marks the end of the products in the queue of a stage.
+	 */
+	private static final Object END = new Object();
+
+	/**
+	 * One stage of the pipeline.
+	 *
+	 * @param <T> the type of the products processed by this stage
+	 */
+	public abstract static class Stage<T> {
+
+		private final String name;
+		private final int parallelism;
+		private final BlockingQueue<Object> queue;
+		@CheckForNull
+		private final Stage<?> successor;
+
+		private final CountDownLatch completion = new CountDownLatch(1);
+		private final AtomicInteger runningWorkers = new AtomicInteger();
+		private final AtomicLong processed = new AtomicLong();
+		private final AtomicLong failed = new AtomicLong();
+		private final AtomicLong busyTime = new AtomicLong();
+
+		private ExecutorService executor;
+		private long startTime;
+
+		/**
+		 * @param name the name of this stage
+		 * @param parallelism the number of worker threads
+		 * @param successor the stage that is closed when this stage completes
+		 */
+		Stage(String name, int parallelism, @CheckForNull Stage<?> successor) {
+			this.name = name;
+			this.parallelism = Math.max(1, parallelism);
+			this.successor = successor;
+			queue = new ArrayBlockingQueue<>(2 * this.parallelism);
+		}
+
+		/**
+		 * Processes one product and passes it to the next stage.
+		 */
+		protected abstract void process(T product) throws Exception;
+
+		/**
+		 * Waits for the next product of this stage.
+		 *
+		 * @return the next product or {@code null} if there are no more products
+		 */
+		@SuppressWarnings("unchecked")
+		@CheckForNull
+		protected T take() throws InterruptedException {
+			final Object product = queue.take();
+			return product == END ? null : (T) product;
+		}
+
+		/**
+		 * Passes a product to this stage. Blocks while the queue of this stage is full.
+		 */
+		void put(T product) throws InterruptedException {
+			queue.put(product);
+		}
+
+		/**
+		 * Signals that no more products will be passed to this stage.
+		 */
+		void close() throws InterruptedException {
+			for (int i = 0; i < parallelism; i++) {
+				queue.put(END);
+			}
+		}
+
+		void start() {
+			startTime = System.nanoTime();
+			executor = Executors.newFixedThreadPool(parallelism);
+			runningWorkers.set(parallelism);
+			for (int i = 0; i < parallelism; i++) {
+				executor.execute(new Runnable() {
+
+					@Override
+					public void run() {
+						work();
+					}
+				});
+			}
+		}
+
+		private void work() {
+			boolean canceled = false;
+			try {
+				for (T product = take(); product != null; product = take()) {
+					final long start = System.nanoTime();
+					try {
+						process(product);
+						processed.incrementAndGet();
+					} catch (final InterruptedException e) {
+						throw e;
+					} catch (final Exception | Error e) {
+						failed.incrementAndGet();
+						LOGGER.logError(ERROR_IN_CONFIGURATION + product, e);
+					} finally {
+						busyTime.addAndGet(System.nanoTime() - start);
+					}
+				}
+			} catch (final InterruptedException e) {
+				// the pipeline was canceled
+				canceled = true;
+			} finally {
+				// a worker that ends abnormally must not keep the stage from completing
+				if (!canceled) {
+					finishWorker();
+				}
+			}
+		}
+
+		private void finishWorker() {
+			if (runningWorkers.decrementAndGet() == 0) {
+				try {
+					if (successor != null) {
+						successor.close();
+					}
+				} catch (final InterruptedException e) {
+					// the pipeline was canceled
+				}
+				completion.countDown();
+			}
+		}
+
+		void shutdown() {
+			if (executor != null) {
+				executor.shutdownNow();
+			}
+		}
+
+		/**
+		 * Waits until all products of this stage are processed.
+		 *
+		 * @return {@code true} if this stage completed, {@code false} if the timeout elapsed before
+		 */
+		public boolean awaitCompletion(long timeout, TimeUnit unit) throws InterruptedException {
+			return completion.await(timeout, unit);
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public int getParallelism() {
+			return parallelism;
+		}
+
+		/**
+		 * @return the number of products that were processed successfully
+		 */
+		public long getProcessed() {
+			return processed.get();
+		}
+
+		/**
+		 * @return the number of products that could not be processed
+		 */
+		public long getFailed() {
+			return failed.get();
+		}
+
+		/**
+		 * @return the number of processed products per second since the start of this stage
+		 */
+		public double getThroughput() {
+			final long duration = System.nanoTime() - startTime;
+			return duration > 0 ? (processed.get() * 1e9) / duration : 0;
+		}
+
+		/**
+		 * @return the fraction of time in which the worker threads of this stage were busy since the start of this stage
+		 */
+		public double getUtilization() {
+			final long duration = System.nanoTime() - startTime;
+			return duration > 0 ? (double) busyTime.get() / (duration * parallelism) : 0;
+		}
+
+		/**
+		 * @return the number of products waiting in the queue of this stage
+		 */
+		public int getQueueSize() {
+			return queue.size();
+		}
+
+		@Override
+		public String toString() {
+			return String.format(Locale.ENGLISH, "%s: %d products (%d failed), %.2f products/s, %d threads %.0f%% busy", name, getProcessed(), getFailed(),
+					getThroughput(), parallelism, 100 * getUtilization());
+		}
+	}
+
+	/**
+	 * A temporary folder for compilation and the corresponding test runner. A slot is used by one product at a time, from its compilation until its tests
+	 * are finished.
+	 */
+	private static class CompilationSlot {
+
+		final JavaCompiler compiler;
+		@CheckForNull
+		final TestRunner testRunner;
+
+		CompilationSlot(JavaCompiler compiler, @CheckForNull TestRunner testRunner) {
+			this.compiler = compiler;
+			this.testRunner = testRunner;
+		}
+	}
+
+	/**
+	 * A product that was compiled into the folder of the given slot.
+	 */
+	private static class CompiledProduct {
+
+		final BuilderConfiguration configuration;
+		final CompilationSlot slot;
+
+		CompiledProduct(BuilderConfiguration configuration, CompilationSlot slot) {
+			this.configuration = configuration;
+			this.slot = slot;
+		}
+
+		@Override
+		public String toString() {
+			return configuration.toString();
+		}
+	}
+
+	private final ConfigurationBuilder builder;
+
+	private final List<Stage<?>> stages = new ArrayList<>(3);
+
+	private final Stage<BuilderConfiguration> compositionStage;
+	@CheckForNull
+	private final Stage<BuilderConfiguration> compilationStage;
+	@CheckForNull
+	private final Stage<CompiledProduct> testStage;
+
+	@CheckForNull
+	private BlockingQueue<CompilationSlot> freeSlots;
+
+	/**
+	 * The compilation results shared by all slots, such that identical products are only compiled once.
+	 */
+	private final InMemoryCompiler.Results compilationResults = new InMemoryCompiler.Results();
+
+	/**
+	 * Creates a pipeline for the given builder. Products are only compiled and tested if they are generated into the project of the builder and the project
+	 * is a Java project.
+	 *
+	 * @param builder the builder providing the configurations
+	 * @param compositionThreads the number of threads composing products
+	 * @param compilationThreads the number of threads compiling products
+	 * @param testThreads the number of threads running tests
+	 */
+	public BuildPipeline(ConfigurationBuilder builder, int compositionThreads, int compilationThreads, int testThreads) {
+		this.builder = builder;
+
+		final boolean compile = !builder.createNewProjects && hasJavaNature(builder);
+		final boolean test = compile && builder.runTests && JUNIT_INSTALLED;
+		if (compile) {
+			final int slotCount = Math.max(1, compilationThreads) + (test ? Math.max(1, testThreads) : 0);
+			freeSlots = createSlots(slotCount, test);
+		}
+		if (freeSlots != null) {
+			testStage = test ? createTestStage(testThreads) : null;
+			compilationStage = createCompilationStage(compilationThreads, testStage);
+		} else {
+			// no compilation without temporary folders
+			testStage = null;
+			compilationStage = null;
+		}
+		compositionStage = createCompositionStage(compositionThreads, compilationStage);
+
+		stages.add(compositionStage);
+		if (compilationStage != null) {
+			stages.add(compilationStage);
+		}
+		if (testStage != null) {
+			stages.add(testStage);
+		}
+	}
+
+	private static boolean hasJavaNature(ConfigurationBuilder builder) {
+		try {
+			return builder.featureProject.getProject().hasNature(Generator.JAVA_NATURE);
+		} catch (final CoreException e) {
+			LOGGER.logError(e);
+			return false;
+		}
+	}
+
+	@CheckForNull
+	private BlockingQueue<CompilationSlot> createSlots(int count, boolean test) {
+		final BlockingQueue<CompilationSlot> slots = new ArrayBlockingQueue<>(count);
+		for (int i = 0; i < count; i++) {
+			try {
+				final JavaCompiler compiler = new JavaCompiler(i, builder, compilationResults);
+				slots.add(new CompilationSlot(compiler, test ? new TestRunner(compiler.tmp, builder.testResults, builder) : null));
+			} catch (final Exception | Error e) {
+				LOGGER.logError(e);
+			}
+		}
+		return slots.isEmpty() ? null : slots;
+	}
+
+	private Stage<BuilderConfiguration> createCompositionStage(int threads, @CheckForNull final Stage<BuilderConfiguration> compilationStage) {
+		final Generator generator = new Generator(builder);
+		return new Stage<BuilderConfiguration>("Composition", threads, compilationStage) {
+
+			@Override
+			protected BuilderConfiguration take() throws InterruptedException {
+				return builder.takeConfiguration();
+			}
+
+			@Override
+			protected void process(BuilderConfiguration configuration) throws Exception {
+				boolean passed = false;
+				try {
+					generator.generate(configuration);
+					if (compilationStage != null) {
+						compilationStage.put(configuration);
+						passed = true;
+					}
+				} finally {
+					// a product that does not reach the next stage is done, even if it failed
+					if (!passed) {
+						builder.builtConfiguration();
+					}
+				}
+			}
+		};
+	}
+
+	private Stage<BuilderConfiguration> createCompilationStage(int threads, @CheckForNull final Stage<CompiledProduct> testStage) {
+		return new Stage<BuilderConfiguration>("Compilation", threads, testStage) {
+
+			@Override
+			protected void process(BuilderConfiguration configuration) throws Exception {
+				final CompilationSlot slot = freeSlots.take();
+				boolean passed = false;
+				try {
+					slot.compiler.compile(configuration);
+					if (testStage != null) {
+						testStage.put(new CompiledProduct(configuration, slot));
+						passed = true;
+					}
+				} finally {
+					if (!passed) {
+						builder.builtConfiguration();
+						freeSlots.put(slot);
+					}
+				}
+			}
+		};
+	}
+
+	private Stage<CompiledProduct> createTestStage(int threads) {
+		return new Stage<CompiledProduct>("Tests", threads, null) {
+
+			@Override
+			protected void process(CompiledProduct product) throws Exception {
+				try {
+					product.slot.testRunner.runTests(product.configuration);
+				} finally {
+					builder.builtConfiguration();
+					freeSlots.put(product.slot);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Starts the worker threads of all stages. The composition stage takes the configurations from {@link ConfigurationBuilder#takeConfiguration()}.
+	 */
+	public void start() {
+		for (final Stage<?> stage : stages) {
+			stage.start();
+		}
+	}
+
+	/**
+	 * Waits until all products passed the pipeline.
+	 *
+	 * @return {@code true} if all stages completed, {@code false} if the timeout elapsed before
+	 */
+	public boolean awaitCompletion(long timeout, TimeUnit unit) throws InterruptedException {
+		return stages.get(stages.size() - 1).awaitCompletion(timeout, unit);
+	}
+
+	/**
+	 * Stops the worker threads of all stages. Products that are currently processed are interrupted.
+	 */
+	public void shutdown() {
+		for (final Stage<?> stage : stages) {
+			stage.shutdown();
+		}
+		if (freeSlots != null) {
+			for (final CompilationSlot slot : freeSlots) {
+				slot.compiler.dispose();
+			}
+		}
+	}
+
+	/**
+	 * @return the stages of this pipeline in processing order
+	 */
+	public List<Stage<?>> getStages() {
+		return Collections.unmodifiableList(stages);
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder sb = new StringBuilder();
+		for (final Stage<?> stage : stages) {
+			if (sb.length() > 0) {
+				sb.append('\n');
+			}
+			sb.append(stage);
+		}
+		if (compilationStage != null) {
+			sb.append('\n');
+			sb.append(compilationResults);
+		}
+		return sb.toString();
+	}
+
+}
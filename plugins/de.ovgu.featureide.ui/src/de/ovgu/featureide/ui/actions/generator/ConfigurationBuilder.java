@@ -25,9 +25,8 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.INCLING;
 import static de.ovgu.featureide.fm.core.localization.StringTable.OF;
 import static de.ovgu.featureide.fm.core.localization.StringTable.RESTRICTION;
 
-import java.security.KeyStore.Builder;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.CheckForNull;
 
@@ -48,11 +47,12 @@ import org.eclipse.jdt.internal.core.JavaProject;
 
 import de.ovgu.featureide.core.IFeatureProject;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
-import de.ovgu.featureide.fm.core.job.IJob.JobStatus;
+import de.ovgu.featureide.fm.core.job.IJob;
 import de.ovgu.featureide.fm.core.job.IRunner;
 import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 import de.ovgu.featureide.fm.core.job.monitor.ProgressMonitor;
+import de.ovgu.featureide.fm.core.job.util.JobFinishListener;
 import de.ovgu.featureide.fm.core.localization.StringTable;
 import de.ovgu.featureide.ui.UIPlugin;
 import de.ovgu.featureide.ui.actions.generator.configuration.AConfigurationGenerator;
@@ -125,7 +125,7 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	protected long time;
 
 	/**
-	 * This flag indicates that no more configurations will be added and the {@link Generator} jobs can finish.
+	 * This flag indicates that no more configurations will be added and the {@link BuildPipeline} can finish.
 	 */
 	boolean finish = false;
 
@@ -135,9 +135,19 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	BuildType buildType;
 
 	/**
-	 * This list contains all {@link Generator} jobs.
+	 * The maximal number of configurations that are buffered for the {@link BuildPipeline} if the configurations need not to be sorted.
 	 */
-	final List<Generator> generatorJobs = new ArrayList<>();
+	private static final int MAX_BUFFER_SIZE = 5000;
+
+	/**
+	 * The interval in milliseconds in which the progress is updated.
+	 */
+	private static final long UPDATE_INTERVAL = 150;
+
+	/**
+	 * Composes, compiles, and tests the configurations.
+	 */
+	private BuildPipeline pipeline;
 
 	public AbstractConfigurationSorter sorter;
 
@@ -158,12 +168,45 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	}
 
 	/**
-	 * Adds the given configuration to configurations.
+	 * Waits for the next configuration to build.
+	 *
+	 * @return The next configuration or <code>null</code> if all configurations were taken or the build was canceled
+	 * @throws InterruptedException
+	 */
+	@CheckForNull
+	synchronized BuilderConfiguration takeConfiguration() throws InterruptedException {
+		while (!cancelGeneratorJobs) {
+			final BuilderConfiguration configuration = sorter.getConfiguration();
+			if (configuration != null) {
+				// wakes up the producer waiting for a free buffer
+				notifyAll();
+				return configuration;
+			}
+			if (finish && sorter.isSorted()) {
+				return null;
+			}
+			wait();
+		}
+		return null;
+	}
+
+	/**
+	 * Adds the given configuration to configurations.<br> Blocks while the buffer is full, unless the configurations need to be sorted before they are
+	 * built.
 	 *
 	 * @param configuration
 	 */
 	public synchronized void addConfiguration(BuilderConfiguration configuration) {
+		while (sorter.isSorted() && (sorter.getBufferSize() >= MAX_BUFFER_SIZE) && !cancelGeneratorJobs) {
+			try {
+				wait();
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
 		sorter.addConfiguration(configuration);
+		notifyAll();
 	}
 
 	// TODO revise long parameter list
@@ -264,6 +307,8 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 
 			private IRunner<Void> configurationBuilderJob;
 
+			private final CountDownLatch configurationsCreated = new CountDownLatch(1);
+
 			@Override
 			public IStatus run(IProgressMonitor monitor) {
 				try {
@@ -275,20 +320,24 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 
 					time = System.currentTimeMillis();
 
+					final int processors = Runtime.getRuntime().availableProcessors();
+					int compositionThreads = 1;
 					if (featureProject.getComposer().canGeneratInParallelJobs()) {
-						if (buildType != BuildType.ALL_CURRENT) {
-							newgeneratorJobs(Runtime.getRuntime().availableProcessors() * 2);
-						} else {
-							int contJobs = Runtime.getRuntime().availableProcessors() * 2;
-							if (configurationNumber < contJobs) {
-								contJobs = (int) configurationNumber;
-							}
-							newgeneratorJobs(contJobs);
+						compositionThreads = processors;
+						if ((buildType == BuildType.ALL_CURRENT) && (configurationNumber < compositionThreads)) {
+							compositionThreads = (int) configurationNumber;
 						}
-					} else {
-						newgeneratorJobs(1);
 					}
+					pipeline = new BuildPipeline(ConfigurationBuilder.this, compositionThreads, processors, processors);
+					pipeline.start();
 					configurationBuilderJob = LongRunningWrapper.getRunner(configurationBuilder, "Create Configurations " + id++);
+					configurationBuilderJob.addJobFinishedListener(new JobFinishListener<Void>() {
+
+						@Override
+						public void jobFinished(IJob<Void> finishedJob) {
+							configurationsCreated.countDown();
+						}
+					});
 					configurationBuilderJob.schedule();
 					showStatistics(monitor);
 					if (!createNewProjects) {
@@ -299,10 +348,12 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 						}
 					}
 				} finally {
-					configurationBuilderJob.cancel();
+					if (configurationBuilderJob != null) {
+						configurationBuilderJob.cancel();
+					}
 					cancelGenerationJobs();
-					for (final Thread g : generatorJobs) {
-						g.interrupt();
+					if (pipeline != null) {
+						pipeline.shutdown();
 					}
 					monitor.done();
 				}
@@ -311,25 +362,13 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 
 			private void showStatistics(IProgressMonitor monitor) {
 				try {
-					while (configurationBuilderJob.getStatus() == JobStatus.NOT_STARTED) {
-						try {
-							Thread.sleep(150);
-						} catch (final InterruptedException e) {
-							LOGGER.logError(e);
-						}
-					}
-					while (configurationBuilderJob.getStatus() == JobStatus.RUNNING) {
+					while (!configurationsCreated.await(UPDATE_INTERVAL, TimeUnit.MILLISECONDS)) {
 						monitor.setTaskName(getTaskName());
 						if (monitor.isCanceled()) {
 							cancelGenerationJobs();
 							configurationBuilderJob.cancel();
 							return;
 						}
-						try {
-							Thread.sleep(150);
-						} catch (final InterruptedException e) {
-							LOGGER.logError(e);
-						}
 					}
 					System.err.println(configurationBuilderJob.getStatus());
 
@@ -340,44 +379,27 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 					finish();
 
 					((SubMonitor) monitor).setWorkRemaining((int) configurationNumber - built);
-					while (!generatorJobs.isEmpty()) {
-						try {
-							if (monitor.isCanceled()) {
-								cancelGenerationJobs();
-								break;
-							}
-							final Generator generator = generatorJobs.get(0);
-							if (generator == null) {
-								// generator can never be null, however see #416
-								generatorJobs.remove(0);
-							} else if (generator.getState() == Thread.State.TERMINATED) {
-								generatorJobs.remove(generator);
-								if (sorter.getBufferSize() != 0) {
-									createNewGenerator(generator.nr);
-								}
-							}
-							monitor.setTaskName(getTaskName());
-							Thread.sleep(150);
-						} catch (final InterruptedException e) {
-							LOGGER.logError(e);
-						} catch (final IndexOutOfBoundsException e) {
-							// nothing here
+					while (!pipeline.awaitCompletion(UPDATE_INTERVAL, TimeUnit.MILLISECONDS)) {
+						if (monitor.isCanceled()) {
+							cancelGenerationJobs();
+							break;
 						}
+						monitor.setTaskName(getTaskName());
 					}
+				} catch (final InterruptedException e) {
+					LOGGER.logError(e);
+				}
 
-					final long duration = System.currentTimeMillis() - time;
-					final long s = (duration / 1000) % 60;
-					final long min = (duration / (60 * 1000)) % 60;
-					final long h = duration / (60 * 60 * 1000);
-					final String t = h + "h " + (min < 10 ? "0" + min : min) + "min " + (s < 10 ? "0" + s : s) + "s.";
+				final long duration = System.currentTimeMillis() - time;
+				final long s = (duration / 1000) % 60;
+				final long min = (duration / (60 * 1000)) % 60;
+				final long h = duration / (60 * 60 * 1000);
+				final String t = h + "h " + (min < 10 ? "0" + min : min) + "min " + (s < 10 ? "0" + s : s) + "s.";
 
-					if (built > configurationNumber) {
-						built = (int) configurationNumber;
-					}
-					LOGGER.logInfo(built + (configurationNumber != 0 ? OF + configurationNumber : "") + " configurations built in " + t);
-				} finally {
-					generatorJobs.clear();
+				if (built > configurationNumber) {
+					built = (int) configurationNumber;
 				}
+				LOGGER.logInfo(built + (configurationNumber != 0 ? OF + configurationNumber : "") + " configurations built in " + t + "\n" + pipeline);
 			}
 
 		};
@@ -489,48 +511,19 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	}
 
 	/**
-	 * Creates new {@link Generator}s
-	 *
-	 * @param count The amount of Generators that will be created.
-	 */
-	private void newgeneratorJobs(int count) {
-		if (count < 1) {
-			return;
-		}
-
-		if (count == 1) {
-			createNewGenerator(0);
-			return;
-		}
-
-		for (; count > 0; count--) {
-			createNewGenerator(count);
-		}
-	}
-
-	/**
-	 * Created a new {@link Generator} with the given number
-	 *
-	 * @param nr
-	 */
-	void createNewGenerator(int nr) {
-		final Generator g = new Generator(nr, this);
-		generatorJobs.add(g);
-		g.start();
-	}
-
-	/**
-	 * This is called if the main job is canceled and all {@link Builder} and {@link JavaCompiler} should finish.
+	 * This is called if the main job is canceled and all stages of the {@link BuildPipeline} should finish.
 	 */
-	public void cancelGenerationJobs() {
+	public synchronized void cancelGenerationJobs() {
 		cancelGeneratorJobs = true;
+		notifyAll();
 	}
 
 	/**
 	 * This is called if the main job has finished and no more configurations will be added.
 	 */
-	public void finish() {
+	public synchronized void finish() {
 		finish = true;
+		notifyAll();
 	}
 
 	/**
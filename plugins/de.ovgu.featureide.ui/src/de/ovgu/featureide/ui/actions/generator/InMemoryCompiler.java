@@ -0,0 +1,400 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.ui.actions.generator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.CheckForNull;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.JavaFileObject.Kind;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+
+import org.eclipse.jdt.core.compiler.batch.BatchCompiler;
+
+/**
+ * Compiles products via the {@link javax.tools.JavaCompiler} API. The sources are read once, the class files are kept in memory, and the problems are
+ * reported as {@link Diagnostic}s instead of text.<br/> The file manager, and with it the resolved classpath, is kept for all products compiled by one
+ * instance. Products consisting of identical source files are only compiled once, see {@link Results}.
+ *
+ * @see JavaCompiler
+ */
+public class InMemoryCompiler {
+
+	/**
+	 * A problem reported by the compiler.
+	 */
+	public static class Problem {
+
+		/**
+		 * The path of the file relative to the product folder or <code>null</code> if the problem does not belong to a source file.
+		 */
+		@CheckForNull
+		public final String path;
+		public final int line;
+		public final boolean warning;
+		public final String message;
+
+		public Problem(@CheckForNull String path, int line, boolean warning, String message) {
+			this.path = path;
+			this.line = line;
+			this.warning = warning;
+			this.message = message;
+		}
+
+		@Override
+		public String toString() {
+			return (warning ? "WARNING in " : "ERROR in ") + path + " (at line " + line + "): " + message;
+		}
+	}
+
+	/**
+	 * The result of the compilation of one product.
+	 */
+	public static class Result {
+
+		/**
+		 * The class files by their path relative to the output folder, e.g. <code>pkg/Main.class</code>.
+		 */
+		public final Map<String, byte[]> classes;
+		public final List<Problem> problems;
+		/**
+		 * <code>false</code> if the compiler reported that the compilation failed.
+		 */
+		public final boolean success;
+
+		Result(Map<String, byte[]> classes, List<Problem> problems, boolean success) {
+			this.classes = Collections.unmodifiableMap(classes);
+			this.problems = Collections.unmodifiableList(problems);
+			this.success = success;
+		}
+
+		/**
+		 * @return <code>true</code> if the compilation failed, but no error belongs to a source file
+		 */
+		public boolean isFailedWithoutErrors() {
+			if (success) {
+				return false;
+			}
+			for (final Problem problem : problems) {
+				if (!problem.warning && (problem.path != null)) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Stores the results of compiled products by the hash of their sources. Can be shared by several compilers with the same classpath.
+	 */
+	public static class Results {
+
+		private static final int MAX_SIZE = 128;
+
+		private final Map<String, Result> results = new LinkedHashMap<String, Result>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Result> eldest) {
+				return size() > MAX_SIZE;
+			}
+		};
+
+		private final AtomicLong hits = new AtomicLong();
+		private final AtomicLong misses = new AtomicLong();
+
+		@CheckForNull
+		synchronized Result get(String key) {
+			final Result result = results.get(key);
+			(result != null ? hits : misses).incrementAndGet();
+			return result;
+		}
+
+		synchronized void put(String key, Result result) {
+			results.put(key, result);
+		}
+
+		/**
+		 * @return the number of products that reused the result of an earlier compilation
+		 */
+		public long getHits() {
+			return hits.get();
+		}
+
+		/**
+		 * @return the number of products that were compiled
+		 */
+		public long getMisses() {
+			return misses.get();
+		}
+
+		@Override
+		public String toString() {
+			return "Compiled products: " + getMisses() + ", reused: " + getHits();
+		}
+	}
+
+	/**
+	 * A source file whose content was already read for hashing.
+	 */
+	private static class Source extends SimpleJavaFileObject {
+
+		private final String content;
+
+		Source(File file, String content) {
+			super(file.toURI(), Kind.SOURCE);
+			this.content = content;
+		}
+
+		@Override
+		public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+			return content;
+		}
+	}
+
+	/**
+	 * A class file which is written into the given map.
+	 */
+	private static class ClassFile extends SimpleJavaFileObject {
+
+		private final String path;
+		private final Map<String, byte[]> classes;
+
+		ClassFile(String path, Map<String, byte[]> classes) {
+			super(URI.create("memory:///" + path), Kind.CLASS);
+			this.path = path;
+			this.classes = classes;
+		}
+
+		@Override
+		public OutputStream openOutputStream() {
+			return new ByteArrayOutputStream() {
+
+				@Override
+				public void close() throws IOException {
+					super.close();
+					synchronized (classes) {
+						classes.put(path, toByteArray());
+					}
+				}
+			};
+		}
+	}
+
+	/**
+	 * Redirects the class files of one compilation into memory.
+	 */
+	private static class ClassFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+
+		private final Map<String, byte[]> classes = new HashMap<>();
+
+		ClassFileManager(StandardJavaFileManager fileManager) {
+			super(fileManager);
+		}
+
+		@Override
+		public boolean hasLocation(Location location) {
+			return (location == StandardLocation.CLASS_OUTPUT) || super.hasLocation(location);
+		}
+
+		@Override
+		public JavaFileObject getJavaFileForOutput(Location location, String className, Kind kind, FileObject sibling) throws IOException {
+			if ((location != StandardLocation.CLASS_OUTPUT) || (kind != Kind.CLASS)) {
+				return super.getJavaFileForOutput(location, className, kind, sibling);
+			}
+			String path = className;
+			if (path.endsWith(Kind.CLASS.extension)) {
+				path = path.substring(0, path.length() - Kind.CLASS.extension.length());
+			}
+			return new ClassFile(path.replace('.', '/') + Kind.CLASS.extension, classes);
+		}
+	}
+
+	private static final List<String> OPTIONS = Collections.unmodifiableList(Arrays.asList("-g", "-Xlint", "-source", "1.7", "-proc:none"));
+
+	private final javax.tools.JavaCompiler compiler;
+	private final StandardJavaFileManager fileManager;
+	@CheckForNull
+	private final Results results;
+
+	/**
+	 * @param compiler the compiler to use
+	 * @param classpath the classpath of the products
+	 * @param results the results to share with other compilers or <code>null</code> if products should not be reused
+	 * @throws IOException if the classpath cannot be set
+	 */
+	public InMemoryCompiler(javax.tools.JavaCompiler compiler, List<File> classpath, @CheckForNull Results results) throws IOException {
+		this.compiler = compiler;
+		this.results = results;
+		fileManager = compiler.getStandardFileManager(null, Locale.getDefault(), null);
+		fileManager.setLocation(StandardLocation.CLASS_PATH, classpath);
+	}
+
+	/**
+	 * Looks for a compiler implementing the {@link javax.tools.JavaCompiler} API. The compiler of the JDT is preferred, so that the problems are the same
+	 * as the ones of the batch compiler.
+	 *
+	 * @return the compiler or <code>null</code> if none is available
+	 */
+	@CheckForNull
+	public static javax.tools.JavaCompiler findCompiler() {
+		try {
+			final Iterator<javax.tools.JavaCompiler> compilers =
+				ServiceLoader.load(javax.tools.JavaCompiler.class, BatchCompiler.class.getClassLoader()).iterator();
+			if (compilers.hasNext()) {
+				return compilers.next();
+			}
+		} catch (final Exception | Error e) {
+			// ignore and try the compiler of the JDK
+		}
+		return ToolProvider.getSystemJavaCompiler();
+	}
+
+	/**
+	 * Compiles the given source files.
+	 *
+	 * @param root the folder of the product
+	 * @param files the source files of the product
+	 * @param keepClasses <code>false</code> if the class files are not needed
+	 * @return the class files and problems of the product
+	 * @throws IOException if a source file cannot be read
+	 * @throws IllegalArgumentException if the compiler does not support the options
+	 */
+	public Result compile(File root, List<File> files, boolean keepClasses) throws IOException {
+		final Charset charset = Charset.defaultCharset();
+		final String rootPath = root.getAbsolutePath();
+		final List<Source> sources = new ArrayList<>(files.size());
+		// compilers may report problems for their own file objects, thus, the files are identified by their location
+		final Map<URI, String> paths = new HashMap<>();
+		final MessageDigest digest = getDigest();
+		for (final File file : files) {
+			final String absolutePath = file.getAbsolutePath();
+			final String path = absolutePath.startsWith(rootPath)
+				? absolutePath.substring(rootPath.length()).replace(File.separatorChar, '/').replaceFirst("^/", "") : absolutePath;
+			final byte[] content = Files.readAllBytes(file.toPath());
+			digest.update(path.getBytes(charset));
+			digest.update((byte) 0);
+			digest.update(content);
+			digest.update((byte) 0);
+			final Source source = new Source(file, new String(content, charset));
+			sources.add(source);
+			paths.put(source.toUri().normalize(), path);
+		}
+		final String key = toHex(digest.digest());
+
+		if (results != null) {
+			final Result result = results.get(key);
+			if (result != null) {
+				return result;
+			}
+		}
+
+		final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		final ClassFileManager classFileManager = new ClassFileManager(fileManager);
+		final boolean success = Boolean.TRUE.equals(compiler.getTask(null, classFileManager, diagnostics, OPTIONS, null, sources).call());
+
+		final List<Problem> problems = new ArrayList<>();
+		for (final Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+			final Diagnostic.Kind kind = diagnostic.getKind();
+			if ((kind != Diagnostic.Kind.ERROR) && (kind != Diagnostic.Kind.WARNING) && (kind != Diagnostic.Kind.MANDATORY_WARNING)) {
+				continue;
+			}
+			final JavaFileObject source = diagnostic.getSource();
+			final String path = (source == null) ? null : paths.get(source.toUri().normalize());
+			problems.add(new Problem(path, (int) diagnostic.getLineNumber(), kind != Diagnostic.Kind.ERROR, diagnostic.getMessage(Locale.getDefault())));
+		}
+		final Result result = new Result(keepClasses ? classFileManager.classes : Collections.<String, byte[]> emptyMap(), problems, success);
+		if (results != null) {
+			results.put(key, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Writes the class files of the given result into the given folder.
+	 */
+	public static void writeClasses(Result result, File folder) throws IOException {
+		for (final Map.Entry<String, byte[]> entry : result.classes.entrySet()) {
+			final File file = new File(folder, entry.getKey());
+			final File parent = file.getParentFile();
+			if (!parent.isDirectory() && !parent.mkdirs()) {
+				throw new IOException("Cannot create folder " + parent);
+			}
+			Files.write(file.toPath(), entry.getValue());
+		}
+	}
+
+	/**
+	 * Releases the resources of the file manager.
+	 */
+	public void close() {
+		try {
+			fileManager.close();
+		} catch (final IOException e) {
+			// nothing to release
+		}
+	}
+
+	private static MessageDigest getDigest() {
+		try {
+			return MessageDigest.getInstance("MD5");
+		} catch (final NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String toHex(byte[] bytes) {
+		final StringBuilder sb = new StringBuilder(bytes.length * 2);
+		for (final byte b : bytes) {
+			sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+			sb.append(Character.forDigit(b & 0xF, 16));
+		}
+		return sb.toString();
+	}
+
+}
@@ -24,49 +24,64 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.CANNOT_FIND_SY
 import static de.ovgu.featureide.fm.core.localization.StringTable.COMPILER;
 import static de.ovgu.featureide.fm.core.localization.StringTable.SYMBOL;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.util.AbstractList;
+import java.util.ArrayList;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Scanner;
 import java.util.TreeMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import javax.annotation.CheckForNull;
+
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
-import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jdt.core.compiler.batch.BatchCompiler;
 
 import de.ovgu.featureide.ui.UIPlugin;
+import de.ovgu.featureide.ui.actions.generator.InMemoryCompiler.Problem;
+import de.ovgu.featureide.ui.actions.generator.InMemoryCompiler.Result;
 
 /**
- * This {@link Job} compiles all configurations of the corresponding {@link Generator}
+ * Compiles the products of the corresponding {@link ConfigurationBuilder} into its own temporary folder. This is the second stage of the
+ * {@link BuildPipeline}.<br/> The products are compiled by an {@link InMemoryCompiler} if a compiler implementing the <code>javax.tools</code> API is
+ * available, otherwise by the {@link BatchCompiler}.
  *
  * @author Jens Meinicke
  */
 public class JavaCompiler implements IConfigurationBuilderBasics {
 
-	private final Generator generator;
+	private final ConfigurationBuilder builder;
 
 	/**
 	 * The parent folder of the generated variants
 	 */
 	final IFolder tmp;
 
+	/**
+	 * The compiler keeping the classpath between the products, or <code>null</code> if the {@link BatchCompiler} is used.
+	 */
+	@CheckForNull
+	private InMemoryCompiler inMemoryCompiler;
+
 	/**
 	 *
 	 * @param nr The number of the compiler
-	 * @param generator The generator holding this compiler
+	 * @param builder The builder holding this compiler
+	 * @param results The results shared by the compilers of the builder, or <code>null</code> if products should not be reused
 	 */
-	public JavaCompiler(int nr, Generator generator) {
-		this.generator = generator;
+	public JavaCompiler(int nr, ConfigurationBuilder builder, @CheckForNull InMemoryCompiler.Results results) {
+		this.builder = builder;
 
-		tmp = generator.builder.tmp.getFolder(COMPILER + nr);
+		tmp = builder.tmp.getFolder(COMPILER + nr);
 		if (!tmp.exists()) {
 			try {
 				tmp.create(true, true, null);
@@ -75,6 +90,24 @@ public class JavaCompiler implements IConfigurationBuilderBasics {
 			}
 		}
 
+		final javax.tools.JavaCompiler compiler = InMemoryCompiler.findCompiler();
+		if (compiler != null) {
+			try {
+				inMemoryCompiler = new InMemoryCompiler(compiler, getClasspath(), results);
+			} catch (final IOException | RuntimeException e) {
+				UIPlugin.getDefault().logError(e);
+			}
+		}
+	}
+
+	/**
+	 * Releases the resources of this compiler.
+	 */
+	void dispose() {
+		if (inMemoryCompiler != null) {
+			inMemoryCompiler.close();
+			inMemoryCompiler = null;
+		}
 	}
 
 	/**
@@ -85,7 +118,7 @@ public class JavaCompiler implements IConfigurationBuilderBasics {
 	 */
 	protected void compile(BuilderConfiguration configuration) throws CoreException {
 		try {
-			generator.builder.folder.getFolder(configuration.getName()).refreshLocal(IResource.DEPTH_INFINITE, null);
+			builder.folder.getFolder(configuration.getName()).refreshLocal(IResource.DEPTH_INFINITE, null);
 		} catch (final CoreException e) {
 			UIPlugin.getDefault().logError(e);
 		}
@@ -101,7 +134,11 @@ public class JavaCompiler implements IConfigurationBuilderBasics {
 	 * @param confName
 	 */
 	private void compile(String confName) {
-		final LinkedList<IFile> files = getJavaFiles(generator.builder.folder.getFolder(confName));
+		final IFolder productFolder = builder.folder.getFolder(confName);
+		final LinkedList<IFile> files = getJavaFiles(productFolder);
+		if ((inMemoryCompiler != null) && compileInMemory(productFolder, files, confName)) {
+			return;
+		}
 		final LinkedList<String> options = new LinkedList<>();
 		for (final IFile file : files) {
 			options.add(setupPath(file));
@@ -113,13 +150,78 @@ public class JavaCompiler implements IConfigurationBuilderBasics {
 		options.add("-d");
 		options.add(setupPath(tmp.getRawLocation().toOSString()));
 		options.add("-classpath");
-		options.add(generator.builder.classpath);
+		options.add(builder.classpath);
 
 		final String output = process(options);
 		final LinkedList<IFile> errorFiles = parseJavacOutput(output, files, confName);
 		for (final IFile file : errorFiles) {
-			generator.builder.featureProject.getComposer().postCompile(null, file);
+			builder.featureProject.getComposer().postCompile(null, file);
+		}
+	}
+
+	/**
+	 * Compiles the built configuration with the {@link InMemoryCompiler}. The binary files are only written into the temporary folder if they are needed
+	 * for the tests.
+	 *
+	 * @return <code>false</code> if the configuration could not be compiled in memory
+	 */
+	private boolean compileInMemory(IFolder productFolder, List<IFile> files, String confName) {
+		final List<File> sources = new ArrayList<>(files.size());
+		for (final IFile file : files) {
+			sources.add(file.getLocation().toFile());
+		}
+		final Result result;
+		try {
+			result = inMemoryCompiler.compile(productFolder.getLocation().toFile(), sources, builder.runTests);
+			if (builder.runTests) {
+				InMemoryCompiler.writeClasses(result, tmp.getLocation().toFile());
+			}
+		} catch (final IllegalArgumentException e) {
+			// the compiler does not support the options, so the batch compiler is used from now on
+			UIPlugin.getDefault().logError(e);
+			dispose();
+			return false;
+		} catch (final IOException e) {
+			UIPlugin.getDefault().logError(e);
+			return false;
+		}
+
+		if (result.isFailedWithoutErrors()) {
+			// e.g., the classpath is invalid, the batch compiler reports the problem
+			for (final Problem problem : result.problems) {
+				UIPlugin.getDefault().logWarning(problem.toString());
+			}
+			return false;
+		}
+
+		final LinkedList<IFile> errorFiles = new LinkedList<IFile>();
+		try {
+			for (final Problem problem : result.problems) {
+				if (problem.path != null) {
+					createMarker(productFolder.getFile(problem.path), problem.line, problem.warning, problem.message, confName, errorFiles);
+				}
+			}
+		} catch (final CoreException e) {
+			UIPlugin.getDefault().logError(e);
+		}
+		for (final IFile file : errorFiles) {
+			builder.featureProject.getComposer().postCompile(null, file);
 		}
+		return true;
+	}
+
+	/**
+	 * @return the entries of the classpath of the builder
+	 */
+	private List<File> getClasspath() {
+		final List<File> entries = new ArrayList<>();
+		for (final String entry : builder.classpath.split(File.pathSeparator)) {
+			final String path = entry.replace("\"", "").trim();
+			if (!path.isEmpty()) {
+				entries.add(new File(path));
+			}
+		}
+		return entries;
 	}
 
 	/**
@@ -210,21 +312,7 @@ public class JavaCompiler implements IConfigurationBuilderBasics {
 				// if (CANNOT_FIND_SYMBOL.equals(errorMessage)) {
 				// errorMessage = parseCannotFindSymbolMessage(scanner);
 				// }
-				if (errorMessage.contains(ERROR_IGNOR_RAW_TYPE) || errorMessage.contains(ERROR_IGNOR_CAST) || errorMessage.contains(ERROR_IGNOR_SERIIZABLE)
-					|| (errorMessage.contains(ERROR_IGNOR_UNUSED_IMPORT) && !errorMessage.contains("cannot be resolved"))
-					|| errorMessage.contains(ERROR_IGNOR_DEPRECATION)) {
-					continue;
-				}
-				if (!errorFiles.contains(currentFile)) {
-					errorFiles.add(currentFile);
-				}
-				IMarker newMarker;
-				newMarker = currentFile.createMarker(PROBLEM_MARKER);
-				if (newMarker.exists()) {
-					newMarker.setAttribute(IMarker.LINE_NUMBER, line);
-					newMarker.setAttribute(IMarker.MESSAGE, configurationName + " " + errorMessage);
-					newMarker.setAttribute(IMarker.SEVERITY, warning ? IMarker.SEVERITY_WARNING : IMarker.SEVERITY_ERROR);
-				}
+				createMarker(currentFile, line, warning, errorMessage, configurationName, errorFiles);
 			}
 		} catch (final CoreException e) {
 			UIPlugin.getDefault().logError(e);
@@ -233,6 +321,29 @@ public class JavaCompiler implements IConfigurationBuilderBasics {
 		return errorFiles;
 	}
 
+	/**
+	 * Creates a problem marker at the given file unless the message should be ignored.
+	 *
+	 * @param errorFiles The files with markers, the given file is added if a marker was created
+	 */
+	private void createMarker(IFile file, int line, boolean warning, String errorMessage, String configurationName, List<IFile> errorFiles)
+			throws CoreException {
+		if (errorMessage.contains(ERROR_IGNOR_RAW_TYPE) || errorMessage.contains(ERROR_IGNOR_CAST) || errorMessage.contains(ERROR_IGNOR_SERIIZABLE)
+			|| (errorMessage.contains(ERROR_IGNOR_UNUSED_IMPORT) && !errorMessage.contains("cannot be resolved"))
+			|| errorMessage.contains(ERROR_IGNOR_DEPRECATION)) {
+			return;
+		}
+		if (!errorFiles.contains(file)) {
+			errorFiles.add(file);
+		}
+		final IMarker newMarker = file.createMarker(PROBLEM_MARKER);
+		if (newMarker.exists()) {
+			newMarker.setAttribute(IMarker.LINE_NUMBER, line);
+			newMarker.setAttribute(IMarker.MESSAGE, configurationName + " " + errorMessage);
+			newMarker.setAttribute(IMarker.SEVERITY, warning ? IMarker.SEVERITY_WARNING : IMarker.SEVERITY_ERROR);
+		}
+	}
+
 	@SuppressWarnings("unused")
 	private String parseCannotFindSymbolMessage(Scanner scanner) {
 		while (scanner.hasNextLine()) {
@@ -0,0 +1,144 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.featurehouse;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import composer.FSTGenComposer;
+
+/**
+ * Tests the reuse and invalidation of parsed files in {@link FSTParseCache}.
+ */
+public class TFSTParseCache {
+
+	private Path directory;
+
+	@Before
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("fstparsecache");
+		write("config.config", "Base\nFeature\n");
+		write("features/Base/Main.java", "public class Main {\n\tint a;\n\n\tvoid m() {}\n}\n");
+		write("features/Feature/Main.java", "public class Main {\n\tvoid m() {\n\t\toriginal();\n\t}\n\n\tvoid n() {}\n}\n");
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				Files.delete(file);
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+				Files.delete(dir);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	@Test
+	public void testCacheHit() throws IOException {
+		final FSTParseCache cache = new FSTParseCache();
+		final String product = compose(cache);
+		assertTrue(product.contains("void n()"));
+		assertEquals(2, cache.size());
+		assertEquals(0, cache.getHits());
+
+		assertEquals(product, compose(cache));
+		assertEquals(2, cache.size());
+		assertEquals(2, cache.getHits());
+	}
+
+	@Test
+	public void testModifiedFile() throws IOException {
+		final FSTParseCache cache = new FSTParseCache();
+		compose(cache);
+		write("features/Base/Main.java", "public class Main {\n\tint b;\n\n\tvoid m() {}\n}\n");
+
+		final String product = compose(cache);
+		assertEquals(1, cache.getHits());
+		assertTrue(product.contains("int b;"));
+		assertEquals(compose(new FSTParseCache()), product);
+	}
+
+	@Test
+	public void testDeletedFile() throws IOException {
+		final FSTParseCache cache = new FSTParseCache();
+		compose(cache);
+		Files.delete(directory.resolve("features/Feature/Main.java"));
+
+		compose(cache);
+		assertEquals(1, cache.size());
+		assertEquals(1, cache.getHits());
+	}
+
+	@Test
+	public void testLeastRecentlyUsedFileIsRemoved() throws IOException {
+		final FSTParseCache cache = new FSTParseCache(1);
+		compose(cache);
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void testClear() throws IOException {
+		final FSTParseCache cache = new FSTParseCache();
+		compose(cache);
+		cache.clear();
+		assertEquals(0, cache.size());
+
+		compose(cache);
+		assertEquals(0, cache.getHits());
+	}
+
+	private String compose(FSTParseCache cache) throws IOException {
+		final File output = directory.resolve("output").toFile();
+		new File(output, "config").mkdirs();
+		final FSTGenComposer composer = new FSTGenComposer(false);
+		cache.install(composer);
+		composer.run(new String[] { "--expression", directory.resolve("config.config").toString(), "--base-directory",
+			directory.resolve("features").toString(), "--output-directory", output.toString() + File.separator });
+		return new String(Files.readAllBytes(new File(new File(output, "config"), "Main.java").toPath()), StandardCharsets.UTF_8);
+	}
+
+	private void write(String path, String content) throws IOException {
+		final Path file = directory.resolve(path);
+		Files.createDirectories(file.getParent());
+		Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
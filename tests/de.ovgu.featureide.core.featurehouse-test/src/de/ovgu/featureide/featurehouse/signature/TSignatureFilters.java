@@ -0,0 +1,199 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.featurehouse.signature;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Or;
+
+import de.ovgu.featureide.core.signature.ProjectSignatures;
+import de.ovgu.featureide.core.signature.base.AFeatureData;
+import de.ovgu.featureide.core.signature.base.AbstractFieldSignature;
+import de.ovgu.featureide.core.signature.base.AbstractSignature;
+import de.ovgu.featureide.core.signature.base.FeatureDataConstructor;
+import de.ovgu.featureide.core.signature.base.IConstrainedObject;
+import de.ovgu.featureide.core.signature.filter.ConstraintFilter;
+import de.ovgu.featureide.core.signature.filter.ContextFilter;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+import de.ovgu.featureide.fm.core.io.guidsl.GuidslFormat;
+
+/**
+ * Compares the memoized results of {@link ContextFilter} and {@link ConstraintFilter} with the results of new filters, which check each object on their
+ * own.
+ */
+public class TSignatureFilters {
+
+	private static final String MODEL = "S : [A] [B] [C] T [U] :: _S; T : D | E | F; U : G | H :: _U; %% A implies D; B implies not E; C implies (F or G);"
+		+ " G implies not A;";
+	private static final String[] CONCRETE_FEATURES = { "A", "B", "C", "D", "E", "F", "G", "H" };
+
+	private final Random random = new Random(42);
+
+	private ProjectSignatures projectSignatures;
+	private List<AbstractSignature> signatures;
+
+	@Before
+	public void setUp() throws Exception {
+		final GuidslFormat format = new GuidslFormat();
+		final IFeatureModel featureModel = FMFactoryManager.getDefaultFactoryForFormat(format).createFeatureModel();
+		assertFalse(format.read(featureModel, MODEL).containsError());
+		projectSignatures = new ProjectSignatures(featureModel);
+
+		final FeatureDataConstructor featureDataConstructor = new FeatureDataConstructor(projectSignatures, FeatureDataConstructor.TYPE_FOP);
+		signatures = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			final AFeatureData[] featureData = new AFeatureData[1 + random.nextInt(3)];
+			for (int j = 0; j < featureData.length; j++) {
+				featureData[j] = featureDataConstructor.create(projectSignatures.getFeatureID(randomFeature()), 1, 1);
+			}
+			final AbstractSignature signature = new AbstractFieldSignature(null, "field" + i, "public", "int", 1) {};
+			signature.setFeatureData(featureData);
+			signatures.add(signature);
+		}
+		projectSignatures.setSignatureArray(signatures.toArray(new AbstractSignature[signatures.size()]));
+	}
+
+	@Test
+	public void testContextFilter() {
+		final ContextFilter filter = new ContextFilter("A", projectSignatures);
+		assertSameResults(filter, "A");
+		// the results of the previous context must not be reused
+		filter.init("C");
+		assertSameResults(filter, "C");
+		filter.init(new Node[] { new Literal("B"), new Literal("G") });
+		for (final AbstractSignature signature : signatures) {
+			final ContextFilter unmemoizedFilter = new ContextFilter(new Node[] { new Literal("B"), new Literal("G") }, projectSignatures);
+			assertEquals(unmemoizedFilter.isValid(signature), filter.isValid(signature));
+		}
+	}
+
+	@Test
+	public void testContextFilterEvaluate() {
+		final ContextFilter filter = new ContextFilter("A", projectSignatures);
+		filter.evaluate(projectSignatures);
+		assertSameResults(filter, "A");
+		filter.init("C");
+		filter.evaluate(signatures.subList(0, signatures.size() / 2));
+		assertSameResults(filter, "C");
+	}
+
+	@Test
+	public void testConstraintFilter() {
+		final Node[] context = { new Literal("A"), new Implies(new Literal("B"), new Literal("C")) };
+		final ConstraintFilter filter = new ConstraintFilter(context);
+		for (final IConstrainedObject object : createConstrainedObjects()) {
+			assertEquals(new ConstraintFilter(context).isValid(object), filter.isValid(object));
+		}
+	}
+
+	@Test
+	public void testConstraintFilterParallel() throws Exception {
+		final Node[] context = { new Literal("A"), new Implies(new Literal("B"), new Literal("C")) };
+		final List<IConstrainedObject> objects = createConstrainedObjects();
+		final List<Boolean> expected = new ArrayList<>();
+		for (final IConstrainedObject object : objects) {
+			expected.add(new ConstraintFilter(context).isValid(object));
+		}
+
+		final ConstraintFilter filter = new ConstraintFilter(context);
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final List<Future<List<Boolean>>> futures = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				futures.add(executor.submit(new Callable<List<Boolean>>() {
+
+					@Override
+					public List<Boolean> call() throws Exception {
+						final List<Boolean> results = new ArrayList<>();
+						for (final IConstrainedObject object : objects) {
+							results.add(filter.isValid(object));
+						}
+						return results;
+					}
+				}));
+			}
+			for (final Future<List<Boolean>> future : futures) {
+				assertEquals(expected, future.get());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private void assertSameResults(ContextFilter filter, String feature) {
+		for (final AbstractSignature signature : signatures) {
+			assertEquals(new ContextFilter(feature, projectSignatures).isValid(signature), filter.isValid(signature));
+		}
+	}
+
+	/**
+	 * @return objects with random constraints, where many objects share an equal constraint
+	 */
+	private List<IConstrainedObject> createConstrainedObjects() {
+		final List<IConstrainedObject> objects = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			final Node constraint;
+			switch (random.nextInt(4)) {
+			case 0:
+				constraint = null;
+				break;
+			case 1:
+				constraint = new Literal(randomFeature(), random.nextBoolean());
+				break;
+			case 2:
+				constraint = new Or(new Literal(randomFeature(), random.nextBoolean()), new Literal(randomFeature(), random.nextBoolean()));
+				break;
+			default:
+				constraint = new And(new Literal(randomFeature(), random.nextBoolean()), new Literal(randomFeature(), random.nextBoolean()));
+				break;
+			}
+			objects.add(new IConstrainedObject() {
+
+				@Override
+				public Node getConstraint() {
+					return constraint;
+				}
+			});
+		}
+		return objects;
+	}
+
+	private String randomFeature() {
+		return CONCRETE_FEATURES[random.nextInt(CONCRETE_FEATURES.length)];
+	}
+
+}
@@ -0,0 +1,106 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.core.munge;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Not;
+import org.prop4j.Or;
+import org.sat4j.specs.TimeoutException;
+
+import de.ovgu.featureide.core.builder.preprocessor.AnnotationChecker;
+import de.ovgu.featureide.core.builder.preprocessor.PPComposerExtensionClass.AnnotationStatus;
+
+/**
+ * Tests the {@link AnnotationChecker} with nested Munge directives, such as <code>/*if[A]*&#47; ... /*if[B]*&#47;</code>.
+ */
+public class TAnnotationChecker {
+
+	/**
+	 * Root is mandatory, A, B, and C are optional, A excludes B, and C requires A.
+	 */
+	private static final Node FEATURE_MODEL = new And(new Literal("Root"), new Implies(new Literal("A"), new Literal("Root")),
+			new Implies(new Literal("B"), new Literal("Root")), new Implies(new Literal("C"), new Literal("A")), new Not(new And(new Literal("A"), new Literal("B"))));
+
+	private static AnnotationStatus getStatus(AnnotationChecker checker, Node... expressionStack) throws TimeoutException {
+		return checker.getStatus(Arrays.asList(expressionStack));
+	}
+
+	@Test
+	public void testNormal() throws TimeoutException {
+		final AnnotationChecker checker = new AnnotationChecker(FEATURE_MODEL);
+		assertFalse(checker.isFeatureModelVoid());
+		assertEquals(AnnotationStatus.NORMAL, getStatus(checker, new Literal("A")));
+		assertEquals(AnnotationStatus.NORMAL, getStatus(checker, new Literal("A"), new Literal("C")));
+		assertEquals(AnnotationStatus.NORMAL, getStatus(checker, new Not(new Literal("B")), new Literal("A")));
+	}
+
+	@Test
+	public void testDead() throws TimeoutException {
+		final AnnotationChecker checker = new AnnotationChecker(FEATURE_MODEL);
+		// if[A] ... if[B]
+		assertEquals(AnnotationStatus.DEAD, getStatus(checker, new Literal("A"), new Literal("B")));
+		// if[B] ... if[C]
+		assertEquals(AnnotationStatus.DEAD, getStatus(checker, new Literal("B"), new Literal("C")));
+		// if_not[Root]
+		assertEquals(AnnotationStatus.DEAD, getStatus(checker, new Not(new Literal("Root"))));
+	}
+
+	@Test
+	public void testSuperfluous() throws TimeoutException {
+		final AnnotationChecker checker = new AnnotationChecker(FEATURE_MODEL);
+		// if[Root]
+		assertEquals(AnnotationStatus.SUPERFLUOUS, getStatus(checker, new Literal("Root")));
+		// if[C] ... if[A]
+		assertEquals(AnnotationStatus.SUPERFLUOUS, getStatus(checker, new Literal("C"), new Literal("A")));
+		// if[A] ... if_not[B]
+		assertEquals(AnnotationStatus.SUPERFLUOUS, getStatus(checker, new Literal("A"), new Not(new Literal("B"))));
+	}
+
+	@Test
+	public void testContradictionAndTautology() throws TimeoutException {
+		final AnnotationChecker checker = new AnnotationChecker(FEATURE_MODEL);
+		assertEquals(AnnotationStatus.CONTRADICTION, getStatus(checker, new And(new Literal("A"), new Not(new Literal("A")))));
+		assertEquals(AnnotationStatus.TAUTOLOGY, getStatus(checker, new Or(new Literal("B"), new Not(new Literal("B")))));
+	}
+
+	@Test
+	public void testCopyAndReset() throws TimeoutException {
+		final AnnotationChecker checker = new AnnotationChecker(new AnnotationChecker(FEATURE_MODEL));
+		// encode enough expressions to recreate the solver several times
+		for (int i = 0; i < 50; i++) {
+			final Node expression = new Or(new Literal("A"), new Literal("X" + i));
+			assertEquals(AnnotationStatus.NORMAL, getStatus(checker, expression));
+			assertEquals(AnnotationStatus.DEAD, getStatus(checker, new Literal("B"), new And(new Literal("C"), new Literal("X" + i))));
+			assertEquals(AnnotationStatus.SUPERFLUOUS, getStatus(checker, new Literal("C"), expression));
+		}
+		assertFalse(checker.isFeatureModelVoid());
+	}
+
+}
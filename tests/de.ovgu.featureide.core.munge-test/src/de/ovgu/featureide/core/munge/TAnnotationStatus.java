@@ -0,0 +1,72 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.core.munge;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.core.builder.preprocessor.PPComposerExtensionClass.AnnotationStatus;
+import de.ovgu.featureide.fm.core.editing.Comparison;
+
+/**
+ * Tests which Munge directives have to be checked again after an edit of the feature model that does not affect their features (see
+ * {@link AnnotationStatus#mayChange(Comparison)}).
+ */
+public class TAnnotationStatus {
+
+	@Test
+	public void testRefactoring() {
+		for (final AnnotationStatus status : AnnotationStatus.values()) {
+			assertFalse(status.toString(), status.mayChange(Comparison.REFACTORING));
+		}
+	}
+
+	@Test
+	public void testGeneralization() {
+		assertFalse(AnnotationStatus.NORMAL.mayChange(Comparison.GENERALIZATION));
+		assertTrue(AnnotationStatus.DEAD.mayChange(Comparison.GENERALIZATION));
+		assertTrue(AnnotationStatus.SUPERFLUOUS.mayChange(Comparison.GENERALIZATION));
+		assertFalse(AnnotationStatus.CONTRADICTION.mayChange(Comparison.GENERALIZATION));
+		assertFalse(AnnotationStatus.TAUTOLOGY.mayChange(Comparison.GENERALIZATION));
+	}
+
+	@Test
+	public void testSpecialization() {
+		assertTrue(AnnotationStatus.NORMAL.mayChange(Comparison.SPECIALIZATION));
+		assertFalse(AnnotationStatus.DEAD.mayChange(Comparison.SPECIALIZATION));
+		assertTrue(AnnotationStatus.SUPERFLUOUS.mayChange(Comparison.SPECIALIZATION));
+		assertFalse(AnnotationStatus.CONTRADICTION.mayChange(Comparison.SPECIALIZATION));
+		assertFalse(AnnotationStatus.TAUTOLOGY.mayChange(Comparison.SPECIALIZATION));
+	}
+
+	@Test
+	public void testUnknownEdit() {
+		final Comparison[] comparisons = { Comparison.ARBITRARY, Comparison.TIMEOUT, Comparison.OUTOFMEMORY, Comparison.ERROR };
+		for (final AnnotationStatus status : AnnotationStatus.values()) {
+			for (final Comparison comparison : comparisons) {
+				assertTrue(status + " " + comparison, status.mayChange(comparison));
+			}
+		}
+	}
+
+}
@@ -26,14 +26,23 @@ import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.FileFilter;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.Set;
 
 import org.junit.Test;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Not;
 
 import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
 import de.ovgu.featureide.fm.core.base.IConstraint;
 import de.ovgu.featureide.fm.core.base.IFeature;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureModelFactory;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+import de.ovgu.featureide.fm.core.functional.Functional;
 import de.ovgu.featureide.fm.core.io.manager.FeatureModelManager;
 
 /**
@@ -287,4 +296,90 @@ public class TFeatureModelAnalyzer {
 		assertTrue(FM4_F1.getProperty().getFeatureStatus() == FeatureStatus.INDETERMINATE_HIDDEN);
 	}
 
+	@Test
+	public void TIncrementalAnalysis() {
+		final IFeatureModel fm = init("test_4.xml");
+		final FeatureModelAnalyzer analyzer = fm.getAnalyser();
+		analyzer.analyzeFeatureModel(null);
+
+		final IFeatureModelFactory factory = FMFactoryManager.getFactory(fm);
+		final IConstraint deadF = factory.createConstraint(fm, new Implies(new Literal("G"), new Not(new Literal("F"))));
+		final IConstraint coreA = factory.createConstraint(fm, new Literal("A"));
+		fm.addConstraint(deadF);
+		fm.addConstraint(coreA);
+		assertSameResults(analyzer, fm);
+		assertTrue(analyzer.getCachedDeadFeatures().contains(fm.getFeature("F")));
+		assertTrue(analyzer.getCachedCoreFeatures().contains(fm.getFeature("A")));
+
+		fm.removeConstraint(deadF);
+		assertSameResults(analyzer, fm);
+		assertFalse(analyzer.getCachedDeadFeatures().contains(fm.getFeature("F")));
+
+		fm.addConstraint(factory.createConstraint(fm, new Not(new Literal("A"))));
+		assertSameResults(analyzer, fm);
+		assertFalse(analyzer.valid());
+
+		fm.removeConstraint(coreA);
+		assertSameResults(analyzer, fm);
+		assertTrue(analyzer.valid());
+	}
+
+	@Test
+	public void TIncrementalAnalysisOptionalChild() {
+		final IFeatureModelFactory factory = FMFactoryManager.getDefaultFactory();
+		final IFeatureModel fm = factory.createFeatureModel();
+		final IFeature r = factory.createFeature(fm, "R");
+		final IFeature a = factory.createFeature(fm, "A");
+		final IFeature c = factory.createFeature(fm, "C");
+		FeatureUtils.addFeature(fm, r);
+		FeatureUtils.addFeature(fm, a);
+		FeatureUtils.addFeature(fm, c);
+		FeatureUtils.setRoot(fm, r);
+		FeatureUtils.addChild(r, a);
+		FeatureUtils.addChild(a, c);
+		FeatureUtils.setMandatory(a, false);
+		FeatureUtils.setMandatory(c, true);
+		fm.addConstraint(factory.createConstraint(fm, new Implies(new Literal("A"), new Literal("C"))));
+		final FeatureModelAnalyzer analyzer = new FeatureModelAnalyzer(fm);
+		analyzer.analyzeFeatureModel(null);
+
+		// the formula gets weaker, but C becomes a candidate for a false-optional feature
+		FeatureUtils.setMandatory(c, false);
+		assertSameResults(analyzer, fm);
+		assertTrue(analyzer.getCachedFalseOptionalFeatures().contains(c));
+	}
+
+	@Test
+	public void TParallelAnalysis() {
+		for (final File f : MODEL_FILE_FOLDER.listFiles(filter)) {
+			final IFeatureModel fm = FeatureModelManager.load(f.toPath()).getObject();
+			final FeatureModelAnalyzer sequentialAnalyzer = new FeatureModelAnalyzer(fm);
+			sequentialAnalyzer.setNumberOfThreads(1);
+			sequentialAnalyzer.analyzeFeatureModel(null);
+			final FeatureModelAnalyzer parallelAnalyzer = new FeatureModelAnalyzer(fm);
+			parallelAnalyzer.setNumberOfThreads(4);
+			parallelAnalyzer.analyzeFeatureModel(null);
+
+			final String name = f.getName();
+			assertEquals(name, sequentialAnalyzer.valid(), parallelAnalyzer.valid());
+			assertEquals(name, getNames(sequentialAnalyzer.getCachedCoreFeatures()), getNames(parallelAnalyzer.getCachedCoreFeatures()));
+			assertEquals(name, getNames(sequentialAnalyzer.getCachedDeadFeatures()), getNames(parallelAnalyzer.getCachedDeadFeatures()));
+			assertEquals(name, getNames(sequentialAnalyzer.getCachedFalseOptionalFeatures()), getNames(parallelAnalyzer.getCachedFalseOptionalFeatures()));
+		}
+	}
+
+	private static void assertSameResults(FeatureModelAnalyzer analyzer, IFeatureModel fm) {
+		analyzer.analyzeFeatureModel(null);
+		final FeatureModelAnalyzer fullAnalyzer = new FeatureModelAnalyzer(fm);
+		fullAnalyzer.analyzeFeatureModel(null);
+		assertEquals(fullAnalyzer.valid(), analyzer.valid());
+		assertEquals(getNames(fullAnalyzer.getCachedCoreFeatures()), getNames(analyzer.getCachedCoreFeatures()));
+		assertEquals(getNames(fullAnalyzer.getCachedDeadFeatures()), getNames(analyzer.getCachedDeadFeatures()));
+		assertEquals(getNames(fullAnalyzer.getCachedFalseOptionalFeatures()), getNames(analyzer.getCachedFalseOptionalFeatures()));
+	}
+
+	private static Set<String> getNames(Collection<IFeature> features) {
+		return Functional.toSet(FeatureUtils.extractFeatureNames(features));
+	}
+
 }
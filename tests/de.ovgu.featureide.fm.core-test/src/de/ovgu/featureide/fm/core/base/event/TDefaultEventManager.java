@@ -0,0 +1,124 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.base.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent.EventType;
+
+/**
+ * Tests for {@link DefaultEventManager}.
+ */
+public class TDefaultEventManager {
+
+	private static class RecordingListener implements IEventListener {
+
+		private final List<EventType> events = Collections.synchronizedList(new ArrayList<EventType>());
+
+		@Override
+		public void propertyChange(FeatureIDEEvent event) {
+			events.add(event.getEventType());
+		}
+	}
+
+	@Test
+	public void testBatch() {
+		final DefaultEventManager eventManager = new DefaultEventManager();
+		final RecordingListener listener = new RecordingListener();
+		eventManager.addListener(listener);
+		final Object source = new Object();
+
+		eventManager.beginBatch();
+		eventManager.beginBatch();
+		for (int i = 0; i < 1000; i++) {
+			eventManager.fireEvent(new FeatureIDEEvent(source, EventType.MODEL_DATA_CHANGED, Boolean.FALSE, Boolean.TRUE));
+			eventManager.fireEvent(new FeatureIDEEvent(source, EventType.FEATURE_NAME_CHANGED, "A", "B"));
+		}
+		eventManager.fireEvent(new FeatureIDEEvent(source, EventType.FEATURE_NAME_CHANGED, "B", "C"));
+		eventManager.endBatch();
+		assertTrue(listener.events.isEmpty());
+
+		eventManager.endBatch();
+		assertEquals(Arrays.asList(EventType.MODEL_DATA_CHANGED, EventType.FEATURE_NAME_CHANGED, EventType.FEATURE_NAME_CHANGED), listener.events);
+
+		eventManager.fireEvent(new FeatureIDEEvent(source, EventType.MODEL_DATA_CHANGED, Boolean.FALSE, Boolean.TRUE));
+		assertEquals(4, listener.events.size());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testEndWithoutBatch() {
+		new DefaultEventManager().endBatch();
+	}
+
+	@Test
+	public void testRemoveWhileFiring() {
+		final DefaultEventManager eventManager = new DefaultEventManager();
+		final RecordingListener listener = new RecordingListener();
+		eventManager.addListener(new IEventListener() {
+
+			@Override
+			public void propertyChange(FeatureIDEEvent event) {
+				eventManager.removeListener(this);
+			}
+		});
+		eventManager.addListener(listener);
+		eventManager.addListener(listener);
+
+		eventManager.fireEvent(FeatureIDEEvent.getDefault(EventType.DEFAULT));
+		eventManager.fireEvent(FeatureIDEEvent.getDefault(EventType.DEFAULT));
+		assertEquals(2, listener.events.size());
+	}
+
+	@Test
+	public void testAsyncListener() throws InterruptedException {
+		final DefaultEventManager eventManager = new DefaultEventManager();
+		final RecordingListener listener = new RecordingListener();
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		eventManager.addListener(listener, executor);
+		eventManager.addListener(listener);
+
+		final List<EventType> expectedEvents = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			final EventType eventType = EventType.values()[i % EventType.values().length];
+			expectedEvents.add(eventType);
+			eventManager.fireEvent(FeatureIDEEvent.getDefault(eventType));
+		}
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+		assertEquals(expectedEvents, listener.events);
+
+		eventManager.removeListener(listener);
+		eventManager.fireEvent(FeatureIDEEvent.getDefault(EventType.DEFAULT));
+		assertEquals(expectedEvents.size(), listener.events.size());
+	}
+
+}
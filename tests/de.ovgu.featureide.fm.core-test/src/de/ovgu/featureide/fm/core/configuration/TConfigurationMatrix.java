@@ -0,0 +1,130 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.configuration;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+
+/**
+ * Tests the incremental and parallel computation of the recommendation values of a {@link ConfigurationMatrix}.
+ */
+public class TConfigurationMatrix extends AbstractConfigurationTest {
+
+	private static final int NUMBER_OF_FEATURES = 12;
+	private static final double DELTA = 1e-9;
+
+	private Path folder;
+
+	@Override
+	IFeatureModel loadModel() {
+		final StringBuilder grammar = new StringBuilder("S : ");
+		for (int i = 0; i < NUMBER_OF_FEATURES; i++) {
+			grammar.append("[F").append(i).append("] ");
+		}
+		grammar.append(":: _S;");
+		return loadGUIDSL(grammar.toString());
+	}
+
+	@Before
+	public void createConfigurations() throws IOException {
+		folder = Files.createTempDirectory("matrix");
+		final Random random = new Random(0);
+		for (int j = 0; j < 80; j++) {
+			final StringBuilder content = new StringBuilder("S\n");
+			for (int i = 0; i < NUMBER_OF_FEATURES; i++) {
+				if (random.nextBoolean()) {
+					content.append('F').append(i).append('\n');
+				}
+			}
+			Files.write(folder.resolve("config" + j + ".config"), content.toString().getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
+	@After
+	public void deleteConfigurations() throws IOException {
+		for (final Path file : Files.newDirectoryStream(folder)) {
+			Files.delete(file);
+		}
+		Files.delete(folder);
+	}
+
+	private ConfigurationMatrix createMatrix() {
+		final ConfigurationMatrix matrix = new ConfigurationMatrix(fm, folder);
+		matrix.readConfigurations();
+		return matrix;
+	}
+
+	private double[] computeFromScratch(Configuration configuration) {
+		final ConfigurationMatrix matrix = createMatrix();
+		matrix.calcRec(configuration);
+		return matrix.getRec();
+	}
+
+	@Test
+	public void testUpdate() {
+		final Random random = new Random(1);
+		final ConfigurationMatrix matrix = createMatrix();
+		final Configuration configuration = new Configuration(fm, false);
+		matrix.calcRec(configuration);
+		assertArrayEquals(computeFromScratch(configuration), matrix.getRec(), DELTA);
+
+		final List<SelectableFeature> features = configuration.getFeatures();
+		for (int step = 0; step < 30; step++) {
+			// select or deselect a few features, such that the previous values are updated
+			for (int k = random.nextInt(3); k >= 0; k--) {
+				final SelectableFeature feature = features.get(random.nextInt(features.size()));
+				feature.setManual(feature.getSelection() == Selection.SELECTED ? Selection.UNSELECTED : Selection.SELECTED);
+			}
+			matrix.calcRec(configuration);
+			assertArrayEquals(computeFromScratch(configuration), matrix.getRec(), DELTA);
+		}
+	}
+
+	@Test
+	public void testRecomputeParallel() {
+		final Random random = new Random(2);
+		final Configuration configuration = new Configuration(fm, false);
+		for (int step = 0; step < 10; step++) {
+			for (final SelectableFeature feature : configuration.getFeatures()) {
+				feature.setManual(random.nextBoolean() ? Selection.SELECTED : Selection.UNSELECTED);
+			}
+			// the first computation of a matrix is never incremental
+			final ConfigurationMatrix parallelMatrix = createMatrix();
+			parallelMatrix.setNumberOfThreads(4);
+			parallelMatrix.setParallelThreshold(0);
+			parallelMatrix.calcRec(configuration);
+			assertArrayEquals(computeFromScratch(configuration), parallelMatrix.getRec(), DELTA);
+		}
+	}
+
+}
@@ -0,0 +1,98 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.configuration;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+
+/**
+ * Tests for {@link ConfigurationValidator}.
+ */
+public class TConfigurationValidator extends AbstractConfigurationTest {
+
+	private static final String[] FEATURES = { "A", "B", "C", "D", "E" };
+
+	@Override
+	IFeatureModel loadModel() {
+		return loadGUIDSL("S : [A] [B] C [T] :: _S; T : D | E; %% not B; A implies D;");
+	}
+
+	private List<Configuration> getAllSelections(Configuration template) {
+		final List<Configuration> configurations = new ArrayList<>();
+		for (int bits = 0; bits < (1 << FEATURES.length); bits++) {
+			final Configuration configuration = template.clone();
+			for (int i = 0; i < FEATURES.length; i++) {
+				configuration.setManual(FEATURES[i], ((bits >> i) & 1) != 0 ? Selection.SELECTED : Selection.UNSELECTED);
+			}
+			configurations.add(configuration);
+		}
+		return configurations;
+	}
+
+	@Test
+	public void testSameAsConfiguration() {
+		for (final boolean ignoreAbstractFeatures : new boolean[] { true, false }) {
+			final Configuration template = new Configuration(fm, false, ignoreAbstractFeatures);
+			final ConfigurationValidator validator = new ConfigurationValidator(template);
+			for (final Configuration configuration : getAllSelections(template)) {
+				assertEquals(configuration.toString(), configuration.isValid(), validator.isValid(configuration));
+			}
+		}
+	}
+
+	@Test
+	public void testConcurrent() throws Exception {
+		final ConfigurationValidator validator = new ConfigurationValidator(fm);
+		final List<Configuration> configurations = getAllSelections(new Configuration(fm, false));
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final List<Future<Boolean>> futures = new ArrayList<>();
+			for (int round = 0; round < 20; round++) {
+				for (final Configuration configuration : configurations) {
+					futures.add(executor.submit(new Callable<Boolean>() {
+
+						@Override
+						public Boolean call() throws Exception {
+							return validator.isValid(configuration);
+						}
+					}));
+				}
+			}
+			for (int i = 0; i < futures.size(); i++) {
+				final Configuration configuration = configurations.get(i % configurations.size());
+				assertEquals(configuration.toString(), configuration.isValid(), futures.get(i).get());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+}
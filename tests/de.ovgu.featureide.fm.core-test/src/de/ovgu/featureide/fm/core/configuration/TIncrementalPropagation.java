@@ -0,0 +1,97 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.configuration;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+
+/**
+ * Compares the incremental propagation of a configuration that is edited step by step with a full propagation of the same manual selections.
+ */
+public class TIncrementalPropagation extends AbstractConfigurationTest {
+
+	private final Map<String, Selection> manualSelections = new LinkedHashMap<>();
+
+	@Override
+	IFeatureModel loadModel() {
+		return loadGUIDSL("S : [A] [B] [C] T [U] :: _S; T : D | E | F; U : G | H :: _U; %% A implies D; B implies not E; C implies (F or G); G implies not A;");
+	}
+
+	@Test
+	public void testSelections() {
+		final Configuration c = new Configuration(fm, true);
+		step(c, "A", Selection.SELECTED);
+		step(c, "B", Selection.SELECTED);
+		step(c, "U", Selection.SELECTED);
+	}
+
+	@Test
+	public void testDeselections() {
+		final Configuration c = new Configuration(fm, true);
+		step(c, "D", Selection.UNSELECTED);
+		step(c, "F", Selection.UNSELECTED);
+		step(c, "C", Selection.UNSELECTED);
+	}
+
+	@Test
+	public void testMixedWithUndo() {
+		final Configuration c = new Configuration(fm, true);
+		step(c, "C", Selection.SELECTED);
+		step(c, "B", Selection.SELECTED);
+		step(c, "F", Selection.UNSELECTED);
+		step(c, "F", Selection.UNDEFINED);
+		step(c, "B", Selection.UNDEFINED);
+		step(c, "C", Selection.UNDEFINED);
+		step(c, "A", Selection.SELECTED);
+		step(c, "U", Selection.UNSELECTED);
+		step(c, "A", Selection.UNDEFINED);
+		step(c, "U", Selection.UNDEFINED);
+	}
+
+	private void step(Configuration configuration, String name, Selection selection) {
+		configuration.setManual(name, selection);
+		if (selection == Selection.UNDEFINED) {
+			manualSelections.remove(name);
+		} else {
+			manualSelections.put(name, selection);
+		}
+
+		final Configuration expected = new Configuration(fm, false);
+		for (final Entry<String, Selection> entry : manualSelections.entrySet()) {
+			expected.setManual(entry.getKey(), entry.getValue());
+		}
+		expected.setPropagate(true);
+		expected.update(false, null);
+
+		for (final SelectableFeature feature : expected.getFeatures()) {
+			final SelectableFeature actual = configuration.getSelectablefeature(feature.getName());
+			assertEquals(name + "=" + selection + ": " + feature.getName(), feature.getSelection(), actual.getSelection());
+		}
+	}
+
+}
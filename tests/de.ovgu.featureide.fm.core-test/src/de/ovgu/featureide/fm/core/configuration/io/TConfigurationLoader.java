@@ -0,0 +1,123 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.configuration.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+import de.ovgu.featureide.fm.core.configuration.Configuration;
+import de.ovgu.featureide.fm.core.configuration.io.ConfigurationLoader.Statistics;
+import de.ovgu.featureide.fm.core.io.guidsl.GuidslFormat;
+
+/**
+ * Tests for {@link ConfigurationLoader}.
+ */
+public class TConfigurationLoader {
+
+	private IFeatureModel featureModel;
+	private Path folder;
+
+	@Before
+	public void setUp() throws IOException {
+		featureModel = FMFactoryManager.getDefaultFactory().createFeatureModel();
+		new GuidslFormat().read(featureModel, "S : [A] [B] C :: _S; %% not B;");
+
+		folder = Files.createTempDirectory("configs");
+		write("valid1.config", "S\nC\n");
+		write("valid2.config", "S\nA\nC\n");
+		write("valid3.config", "S\nA\nC\n");
+		write("invalid1.config", "S\nB\nC\n");
+		write("invalid2.config", "S\nA\n");
+		// counts as a file, but not as a configuration
+		write("broken.xml", "<configuration><feature");
+		write("model.xml", "<featureModel/>");
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		for (final Path file : Files.newDirectoryStream(folder)) {
+			Files.delete(file);
+		}
+		Files.delete(folder);
+	}
+
+	private void write(String name, String content) throws IOException {
+		Files.write(folder.resolve(name), content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testSequential() {
+		check(1);
+	}
+
+	@Test
+	public void testParallel() {
+		check(4);
+	}
+
+	@Test
+	public void testParallelEqualsSequential() {
+		assertEquals(load(1), load(4));
+	}
+
+	private void check(int numberOfThreads) {
+		final ConfigurationLoader loader = new ConfigurationLoader();
+		loader.setValidateConfigs(true);
+		loader.setNumberOfThreads(numberOfThreads);
+		final List<Configuration> configurations = loader.loadConfigurations(featureModel, folder, "model.xml");
+
+		assertEquals(5, configurations.size());
+		assertEquals(2, loader.getInvalidConfigurations().size());
+		for (final Configuration configuration : loader.getInvalidConfigurations()) {
+			assertTrue(configurations.contains(configuration));
+		}
+
+		final Statistics statistics = loader.getStatistics();
+		assertEquals(6, statistics.getNumberOfFiles());
+		assertEquals(5, statistics.getNumberOfConfigurations());
+		assertEquals(2, statistics.getNumberOfInvalidConfigurations());
+	}
+
+	private List<String> load(int numberOfThreads) {
+		final ConfigurationLoader loader = new ConfigurationLoader();
+		loader.setNumberOfThreads(numberOfThreads);
+		final List<String> selections = new ArrayList<>();
+		for (final Configuration configuration : loader.loadConfigurations(featureModel, folder, "model.xml")) {
+			selections.add(configuration.toString());
+		}
+		assertEquals(-1, loader.getStatistics().getNumberOfInvalidConfigurations());
+		return selections;
+	}
+
+}
@@ -0,0 +1,116 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.editing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.prop4j.Node;
+import org.prop4j.solver.ModelCounter;
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.CNFType;
+
+/**
+ * Tests for {@link CNFEmitter}.
+ */
+public class CNFEmitterTests {
+
+	private static final String[] MODELS = { "10-100.xml", "200-100.xml", "berkeley_db_model.xml" };
+
+	@Test
+	public void testSameSolutionsAsNodeCreator() {
+		for (final String modelName : MODELS) {
+			final IFeatureModel fm = Commons.loadBenchmarkFeatureModelFromFile(modelName);
+
+			// recording the trace model forces the node creator to transform the complete formula
+			final AdvancedNodeCreator nodeCreator = new AdvancedNodeCreator(fm);
+			nodeCreator.setCnfType(CNFType.Regular);
+			nodeCreator.setIncludeBooleanValues(false);
+			nodeCreator.setRecordTraceModel(true);
+			final Node expected = nodeCreator.createNodes();
+
+			final CNFEmitter emitter = new CNFEmitter(fm);
+			emitter.setIncludeBooleanValues(false);
+			final Node actual = emitter.createNode(CNFType.Regular);
+
+			final List<String> features = FeatureUtils.getFeatureNamesPreorder(fm);
+			assertEquals(modelName, new ModelCounter(new SatInstance(expected, features)).count(),
+					new ModelCounter(new SatInstance(actual, features)).count());
+		}
+	}
+
+	@Test
+	public void testTseitin() {
+		for (final String modelName : MODELS) {
+			final IFeatureModel fm = Commons.loadBenchmarkFeatureModelFromFile(modelName);
+
+			final CNFEmitter emitter = new CNFEmitter(fm);
+			emitter.setIncludeBooleanValues(false);
+			final Node expected = emitter.createNode(CNFType.Regular);
+			final int numberOfVariables = emitter.getVariables().size();
+
+			emitter.setTseitinThreshold(1);
+			final Node actual = emitter.createNode(CNFType.Regular);
+			assertEquals(numberOfVariables + emitter.getNumberOfAuxiliaryVariables(), emitter.getVariables().size());
+
+			assertEquals(modelName, new ModelCounter(new SatInstance(expected, emitter.getVariables().subList(0, numberOfVariables))).count(),
+					new ModelCounter(new SatInstance(actual, emitter.getVariables())).count());
+		}
+	}
+
+	@Test
+	public void testNoDuplicateClauses() {
+		final CNFEmitter emitter = new CNFEmitter(Commons.loadBenchmarkFeatureModelFromFile("1000-100.xml"));
+		final List<int[]> clauses = new ArrayList<>();
+		emitter.emit(new IClauseSink() {
+
+			@Override
+			public void addClause(int[] clause) {
+				clauses.add(clause);
+			}
+		});
+		assertEquals(clauses.size(), emitter.getNumberOfClauses());
+
+		final Set<List<Integer>> uniqueClauses = new HashSet<>();
+		for (final int[] clause : clauses) {
+			final int[] sortedClause = Arrays.copyOf(clause, clause.length);
+			Arrays.sort(sortedClause);
+			final List<Integer> clauseList = new ArrayList<>();
+			for (final int literal : sortedClause) {
+				assertTrue(!clauseList.contains(literal) && !clauseList.contains(-literal));
+				clauseList.add(literal);
+			}
+			assertTrue(uniqueClauses.add(clauseList));
+		}
+	}
+
+}
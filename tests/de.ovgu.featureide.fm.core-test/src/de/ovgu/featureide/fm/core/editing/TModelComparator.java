@@ -24,12 +24,15 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.io.FileNotFoundException;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
 import org.junit.Test;
+import org.prop4j.Literal;
 import org.prop4j.Node;
 import org.prop4j.NodeReader;
+import org.prop4j.Or;
 import org.sat4j.specs.TimeoutException;
 
 import de.ovgu.featureide.Commons;
@@ -267,8 +270,47 @@ public class TModelComparator {
 
 	}
 
+	@Test
+	public void testViolatedClauses() throws TimeoutException, UnsupportedModelException {
+		final ModelComparator comparator = new ModelComparator(TIMEOUT);
+		assertEquals(Comparison.ARBITRARY, compare(comparator, "S : [A] [B] :: _S; %% A implies B;", "S : [A] [B] :: _S; %% B implies A;"));
+		assertEquals(Collections.singletonList(new Or(new Literal("A", false), new Literal("B"))), comparator.getViolatedClauses(true));
+		assertEquals(Collections.singletonList(new Or(new Literal("B", false), new Literal("A"))), comparator.getViolatedClauses(false));
+	}
+
+	@Test
+	public void testParallelClauseChecks() throws TimeoutException, UnsupportedModelException {
+		final StringBuilder features = new StringBuilder("S : ");
+		final StringBuilder oldConstraints = new StringBuilder();
+		final StringBuilder newConstraints = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			features.append("[F").append(i).append("] ");
+			final String implication = "F" + i + " implies F" + (i + 1) + ";\n";
+			oldConstraints.append(implication);
+			if (i < 50) {
+				newConstraints.append(implication);
+			}
+			newConstraints.append("F").append(i + 1).append(" implies F").append(i).append(";\n");
+		}
+		features.append("[F100] :: _S;\n%%\n");
+		final String oldModel = features.toString() + oldConstraints;
+		final String newModel = features.toString() + newConstraints;
+
+		final ModelComparator sequentialComparator = new ModelComparator(TIMEOUT);
+		final ModelComparator parallelComparator = new ModelComparator(TIMEOUT);
+		parallelComparator.setNumberOfThreads(4);
+		assertEquals(Comparison.ARBITRARY, compare(sequentialComparator, oldModel, newModel));
+		assertEquals(Comparison.ARBITRARY, compare(parallelComparator, oldModel, newModel));
+		assertEquals(100, parallelComparator.getViolatedClauses(false).size());
+		assertEquals(sequentialComparator.getViolatedClauses(false), parallelComparator.getViolatedClauses(false));
+		assertEquals(sequentialComparator.getViolatedClauses(true), parallelComparator.getViolatedClauses(true));
+	}
+
 	private Comparison compare(String fm1, String fm2) throws UnsupportedModelException {
-		final ModelComparator comperator = new ModelComparator(TIMEOUT);
+		return compare(new ModelComparator(TIMEOUT), fm1, fm2);
+	}
+
+	private Comparison compare(ModelComparator comperator, String fm1, String fm2) throws UnsupportedModelException {
 		final IFeatureModel oldModel = FMFactoryManager.getDefaultFactory().createFeatureModel();
 		final GuidslFormat reader = new GuidslFormat();
 		reader.read(oldModel, fm1);
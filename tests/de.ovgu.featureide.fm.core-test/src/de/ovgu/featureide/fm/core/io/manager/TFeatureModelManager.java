@@ -0,0 +1,120 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.manager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+
+/**
+ * Tests the change detection of {@link AFileManager} with a {@link FeatureModelManager}.
+ */
+public class TFeatureModelManager {
+
+	private Path path;
+	private FeatureModelManager manager;
+
+	@Before
+	public void setUp() throws IOException {
+		path = Files.createTempFile("model", ".xml");
+		Files.copy(Paths.get(Commons.getRemoteOrLocalFolder("testFeatureModels/").getPath(), "basic.xml"), path, StandardCopyOption.REPLACE_EXISTING);
+		manager = FeatureModelManager.getInstance(path);
+		assertNotNull(manager);
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		manager.dispose();
+		Files.deleteIfExists(path);
+	}
+
+	@Test
+	public void testModificationCount() {
+		final IFeatureModel featureModel = manager.editObject();
+		final long modificationCount = featureModel.getModificationCount();
+		featureModel.getStructure().getRoot().getFeature().getStructure().setAbstract(false);
+		assertTrue(featureModel.getModificationCount() > modificationCount);
+	}
+
+	@Test
+	public void testHasChanged() {
+		final IFeatureModel featureModel = manager.editObject();
+		assertFalse(manager.hasChanged());
+
+		final IFeature feature = FMFactoryManager.getFactory(featureModel).createFeature(featureModel, "NewFeature");
+		featureModel.addFeature(feature);
+		featureModel.getStructure().getRoot().addChild(feature.getStructure());
+		assertTrue(manager.hasChanged());
+
+		// undo the change, so that the content is equal again
+		featureModel.getStructure().getRoot().removeChild(feature.getStructure());
+		featureModel.deleteFeatureFromTable(feature);
+		assertFalse(manager.hasChanged());
+
+		featureModel.addFeature(feature);
+		featureModel.getStructure().getRoot().addChild(feature.getStructure());
+		assertTrue(manager.save());
+		assertFalse(manager.hasChanged());
+		assertNotNull(manager.getObject().getFeature("NewFeature"));
+	}
+
+	@Test
+	public void testRead() throws IOException {
+		final IFeatureModel persistentModel = manager.getObject();
+
+		// unchanged file content
+		assertTrue(manager.read());
+		assertSame(persistentModel, manager.getObject());
+
+		// external change
+		final String content = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+		final String newContent = content.replaceFirst("name=\"[^\"]*\"", "name=\"RenamedRoot\"");
+		Files.write(path, newContent.getBytes(StandardCharsets.UTF_8));
+		assertTrue(manager.read());
+		assertNotSame(persistentModel, manager.getObject());
+		assertNotNull(manager.getObject().getFeature("RenamedRoot"));
+
+		// the default external change listener overrides the variable object
+		assertNotNull(manager.editObject().getFeature("RenamedRoot"));
+		assertFalse(manager.hasChanged());
+		assertEquals(manager.getObject().getNumberOfFeatures(), manager.editObject().getNumberOfFeatures());
+	}
+
+}
@@ -0,0 +1,182 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.xml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+import de.ovgu.featureide.fm.core.configuration.Configuration;
+import de.ovgu.featureide.fm.core.configuration.SelectableFeature;
+import de.ovgu.featureide.fm.core.configuration.Selection;
+import de.ovgu.featureide.fm.core.configuration.XMLConfFormat;
+
+/**
+ * This is a benchmark that compares the StAX based implementation of {@link XmlFeatureModelFormat} and {@link XMLConfFormat} with the DOM based one. Both
+ * implementations must produce the same results. Latency and allocated memory of each implementation are printed to the standard output.
+ */
+public class BXmlFeatureModelFormat {
+
+	private static final String MODEL = "1000-100.xml";
+
+	private static final int WARM_UP = 20;
+	private static final int RUNS = 50;
+
+	private static final ThreadMXBean THREAD_BEAN = ManagementFactory.getThreadMXBean();
+
+	private static abstract class Task {
+
+		abstract void run(boolean streaming);
+
+	}
+
+	private static String readModel() throws IOException {
+		final File file = new File(Commons.getRemoteOrLocalFolder("benchmarkFeatureModels/"), MODEL);
+		return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * @return The number of bytes allocated by the current thread or {@code -1} if the JVM cannot measure it.
+	 */
+	private static long getAllocatedBytes() {
+		if (THREAD_BEAN instanceof com.sun.management.ThreadMXBean) {
+			final com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) THREAD_BEAN;
+			if (bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+				return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Runs the given task and prints the average latency and the average number of allocated bytes.
+	 *
+	 * @return The average latency in nanoseconds.
+	 */
+	private static long measure(String name, Task task, boolean streaming) {
+		for (int i = 0; i < WARM_UP; i++) {
+			task.run(streaming);
+		}
+		final long startMemory = getAllocatedBytes();
+		final long startTime = System.nanoTime();
+		for (int i = 0; i < RUNS; i++) {
+			task.run(streaming);
+		}
+		final long time = (System.nanoTime() - startTime) / RUNS;
+		final long memory = (startMemory < 0) ? -1 : ((getAllocatedBytes() - startMemory) / RUNS);
+		System.out.println(name + (streaming ? " (StAX): " : " (DOM):  ") + (time / 1000) + " us, " + ((memory < 0) ? "?" : (memory / 1024)) + " KiB allocated");
+		return time;
+	}
+
+	private static XmlFeatureModelFormat createFormat(boolean streaming) {
+		final XmlFeatureModelFormat format = new XmlFeatureModelFormat();
+		format.setStreaming(streaming);
+		return format;
+	}
+
+	private static XMLConfFormat createConfigurationFormat(boolean streaming) {
+		final XMLConfFormat format = new XMLConfFormat();
+		format.setStreaming(streaming);
+		return format;
+	}
+
+	private static IFeatureModel read(String source, boolean streaming) {
+		final IFeatureModel featureModel = FMFactoryManager.getDefaultFactory().createFeatureModel();
+		assertTrue(createFormat(streaming).read(featureModel, source).isEmpty());
+		return featureModel;
+	}
+
+	private static Configuration createConfiguration(IFeatureModel featureModel) {
+		final Configuration configuration = new Configuration(featureModel, false);
+		int i = 0;
+		for (final SelectableFeature feature : configuration.getFeatures()) {
+			if ((i++ % 3) == 0) {
+				configuration.setManual(feature, Selection.UNSELECTED);
+			}
+		}
+		return configuration;
+	}
+
+	@Test
+	public final void BReadFeatureModel() throws IOException {
+		final String source = readModel();
+		final XmlFeatureModelFormat format = createFormat(false);
+		assertEquals(format.write(read(source, false)), format.write(read(source, true)));
+
+		final Task task = new Task() {
+
+			@Override
+			void run(boolean streaming) {
+				read(source, streaming);
+			}
+		};
+		measure("Read " + MODEL, task, false);
+		measure("Read " + MODEL, task, true);
+	}
+
+	@Test
+	public final void BWriteFeatureModel() throws IOException {
+		final IFeatureModel featureModel = read(readModel(), false);
+		assertEquals(createFormat(false).write(featureModel), createFormat(true).write(featureModel));
+
+		final Task task = new Task() {
+
+			@Override
+			void run(boolean streaming) {
+				createFormat(streaming).write(featureModel);
+			}
+		};
+		measure("Write " + MODEL, task, false);
+		measure("Write " + MODEL, task, true);
+	}
+
+	@Test
+	public final void BReadWriteConfiguration() throws IOException {
+		final IFeatureModel featureModel = read(readModel(), false);
+		final String source = createConfigurationFormat(false).write(createConfiguration(featureModel));
+		assertEquals(source, createConfigurationFormat(true).write(createConfiguration(featureModel)));
+
+		final Task task = new Task() {
+
+			@Override
+			void run(boolean streaming) {
+				final Configuration configuration = new Configuration(featureModel, false);
+				final XMLConfFormat format = createConfigurationFormat(streaming);
+				assertTrue(format.read(configuration, source).isEmpty());
+				format.write(configuration);
+			}
+		};
+		measure("Read/write configuration", task, false);
+		measure("Read/write configuration", task, true);
+	}
+
+}
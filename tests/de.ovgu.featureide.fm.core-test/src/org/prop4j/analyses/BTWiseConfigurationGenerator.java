@@ -0,0 +1,91 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.CNFType;
+import de.ovgu.featureide.fm.core.filter.AbstractFeatureFilter;
+import de.ovgu.featureide.fm.core.functional.Functional;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+
+/**
+ * This is a benchmark for the {@link TWiseConfigurationGenerator} on the benchmark feature models. Sample size and generation time are printed to the
+ * standard output. The test cases only check that all valid interactions are covered.
+ */
+public class BTWiseConfigurationGenerator {
+
+	private static final int NUMBER_OF_THREADS = Runtime.getRuntime().availableProcessors();
+
+	private static void generate(String modelName, int t) throws Exception {
+		final IFeatureModel featureModel = Commons.loadBenchmarkFeatureModelFromFile(modelName);
+		final AdvancedNodeCreator nodeCreator = new AdvancedNodeCreator(featureModel, new AbstractFeatureFilter());
+		nodeCreator.setCnfType(CNFType.Regular);
+		nodeCreator.setIncludeBooleanValues(false);
+		final SatInstance satInstance = new SatInstance(nodeCreator.createNodes(), Functional.toList(FeatureUtils.getConcreteFeatureNames(featureModel)));
+
+		final TWiseConfigurationGenerator generator = new TWiseConfigurationGenerator(satInstance, t, Integer.MAX_VALUE);
+		generator.setNumberOfThreads(NUMBER_OF_THREADS);
+		final long start = System.nanoTime();
+		final List<List<String>> configurations = generator.execute(new NullMonitor());
+		final long time = (System.nanoTime() - start) / 1000000;
+
+		final TWiseCoverage coverage = generator.getCoverage();
+		assertEquals(0, coverage.getNumberOfUncovered());
+		System.out.println(modelName + ", t = " + t + ": " + configurations.size() + " configurations, " + time + " ms (" + coverage.getNumberOfCovered()
+			+ " interactions, " + coverage.getNumberOfInvalid() + " invalid, " + NUMBER_OF_THREADS + " threads)");
+	}
+
+	@Test
+	public final void BBerkeleyDB2() throws Exception {
+		generate("berkeley_db_model.xml", 2);
+	}
+
+	@Test
+	public final void BBerkeleyDB3() throws Exception {
+		generate("berkeley_db_model.xml", 3);
+	}
+
+	@Test
+	public final void B100Features3() throws Exception {
+		generate("100-100.xml", 3);
+	}
+
+	@Test
+	public final void B20Features4() throws Exception {
+		generate("20-100.xml", 4);
+	}
+
+	@Test
+	public final void B50Features4() throws Exception {
+		generate("50-100.xml", 4);
+	}
+
+}
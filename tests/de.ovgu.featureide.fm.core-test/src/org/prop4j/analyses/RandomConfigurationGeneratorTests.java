@@ -0,0 +1,138 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Literal;
+import org.prop4j.Or;
+import org.prop4j.analyses.PairWiseConfigurationGenerator.Configuration;
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.fm.core.job.monitor.AMonitor;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+
+/**
+ * Tests for {@link RandomConfigurationGenerator}.
+ */
+public class RandomConfigurationGeneratorTests {
+
+	/**
+	 * Cancels as soon as the generator has created the given number of configurations.
+	 */
+	private static class LimitMonitor extends AMonitor {
+
+		private final RandomConfigurationGenerator generator;
+		private final int limit;
+
+		public LimitMonitor(RandomConfigurationGenerator generator, int limit) {
+			this.generator = generator;
+			this.limit = limit;
+		}
+
+		@Override
+		public void checkCancel() throws MethodCancelException {
+			if (generator.q.size() >= limit) {
+				throw new MethodCancelException();
+			}
+		}
+
+		@Override
+		public void cancel() {}
+
+		@Override
+		public void done() {}
+
+		@Override
+		public IMonitor subTask(int size) {
+			return this;
+		}
+
+		@Override
+		public void worked() {}
+
+		@Override
+		public void setRemainingWork(int work) {}
+
+		@Override
+		public void setTaskName(String name) {}
+
+		@Override
+		public String getTaskName() {
+			return "";
+		}
+
+	}
+
+	@Test
+	public void testAllConfigurations() throws Exception {
+		// A => B, 6 solutions
+		final SatInstance satInstance = new SatInstance(new And(new Or(new Literal("A", false), new Literal("B"))), Arrays.asList("A", "B", "C"));
+		final RandomConfigurationGenerator generator = new RandomConfigurationGenerator(satInstance, Integer.MAX_VALUE);
+		generator.setSeed(3);
+		final List<List<String>> configurations = generator.execute(new NullMonitor());
+		assertEquals(6, configurations.size());
+		assertEquals(6, new HashSet<>(configurations).size());
+	}
+
+	@Test
+	public void testMaximumNumber() throws Exception {
+		// 32 variables, V0 v V1 => 3 * 2^30 solutions (more than Integer.MAX_VALUE, but less than twice as many)
+		final List<String> variables = new ArrayList<>();
+		for (int i = 0; i < 32; i++) {
+			variables.add("V" + i);
+		}
+		final SatInstance satInstance = new SatInstance(new And(new Or("V0", "V1")), variables);
+		assertEquals(BigInteger.valueOf(3).shiftLeft(30), satInstance.getDDNNF().getSampler(new int[0]).getNumberOfSolutions());
+
+		final RandomConfigurationGenerator generator = new RandomConfigurationGenerator(satInstance, Integer.MAX_VALUE);
+		generator.setSeed(5);
+		try {
+			generator.execute(new LimitMonitor(generator, 3000));
+			fail();
+		} catch (final IMonitor.MethodCancelException e) {
+			// the configurations are passed to the queue while they are created
+			assertTrue(generator.q.size() >= 3000);
+			assertTrue(generator.q.size() < 5000);
+		}
+
+		final Set<String> distinctConfigurations = new HashSet<>();
+		for (final Configuration configuration : generator.q) {
+			final int[] model = configuration.getModel();
+			assertTrue((model[0] > 0) || (model[1] > 0));
+			distinctConfigurations.add(Arrays.toString(model));
+		}
+		assertEquals(generator.q.size(), distinctConfigurations.size());
+	}
+
+}
@@ -0,0 +1,157 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Literal;
+import org.prop4j.Or;
+import org.prop4j.analyses.TWiseCoverage.CombinationIterator;
+import org.prop4j.solver.BasicSolver;
+import org.prop4j.solver.ISatSolver;
+import org.prop4j.solver.SatInstance;
+import org.sat4j.specs.ContradictionException;
+
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+
+/**
+ * Tests for {@link TWiseConfigurationGenerator} and {@link TWiseCoverage}.
+ */
+public class TWiseConfigurationGeneratorTests {
+
+	private static final List<String> VARIABLES = Arrays.asList("A", "B", "C", "D", "E", "F", "G");
+
+	// A, B => C, alternative(D, E, F), G is dead
+	private static final SatInstance SAT_INSTANCE = new SatInstance(new And(new Or("A"), new Or(new Literal("B", false), new Literal("C")),
+			new Or("D", "E", "F"), new Or(new Literal("D", false), new Literal("E", false)), new Or(new Literal("D", false), new Literal("F", false)),
+			new Or(new Literal("E", false), new Literal("F", false)), new Or(new Literal("G", false))), VARIABLES);
+
+	private static List<List<String>> generate(int t, int numberOfThreads, List<int[]> predefinedConfigurations) throws Exception {
+		final TWiseConfigurationGenerator generator = new TWiseConfigurationGenerator(SAT_INSTANCE, t, Integer.MAX_VALUE);
+		generator.setNumberOfThreads(numberOfThreads);
+		if (predefinedConfigurations != null) {
+			generator.setPredefinedConfigurations(predefinedConfigurations);
+		}
+		final List<List<String>> configurations = generator.execute(new NullMonitor());
+		assertEquals(0, generator.getCoverage().getNumberOfUncovered());
+		return configurations;
+	}
+
+	/**
+	 * Checks that every configuration is valid and that every valid interaction is covered by at least one configuration.
+	 */
+	private static void checkCoverage(int t, List<List<String>> configurations) throws ContradictionException {
+		final ISatSolver solver = new BasicSolver(SAT_INSTANCE);
+		final List<Set<String>> selections = new ArrayList<>();
+		for (final List<String> configuration : configurations) {
+			final Set<String> selection = new HashSet<>(configuration);
+			for (final String variable : VARIABLES) {
+				solver.assignmentPush(SAT_INSTANCE.getSignedVariable(new Literal(variable, selection.contains(variable))));
+			}
+			assertEquals(ISatSolver.SatResult.TRUE, solver.isSatisfiable());
+			solver.assignmentClear(0);
+			selections.add(selection);
+		}
+
+		final CombinationIterator iterator = new CombinationIterator(VARIABLES.size(), t);
+		while (iterator.next()) {
+			final int[] elements = iterator.getElements();
+			for (int pattern = 0; pattern < (1 << t); pattern++) {
+				for (int j = 0; j < t; j++) {
+					solver.assignmentPush(SAT_INSTANCE.getSignedVariable(new Literal(VARIABLES.get(elements[j]), ((pattern >> j) & 1) != 0)));
+				}
+				final boolean valid = solver.isSatisfiable() == ISatSolver.SatResult.TRUE;
+				solver.assignmentClear(0);
+
+				boolean covered = false;
+				for (final Set<String> selection : selections) {
+					boolean matches = true;
+					for (int j = 0; j < t; j++) {
+						matches &= selection.contains(VARIABLES.get(elements[j])) == (((pattern >> j) & 1) != 0);
+					}
+					covered |= matches;
+				}
+				assertEquals(Arrays.toString(elements) + " " + pattern, valid, covered);
+			}
+		}
+	}
+
+	@Test
+	public void testCombinationIterator() {
+		for (int t = 1; t <= 4; t++) {
+			final CombinationIterator iterator = new CombinationIterator(7, t);
+			long count = 0;
+			while (iterator.next()) {
+				assertEquals(count++, iterator.getIndex());
+			}
+			assertEquals(TWiseCoverage.binomial(7, t), count);
+		}
+		assertFalse(new CombinationIterator(2, 3).next());
+		assertEquals(Long.MAX_VALUE, TWiseCoverage.binomial(1000, 500));
+	}
+
+	@Test
+	public void testCoverage() {
+		final TWiseCoverage coverage = new TWiseCoverage(5, 3);
+		assertEquals(80, coverage.getNumberOfInteractions());
+		assertTrue(coverage.cover(3, 5));
+		assertFalse(coverage.cover(3, 5));
+		assertTrue(coverage.invalidate(9, 7));
+		assertFalse(coverage.cover(9, 7));
+		assertEquals((1 << 5), coverage.getPatterns(3));
+		assertEquals((1 << 7), coverage.getPatterns(9));
+		assertEquals(78, coverage.getNumberOfUncovered());
+	}
+
+	@Test
+	public void testPairWise() throws Exception {
+		checkCoverage(2, generate(2, 1, null));
+	}
+
+	@Test
+	public void testThreeWise() throws Exception {
+		checkCoverage(3, generate(3, 1, null));
+	}
+
+	@Test
+	public void testNumberOfThreads() throws Exception {
+		assertEquals(generate(3, 1, null), generate(3, 3, null));
+	}
+
+	@Test
+	public void testPredefinedConfigurations() throws Exception {
+		final int[] predefined = new int[] { 1, 2, 3, -4, -5, 6, -7 };
+		final List<List<String>> configurations = generate(3, 1, Arrays.<int[]> asList(predefined));
+		assertEquals(SAT_INSTANCE.convertToString(predefined), configurations.get(0));
+		checkCoverage(3, configurations);
+	}
+
+}
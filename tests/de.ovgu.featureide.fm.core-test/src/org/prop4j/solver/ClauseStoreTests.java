@@ -0,0 +1,123 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Or;
+import org.prop4j.SatSolver;
+import org.sat4j.core.VecInt;
+import org.sat4j.minisat.SolverFactory;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.IConstr;
+import org.sat4j.specs.ISolver;
+import org.sat4j.specs.TimeoutException;
+
+/**
+ * Tests for {@link ClauseStore}.
+ */
+public class ClauseStoreTests {
+
+	private static Map<Object, Integer> createMapping(String... variables) {
+		final Map<Object, Integer> varToInt = new HashMap<>();
+		for (int i = 0; i < variables.length; i++) {
+			varToInt.put(variables[i], i + 1);
+		}
+		return varToInt;
+	}
+
+	@Test
+	public void testClauses() {
+		final Node cnf = new And(new Or("A", new Literal("B", false)), new Literal("C", false), new Or("A", "B", "C"));
+		final ClauseStore clauses = new ClauseStore(cnf, createMapping("A", "B", "C"));
+
+		assertEquals(3, clauses.getNumberOfClauses());
+		assertEquals(6, clauses.getNumberOfLiterals());
+		assertArrayEquals(new int[] { 1, -2 }, clauses.getClause(0));
+		assertArrayEquals(new int[] { -3 }, clauses.getClause(1));
+		assertArrayEquals(new int[] { 1, 2, 3 }, clauses.getClause(2));
+
+		assertEquals(2, clauses.getClauseStart(1));
+		assertEquals(3, clauses.getClauseEnd(1));
+		assertEquals(3, clauses.getClauseLength(2));
+		for (int i = 0; i < clauses.getNumberOfClauses(); i++) {
+			final int[] clause = clauses.getClause(i);
+			for (int j = 0; j < clause.length; j++) {
+				assertEquals(clause[j], clauses.getLiteral(clauses.getClauseStart(i) + j));
+			}
+		}
+	}
+
+	@Test
+	public void testSingleClauseAndLiteral() {
+		final Map<Object, Integer> varToInt = createMapping("A", "B");
+
+		final ClauseStore clause = new ClauseStore(new Or(new Literal("A", false), "B"), varToInt);
+		assertEquals(1, clause.getNumberOfClauses());
+		assertArrayEquals(new int[] { -1, 2 }, clause.getClause(0));
+
+		final ClauseStore literal = new ClauseStore(new Literal("B"), varToInt);
+		assertEquals(1, literal.getNumberOfClauses());
+		assertArrayEquals(new int[] { 2 }, literal.getClause(0));
+	}
+
+	@Test(expected = ClassCastException.class)
+	public void testNoCNF() {
+		new ClauseStore(new And(new And("A", "B")), createMapping("A", "B"));
+	}
+
+	@Test
+	public void testAddTo() throws ContradictionException, TimeoutException {
+		final Node cnf = new And(new Or("A", "B"), new Or(new Literal("A", false), "C"), new Literal("B", false));
+		final ClauseStore clauses = new ClauseStore(cnf, createMapping("A", "B", "C"));
+
+		final ISolver solver = SolverFactory.newDefault();
+		solver.newVar(3);
+		final List<IConstr> constraints = new ArrayList<>();
+		clauses.addTo(solver, constraints);
+		assertEquals(clauses.getNumberOfClauses(), constraints.size());
+
+		assertTrue(solver.isSatisfiable());
+		assertEquals(Arrays.asList(1, -2, 3), Arrays.asList(solver.model()[0], solver.model()[1], solver.model()[2]));
+		assertFalse(solver.isSatisfiable(new VecInt(new int[] { -3 })));
+	}
+
+	@Test
+	public void testSatSolver() throws TimeoutException {
+		assertTrue(new SatSolver(new And(new Or("A", "B"), new Literal("A", false)), 1000).isSatisfiable());
+		assertFalse(new SatSolver(new And(new Or("A", "B"), new Literal("A", false), new Literal("B", false)), 1000).isSatisfiable());
+		assertFalse(new SatSolver(new And(new Literal("A"), new Literal("A", false)), 1000).isSatisfiable());
+	}
+
+}
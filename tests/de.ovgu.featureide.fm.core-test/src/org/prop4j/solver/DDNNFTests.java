@@ -0,0 +1,241 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Or;
+
+/**
+ * Tests for {@link DDNNF} and {@link DDNNFCompiler}.
+ */
+public class DDNNFTests {
+
+	// A | B, C => A, D is dead
+	private static final SatInstance SAT_INSTANCE = new SatInstance(new And(new Or("A", "B"), new Or(new Literal("C", false), new Literal("A")),
+			new Or(new Literal("D", false))), Arrays.asList("A", "B", "C", "D"));
+
+	@Test
+	public void testCount() {
+		final DDNNF ddnnf = SAT_INSTANCE.getDDNNF();
+		assertNotNull(ddnnf);
+		assertEquals(BigInteger.valueOf(5), ddnnf.count());
+		assertEquals(BigInteger.valueOf(4), ddnnf.count(new int[] { 1 }));
+		assertEquals(BigInteger.ONE, ddnnf.count(new int[] { -1 }));
+		assertEquals(BigInteger.ZERO, ddnnf.count(new int[] { 4 }));
+		assertEquals(BigInteger.ZERO, ddnnf.count(new int[] { 1, -1 }));
+	}
+
+	@Test
+	public void testCoreDead() {
+		final DDNNF ddnnf = SAT_INSTANCE.getDDNNF();
+		assertArrayEquals(new int[] { -4 }, ddnnf.getCoreDead(new int[0]));
+		assertArrayEquals(new int[] { 2, -3, -4 }, ddnnf.getCoreDead(new int[] { -1 }));
+		assertArrayEquals(new int[] { 1, -4 }, ddnnf.getCoreDead(new int[] { 3 }));
+		assertArrayEquals(new int[0], ddnnf.getCoreDead(new int[] { 4 }));
+	}
+
+	@Test
+	public void testSatisfiable() {
+		final DDNNF ddnnf = SAT_INSTANCE.getDDNNF();
+		assertTrue(ddnnf.isSatisfiable());
+		assertFalse(ddnnf.isSatisfiable(new int[] { -1, -2 }));
+		assertNull(ddnnf.getSolution(new int[] { -1, 3 }));
+		final int[] solution = ddnnf.getSolution(new int[] { -1 });
+		assertArrayEquals(new int[] { -1, 2, -3, -4 }, solution);
+	}
+
+	@Test
+	public void testContradiction() {
+		final SatInstance satInstance = new SatInstance(new And(new Or("A"), new Or(new Literal("A", false))), Arrays.asList("A", "B"));
+		final DDNNF ddnnf = satInstance.getDDNNF();
+		assertFalse(ddnnf.isSatisfiable());
+		assertEquals(BigInteger.ZERO, ddnnf.count());
+		assertTrue(ddnnf.getRandomSolutions(new Random(0), new int[0], 10).isEmpty());
+	}
+
+	@Test
+	public void testUniformSampling() {
+		final DDNNF ddnnf = SAT_INSTANCE.getDDNNF();
+		final Map<String, Integer> frequencies = new HashMap<>();
+		final int numberOfSamples = 5000;
+		for (final int[] solution : ddnnf.getRandomSolutions(new Random(42), new int[0], numberOfSamples)) {
+			assertTrue(isSolution(SAT_INSTANCE.getCnf(), SAT_INSTANCE, solution));
+			final String key = Arrays.toString(solution);
+			final Integer frequency = frequencies.get(key);
+			frequencies.put(key, frequency == null ? 1 : frequency + 1);
+		}
+		assertEquals(5, frequencies.size());
+		for (final Integer frequency : frequencies.values()) {
+			assertTrue(Math.abs(frequency - (numberOfSamples / 5)) < (numberOfSamples / 25));
+		}
+	}
+
+	@Test
+	public void testRandomFormulas() {
+		final Random random = new Random(0);
+		for (int i = 0; i < 200; i++) {
+			final int numberOfVariables = 1 + random.nextInt(8);
+			final List<String> variables = new ArrayList<>();
+			for (int j = 0; j < numberOfVariables; j++) {
+				variables.add("V" + j);
+			}
+			final List<Node> clauses = new ArrayList<>();
+			final int numberOfClauses = random.nextInt(2 * numberOfVariables);
+			for (int j = 0; j < numberOfClauses; j++) {
+				final Node[] literals = new Node[1 + random.nextInt(3)];
+				for (int k = 0; k < literals.length; k++) {
+					literals[k] = new Literal(variables.get(random.nextInt(numberOfVariables)), random.nextBoolean());
+				}
+				clauses.add(new Or(literals));
+			}
+			final Node cnf = new And(clauses.toArray(new Node[0]));
+			final SatInstance satInstance = new SatInstance(cnf, variables);
+			final DDNNF ddnnf = satInstance.getDDNNF();
+
+			final int[] assumptions = random.nextBoolean() ? new int[0] : new int[] { (1 + random.nextInt(numberOfVariables)) * (random.nextBoolean() ? 1 : -1) };
+			final List<int[]> solutions = getAllSolutions(cnf, satInstance, assumptions);
+			assertEquals(BigInteger.valueOf(solutions.size()), ddnnf.count(assumptions));
+			assertEquals(new ModelCounter(satInstance).count(assumptions), ddnnf.count(assumptions));
+			assertEquals(!solutions.isEmpty(), ddnnf.isSatisfiable(assumptions));
+
+			final List<Integer> expectedCoreDead = new ArrayList<>();
+			if (!solutions.isEmpty()) {
+				final int[] commonLiterals = Arrays.copyOf(solutions.get(0), numberOfVariables);
+				SatInstance.updateModel(commonLiterals, solutions);
+				for (final int assumption : assumptions) {
+					commonLiterals[Math.abs(assumption) - 1] = 0;
+				}
+				for (final int literal : commonLiterals) {
+					if (literal != 0) {
+						expectedCoreDead.add(literal);
+					}
+				}
+			}
+			final List<Integer> coreDead = new ArrayList<>();
+			for (final int literal : ddnnf.getCoreDead(assumptions)) {
+				coreDead.add(literal);
+			}
+			assertEquals(expectedCoreDead, coreDead);
+
+			final UniformSampler sampler = ddnnf.getSampler(assumptions);
+			final Set<String> expectedSolutions = new HashSet<>();
+			for (final int[] solution : solutions) {
+				expectedSolutions.add(Arrays.toString(solution));
+			}
+			final Set<String> unrankedSolutions = new HashSet<>();
+			for (int j = 0; j < solutions.size(); j++) {
+				unrankedSolutions.add(Arrays.toString(sampler.getSolution(BigInteger.valueOf(j))));
+			}
+			assertEquals(expectedSolutions, unrankedSolutions);
+		}
+	}
+
+	@Test
+	public void testReproducibleSampling() {
+		// 140 variables with pairwise implications => 3^70 (more than 10^33) solutions
+		final List<String> variables = new ArrayList<>();
+		final List<Node> clauses = new ArrayList<>();
+		for (int i = 0; i < 140; i++) {
+			variables.add("V" + i);
+		}
+		for (int i = 0; i < 140; i += 2) {
+			clauses.add(new Or(new Literal(variables.get(i), false), new Literal(variables.get(i + 1))));
+		}
+		final Node cnf = new And(clauses.toArray(new Node[0]));
+		final SatInstance satInstance = new SatInstance(cnf, variables);
+		final UniformSampler sampler = satInstance.getDDNNF().getSampler(new int[0]);
+		assertEquals(BigInteger.valueOf(3).pow(70), sampler.getNumberOfSolutions());
+
+		final List<int[]> solutions = sampler.getRandomSolutions(7, 2000, true, 1);
+		final List<int[]> parallelSolutions = sampler.getRandomSolutions(7, 2000, true, 4);
+		assertEquals(2000, solutions.size());
+		assertEquals(solutions.size(), parallelSolutions.size());
+		final Set<String> distinctSolutions = new HashSet<>();
+		for (int i = 0; i < solutions.size(); i++) {
+			assertArrayEquals(solutions.get(i), parallelSolutions.get(i));
+			assertTrue(isSolution(cnf, satInstance, solutions.get(i)));
+			distinctSolutions.add(Arrays.toString(solutions.get(i)));
+		}
+		assertEquals(solutions.size(), distinctSolutions.size());
+
+		// all five solutions of the small formula, each exactly once
+		final List<int[]> allSolutions = SAT_INSTANCE.getDDNNF().getSampler(new int[0]).getRandomSolutions(0, 10, true, 2);
+		assertEquals(5, allSolutions.size());
+		final Set<String> distinctAllSolutions = new HashSet<>();
+		for (final int[] solution : allSolutions) {
+			distinctAllSolutions.add(Arrays.toString(solution));
+		}
+		assertEquals(5, distinctAllSolutions.size());
+	}
+
+	private static List<int[]> getAllSolutions(Node cnf, SatInstance satInstance, int[] assumptions) {
+		final int numberOfVariables = satInstance.getNumberOfVariables();
+		final List<int[]> solutions = new ArrayList<>();
+		solutionLoop: for (int i = 0; i < (1 << numberOfVariables); i++) {
+			final int[] solution = new int[numberOfVariables];
+			for (int j = 0; j < numberOfVariables; j++) {
+				solution[j] = ((i >> j) & 1) == 1 ? j + 1 : -(j + 1);
+			}
+			for (final int assumption : assumptions) {
+				if (solution[Math.abs(assumption) - 1] != assumption) {
+					continue solutionLoop;
+				}
+			}
+			if (isSolution(cnf, satInstance, solution)) {
+				solutions.add(solution);
+			}
+		}
+		return solutions;
+	}
+
+	private static boolean isSolution(Node cnf, SatInstance satInstance, int[] solution) {
+		clauseLoop: for (final Node clause : cnf.getChildren()) {
+			for (final int literal : satInstance.convertToInt(clause.getChildren())) {
+				if (solution[Math.abs(literal) - 1] == literal) {
+					continue clauseLoop;
+				}
+			}
+			return false;
+		}
+		return true;
+	}
+
+}
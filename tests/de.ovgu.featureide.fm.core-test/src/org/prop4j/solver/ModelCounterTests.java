@@ -0,0 +1,105 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Or;
+
+/**
+ * Tests for {@link ModelCounter}.
+ */
+public class ModelCounterTests {
+
+	@Test
+	public void testEmptyFormula() {
+		assertCount(4, new And(), "A", "B");
+	}
+
+	@Test
+	public void testUnitClauses() {
+		assertCount(2, new And(new Or("A"), new Or(new Literal("B", false))), "A", "B", "C");
+	}
+
+	@Test
+	public void testContradiction() {
+		assertCount(0, new And(new Or("A"), new Or(new Literal("A", false))), "A", "B");
+	}
+
+	@Test
+	public void testTautologicalClause() {
+		assertCount(4, new And(new Or("A", new Literal("A", false))), "A", "B");
+	}
+
+	@Test
+	public void testIndependentComponents() {
+		// (A | B) has 3 solutions, (C | D) has 3 solutions, E is free
+		assertCount(18, new And(new Or("A", "B"), new Or("C", "D")), "A", "B", "C", "D", "E");
+	}
+
+	@Test
+	public void testAlternative() {
+		final Node alternative = new And(new Or("A", "B", "C"), new Or(new Literal("A", false), new Literal("B", false)), new Or(new Literal("A", false), new Literal("C", false)),
+				new Or(new Literal("B", false), new Literal("C", false)));
+		assertCount(3, alternative, "A", "B", "C");
+	}
+
+	@Test
+	public void testAssumptions() {
+		final SatInstance satInstance = new SatInstance(new And(new Or("A", "B"), new Or("C", "D")), Arrays.asList("A", "B", "C", "D"));
+		final ModelCounter counter = new ModelCounter(satInstance);
+		assertEquals(BigInteger.valueOf(9), counter.count());
+		assertEquals(BigInteger.valueOf(6), counter.count(new int[] { satInstance.getVariable("A") }));
+		assertEquals(BigInteger.valueOf(3), counter.count(new int[] { -satInstance.getVariable("A") }));
+		assertEquals(BigInteger.ONE, counter.count(new int[] { -satInstance.getVariable("A"), -satInstance.getVariable("C") }));
+		assertEquals(BigInteger.ZERO, counter.count(new int[] { -satInstance.getVariable("A"), -satInstance.getVariable("B") }));
+	}
+
+	@Test
+	public void testLargeResult() {
+		final List<String> variables = new ArrayList<>();
+		final List<Node> clauses = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			variables.add("A" + i);
+			variables.add("B" + i);
+			clauses.add(new Or(new Literal("A" + i, false), new Literal("B" + i)));
+		}
+		final BigInteger result = new ModelCounter(new SatInstance(new And(clauses.toArray(new Node[0])), variables)).count();
+		assertEquals(BigInteger.valueOf(3).pow(100), result);
+		assertTrue(result.bitLength() > Long.SIZE);
+	}
+
+	private static void assertCount(long expected, Node cnf, String... variables) {
+		final ModelCounter counter = new ModelCounter(new SatInstance(cnf, Arrays.asList(variables)));
+		assertEquals(BigInteger.valueOf(expected), counter.count());
+	}
+
+}
@@ -0,0 +1,188 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Or;
+import org.prop4j.analyses.FeatureModelAnalysis;
+import org.prop4j.solver.ISatSolver.SatResult;
+import org.sat4j.core.VecInt;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.IConstr;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+import de.ovgu.featureide.fm.core.io.manager.FeatureModelManager;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests for {@link PortfolioSolver}.
+ */
+public class PortfolioSolverTests {
+
+	@Test
+	public void testRandomFormulas() throws ContradictionException {
+		final Random random = new Random(0);
+		for (int i = 0; i < 100; i++) {
+			final SatInstance satInstance = createRandomInstance(random, 30, 120);
+			final BasicSolver basicSolver;
+			try {
+				basicSolver = new BasicSolver(satInstance);
+			} catch (final ContradictionException e) {
+				continue;
+			}
+			final PortfolioSolver portfolioSolver = new PortfolioSolver(satInstance, 4);
+			for (int j = 0; j < 5; j++) {
+				final int assumption = (1 + random.nextInt(satInstance.getNumberOfVariables())) * (random.nextBoolean() ? 1 : -1);
+				basicSolver.assignmentPush(assumption);
+				portfolioSolver.assignmentPush(assumption);
+				final SatResult expected = basicSolver.isSatisfiable();
+				assertEquals(expected, portfolioSolver.isSatisfiable());
+				if (expected == SatResult.TRUE) {
+					final int[] model = portfolioSolver.getModel();
+					assertTrue(isSolution(satInstance, model));
+					for (final int literal : portfolioSolver.getAssignmentArray(0, portfolioSolver.getAssignment().size())) {
+						assertEquals(literal, model[Math.abs(literal) - 1]);
+					}
+				} else {
+					assertNull(portfolioSolver.findModel());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testAddClauses() throws ContradictionException {
+		final SatInstance satInstance = new SatInstance(new And(new Or("A", "B")), Arrays.asList("A", "B"));
+		final PortfolioSolver solver = new PortfolioSolver(satInstance, 3);
+		solver.assignmentPush(-1);
+		assertEquals(SatResult.TRUE, solver.isSatisfiable());
+		solver.addClauses(new And(new Or(new Literal("B", false))));
+		for (int i = 0; i < 10; i++) {
+			assertEquals(SatResult.FALSE, solver.isSatisfiable());
+		}
+		solver.assignmentClear(0);
+		assertEquals(SatResult.TRUE, solver.isSatisfiable());
+		assertEquals(Arrays.asList(1, -2), Arrays.asList(solver.getModel()[0], solver.getModel()[1]));
+	}
+
+	@Test
+	public void testClone() throws ContradictionException {
+		final Random random = new Random(1);
+		final SatInstance satInstance = createRandomInstance(random, 40, 100);
+		final PortfolioSolver solver = new PortfolioSolver(satInstance, 2);
+		final PortfolioSolver clone = solver.clone();
+		assertEquals(solver.getNumberOfSolvers(), clone.getNumberOfSolvers());
+		assertEquals(solver.isSatisfiable(), clone.isSatisfiable());
+	}
+
+	@Test
+	public void testBlockingClauses() throws ContradictionException {
+		// A v B, C to E free => 24 solutions
+		final SatInstance satInstance = new SatInstance(new And(new Or("A", "B")), Arrays.asList("A", "B", "C", "D", "E"));
+		final PortfolioSolver solver = new PortfolioSolver(satInstance, 4);
+		final Set<String> solutions = new HashSet<>();
+		final List<IConstr> blockingClauses = new ArrayList<>();
+		while (solver.isSatisfiable() == SatResult.TRUE) {
+			final int[] model = solver.getModel();
+			// every solver of the portfolio must know the previous blocking clauses
+			assertTrue(solutions.add(Arrays.toString(model)));
+			blockingClauses.add(solver.getInternalSolver().addBlockingClause(new VecInt(SatInstance.negateModel(model))));
+			assertTrue(solutions.size() <= 24);
+		}
+		assertEquals(24, solutions.size());
+
+		final IConstr lastBlockingClause = blockingClauses.get(blockingClauses.size() - 1);
+		assertTrue(solver.getInternalSolver().removeConstr(lastBlockingClause));
+		for (int i = 0; i < 10; i++) {
+			assertEquals(SatResult.TRUE, solver.isSatisfiable());
+		}
+	}
+
+	@Test
+	public void testValidityAnalysis() {
+		for (final File file : Commons.getRemoteOrLocalFolder("analyzefeaturemodels/").listFiles()) {
+			if (file.getName().endsWith(".xml")) {
+				final IFeatureModel fm = FeatureModelManager.load(file.toPath()).getObject();
+				assertEquals(file.getName(), isValid(fm, false), isValid(fm, true));
+				final IFeature root = FeatureUtils.getRoot(fm);
+				fm.addConstraint(FMFactoryManager.getFactory(fm).createConstraint(fm, new Literal(root.getName(), false)));
+				assertFalse(file.getName(), isValid(fm, true));
+			}
+		}
+	}
+
+	private static boolean isValid(IFeatureModel fm, boolean usePortfolioSolver) {
+		final FeatureModelAnalysis analysis = new FeatureModelAnalysis(fm);
+		analysis.setCalculateConstraints(false);
+		analysis.setUsePortfolioSolver(usePortfolioSolver);
+		LongRunningWrapper.runMethod(analysis);
+		return analysis.isValid();
+	}
+
+	private static SatInstance createRandomInstance(Random random, int numberOfVariables, int numberOfClauses) {
+		final List<String> variables = new ArrayList<>();
+		for (int j = 0; j < numberOfVariables; j++) {
+			variables.add("V" + j);
+		}
+		final List<Node> clauses = new ArrayList<>();
+		for (int j = 0; j < numberOfClauses; j++) {
+			final Node[] literals = new Node[3];
+			for (int k = 0; k < literals.length; k++) {
+				literals[k] = new Literal(variables.get(random.nextInt(numberOfVariables)), random.nextBoolean());
+			}
+			clauses.add(new Or(literals));
+		}
+		return new SatInstance(new And(clauses.toArray(new Node[0])), variables);
+	}
+
+	private static boolean isSolution(SatInstance satInstance, int[] solution) {
+		clauseLoop: for (final Node clause : satInstance.getCnf().getChildren()) {
+			for (final int literal : satInstance.convertToInt(clause.getChildren())) {
+				if (solution[Math.abs(literal) - 1] == literal) {
+					continue clauseLoop;
+				}
+			}
+			return false;
+		}
+		return true;
+	}
+
+}
@@ -0,0 +1,185 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.ui.actions.generator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import de.ovgu.featureide.ui.actions.generator.BuildPipeline.Stage;
+
+/**
+ * Tests for the {@link Stage stages} of the {@link BuildPipeline}.
+ */
+public class TBuildPipeline {
+
+	private static final long TIMEOUT = 10;
+
+	/**
+	 * Collects all products that it processes.
+	 */
+	private static class CollectingStage extends Stage<Integer> {
+
+		final List<Integer> products = Collections.synchronizedList(new ArrayList<Integer>());
+
+		CollectingStage(int parallelism) {
+			super("Collect", parallelism, null);
+		}
+
+		@Override
+		protected void process(Integer product) throws Exception {
+			products.add(product);
+		}
+	}
+
+	/**
+	 * Passes all products to the next stage.
+	 */
+	private static class ForwardingStage extends Stage<Integer> {
+
+		private final Stage<Integer> successor;
+
+		ForwardingStage(int parallelism, Stage<Integer> successor) {
+			super("Forward", parallelism, successor);
+			this.successor = successor;
+		}
+
+		@Override
+		protected void process(Integer product) throws Exception {
+			successor.put(product);
+		}
+	}
+
+	private final List<Stage<?>> stages = new ArrayList<>();
+
+	private <S extends Stage<?>> S start(S stage) {
+		stages.add(stage);
+		stage.start();
+		return stage;
+	}
+
+	@After
+	public void shutdown() {
+		for (final Stage<?> stage : stages) {
+			stage.shutdown();
+		}
+	}
+
+	@Test
+	public void testCompletion() throws InterruptedException {
+		final CollectingStage last = start(new CollectingStage(2));
+		final ForwardingStage first = start(new ForwardingStage(3, last));
+		for (int i = 0; i < 100; i++) {
+			first.put(i);
+		}
+		first.close();
+
+		assertTrue(last.awaitCompletion(TIMEOUT, TimeUnit.SECONDS));
+		assertTrue(first.awaitCompletion(0, TimeUnit.SECONDS));
+		assertEquals(100, first.getProcessed());
+		assertEquals(100, last.getProcessed());
+		assertEquals(0, last.getFailed());
+		assertEquals(100, last.products.size());
+		assertEquals(0, last.getQueueSize());
+	}
+
+	@Test
+	public void testFailures() throws InterruptedException {
+		final CollectingStage last = start(new CollectingStage(1));
+		final Stage<Integer> first = start(new Stage<Integer>("Fail", 2, last) {
+
+			@Override
+			protected void process(Integer product) throws Exception {
+				switch (product % 3) {
+				case 1:
+					throw new Exception(product.toString());
+				case 2:
+					// errors must neither stop the worker nor keep the stage from completing
+					throw new AssertionError(product);
+				default:
+					last.put(product);
+				}
+			}
+		});
+		for (int i = 0; i < 30; i++) {
+			first.put(i);
+		}
+		first.close();
+
+		assertTrue(last.awaitCompletion(TIMEOUT, TimeUnit.SECONDS));
+		assertEquals(10, first.getProcessed());
+		assertEquals(20, first.getFailed());
+		assertEquals(10, last.getProcessed());
+		assertEquals(10, last.products.size());
+	}
+
+	@Test
+	public void testBackPressure() throws InterruptedException {
+		final CountDownLatch release = new CountDownLatch(1);
+		final CollectingStage last = start(new CollectingStage(1) {
+
+			@Override
+			protected void process(Integer product) throws Exception {
+				release.await();
+				super.process(product);
+			}
+		});
+		final ForwardingStage first = start(new ForwardingStage(1, last));
+		final Thread producer = new Thread() {
+
+			@Override
+			public void run() {
+				try {
+					for (int i = 0; i < 100; i++) {
+						first.put(i);
+					}
+					first.close();
+				} catch (final InterruptedException e) {
+					// the test failed
+				}
+			}
+		};
+		producer.start();
+
+		// both queues fill up, but the blocked stage does not cause more products to be buffered
+		producer.join(500);
+		assertTrue(producer.isAlive());
+		assertFalse(last.awaitCompletion(0, TimeUnit.SECONDS));
+		assertTrue(first.getQueueSize() <= 2);
+		assertTrue(last.getQueueSize() <= 2);
+		assertTrue(first.getProcessed() <= 3);
+
+		release.countDown();
+		producer.join(TimeUnit.SECONDS.toMillis(TIMEOUT));
+		assertTrue(last.awaitCompletion(TIMEOUT, TimeUnit.SECONDS));
+		assertEquals(100, last.products.size());
+	}
+
+}
@@ -0,0 +1,286 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.ui.actions.generator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import javax.lang.model.SourceVersion;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticListener;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.ovgu.featureide.ui.actions.generator.InMemoryCompiler.Problem;
+import de.ovgu.featureide.ui.actions.generator.InMemoryCompiler.Result;
+import de.ovgu.featureide.ui.actions.generator.InMemoryCompiler.Results;
+
+/**
+ * Tests the problems, class files, and reused results of the {@link InMemoryCompiler}.
+ */
+public class TInMemoryCompiler {
+
+	private static final String VALID = "package pkg;\n\npublic class Main {\n\tpublic static int get() {\n\t\treturn 1;\n\t}\n}\n";
+	private static final String INVALID = "package pkg;\n\npublic class Main {\n\tpublic static int get() {\n\t\treturn \"1\";\n\t}\n}\n";
+
+	/**
+	 * Reports the problems of the given compiler for new file objects like the compiler of the JDT does.
+	 */
+	private static class ForeignSourceCompiler implements JavaCompiler {
+
+		private final JavaCompiler compiler;
+
+		ForeignSourceCompiler(JavaCompiler compiler) {
+			this.compiler = compiler;
+		}
+
+		@Override
+		public CompilationTask getTask(Writer out, JavaFileManager fileManager, final DiagnosticListener<? super JavaFileObject> diagnosticListener,
+				Iterable<String> options, Iterable<String> classes, Iterable<? extends JavaFileObject> compilationUnits) {
+			return compiler.getTask(out, fileManager, new DiagnosticListener<JavaFileObject>() {
+
+				@Override
+				public void report(final Diagnostic<? extends JavaFileObject> diagnostic) {
+					diagnosticListener.report(new Diagnostic<JavaFileObject>() {
+
+						@Override
+						public Kind getKind() {
+							return diagnostic.getKind();
+						}
+
+						@Override
+						public JavaFileObject getSource() {
+							final JavaFileObject source = diagnostic.getSource();
+							return source == null ? null : new SimpleJavaFileObject(new File(source.toUri()).toURI(), JavaFileObject.Kind.SOURCE) {};
+						}
+
+						@Override
+						public long getPosition() {
+							return diagnostic.getPosition();
+						}
+
+						@Override
+						public long getStartPosition() {
+							return diagnostic.getStartPosition();
+						}
+
+						@Override
+						public long getEndPosition() {
+							return diagnostic.getEndPosition();
+						}
+
+						@Override
+						public long getLineNumber() {
+							return diagnostic.getLineNumber();
+						}
+
+						@Override
+						public long getColumnNumber() {
+							return diagnostic.getColumnNumber();
+						}
+
+						@Override
+						public String getCode() {
+							return diagnostic.getCode();
+						}
+
+						@Override
+						public String getMessage(Locale locale) {
+							return diagnostic.getMessage(locale);
+						}
+					});
+				}
+			}, options, classes, compilationUnits);
+		}
+
+		@Override
+		public StandardJavaFileManager getStandardFileManager(DiagnosticListener<? super JavaFileObject> diagnosticListener, Locale locale, Charset charset) {
+			return compiler.getStandardFileManager(diagnosticListener, locale, charset);
+		}
+
+		@Override
+		public int isSupportedOption(String option) {
+			return compiler.isSupportedOption(option);
+		}
+
+		@Override
+		public int run(InputStream in, OutputStream out, OutputStream err, String... arguments) {
+			return compiler.run(in, out, err, arguments);
+		}
+
+		@Override
+		public Set<SourceVersion> getSourceVersions() {
+			return compiler.getSourceVersions();
+		}
+	}
+
+	private Path directory;
+	private final List<InMemoryCompiler> compilers = new ArrayList<>();
+
+	@Before
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("inmemorycompiler");
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		for (final InMemoryCompiler compiler : compilers) {
+			compiler.close();
+		}
+		Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				Files.delete(file);
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+				Files.delete(dir);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	@Test
+	public void testProblems() throws IOException {
+		assertProblem(createCompiler(ToolProvider.getSystemJavaCompiler(), null));
+	}
+
+	@Test
+	public void testProblemsOfOtherFileObjects() throws IOException {
+		assertProblem(createCompiler(new ForeignSourceCompiler(ToolProvider.getSystemJavaCompiler()), null));
+	}
+
+	@Test
+	public void testClasses() throws IOException {
+		final InMemoryCompiler compiler = createCompiler(ToolProvider.getSystemJavaCompiler(), null);
+		final File main = write("product/pkg/Main.java", VALID);
+
+		final Result result = compiler.compile(new File(directory.toFile(), "product"), Arrays.asList(main), true);
+		assertTrue(result.success);
+		for (final Problem problem : result.problems) {
+			// e.g., the compiler warns about the source level
+			assertTrue(problem.warning);
+		}
+		assertEquals(Collections.singleton("pkg/Main.class"), result.classes.keySet());
+
+		final File output = new File(directory.toFile(), "output");
+		InMemoryCompiler.writeClasses(result, output);
+		assertTrue(new File(output, "pkg/Main.class").isFile());
+
+		assertTrue(compiler.compile(new File(directory.toFile(), "product"), Arrays.asList(main), false).classes.isEmpty());
+	}
+
+	@Test
+	public void testReuse() throws IOException {
+		final Results results = new Results();
+		final InMemoryCompiler compiler = createCompiler(ToolProvider.getSystemJavaCompiler(), results);
+		final File product1 = new File(directory.toFile(), "product1");
+		final File main1 = write("product1/pkg/Main.java", VALID);
+		final File product2 = new File(directory.toFile(), "product2");
+		final File main2 = write("product2/pkg/Main.java", VALID);
+
+		final Result result = compiler.compile(product1, Arrays.asList(main1), true);
+		assertEquals(1, results.getMisses());
+		assertEquals(0, results.getHits());
+
+		// same relative paths and contents
+		assertSame(result, compiler.compile(product2, Arrays.asList(main2), true));
+		assertEquals(1, results.getMisses());
+		assertEquals(1, results.getHits());
+
+		// other content
+		write("product2/pkg/Main.java", INVALID);
+		final Result invalidResult = compiler.compile(product2, Arrays.asList(main2), true);
+		assertNotSame(result, invalidResult);
+		assertFalse(invalidResult.success);
+		assertEquals(2, results.getMisses());
+
+		// other relative path
+		final File moved = write("product1/other/Main.java", VALID);
+		assertNotSame(result, compiler.compile(product1, Arrays.asList(moved), true));
+		assertEquals(3, results.getMisses());
+		assertEquals(1, results.getHits());
+	}
+
+	private void assertProblem(InMemoryCompiler compiler) throws IOException {
+		final File main = write("product/pkg/Main.java", INVALID);
+		final File other = write("product/pkg/Other.java", "package pkg;\n\nclass Other {}\n");
+
+		final Result result = compiler.compile(new File(directory.toFile(), "product"), Arrays.asList(main, other), false);
+		assertFalse(result.success);
+		assertFalse(result.isFailedWithoutErrors());
+		final List<Problem> errors = new ArrayList<>();
+		for (final Problem problem : result.problems) {
+			if (!problem.warning) {
+				errors.add(problem);
+			}
+		}
+		assertEquals(1, errors.size());
+		assertEquals("pkg/Main.java", errors.get(0).path);
+		assertEquals(5, errors.get(0).line);
+	}
+
+	private InMemoryCompiler createCompiler(JavaCompiler compiler, Results results) throws IOException {
+		final InMemoryCompiler inMemoryCompiler = new InMemoryCompiler(compiler, Collections.<File> emptyList(), results);
+		compilers.add(inMemoryCompiler);
+		return inMemoryCompiler;
+	}
+
+	private File write(String path, String content) throws IOException {
+		final Path file = directory.resolve(path);
+		Files.createDirectories(file.getParent());
+		Files.write(file, content.getBytes(Charset.defaultCharset()));
+		return file.toFile();
+	}
+
+}